@@ -0,0 +1,192 @@
+package org.lucee.toolbox.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Source files the benchmarks run over.
+ * "test-files" is the fixture tree of the main project, "large" is a pair of synthetic
+ * 10k line files (a script component and a tag template) for the large-file hot paths,
+ * "generated" is a seeded {@link CorpusGenerator} tree.
+ */
+public final class BenchmarkCorpus {
+    
+    /** Location of the fixture tree, relative to the benchmarks directory by default */
+    public static final String CORPUS_PROPERTY = "toolbox.corpus";
+    
+    /** Number of files and seed of the generated corpus */
+    public static final String GENERATED_FILES_PROPERTY = "toolbox.generated.files";
+    public static final String GENERATED_SEED_PROPERTY = "toolbox.generated.seed";
+    
+    private static final int LARGE_FILE_LINES = 10_000;
+    
+    /**
+     * One file of the corpus
+     */
+    public static final class SourceFile {
+        private final String path;
+        private final String content;
+        
+        SourceFile(String path, String content) {
+            this.path = path;
+            this.content = content;
+        }
+        
+        public String getPath() {
+            return path;
+        }
+        
+        public String getContent() {
+            return content;
+        }
+    }
+    
+    private BenchmarkCorpus() {
+        // Utility class
+    }
+    
+    /**
+     * Load a corpus by name
+     */
+    public static List<SourceFile> load(String name) {
+        switch (name) {
+            case "test-files":
+                return loadDirectory(Paths.get(System.getProperty(CORPUS_PROPERTY, "../test-files")));
+            case "large":
+                List<SourceFile> files = new ArrayList<>();
+                files.add(new SourceFile("Large.cfc", largeComponent(LARGE_FILE_LINES)));
+                files.add(new SourceFile("large.cfm", largeTemplate(LARGE_FILE_LINES)));
+                return files;
+            case "generated":
+                return generated(Integer.getInteger(GENERATED_FILES_PROPERTY, 500),
+                        Long.getLong(GENERATED_SEED_PROPERTY, 42L));
+            default:
+                throw new IllegalArgumentException("Unknown corpus: " + name + " (use test-files, large or generated)");
+        }
+    }
+    
+    /**
+     * A generated corpus, identical for the same file count and seed
+     */
+    public static List<SourceFile> generated(int fileCount, long seed) {
+        CorpusGenerator generator = new CorpusGenerator(new CorpusGenerator.Options().seed(seed).files(fileCount));
+        List<SourceFile> files = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            CorpusGenerator.GeneratedFile file = generator.generate(i);
+            files.add(new SourceFile(file.getPath(), file.getContent()));
+        }
+        return files;
+    }
+    
+    /**
+     * Write a corpus to a directory, for benchmarks that read from disk
+     */
+    public static List<Path> writeTo(List<SourceFile> files, Path directory) throws IOException {
+        List<Path> written = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            SourceFile file = files.get(i);
+            String fileName = Paths.get(file.getPath()).getFileName().toString();
+            Path target = directory.resolve(i + "_" + fileName);
+            Files.writeString(target, file.getContent(), StandardCharsets.UTF_8);
+            written.add(target);
+        }
+        return written;
+    }
+    
+    private static List<SourceFile> loadDirectory(Path root) {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalStateException("Corpus directory not found: " + root.toAbsolutePath()
+                    + " (set -D" + CORPUS_PROPERTY + "=<dir>)");
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            List<SourceFile> files = new ArrayList<>();
+            for (Path path : paths.filter(Files::isRegularFile).filter(BenchmarkCorpus::isCfml).sorted().toList()) {
+                files.add(new SourceFile(path.toString(), Files.readString(path, StandardCharsets.UTF_8)));
+            }
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static boolean isCfml(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".cfc") || name.endsWith(".cfm") || name.endsWith(".cfml");
+    }
+    
+    /**
+     * A script component of roughly the given number of lines, mixing clean and untidy functions
+     */
+    static String largeComponent(int lines) {
+        StringBuilder sb = new StringBuilder(lines * 40);
+        sb.append("component accessors=\"true\" {\n\n");
+        sb.append("    property name=\"userService\";\n\n");
+        int function = 0;
+        int lineCount = 0;
+        while (lineCount < lines) {
+            int blockStart = sb.length();
+            if (function % 3 == 0) {
+                sb.append("    public struct function getItem").append(function).append("(required numeric id) {\n");
+                sb.append("        var result = {};\n");
+                sb.append("        for (var i = 1; i <= arguments.id; i++) {\n");
+                sb.append("            result[\"key\" & i] = i * 2;\n");
+                sb.append("        }\n");
+                sb.append("        return result;\n");
+                sb.append("    }\n\n");
+            } else {
+                sb.append("    function process_item").append(function).append("(data, Extra_Flag){   \n");
+                sb.append("      if(data.len()>0)\n");
+                sb.append("        total=data[1]+data[2]*3;\n");
+                sb.append("      var label = \"a-b=c\"; // trailing comment   \n");
+                sb.append("      return total;\n");
+                sb.append("    }\n\n\n\n");
+            }
+            lineCount += countLines(sb, blockStart);
+            function++;
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+    
+    /**
+     * A tag-based template of roughly the given number of lines
+     */
+    static String largeTemplate(int lines) {
+        StringBuilder sb = new StringBuilder(lines * 40);
+        sb.append("<cfparam name=\"url.page\" default=\"1\">\n");
+        int block = 0;
+        int lineCount = 0;
+        while (lineCount < lines) {
+            int blockStart = sb.length();
+            sb.append("<cfif url.page EQ ").append(block).append(">\n");
+            sb.append("    <cfset pageTitle=\"Page ").append(block).append("\">\n");
+            sb.append("    <div class=\"content\">\n");
+            sb.append("        <cfoutput>#encodeForHTML(pageTitle)#</cfoutput>   \n");
+            sb.append("    </div>\n");
+            sb.append("</cfif>\n");
+            sb.append("<cfscript>\n");
+            sb.append("    items_").append(block).append(" = queryExecute(\"SELECT * FROM items WHERE id=\" & url.page);\n");
+            sb.append("</cfscript>\n");
+            lineCount += countLines(sb, blockStart);
+            block++;
+        }
+        return sb.toString();
+    }
+    
+    private static int countLines(CharSequence text, int from) {
+        int count = 0;
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,46 @@
+package org.lucee.toolbox.benchmarks;
+
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.parser.CfmlParser;
+import org.lucee.toolbox.core.parser.ParseException;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.impl.RegexParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared setup for the benchmark states
+ */
+final class BenchmarkSupport {
+    
+    /** Configuration file to benchmark with; the built-in defaults are used when it does not exist */
+    static final String CONFIG_PROPERTY = "toolbox.config";
+    
+    private BenchmarkSupport() {
+        // Utility class
+    }
+    
+    static ConfigurationManager configuration() throws IOException {
+        ConfigurationManager configManager = new ConfigurationManager();
+        configManager.loadConfiguration(System.getProperty(CONFIG_PROPERTY, "lucee-toolbox.json"));
+        return configManager;
+    }
+    
+    /**
+     * Parse a corpus with the regex parser, so rule benchmarks measure only the rules. A ParseResult memoizes
+     * what rules derive from it, so call this for each invocation rather than sharing the results across them.
+     */
+    static List<ParseResult> parse(List<BenchmarkCorpus.SourceFile> files) throws ParseException {
+        return parse(new RegexParser(), files);
+    }
+    
+    static List<ParseResult> parse(CfmlParser parser, List<BenchmarkCorpus.SourceFile> files) throws ParseException {
+        List<ParseResult> results = new ArrayList<>(files.size());
+        for (BenchmarkCorpus.SourceFile file : files) {
+            results.add(parser.parse(file.getContent(), file.getPath()));
+        }
+        return results;
+    }
+}
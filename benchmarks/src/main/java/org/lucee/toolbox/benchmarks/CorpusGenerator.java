@@ -0,0 +1,569 @@
+package org.lucee.toolbox.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic, seedable generator of synthetic CFML source trees for scale testing.
+ * Produces script and tag components, templates, nested packages, long functions, mixed
+ * encodings and byte order marks, with a configurable size distribution and violation density.
+ * Every file is derived from (seed, index) alone, so corpora are reproducible and can be
+ * generated in parallel. Depends on the JDK only, so it can run as a single-file program:
+ * java CorpusGenerator.java --out DIR --files 10000
+ */
+public final class CorpusGenerator {
+    
+    private static final String[] PACKAGES = {
+        "model", "service", "handlers", "views", "api", "admin", "util", "legacy", "reports", "billing",
+        "security", "orders", "catalog", "users", "shared", "integration"
+    };
+    
+    private static final String[] NOUNS = {
+        "User", "Order", "Invoice", "Product", "Account", "Report", "Session", "Payment", "Customer",
+        "Address", "Cart", "Shipment", "Audit", "Token", "Role", "Message", "Category", "Price"
+    };
+    
+    private static final String[] VERBS = {
+        "get", "save", "delete", "find", "update", "create", "load", "validate", "process", "build",
+        "format", "calculate", "send", "parse", "list", "sync"
+    };
+    
+    private static final String[] TYPES = {"string", "numeric", "boolean", "struct", "array", "query", "any", "date"};
+    
+    // Non-ASCII text, so encoding detection has something to decide on
+    private static final String[] ACCENTED = {"Caf\u00e9", "Z\u00fcrich", "\u00c5ngstr\u00f6m", "na\u00efve", "Stra\u00dfe", "r\u00e9sum\u00e9", "M\u00e1laga"};
+    
+    /**
+     * Generation settings
+     */
+    public static final class Options {
+        long seed = 42L;
+        int files = 1000;
+        int meanLines = 150;
+        String distribution = "lognormal";
+        double violationDensity = 0.2;
+        double templateRatio = 0.3;
+        double tagComponentRatio = 0.2;
+        double bomRatio = 0.05;
+        double latin1Ratio = 0.05;
+        double utf16Ratio = 0.01;
+        double longFunctionRatio = 0.05;
+        int maxDepth = 3;
+        
+        public Options seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+        
+        public Options files(int files) {
+            this.files = files;
+            return this;
+        }
+        
+        public Options meanLines(int meanLines) {
+            this.meanLines = meanLines;
+            return this;
+        }
+        
+        public Options violationDensity(double violationDensity) {
+            this.violationDensity = violationDensity;
+            return this;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "{\"seed\": %d, \"files\": %d, \"meanLines\": %d, \"distribution\": \"%s\", \"violationDensity\": %s, "
+                    + "\"templateRatio\": %s, \"tagComponentRatio\": %s, \"bomRatio\": %s, \"latin1Ratio\": %s, "
+                    + "\"utf16Ratio\": %s, \"longFunctionRatio\": %s, \"maxDepth\": %d}",
+                    seed, files, meanLines, distribution, violationDensity, templateRatio, tagComponentRatio,
+                    bomRatio, latin1Ratio, utf16Ratio, longFunctionRatio, maxDepth);
+        }
+    }
+    
+    /**
+     * One generated file: path relative to the corpus root, text, and how it is encoded on disk
+     */
+    public static final class GeneratedFile {
+        private final String path;
+        private final String content;
+        private final Charset charset;
+        private final boolean bom;
+        
+        GeneratedFile(String path, String content, Charset charset, boolean bom) {
+            this.path = path;
+            this.content = content;
+            this.charset = charset;
+            this.bom = bom;
+        }
+        
+        public String getPath() {
+            return path;
+        }
+        
+        public String getContent() {
+            return content;
+        }
+        
+        public Charset getCharset() {
+            return charset;
+        }
+        
+        public boolean hasByteOrderMark() {
+            return bom;
+        }
+        
+        public byte[] toBytes() {
+            byte[] body = content.getBytes(charset);
+            if (!bom) {
+                return body;
+            }
+            byte[] mark = charset.equals(StandardCharsets.UTF_16LE)
+                    ? new byte[] {(byte) 0xFF, (byte) 0xFE}
+                    : new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+            byte[] bytes = new byte[mark.length + body.length];
+            System.arraycopy(mark, 0, bytes, 0, mark.length);
+            System.arraycopy(body, 0, bytes, mark.length, body.length);
+            return bytes;
+        }
+    }
+    
+    private final Options options;
+    
+    public CorpusGenerator(Options options) {
+        this.options = options;
+    }
+    
+    /**
+     * Generate the file with the given index. Depends only on the options and the index.
+     */
+    public GeneratedFile generate(int index) {
+        SplittableRandom random = new SplittableRandom(mix(options.seed, index));
+        FileWriter writer = new FileWriter(random, index);
+        return writer.write();
+    }
+    
+    /**
+     * Write the whole corpus below a directory, plus a corpus.json manifest. Returns bytes written.
+     */
+    public long writeTo(Path root, boolean parallel) throws IOException {
+        Files.createDirectories(root);
+        AtomicLong bytes = new AtomicLong();
+        IntStream indexes = IntStream.range(0, options.files);
+        (parallel ? indexes.parallel() : indexes).forEach(index -> {
+            GeneratedFile file = generate(index);
+            Path target = root.resolve(file.getPath());
+            try {
+                Files.createDirectories(target.getParent());
+                byte[] content = file.toBytes();
+                Files.write(target, content);
+                bytes.addAndGet(content.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Files.writeString(root.resolve("corpus.json"), options + "\n");
+        return bytes.get();
+    }
+    
+    private static long mix(long seed, long index) {
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Builds the content of one file
+     */
+    private final class FileWriter {
+        private final SplittableRandom random;
+        private final int index;
+        private final StringBuilder sb = new StringBuilder(4096);
+        private int lines = 0;
+        
+        FileWriter(SplittableRandom random, int index) {
+            this.random = random;
+            this.index = index;
+        }
+        
+        GeneratedFile write() {
+            int targetLines = targetLines();
+            boolean template = random.nextDouble() < options.templateRatio;
+            String name = template ? templateName() : componentName();
+            String path = packagePath() + name + (template ? ".cfm" : ".cfc");
+            
+            if (template) {
+                writeTemplate(targetLines);
+            } else if (random.nextDouble() < options.tagComponentRatio) {
+                writeTagComponent(name, targetLines);
+            } else {
+                writeScriptComponent(name, targetLines);
+            }
+            
+            double encoding = random.nextDouble();
+            if (encoding < options.utf16Ratio) {
+                return new GeneratedFile(path, sb.toString(), StandardCharsets.UTF_16LE, true);
+            }
+            if (encoding < options.utf16Ratio + options.latin1Ratio) {
+                return new GeneratedFile(path, sb.toString(), StandardCharsets.ISO_8859_1, false);
+            }
+            boolean bom = random.nextDouble() < options.bomRatio;
+            return new GeneratedFile(path, sb.toString(), StandardCharsets.UTF_8, bom);
+        }
+        
+        private int targetLines() {
+            int mean = Math.max(5, options.meanLines);
+            double value;
+            switch (options.distribution) {
+                case "fixed":
+                    value = mean;
+                    break;
+                case "uniform":
+                    value = 5 + random.nextDouble() * (2 * mean - 5);
+                    break;
+                default:
+                    // Log-normal with the requested mean: many small files, a long tail of large ones
+                    double sigma = 1.0;
+                    double mu = Math.log(mean) - sigma * sigma / 2;
+                    value = Math.exp(mu + sigma * random.nextGaussian());
+            }
+            return (int) Math.max(5, Math.min(value, mean * 50.0));
+        }
+        
+        private boolean violate() {
+            return random.nextDouble() < options.violationDensity;
+        }
+        
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+        
+        private String packagePath() {
+            int depth = random.nextInt(options.maxDepth + 1);
+            StringBuilder path = new StringBuilder();
+            for (int i = 0; i < depth; i++) {
+                path.append(pick(PACKAGES)).append('/');
+            }
+            return path.toString();
+        }
+        
+        private String componentName() {
+            String name = pick(NOUNS) + (random.nextBoolean() ? "Service" : "Gateway") + index;
+            if (violate()) {
+                // Lower or snake case file names
+                return random.nextBoolean() ? Character.toLowerCase(name.charAt(0)) + name.substring(1)
+                        : name.toLowerCase(Locale.ROOT) + "_svc";
+            }
+            return name;
+        }
+        
+        private String templateName() {
+            return pick(NOUNS).toLowerCase(Locale.ROOT) + (random.nextBoolean() ? "List" : "Detail") + index;
+        }
+        
+        private String functionName() {
+            String name = pick(VERBS) + pick(NOUNS);
+            return violate() ? name.toLowerCase(Locale.ROOT) + "_" + random.nextInt(100) : name;
+        }
+        
+        private void line(String text) {
+            sb.append(text);
+            if (violate() && random.nextInt(4) == 0) {
+                sb.append("   ");
+            }
+            sb.append('\n');
+            lines++;
+        }
+        
+        private void blank() {
+            sb.append('\n');
+            lines++;
+            if (violate() && random.nextInt(3) == 0) {
+                sb.append("\n\n");
+                lines += 2;
+            }
+        }
+        
+        private void writeScriptComponent(String name, int targetLines) {
+            line("/**");
+            line(" * " + name + " - generated " + pick(ACCENTED) + " fixture");
+            line(" */");
+            String extendsClause = index > 0 && random.nextInt(3) == 0
+                    ? " extends=\"" + pick(PACKAGES) + "." + pick(NOUNS) + "Service" + random.nextInt(index) + "\""
+                    : "";
+            String accessors = violate() ? "" : " accessors=\"true\"";
+            boolean braceOnNextLine = violate();
+            line("component" + extendsClause + accessors + (braceOnNextLine ? "" : " {"));
+            if (braceOnNextLine) {
+                line("{");
+            }
+            blank();
+            
+            int properties = 1 + random.nextInt(5);
+            for (int i = 0; i < properties; i++) {
+                String noun = pick(NOUNS);
+                line("    property name=\"" + Character.toLowerCase(noun.charAt(0)) + noun.substring(1) + i
+                        + "\" type=\"" + pick(TYPES) + "\";");
+            }
+            line("    " + (violate() ? "max_items" : "static.MAX_ITEMS") + " = " + random.nextInt(1000) + ";");
+            blank();
+            
+            if (!violate()) {
+                line("    public " + name + " function init() {");
+                line("        return this;");
+                line("    }");
+                blank();
+            }
+            
+            while (lines < targetLines - 2) {
+                writeScriptFunction(random.nextDouble() < options.longFunctionRatio ? 80 + random.nextInt(220) : 3 + random.nextInt(25));
+            }
+            line("}");
+        }
+        
+        private void writeScriptFunction(int bodyLines) {
+            String returnType = violate() ? "" : pick(TYPES) + " ";
+            String access = violate() ? "" : (random.nextInt(4) == 0 ? "private " : "public ");
+            int argumentCount = random.nextInt(4);
+            StringBuilder arguments = new StringBuilder();
+            for (int i = 0; i < argumentCount; i++) {
+                if (i > 0) {
+                    arguments.append(", ");
+                }
+                if (!violate()) {
+                    arguments.append(random.nextBoolean() ? "required " : "").append(pick(TYPES)).append(' ');
+                }
+                arguments.append(violate() ? "arg_" + i : "arg" + i);
+            }
+            boolean braceOnNextLine = violate();
+            line("    " + access + returnType + "function " + functionName() + "(" + arguments + ")" + (braceOnNextLine ? "" : " {"));
+            if (braceOnNextLine) {
+                line("    {");
+            }
+            
+            line("        var result = " + (random.nextBoolean() ? "{}" : "[]") + ";");
+            int written = 1;
+            while (written < bodyLines) {
+                written += writeStatement("        ");
+            }
+            line("        return result;");
+            line("    }");
+            blank();
+        }
+        
+        private int writeStatement(String indent) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    if (violate()) {
+                        line(indent + "if(arguments.len()>" + random.nextInt(5) + ")");
+                        line(indent + "    result.count=arguments.len();");
+                        return 2;
+                    }
+                    line(indent + "if (arguments.len() > " + random.nextInt(5) + ") {");
+                    line(indent + "    result.count = arguments.len();");
+                    line(indent + "}");
+                    return 3;
+                case 1:
+                    line(indent + "for (var i = 1; i <= " + (1 + random.nextInt(100)) + "; i++) {");
+                    line(indent + "    arrayAppend(local.items, i * " + random.nextInt(10) + ");");
+                    line(indent + "}");
+                    return 3;
+                case 2:
+                    if (violate()) {
+                        line(indent + "var sql = \"SELECT * FROM " + pick(NOUNS).toLowerCase(Locale.ROOT)
+                                + " WHERE id = \" & arguments.id & \" AND status = 'active' AND created > '2020-01-01' ORDER BY name\";");
+                    } else {
+                        line(indent + "var label = \"" + pick(ACCENTED) + " #arguments.len()#\";");
+                    }
+                    return 1;
+                case 3:
+                    line(indent + "// " + pick(VERBS) + " the " + pick(NOUNS).toLowerCase(Locale.ROOT) + " " + pick(ACCENTED));
+                    return 1;
+                case 4:
+                    line(indent + "try {");
+                    line(indent + "    result.value = " + pick(VERBS) + pick(NOUNS) + "(arguments);");
+                    line(indent + "} catch (any e) {");
+                    line(indent + "    result.error = e.message;");
+                    line(indent + "}");
+                    return 5;
+                default:
+                    line(indent + "local.total" + (violate() ? "=" : " = ") + random.nextInt(100)
+                            + (violate() ? "+" : " + ") + "local.offset * " + random.nextInt(10) + ";");
+                    return 1;
+            }
+        }
+        
+        private void writeTagComponent(String name, int targetLines) {
+            line("<!--- " + name + " " + pick(ACCENTED) + " --->");
+            line("<cfcomponent" + (violate() ? "" : " accessors=\"true\"") + " output=\"false\">");
+            line("    <cfproperty name=\"datasource\" type=\"string\">");
+            blank();
+            while (lines < targetLines - 1) {
+                String returnType = violate() ? "" : " returntype=\"" + pick(TYPES) + "\"";
+                line("    <cffunction name=\"" + functionName() + "\" access=\"public\"" + returnType + " output=\"false\">");
+                int arguments = random.nextInt(3);
+                for (int i = 0; i < arguments; i++) {
+                    String type = violate() ? "" : " type=\"" + pick(TYPES) + "\"";
+                    line("        <cfargument name=\"arg" + i + "\"" + type + " required=\"" + random.nextBoolean() + "\">");
+                }
+                line("        <cfset var result = {}>");
+                int body = random.nextDouble() < options.longFunctionRatio ? 80 + random.nextInt(120) : 2 + random.nextInt(12);
+                for (int i = 0; i < body; i++) {
+                    if (random.nextInt(4) == 0) {
+                        line("        <cfif structKeyExists(arguments, \"arg0\")>");
+                        line("            <cfset result.value" + (violate() ? "=" : " = ") + "arguments.arg0>");
+                        line("        </cfif>");
+                        i += 2;
+                    } else {
+                        line("        <cfset result.item" + i + " = " + random.nextInt(1000) + ">");
+                    }
+                }
+                line("        <cfreturn result>");
+                line("    </cffunction>");
+                blank();
+            }
+            line("</cfcomponent>");
+        }
+        
+        private void writeTemplate(int targetLines) {
+            line("<cfparam name=\"url.page\" default=\"1\">");
+            line("<!DOCTYPE html>");
+            line("<html>");
+            line("<body>");
+            while (lines < targetLines - 2) {
+                switch (random.nextInt(4)) {
+                    case 0:
+                        line("    <cfoutput>");
+                        line("        <h1>#encodeForHTML(" + (violate() ? "url.title" : "variables.title") + ")# " + pick(ACCENTED) + "</h1>");
+                        line("    </cfoutput>");
+                        break;
+                    case 1:
+                        line("    <cfif url.page GT " + random.nextInt(10) + ">");
+                        line("        <cfset offset" + (violate() ? "=" : " = ") + "url.page * 20>");
+                        line("    <cfelse>");
+                        line("        <cfset offset = 0>");
+                        line("    </cfif>");
+                        break;
+                    case 2:
+                        line("    <cfloop from=\"1\" to=\"" + (1 + random.nextInt(50)) + "\" index=\"i\">");
+                        line("        <div class=\"row\"><cfoutput>#i#</cfoutput></div>");
+                        line("    </cfloop>");
+                        break;
+                    default:
+                        line("    <cfscript>");
+                        int statements = 1 + random.nextInt(6);
+                        for (int i = 0; i < statements; i++) {
+                            writeStatement("        ");
+                        }
+                        line("    </cfscript>");
+                }
+            }
+            line("</body>");
+            line("</html>");
+        }
+    }
+    
+    /**
+     * Command line entry point
+     */
+    public static void main(String[] args) throws IOException {
+        Options options = new Options();
+        Path out = Paths.get("generated");
+        boolean parallel = true;
+        
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--out":
+                    out = Paths.get(args[++i]);
+                    break;
+                case "--seed":
+                    options.seed = Long.parseLong(args[++i]);
+                    break;
+                case "--files":
+                    options.files = Integer.parseInt(args[++i]);
+                    break;
+                case "--mean-lines":
+                    options.meanLines = Integer.parseInt(args[++i]);
+                    break;
+                case "--distribution":
+                    options.distribution = args[++i];
+                    break;
+                case "--violations":
+                    options.violationDensity = Double.parseDouble(args[++i]);
+                    break;
+                case "--templates":
+                    options.templateRatio = Double.parseDouble(args[++i]);
+                    break;
+                case "--tag-components":
+                    options.tagComponentRatio = Double.parseDouble(args[++i]);
+                    break;
+                case "--bom":
+                    options.bomRatio = Double.parseDouble(args[++i]);
+                    break;
+                case "--latin1":
+                    options.latin1Ratio = Double.parseDouble(args[++i]);
+                    break;
+                case "--utf16":
+                    options.utf16Ratio = Double.parseDouble(args[++i]);
+                    break;
+                case "--long-functions":
+                    options.longFunctionRatio = Double.parseDouble(args[++i]);
+                    break;
+                case "--depth":
+                    options.maxDepth = Integer.parseInt(args[++i]);
+                    break;
+                case "--sequential":
+                    parallel = false;
+                    break;
+                case "-h":
+                case "--help":
+                    printUsage();
+                    return;
+                default:
+                    System.err.println("Unknown option: " + arg);
+                    printUsage();
+                    System.exit(1);
+            }
+        }
+        
+        if (!Set.of("lognormal", "uniform", "fixed").contains(options.distribution)) {
+            System.err.println("Unknown distribution: " + options.distribution);
+            System.exit(1);
+        }
+        
+        long start = System.currentTimeMillis();
+        long bytes = new CorpusGenerator(options).writeTo(out, parallel);
+        System.out.printf(Locale.ROOT, "Generated %d files (%.1f MB) in %s in %d ms%n",
+                options.files, bytes / (1024.0 * 1024.0), out, System.currentTimeMillis() - start);
+    }
+    
+    private static void printUsage() {
+        System.out.println("Usage: CorpusGenerator [options]");
+        System.out.println("  --out DIR              Output directory (default: generated)");
+        System.out.println("  --seed N               Random seed (default: 42)");
+        System.out.println("  --files N              Number of files (default: 1000)");
+        System.out.println("  --mean-lines N         Mean lines per file (default: 150)");
+        System.out.println("  --distribution NAME    lognormal, uniform or fixed (default: lognormal)");
+        System.out.println("  --violations RATIO     Chance of a violation at each opportunity, 0-1 (default: 0.2)");
+        System.out.println("  --templates RATIO      Share of .cfm templates (default: 0.3)");
+        System.out.println("  --tag-components RATIO Share of components in tag syntax (default: 0.2)");
+        System.out.println("  --bom RATIO            Share of UTF-8 files with a byte order mark (default: 0.05)");
+        System.out.println("  --latin1 RATIO         Share of ISO-8859-1 files (default: 0.05)");
+        System.out.println("  --utf16 RATIO          Share of UTF-16LE files with BOM (default: 0.01)");
+        System.out.println("  --long-functions RATIO Share of functions with 80+ line bodies (default: 0.05)");
+        System.out.println("  --depth N              Maximum package depth (default: 3)");
+        System.out.println("  --sequential           Generate on a single thread");
+    }
+}
@@ -0,0 +1,74 @@
+package org.lucee.toolbox.benchmarks;
+
+import org.lucee.toolbox.core.util.EncodingDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * File reading with encoding detection, from a temp copy of the corpus
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+    
+    @Param({"test-files", "large"})
+    public String corpus;
+    
+    private Path directory;
+    private List<Path> paths;
+    private final Charset fallback = StandardCharsets.UTF_8;
+    
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("toolbox-bench-encoding");
+        paths = BenchmarkCorpus.writeTo(BenchmarkCorpus.load(corpus), directory);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void readFileWithEncodingDetection(Blackhole blackhole) throws IOException {
+        for (Path path : paths) {
+            blackhole.consume(EncodingDetector.readFileWithEncodingDetection(path, fallback));
+        }
+    }
+    
+    @Benchmark
+    public void readFile(Blackhole blackhole) throws IOException {
+        for (Path path : paths) {
+            blackhole.consume(EncodingDetector.readFile(path, fallback));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.lucee.toolbox.benchmarks;
+
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.engine.FormattingEngine;
+import org.lucee.toolbox.core.engine.LintingEngine;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.rules.LintingRuleEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Whole engines: all rules over files parsed afresh before each invocation, and LintingEngine / FormattingEngine
+ * over a directory on disk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+    
+    @Param({"test-files", "large", "generated"})
+    public String corpus;
+    
+    @Param({"false", "true"})
+    public boolean performanceMode;
+    
+    private ConfigurationManager configManager;
+    private LintingRuleEngine ruleEngine;
+    private List<BenchmarkCorpus.SourceFile> files;
+    private List<ParseResult> parseResults;
+    private Path directory;
+    
+    @Setup
+    public void setup() throws Exception {
+        configManager = BenchmarkSupport.configuration();
+        ruleEngine = new LintingRuleEngine(configManager);
+        files = BenchmarkCorpus.load(corpus);
+        directory = Files.createTempDirectory("toolbox-bench-engine");
+        BenchmarkCorpus.writeTo(files, directory);
+    }
+    
+    @Setup(Level.Invocation)
+    public void parse() throws Exception {
+        parseResults = BenchmarkSupport.parse(files);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    @Benchmark
+    public Object allRules() {
+        List<Object> violations = new ArrayList<>();
+        for (ParseResult parseResult : parseResults) {
+            violations.add(ruleEngine.analyzeFile(parseResult, parseResult.getFilePath()));
+        }
+        return violations;
+    }
+    
+    @Benchmark
+    public Object lintDirectory() throws IOException {
+        return new LintingEngine(configManager, "regex", performanceMode).lint(directory, false, true);
+    }
+    
+    @Benchmark
+    public Object formatDirectoryDryRun() throws IOException {
+        FormattingEngine engine = new FormattingEngine(configManager, "regex", performanceMode);
+        engine.setDryRun(true);
+        return engine.format(directory, false, true);
+    }
+}
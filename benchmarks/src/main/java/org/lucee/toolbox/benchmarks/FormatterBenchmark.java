@@ -0,0 +1,81 @@
+package org.lucee.toolbox.benchmarks;
+
+import org.lucee.toolbox.core.engine.CfmlFormatter;
+import org.lucee.toolbox.core.util.LineDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory formatting: full-file formatting, 20 line range formatting and the line diff of the result
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatterBenchmark {
+    
+    private static final int RANGE_LINES = 20;
+    
+    @Param({"test-files", "large"})
+    public String corpus;
+    
+    private CfmlFormatter formatter;
+    private List<BenchmarkCorpus.SourceFile> files;
+    private List<String> formatted;
+    private int[] rangeStarts;
+    private boolean[] scriptSyntax;
+    
+    @Setup
+    public void setup() throws Exception {
+        formatter = new CfmlFormatter(BenchmarkSupport.configuration());
+        files = BenchmarkCorpus.load(corpus);
+        formatted = new ArrayList<>(files.size());
+        rangeStarts = new int[files.size()];
+        scriptSyntax = new boolean[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            BenchmarkCorpus.SourceFile file = files.get(i);
+            formatted.add(formatter.format(file.getContent(), file.getPath()));
+            int lines = LineDiff.lineStarts(file.getContent()).length - 1;
+            rangeStarts[i] = Math.max(1, lines / 2);
+            scriptSyntax[i] = !CfmlFormatter.isTemplatePath(file.getPath()) && CfmlFormatter.isScriptSyntax(file.getContent());
+        }
+    }
+    
+    @Benchmark
+    public void format(Blackhole blackhole) {
+        for (BenchmarkCorpus.SourceFile file : files) {
+            blackhole.consume(formatter.format(file.getContent(), file.getPath()));
+        }
+    }
+    
+    @Benchmark
+    public void formatRange(Blackhole blackhole) {
+        for (int i = 0; i < files.size(); i++) {
+            blackhole.consume(formatter.formatRange(files.get(i).getContent(),
+                    rangeStarts[i], rangeStarts[i] + RANGE_LINES - 1, scriptSyntax[i]));
+        }
+    }
+    
+    @Benchmark
+    public void diff(Blackhole blackhole) {
+        for (int i = 0; i < files.size(); i++) {
+            blackhole.consume(LineDiff.of(files.get(i).getContent(), formatted.get(i)).getHunks());
+        }
+    }
+}
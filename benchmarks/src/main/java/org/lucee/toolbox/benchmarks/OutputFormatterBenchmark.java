@@ -0,0 +1,75 @@
+package org.lucee.toolbox.benchmarks;
+
+import org.lucee.toolbox.core.engine.CfmlFormatter;
+import org.lucee.toolbox.core.model.FormattingChange;
+import org.lucee.toolbox.core.model.ToolboxResult;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.rules.LintingRuleEngine;
+import org.lucee.toolbox.core.util.LineDiff;
+import org.lucee.toolbox.output.OutputFormatFactory;
+import org.lucee.toolbox.output.OutputFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a realistic result (violations and dry-run formatting hunks) in each output format
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputFormatterBenchmark {
+    
+    @Param({"console", "json", "bitbucket", "html", "csv", "junit", "sarif"})
+    public String format;
+    
+    @Param({"test-files", "large"})
+    public String corpus;
+    
+    private OutputFormatter formatter;
+    private ToolboxResult result;
+    
+    @Setup
+    public void setup() throws Exception {
+        formatter = OutputFormatFactory.getFormatter(format);
+        
+        LintingRuleEngine ruleEngine = new LintingRuleEngine(BenchmarkSupport.configuration());
+        CfmlFormatter cfmlFormatter = new CfmlFormatter(BenchmarkSupport.configuration());
+        List<BenchmarkCorpus.SourceFile> files = BenchmarkCorpus.load(corpus);
+        List<ParseResult> parseResults = BenchmarkSupport.parse(files);
+        
+        result = new ToolboxResult();
+        for (int i = 0; i < files.size(); i++) {
+            BenchmarkCorpus.SourceFile file = files.get(i);
+            result.addViolations(ruleEngine.analyzeFile(parseResults.get(i), file.getPath()));
+            result.getStats().incrementFilesProcessed();
+            
+            LineDiff diff = LineDiff.of(file.getContent(), cfmlFormatter.format(file.getContent(), file.getPath()));
+            for (LineDiff.Hunk hunk : diff.getHunks()) {
+                result.addFormattingChange(new FormattingChange(file.getPath(), hunk.getOriginalStart() + 1,
+                        Math.max(hunk.getOriginalStart() + 1, hunk.getOriginalEnd()), diff.originalText(hunk),
+                        diff.revisedText(hunk), "formatting", "Reformatted lines"));
+            }
+        }
+        result.addMetadata("dryRun", true);
+    }
+    
+    @Benchmark
+    public String render() {
+        return formatter.format(result);
+    }
+}
@@ -0,0 +1,62 @@
+package org.lucee.toolbox.benchmarks;
+
+import org.lucee.toolbox.core.parser.CfmlParser;
+import org.lucee.toolbox.core.parser.ParseException;
+import org.lucee.toolbox.core.parser.ParserFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each ParserFactory parser over the whole corpus.
+ * Parse failures are consumed rather than thrown, since they are part of the cost being measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    
+    @Param({"regex", "boxlang", "lucee"})
+    public String parserType;
+    
+    @Param({"test-files", "large"})
+    public String corpus;
+    
+    private CfmlParser parser;
+    private List<BenchmarkCorpus.SourceFile> files;
+    
+    @Setup
+    public void setup() throws Exception {
+        parser = new ParserFactory(BenchmarkSupport.configuration()).createParser(parserType);
+        if (parser == null) {
+            throw new IllegalArgumentException("Unknown parser: " + parserType);
+        }
+        files = BenchmarkCorpus.load(corpus);
+    }
+    
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (BenchmarkCorpus.SourceFile file : files) {
+            try {
+                blackhole.consume(parser.parse(file.getContent(), file.getPath()));
+            } catch (ParseException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.lucee.toolbox.benchmarks;
+
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.rules.LintingRule;
+import org.lucee.toolbox.core.rules.RuleRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LintingRule.analyze for each rule in isolation, over files parsed afresh before each invocation
+ * so facts a ParseResult memoizes are computed inside the measurement, as they are in a real run
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleBenchmark {
+    
+    @Param({
+        "TRAILING_WHITESPACE", "EXCESSIVE_EMPTY_LINES",
+        "COMPONENT_NAMING", "FUNCTION_NAMING", "VARIABLE_NAMING", "CONSTANT_NAMING",
+        "FILE_NAMING", "INTERFACE_PREFIX", "ABSTRACT_SUFFIX",
+        "REQUIRE_CURLY_BRACES", "MAX_FUNCTION_LENGTH", "MAX_LINE_LENGTH", "MAX_FILE_LENGTH",
+        "REQUIRE_INIT", "REQUIRE_RETURN_TYPES", "REQUIRE_ARGUMENT_TYPES", "USE_ACCESSORS",
+        "CURLY_BRACE_STYLE", "TAG_CASE", "ATTRIBUTE_CASE"
+    })
+    public String ruleId;
+    
+    @Param({"test-files", "large"})
+    public String corpus;
+    
+    private LintingRule rule;
+    private List<BenchmarkCorpus.SourceFile> files;
+    private List<ParseResult> parseResults;
+    
+    @Setup
+    public void setup() throws Exception {
+        // From the registry rather than the active rules, so opt-in rules outside the configured set run too
+        rule = RuleRegistry.getDefinitions().stream()
+                .filter(definition -> definition.getId().equals(ruleId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown rule: " + ruleId))
+                .create(BenchmarkSupport.configuration());
+        files = BenchmarkCorpus.load(corpus);
+    }
+    
+    @Setup(Level.Invocation)
+    public void parse() throws Exception {
+        parseResults = BenchmarkSupport.parse(files);
+    }
+    
+    @Benchmark
+    public void analyze(Blackhole blackhole) {
+        for (ParseResult parseResult : parseResults) {
+            try {
+                blackhole.consume(rule.analyze(parseResult));
+            } catch (RuntimeException e) {
+                // LintingRuleEngine reports these as RULE_EXECUTION_ERROR and carries on, so do the same
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package org.lucee.toolbox.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.lucee.toolbox.LuceeToolbox;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.ToolboxResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end throughput and memory regression suite.
+ * Drives LuceeToolbox.execute over a generated (or given) corpus in lint, format and both modes,
+ * with and without --performance and across thread counts. Each configuration runs in its own
+ * JVM so JIT state and peak RSS do not leak between them. Results are appended to a JSON
+ * history file, and the run fails when files/sec drops more than the threshold below the
+ * reference for the same corpus and parser: the median of the last passing runs, or a run
+ * pinned by label. Failing runs are recorded but never become part of the reference, so
+ * rerunning after a regression, or a series of small drops, still fails.
+ *
+ * java -cp target/benchmarks.jar org.lucee.toolbox.benchmarks.ThroughputSuite --files 2000
+ */
+public final class ThroughputSuite {
+    
+    private static final String RESULT_PREFIX = "RESULT ";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    /**
+     * One measured configuration
+     */
+    static final class Config {
+        final String mode;
+        final int threads;
+        final boolean performance;
+        
+        Config(String mode, int threads, boolean performance) {
+            this.mode = mode;
+            this.threads = threads;
+            this.performance = performance;
+        }
+        
+        String key() {
+            return mode + (performance ? "/performance/" + threads + "t" : "/sequential");
+        }
+    }
+    
+    private ThroughputSuite() {
+        // Entry point only
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "--child".equals(args[0])) {
+            runChild(args);
+            return;
+        }
+        
+        Map<String, String> options = parseOptions(args);
+        int files = Integer.parseInt(options.getOrDefault("files", "2000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "lint,format,both").split(","));
+        List<String> threadCounts = Arrays.asList(options.getOrDefault("threads", "1,2,4,8").split(","));
+        List<String> performanceModes = Arrays.asList(options.getOrDefault("performance", "false,true").split(","));
+        String parser = options.getOrDefault("parser", "regex");
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "2"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+        String heap = options.getOrDefault("heap", "2g");
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "10"));
+        int window = Integer.parseInt(options.getOrDefault("window", "10"));
+        String reference = options.get("reference");
+        Path history = Paths.get(options.getOrDefault("history", "throughput-history.json"));
+        
+        // Generated corpora are keyed by size and seed, given ones by path
+        Path corpus;
+        String corpusId;
+        if (options.containsKey("corpus")) {
+            corpus = Paths.get(options.get("corpus")).toAbsolutePath();
+            corpusId = corpus.toString();
+        } else {
+            corpus = Files.createTempDirectory("toolbox-throughput-");
+            new CorpusGenerator(new CorpusGenerator.Options().seed(seed).files(files)).writeTo(corpus, true);
+            corpusId = "generated:" + files + ":" + seed;
+        }
+        
+        List<Config> configs = new ArrayList<>();
+        for (String mode : modes) {
+            for (String performance : performanceModes) {
+                if (Boolean.parseBoolean(performance)) {
+                    for (String threads : threadCounts) {
+                        configs.add(new Config(mode.trim(), Integer.parseInt(threads.trim()), true));
+                    }
+                } else {
+                    // Thread count only applies to --performance
+                    configs.add(new Config(mode.trim(), 1, false));
+                }
+            }
+        }
+        
+        ArrayNode results = MAPPER.createArrayNode();
+        for (Config config : configs) {
+            System.out.printf(Locale.ROOT, "Running %-28s ", config.key());
+            System.out.flush();
+            ObjectNode result = fork(config, corpus, parser, warmup, iterations, heap);
+            result.put("key", config.key());
+            results.add(result);
+            System.out.printf(Locale.ROOT, "%9.1f files/s  p50 %7.2f ms  p99 %7.2f ms  alloc %8.1f MB/s  rss %6.0f MB%n",
+                    result.path("filesPerSecond").asDouble(), result.path("p50Ms").asDouble(),
+                    result.path("p99Ms").asDouble(), result.path("allocatedMbPerSecond").asDouble(),
+                    result.path("peakRssMb").asDouble());
+        }
+        
+        ObjectNode run = MAPPER.createObjectNode();
+        run.put("timestamp", Instant.now().toString());
+        run.put("label", options.getOrDefault("label", ""));
+        run.put("corpus", corpusId);
+        run.put("parser", parser);
+        run.put("javaVersion", System.getProperty("java.version"));
+        run.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        run.set("results", results);
+        
+        ObjectNode root = readHistory(history);
+        List<JsonNode> referenceRuns = findReferenceRuns(root, corpusId, parser, reference, window);
+        if (reference != null && referenceRuns.isEmpty()) {
+            throw new IllegalArgumentException("No passing run labelled " + reference + " for " + corpusId + " with " + parser);
+        }
+        List<String> regressions = compare(referenceRuns, results, threshold);
+        
+        // Kept for the record, but excluded from later references
+        run.put("regressed", !regressions.isEmpty());
+        root.withArray("runs").add(run);
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(history.toFile(), root);
+        System.out.println("History written to " + history.toAbsolutePath());
+        
+        if (!options.containsKey("corpus")) {
+            deleteRecursively(corpus);
+        }
+        
+        if (!regressions.isEmpty()) {
+            String against = reference != null
+                    ? "run " + reference + " (" + referenceRuns.get(0).path("timestamp").asText() + ")"
+                    : "the median of the last " + referenceRuns.size() + " passing runs";
+            System.out.printf(Locale.ROOT, "Throughput dropped more than %.1f%% against %s:%n", threshold, against);
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Run one configuration in a fresh JVM and read back its result line
+     */
+    private static ObjectNode fork(Config config, Path corpus, String parser, int warmup, int iterations, String heap)
+            throws IOException, InterruptedException {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        List<String> command = new ArrayList<>(List.of(
+                java.toString(),
+                "-Xms" + heap, "-Xmx" + heap,
+                "-Dorg.slf4j.simpleLogger.defaultLogLevel=error",
+                "-cp", System.getProperty("java.class.path"),
+                ThroughputSuite.class.getName(), "--child",
+                config.mode, String.valueOf(config.threads), String.valueOf(config.performance),
+                corpus.toString(), parser, String.valueOf(warmup), String.valueOf(iterations)));
+        String configFile = System.getProperty(BenchmarkSupport.CONFIG_PROPERTY);
+        if (configFile != null) {
+            command.add(2, "-D" + BenchmarkSupport.CONFIG_PROPERTY + "=" + configFile);
+        }
+        
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String resultLine = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    resultLine = line.substring(RESULT_PREFIX.length());
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0 || resultLine == null) {
+            throw new IllegalStateException("Benchmark child for " + config.key() + " failed with exit code " + exitCode);
+        }
+        return (ObjectNode) MAPPER.readTree(resultLine);
+    }
+    
+    /**
+     * Child JVM: warm up, measure, and print one result line
+     */
+    private static void runChild(String[] args) throws Exception {
+        String mode = args[1];
+        int threads = Integer.parseInt(args[2]);
+        boolean performance = Boolean.parseBoolean(args[3]);
+        String corpus = args[4];
+        String parser = args[5];
+        int warmup = Integer.parseInt(args[6]);
+        int iterations = Integer.parseInt(args[7]);
+        
+        ConfigurationManager configManager = configuration(threads);
+        LuceeToolbox toolbox = new LuceeToolbox();
+        
+        for (int i = 0; i < warmup; i++) {
+            execute(toolbox, corpus, mode, parser, configManager, performance);
+        }
+        
+        AllocationSampler sampler = new AllocationSampler();
+        sampler.start();
+        ToolboxResult.ExecutionStats stats = new ToolboxResult.ExecutionStats();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            stats.mergeWith(execute(toolbox, corpus, mode, parser, configManager, performance).getStats());
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = sampler.stop();
+        
+        // "both" visits every file twice, count each source file once
+        int passes = "both".equalsIgnoreCase(mode) ? 2 : 1;
+        double files = (double) stats.getFilesProcessed() / passes;
+        double seconds = elapsed / 1e9;
+        
+        ObjectNode result = MAPPER.createObjectNode();
+        result.put("mode", mode);
+        result.put("threads", threads);
+        result.put("performance", performance);
+        result.put("files", (long) (files / iterations));
+        result.put("filesPerSecond", files / seconds);
+        result.put("p50Ms", stats.getFileLatencyPercentileNanos(50) / 1e6);
+        result.put("p99Ms", stats.getFileLatencyPercentileNanos(99) / 1e6);
+        result.put("allocatedMbPerSecond", allocated < 0 ? -1 : allocated / seconds / (1024.0 * 1024.0));
+        result.put("allocatedBytesPerFile", allocated < 0 ? -1 : (long) (allocated / files));
+        result.put("peakRssMb", peakRssKb() / 1024.0);
+        result.put("violations", stats.getTotalViolations() / iterations);
+        System.out.println(RESULT_PREFIX + MAPPER.writeValueAsString(result));
+    }
+    
+    private static ToolboxResult execute(LuceeToolbox toolbox, String corpus, String mode, String parser,
+                                         ConfigurationManager configManager, boolean performance) throws IOException {
+        // Always a dry run, so format iterations see the same input
+        return toolbox.execute(corpus, mode, parser, "console", null, configManager, false, true, performance, true);
+    }
+    
+    /**
+     * The benchmark configuration with the thread count overridden
+     */
+    private static ConfigurationManager configuration(int threads) throws IOException {
+        Path base = Paths.get(System.getProperty(BenchmarkSupport.CONFIG_PROPERTY, "lucee-toolbox.json"));
+        JsonNode json;
+        if (Files.exists(base)) {
+            json = MAPPER.readTree(base.toFile());
+        } else {
+            try (InputStream in = ConfigurationManager.class.getResourceAsStream("/lucee-toolbox.json")) {
+                json = MAPPER.readTree(in);
+            }
+        }
+        JsonNode existing = json.get("performance");
+        ObjectNode performance = existing instanceof ObjectNode
+                ? (ObjectNode) existing : ((ObjectNode) json).putObject("performance");
+        performance.put("parallelProcessing", true);
+        performance.put("maxThreads", threads);
+        
+        Path configFile = Files.createTempFile("toolbox-throughput-", ".json");
+        configFile.toFile().deleteOnExit();
+        MAPPER.writeValue(configFile.toFile(), json);
+        
+        ConfigurationManager configManager = new ConfigurationManager();
+        configManager.loadConfiguration(configFile.toString());
+        return configManager;
+    }
+    
+    /**
+     * Peak resident set size from /proc, -1 where that is not available
+     */
+    private static long peakRssKb() {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Fall through
+        }
+        return -1;
+    }
+    
+    /**
+     * Sums bytes allocated by all threads while running. Engine pools are created and shut down
+     * per execute, so live threads are sampled periodically and each thread's last value is kept
+     * after it has gone.
+     */
+    static final class AllocationSampler implements Runnable {
+        private final com.sun.management.ThreadMXBean threads;
+        private final Map<Long, Long> baseline = new HashMap<>();
+        private final Map<Long, Long> latest = new HashMap<>();
+        private volatile boolean running;
+        private Thread thread;
+        
+        AllocationSampler() {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            this.threads = bean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                    ? (com.sun.management.ThreadMXBean) bean : null;
+        }
+        
+        void start() {
+            if (threads == null) {
+                return;
+            }
+            threads.setThreadAllocatedMemoryEnabled(true);
+            sample(baseline);
+            running = true;
+            thread = new Thread(this, "allocation-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        /**
+         * Stop sampling and return the bytes allocated since start, or -1 when unsupported
+         */
+        long stop() throws InterruptedException {
+            if (threads == null) {
+                return -1;
+            }
+            running = false;
+            thread.join();
+            synchronized (latest) {
+                sample(latest);
+                long total = 0;
+                for (Map.Entry<Long, Long> entry : latest.entrySet()) {
+                    total += entry.getValue() - baseline.getOrDefault(entry.getKey(), 0L);
+                }
+                return total;
+            }
+        }
+        
+        @Override
+        public void run() {
+            while (running) {
+                synchronized (latest) {
+                    sample(latest);
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        
+        private void sample(Map<Long, Long> into) {
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] >= 0) {
+                    into.merge(ids[i], bytes[i], Math::max);
+                }
+            }
+        }
+    }
+    
+    private static ObjectNode readHistory(Path history) throws IOException {
+        if (Files.exists(history)) {
+            JsonNode root = MAPPER.readTree(history.toFile());
+            if (root instanceof ObjectNode) {
+                return (ObjectNode) root;
+            }
+        }
+        return MAPPER.createObjectNode();
+    }
+    
+    /**
+     * Passing runs on the same corpus and parser to compare against, newest first: the latest one with the
+     * given label when there is a label, otherwise up to the last window runs
+     */
+    private static List<JsonNode> findReferenceRuns(ObjectNode root, String corpusId, String parser, String label, int window) {
+        JsonNode runs = root.path("runs");
+        List<JsonNode> found = new ArrayList<>();
+        for (int i = runs.size() - 1; i >= 0 && found.size() < (label != null ? 1 : window); i--) {
+            JsonNode run = runs.get(i);
+            if (corpusId.equals(run.path("corpus").asText()) && parser.equals(run.path("parser").asText())
+                    && !run.path("regressed").asBoolean(false)
+                    && (label == null || label.equals(run.path("label").asText()))) {
+                found.add(run);
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Configurations whose files/sec is more than threshold percent below the median of the reference runs
+     */
+    private static List<String> compare(List<JsonNode> referenceRuns, ArrayNode results, double threshold) {
+        Map<String, List<Double>> samples = new HashMap<>();
+        for (JsonNode run : referenceRuns) {
+            for (JsonNode result : run.path("results")) {
+                samples.computeIfAbsent(result.path("key").asText(), key -> new ArrayList<>())
+                        .add(result.path("filesPerSecond").asDouble());
+            }
+        }
+        Map<String, Double> before = new HashMap<>();
+        samples.forEach((key, values) -> before.put(key, median(values)));
+        
+        List<String> regressions = new ArrayList<>();
+        for (JsonNode result : results) {
+            Double baseline = before.get(result.path("key").asText());
+            double current = result.path("filesPerSecond").asDouble();
+            if (baseline != null && baseline > 0 && current < baseline * (1 - threshold / 100.0)) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.1f -> %.1f files/s (%.1f%%)",
+                        result.path("key").asText(), baseline, current, (current - baseline) / baseline * 100));
+            }
+        }
+        return regressions;
+    }
+    
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        sorted.sort(null);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+    
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + args[i]
+                        + " (options: --files --seed --corpus --modes --threads --performance --parser"
+                        + " --warmup --iterations --heap --threshold --window --reference --history --label)");
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+    
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -12,6 +12,43 @@ YELLOW='\033[1;33m'
 BLUE='\033[0;34m'
 NC='\033[0m' # No Color
 
+# Default options
+WITH_LUCEE=false
+GENERATE_CONFIG=false
+
+print_usage() {
+    echo "Usage: $0 [OPTIONS]"
+    echo ""
+    echo "Options:"
+    echo "  --with-lucee         Build from the full jar, including the Lucee engine (slow, large, experimental)"
+    echo "  --generate-config    Refresh reflection/resource metadata with the tracing agent before building"
+    echo "  -h, --help           Show this help"
+    echo ""
+    echo "By default the native profile is used: a linter/formatter binary without the Lucee and BoxLang engines."
+}
+
+while [[ $# -gt 0 ]]; do
+    case $1 in
+        --with-lucee)
+            WITH_LUCEE=true
+            shift
+            ;;
+        --generate-config)
+            GENERATE_CONFIG=true
+            shift
+            ;;
+        -h|--help)
+            print_usage
+            exit 0
+            ;;
+        *)
+            echo "Unknown option: $1"
+            print_usage
+            exit 1
+            ;;
+    esac
+done
+
 echo -e "${BLUE}🔥 Lucee Toolbox Native Build Script${NC}"
 echo -e "${BLUE}====================================${NC}"
 
@@ -34,6 +71,19 @@ if [ ! -f "target/${JAR_NAME}" ]; then
     ./build.sh
 fi
 
+# Record the reflection and resource use of lint, format and every output format with the tracing agent
+if [ "$GENERATE_CONFIG" = true ]; then
+    echo -e "${YELLOW}🔍 Generating native-image metadata...${NC}"
+    CONFIG_DIR="src/main/resources/META-INF/native-image"
+    for FORMAT in console json bitbucket html csv junit sarif; do
+        java -agentlib:native-image-agent=config-merge-dir=${CONFIG_DIR} -jar target/${JAR_NAME} \
+            -i test-files/bad -m both --dry-run --ignore-violations -q -f ${FORMAT} > /dev/null
+    done
+    echo -e "${GREEN}📋 Metadata merged into ${CONFIG_DIR}, review and commit the changes${NC}"
+    # Rebuild so the jar carries the new metadata
+    mvn package -DskipTests -q
+fi
+
 # Detect current platform
 OS=$(uname -s | tr '[:upper:]' '[:lower:]')
 ARCH=$(uname -m)
@@ -68,9 +118,20 @@ EXECUTABLE_NAME="lucee-toolbox-${PLATFORM}-${ARCH}${EXECUTABLE_SUFFIX}"
 echo -e "${YELLOW}🔨 Creating native executable: ${EXECUTABLE_NAME}${NC}"
 echo -e "${YELLOW}📋 Using JAR: ${JAR_NAME}${NC}"
 
-native-image \
-    -jar target/${JAR_NAME} \
-    -o "dist/${EXECUTABLE_NAME}"
+if [ "$WITH_LUCEE" = true ]; then
+    # Lucee boots an OSGi (Felix) container, whose classes must be initialized at build time
+    native-image \
+        -jar target/${JAR_NAME} \
+        --initialize-at-build-time=org.apache.felix.framework.BundleWiringImpl\$1 \
+        --initialize-at-build-time=org.apache.felix.framework.util.SecurityManagerEx \
+        --initialize-at-build-time=org.apache.felix.framework \
+        --initialize-at-run-time=org.apache.felix.framework.BundleWiringImpl\$BundleClassLoader \
+        -o "dist/${EXECUTABLE_NAME}"
+else
+    # Pure native linter: the native profile leaves the optional engines out of the image
+    mvn package -Pnative -DskipTests
+    cp target/lucee-toolbox${EXECUTABLE_SUFFIX} "dist/${EXECUTABLE_NAME}"
+fi
 
 # Check if build was successful
 if [ $? -eq 0 ]; then
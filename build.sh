@@ -19,6 +19,7 @@ VERBOSE=false
 PROFILE=false
 PACKAGE_ONLY=false
 NATIVE_IMAGE=false
+CDS=false
 
 print_usage() {
     echo "Usage: $0 [OPTIONS]"
@@ -32,6 +33,7 @@ print_usage() {
     echo "  -p, --profile        Enable profiling"
     echo "  --package-only       Only package, don't compile"
     echo "  --native-image       Create native image executable with GraalVM"
+    echo "  --cds                Create a class data sharing archive for faster startup"
     echo "  -h, --help           Show this help"
     echo ""
     echo "Examples:"
@@ -39,6 +41,7 @@ print_usage() {
     echo "  $0 -c -v             # Clean build with verbose output"
     echo "  $0 -s --profile      # Build with profiling, skip tests"
     echo "  $0 --native-image    # Build using GraalVM native image"
+    echo "  $0 -s --cds          # Build with a CDS archive for quick per-file runs"
 }
 
 # Parse command line arguments
@@ -68,6 +71,10 @@ while [[ $# -gt 0 ]]; do
             NATIVE_IMAGE=true
             shift
             ;;
+        --cds)
+            CDS=true
+            shift
+            ;;
         -h|--help)
             print_usage
             exit 0
@@ -125,21 +132,38 @@ if [ $? -eq 0 ]; then
     # Create dist directory
     mkdir -p dist
     
+    # The shaded jar is named after the project version
+    VERSION=$(mvn help:evaluate -Dexpression=project.version -q -DforceStdout)
+    JAR_NAME="lucee-toolbox-${VERSION}.jar"
+    
     # Copy JAR to dist
-    cp target/lucee-toolbox-1.0.0.jar dist/
+    cp "target/${JAR_NAME}" dist/
     
     echo ""
     echo -e "${GREEN}✅ Build completed successfully!${NC}"
-    echo -e "${GREEN}📋 Executable JAR: dist/lucee-toolbox-1.0.0.jar${NC}"
+    echo -e "${GREEN}📋 Executable JAR: dist/${JAR_NAME}${NC}"
     echo ""
     echo -e "${BLUE}Quick test:${NC}"
-    echo -e "${BLUE}java -jar dist/lucee-toolbox-1.0.0.jar --version${NC}"
+    echo -e "${BLUE}java -jar dist/${JAR_NAME} --version${NC}"
     echo ""
 else
     echo -e "${RED}❌ Build failed!${NC}"
     exit 1
 fi
 
+# Optional: Create a class data sharing archive
+if [ "$CDS" = true ]; then
+    echo -e "${YELLOW}📼 Creating class data sharing archive...${NC}"
+    
+    # The archive is only valid for the jar it was created with, so train against the dist copy
+    java -XX:ArchiveClassesAtExit=dist/lucee-toolbox.jsa -jar "dist/${JAR_NAME}" \
+        -i test-files/bad -m both --dry-run --ignore-violations -q > /dev/null
+    
+    echo -e "${GREEN}✅ CDS archive created: dist/lucee-toolbox.jsa${NC}"
+    echo -e "${BLUE}java -XX:SharedArchiveFile=dist/lucee-toolbox.jsa -jar dist/${JAR_NAME} --version${NC}"
+    echo ""
+fi
+
 # Optional: Create native image
 if [ "$NATIVE_IMAGE" = true ]; then
     echo -e "${YELLOW}🔥 Building native image with GraalVM...${NC}"
@@ -154,7 +178,7 @@ if [ "$NATIVE_IMAGE" = true ]; then
     fi
     
     # Build native image
-    native-image -jar target/lucee-toolbox-1.0.0.jar \
+    native-image -jar "target/${JAR_NAME}" \
         --no-fallback \
         --enable-https \
         --report-unsupported-elements-at-runtime \
@@ -0,0 +1,110 @@
+#!/bin/bash
+
+# Lucee Toolbox - Startup Benchmark
+# Compares startup and throughput of the JVM jar, the jar with a CDS archive and the native executable
+
+set -e
+
+SCRIPT_DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+PROJECT_DIR="$( cd "$SCRIPT_DIR/.." && pwd )"
+
+# Colors for output
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+RUNS=10
+JAR=""
+NATIVE=""
+CDS_ARCHIVE=""
+SINGLE_FILE="$PROJECT_DIR/test-files/bad/userService.cfc"
+DIRECTORY="$PROJECT_DIR/test-files"
+
+show_help() {
+    echo "Lucee Toolbox Startup Benchmark"
+    echo
+    echo "Usage: $0 [OPTIONS]"
+    echo
+    echo "Options:"
+    echo "  --runs N          Runs per measurement (default: 10)"
+    echo "  --jar FILE        Toolbox jar (default: newest target/lucee-toolbox-*.jar)"
+    echo "  --cds FILE        CDS archive recorded for that jar (default: target/ or dist/lucee-toolbox.jsa if present)"
+    echo "  --native FILE     Native executable (default: target/lucee-toolbox or dist/lucee-toolbox if present)"
+    echo "  --file FILE       File for the single-file lint (default: test-files/bad/userService.cfc)"
+    echo "  --dir DIR         Directory for the throughput run (default: test-files)"
+    echo
+    echo "Build the variants first with: ./build.sh -s --cds and ./build-native.sh"
+}
+
+while [[ $# -gt 0 ]]; do
+    case $1 in
+        --runs) RUNS="$2"; shift 2 ;;
+        --jar) JAR="$2"; shift 2 ;;
+        --cds) CDS_ARCHIVE="$2"; shift 2 ;;
+        --native) NATIVE="$2"; shift 2 ;;
+        --file) SINGLE_FILE="$2"; shift 2 ;;
+        --dir) DIRECTORY="$2"; shift 2 ;;
+        -h|--help) show_help; exit 0 ;;
+        *) echo "Unknown option: $1"; show_help; exit 1 ;;
+    esac
+done
+
+cd "$PROJECT_DIR"
+
+if [ -z "$JAR" ]; then
+    JAR=$(ls -t target/lucee-toolbox-*.jar 2>/dev/null | head -1)
+fi
+if [ -z "$CDS_ARCHIVE" ]; then
+    for candidate in target/lucee-toolbox.jsa dist/lucee-toolbox.jsa; do
+        [ -f "$candidate" ] && CDS_ARCHIVE="$candidate" && break
+    done
+fi
+if [ -z "$NATIVE" ]; then
+    for candidate in target/lucee-toolbox dist/lucee-toolbox; do
+        [ -x "$candidate" ] && NATIVE="$candidate" && break
+    done
+fi
+
+# Mean wall time in milliseconds of RUNS executions of a command
+measure() {
+    local start end
+    start=$(date +%s%N)
+    for ((i = 0; i < RUNS; i++)); do
+        "$@" > /dev/null 2>&1 || true
+    done
+    end=$(date +%s%N)
+    echo $(( (end - start) / RUNS / 1000000 ))
+}
+
+report() {
+    local name="$1"
+    shift
+    local version lint directory
+    version=$(measure "$@" --version)
+    lint=$(measure "$@" -i "$SINGLE_FILE" -m lint -q --ignore-violations)
+    directory=$(measure "$@" -i "$DIRECTORY" -m both --dry-run -q --ignore-violations)
+    printf "%-14s %10s ms %14s ms %16s ms\n" "$name" "$version" "$lint" "$directory"
+}
+
+echo -e "${BLUE}Startup benchmark, mean of ${RUNS} runs${NC}"
+printf "%-14s %13s %17s %19s\n" "variant" "--version" "single-file lint" "directory lint+fmt"
+
+if [ -n "$JAR" ]; then
+    report "jvm" java -jar "$JAR"
+    if [ -n "$CDS_ARCHIVE" ]; then
+        report "jvm+cds" java -XX:SharedArchiveFile="$CDS_ARCHIVE" -jar "$JAR"
+    else
+        echo -e "${YELLOW}No CDS archive found, skipping jvm+cds (./build.sh -s --cds)${NC}"
+    fi
+else
+    echo -e "${YELLOW}No jar found, skipping JVM runs (./build.sh -s)${NC}"
+fi
+
+if [ -n "$NATIVE" ]; then
+    report "native" "$NATIVE"
+else
+    echo -e "${YELLOW}No native executable found, skipping native run (./build-native.sh)${NC}"
+fi
+
+echo -e "${GREEN}Done${NC}"
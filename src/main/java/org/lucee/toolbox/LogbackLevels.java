@@ -0,0 +1,37 @@
+package org.lucee.toolbox;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Applies the verbose/quiet log levels when Logback is the bound SLF4J backend.
+ * Kept out of LuceeToolbox so Logback classes are only loaded when Logback is present.
+ */
+final class LogbackLevels {
+    
+    private LogbackLevels() {
+        // Utility class
+    }
+    
+    static void apply(ILoggerFactory loggerFactory, boolean verbose, boolean quiet) {
+        LoggerContext loggerContext = (LoggerContext) loggerFactory;
+        ch.qos.logback.classic.Logger rootLogger = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        ch.qos.logback.classic.Logger toolboxLogger = loggerContext.getLogger("org.lucee.toolbox");
+        
+        if (quiet) {
+            // Quiet mode: suppress all logging to console except errors
+            rootLogger.setLevel(Level.ERROR);
+            toolboxLogger.setLevel(Level.ERROR);
+        } else if (verbose) {
+            // Verbose mode: show all logging including INFO and DEBUG
+            rootLogger.setLevel(Level.INFO);
+            toolboxLogger.setLevel(Level.DEBUG);
+        } else {
+            // Default mode: only show warnings and errors
+            rootLogger.setLevel(Level.ERROR);
+            toolboxLogger.setLevel(Level.WARN);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package org.lucee.toolbox;
 
 import org.lucee.toolbox.cli.CommandLineInterface;
+import org.lucee.toolbox.core.baseline.Baseline;
+import org.lucee.toolbox.core.baseline.BaselineRecorder;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.engine.LintingEngine;
 import org.lucee.toolbox.core.engine.FormattingEngine;
 import org.lucee.toolbox.core.model.ToolboxResult;
+import org.lucee.toolbox.core.index.ProjectIndex;
+import org.lucee.toolbox.core.parser.ParseFailureCache;
+import org.lucee.toolbox.core.rules.LintingRule;
+import org.lucee.toolbox.core.rules.RuleRegistry;
+import org.lucee.toolbox.core.util.NativeImage;
 import org.lucee.toolbox.output.OutputFormatFactory;
 import org.lucee.toolbox.output.OutputFormatter;
 import org.lucee.toolbox.repl.CFMLRepl;
@@ -13,15 +20,15 @@ import org.apache.commons.cli.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.ILoggerFactory;
-import ch.qos.logback.classic.LoggerContext;
-import ch.qos.logback.classic.Level;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 /**
  * Main entry point for the Lucee Toolbox - Advanced CFML Linter and Formatter
@@ -37,13 +44,23 @@ import java.util.Scanner;
  */
 public class LuceeToolbox {
     
-    private static final Logger logger = LoggerFactory.getLogger(LuceeToolbox.class);
     private static final String VERSION = "1.0.0";
     private static final String DEFAULT_CONFIG = "lucee-toolbox.json";
     
+    private Baseline baseline;
+    private BaselineRecorder baselineRecorder;
+    private boolean createBackups = false;
+    private int[] formatRange;
+    
     public static void main(String[] args) {
         long startTime = System.currentTimeMillis();
         
+        // Answer a bare --version before building options or touching logging and configuration
+        if (args.length == 1 && "--version".equals(args[0])) {
+            printVersion();
+            return;
+        }
+        
         try {
             CommandLineInterface cli = new CommandLineInterface();
             Options options = cli.createOptions();
@@ -72,8 +89,25 @@ public class LuceeToolbox {
                 return;
             }
             
+            if (cmd.hasOption("list-rules")) {
+                listRules(cmd);
+                return;
+            }
+            
+            if (cmd.hasOption("clear-cache")) {
+                clearCache(cmd);
+                return;
+            }
+            
             // Check for REPL mode first
             String mode = cmd.getOptionValue("mode", "lint");
+            boolean replMode = "repl".equalsIgnoreCase(mode) || "enhanced-repl".equalsIgnoreCase(mode)
+                    || "lucee-repl".equalsIgnoreCase(mode);
+            if (replMode && NativeImage.isRuntime()) {
+                System.err.println("Error: REPL modes need the Lucee engine, use the JVM build (java -jar lucee-toolbox.jar)");
+                System.exit(1);
+            }
+            
             if ("repl".equalsIgnoreCase(mode)) {
                 CFMLRepl.main(new String[]{});
                 return;
@@ -129,7 +163,21 @@ public class LuceeToolbox {
             String parser = cmd.getOptionValue("parser", "auto");
             boolean performanceMode = cmd.hasOption("performance");
             boolean ignoreViolations = cmd.hasOption("ignore-violations") || cmd.hasOption("no-exit-error");
-            boolean dryRun = cmd.hasOption("dry-run");
+            // --diff previews the changed hunks without touching any files
+            boolean dryRun = cmd.hasOption("dry-run") || cmd.hasOption("diff");
+            String baselineFile = cmd.getOptionValue("baseline");
+            String writeBaselineFile = cmd.getOptionValue("write-baseline");
+            
+            // Only linting records violations, in any other mode the baseline would be written empty
+            if (writeBaselineFile != null && !"lint".equalsIgnoreCase(mode) && !"both".equalsIgnoreCase(mode)) {
+                System.err.println("Error: --write-baseline needs --mode lint or both");
+                System.exit(1);
+            }
+            
+            // Writing a baseline accepts the current violations, so it should not fail the build
+            if (writeBaselineFile != null) {
+                ignoreViolations = true;
+            }
             
             // Configure logging levels based on flags BEFORE loading config
             configureLogging(verbose, quiet);
@@ -141,19 +189,50 @@ public class LuceeToolbox {
             // Try to load config from input directory first, then fall back to current directory
             String resolvedConfigFile = resolveConfigFile(configFile, inputPath);
             configManager.loadConfiguration(resolvedConfigFile);
+            applyRuleOptions(cmd, configManager);
+            if (cmd.hasOption("no-cache")) {
+                configManager.setCachingEnabled(false);
+            }
+            if (cmd.hasOption("project-index")) {
+                configManager.setProjectIndexEnabled(true);
+            }
             
             if (verbose && !quiet) {
-                logger.info("Lucee Toolbox v{} starting...", VERSION);
-                logger.info("Mode: {}, Parser: {}, Format: {}", mode, parser, outputFormat);
-                logger.info("Input: {}", inputPath);
+                logger().info("Lucee Toolbox v{} starting...", VERSION);
+                logger().info("Mode: {}, Parser: {}, Format: {}", mode, parser, outputFormat);
+                logger().info("Input: {}", inputPath);
             }
-
+            
             LuceeToolbox toolbox = new LuceeToolbox();
+            if (baselineFile != null) {
+                toolbox.setBaseline(Baseline.open(Paths.get(baselineFile)));
+            }
+            if (writeBaselineFile != null) {
+                toolbox.setBaselineRecorder(new BaselineRecorder());
+            }
+            toolbox.setCreateBackups(cmd.hasOption("backup"));
+            if (cmd.hasOption("range")) {
+                int[] range = parseRange(cmd.getOptionValue("range"));
+                toolbox.setFormatRange(range[0], range[1]);
+            }
+            
             ToolboxResult result = toolbox.execute(
                 inputPath, mode, parser, outputFormat, outputFile, 
                 configManager, verbose, quiet, performanceMode, dryRun
             );
             
+            if (writeBaselineFile != null) {
+                if (result.getErrors().stream().anyMatch(LintingEngine::isRunFailure)) {
+                    // Keep the existing baseline rather than replace it with a partial one
+                    System.err.println("Warning: linting did not complete, baseline not written: " + writeBaselineFile);
+                } else {
+                    toolbox.baselineRecorder.write(Paths.get(writeBaselineFile));
+                    if (verbose && !quiet) {
+                        logger().info("Baseline with {} violations written to: {}", toolbox.baselineRecorder.size(), writeBaselineFile);
+                    }
+                }
+            }
+            
             // Output results
             OutputFormatter formatter = OutputFormatFactory.getFormatter(outputFormat);
             String formattedOutput = formatter.format(result);
@@ -161,7 +240,7 @@ public class LuceeToolbox {
             if (outputFile != null) {
                 toolbox.writeToFile(formattedOutput, outputFile, formatter.getFileExtension());
                 if (verbose && !quiet) {
-                    logger.info("Output written to: {}", outputFile);
+                    logger().info("Output written to: {}", outputFile);
                 }
             } else {
                 System.out.println(formattedOutput);
@@ -169,7 +248,7 @@ public class LuceeToolbox {
             
             long duration = System.currentTimeMillis() - startTime;
             if (verbose && !quiet) {
-                logger.info("Completed in {} ms", duration);
+                logger().info("Completed in {} ms", duration);
             }
             
             // Exit with appropriate code
@@ -183,12 +262,73 @@ public class LuceeToolbox {
             System.err.println("Error parsing command line arguments: " + e.getMessage());
             System.exit(1);
         } catch (Exception e) {
-            logger.error("Unexpected error: {}", e.getMessage(), e);
+            logger().error("Unexpected error: {}", e.getMessage(), e);
             System.err.println("Error: " + e.getMessage());
             System.exit(1);
         }
     }
     
+    /**
+     * Created on first use, so slf4j only initializes after the command line flags have set its properties
+     */
+    private static final class LoggerHolder {
+        static final Logger LOGGER = LoggerFactory.getLogger(LuceeToolbox.class);
+    }
+    
+    private static Logger logger() {
+        return LoggerHolder.LOGGER;
+    }
+    
+    /**
+     * Only report violations that are not part of the given baseline
+     */
+    public void setBaseline(Baseline baseline) {
+        this.baseline = baseline;
+    }
+    
+    /**
+     * Record fingerprints of all violations so they can be written as a baseline
+     */
+    public void setBaselineRecorder(BaselineRecorder baselineRecorder) {
+        this.baselineRecorder = baselineRecorder;
+    }
+    
+    /**
+     * Keep a backup of each file before formatting overwrites it
+     */
+    public void setCreateBackups(boolean createBackups) {
+        this.createBackups = createBackups;
+    }
+    
+    /**
+     * Restrict formatting to a 1-based, inclusive line range of a single file
+     */
+    public void setFormatRange(int startLine, int endLine) {
+        if (startLine < 1 || endLine < startLine) {
+            throw new IllegalArgumentException("Invalid line range: " + startLine + "-" + endLine);
+        }
+        this.formatRange = new int[] {startLine, endLine};
+    }
+    
+    /**
+     * Parse a START-END line range, or a single line number
+     */
+    static int[] parseRange(String value) {
+        try {
+            int dash = value.indexOf('-');
+            if (dash < 0) {
+                int line = Integer.parseInt(value.trim());
+                return new int[] {line, line};
+            }
+            return new int[] {
+                Integer.parseInt(value.substring(0, dash).trim()),
+                Integer.parseInt(value.substring(dash + 1).trim())
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid line range '" + value + "', expected START-END");
+        }
+    }
+    
     /**
      * Execute the main toolbox functionality
      */
@@ -241,6 +381,8 @@ public class LuceeToolbox {
                                        throws IOException {
         
         LintingEngine engine = new LintingEngine(configManager, parser, performanceMode);
+        engine.setBaseline(baseline);
+        engine.setBaselineRecorder(baselineRecorder);
         return engine.lint(input, verbose, quiet, singleFileMode);
     }
     
@@ -251,13 +393,21 @@ public class LuceeToolbox {
                                           throws IOException {
         
         FormattingEngine engine = new FormattingEngine(configManager, parser, performanceMode);
+        engine.setDryRun(dryRun);
+        engine.setCreateBackups(createBackups);
+        if (formatRange != null && !singleFileMode) {
+            throw new IllegalArgumentException("--range can only be used with a single input file");
+        }
         if (dryRun) {
-            // In dry-run mode, create a copy of the result to avoid modifying actual files
-            ToolboxResult dryRunResult = engine.format(input, verbose, quiet, singleFileMode);
+            ToolboxResult dryRunResult = formatRange != null
+                    ? engine.formatRange(input, formatRange[0], formatRange[1])
+                    : engine.format(input, verbose, quiet, singleFileMode);
             // Add metadata to indicate this is a dry-run
             dryRunResult.addMetadata("dryRun", true);
             dryRunResult.addMetadata("message", "Dry-run mode: No files were actually modified");
             return dryRunResult;
+        } else if (formatRange != null) {
+            return engine.formatRange(input, formatRange[0], formatRange[1]);
         } else {
             return engine.format(input, verbose, quiet, singleFileMode);
         }
@@ -308,6 +458,62 @@ public class LuceeToolbox {
         return configFile; // Fall back to current directory
     }
     
+    private static void applyRuleOptions(CommandLine cmd, ConfigurationManager configManager) {
+        if (cmd.hasOption("rule-set")) {
+            configManager.setRuleSet(cmd.getOptionValue("rule-set"));
+        }
+        if (cmd.hasOption("rules")) {
+            configManager.addRuleOverrides(cmd.getOptionValue("rules"));
+        }
+    }
+    
+    private static void clearCache(CommandLine cmd) {
+        try {
+            String configFile = cmd.getOptionValue("config", DEFAULT_CONFIG);
+            String inputPath = cmd.getOptionValue("input", ".");
+            ConfigurationManager configManager = new ConfigurationManager();
+            configManager.loadConfiguration(resolveConfigFile(configFile, inputPath));
+            
+            Path cacheDirectory = configManager.getCacheDirectoryPath();
+            boolean clearedFailures = ParseFailureCache.clear(cacheDirectory);
+            boolean clearedIndex = ProjectIndex.clear(cacheDirectory);
+            if (clearedFailures || clearedIndex) {
+                System.out.println("Cleared cache in " + cacheDirectory);
+            } else {
+                System.out.println("No cache to clear in " + cacheDirectory);
+            }
+        } catch (Exception e) {
+            System.err.println("Error clearing cache: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    private static void listRules(CommandLine cmd) {
+        try {
+            String configFile = cmd.getOptionValue("config", DEFAULT_CONFIG);
+            String inputPath = cmd.getOptionValue("input", ".");
+            ConfigurationManager configManager = new ConfigurationManager();
+            configManager.loadConfiguration(resolveConfigFile(configFile, inputPath));
+            applyRuleOptions(cmd, configManager);
+            
+            Set<String> active = new HashSet<>();
+            for (LintingRule rule : RuleRegistry.createActiveRules(configManager)) {
+                active.add(rule.getRuleId());
+            }
+            
+            System.out.println("Available Linting Rules (rule set: " + configManager.getRuleSet() + "):");
+            for (RuleRegistry.RuleDefinition definition : RuleRegistry.getDefinitions()) {
+                System.out.printf("  %-24s %-4s %s%n", definition.getId(),
+                        active.contains(definition.getId()) ? "on" : "off", definition.getDescription());
+            }
+            System.out.println();
+            System.out.println("Rule sets: " + String.join(", ", RuleRegistry.getRuleSetNames()));
+        } catch (Exception e) {
+            System.err.println("Error listing rules: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
     private static void showConfiguration(CommandLine cmd) {
         try {
             String configFile = cmd.getOptionValue("config", DEFAULT_CONFIG);
@@ -387,30 +593,14 @@ public class LuceeToolbox {
             System.setProperty("org.slf4j.simpleLogger.showShortLogName", "false");
         }
         
-        // Try to configure Logback if available (after setting system properties)
+        // Try to configure Logback if it is the bound backend (after setting system properties).
+        // Checked by name, so Logback classes are only loaded when Logback is actually in use.
         try {
             ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
-            if (loggerFactory instanceof ch.qos.logback.classic.LoggerContext) {
-                // Logback is available, use it
-                ch.qos.logback.classic.LoggerContext loggerContext = (ch.qos.logback.classic.LoggerContext) loggerFactory;
-                ch.qos.logback.classic.Logger rootLogger = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
-                ch.qos.logback.classic.Logger toolboxLogger = loggerContext.getLogger("org.lucee.toolbox");
-                
-                if (quiet) {
-                    // Quiet mode: suppress all logging to console except errors
-                    rootLogger.setLevel(ch.qos.logback.classic.Level.ERROR);
-                    toolboxLogger.setLevel(ch.qos.logback.classic.Level.ERROR);
-                } else if (verbose) {
-                    // Verbose mode: show all logging including INFO and DEBUG
-                    rootLogger.setLevel(ch.qos.logback.classic.Level.INFO);
-                    toolboxLogger.setLevel(ch.qos.logback.classic.Level.DEBUG);
-                } else {
-                    // Default mode: only show warnings and errors
-                    rootLogger.setLevel(ch.qos.logback.classic.Level.ERROR);
-                    toolboxLogger.setLevel(ch.qos.logback.classic.Level.WARN);
-                }
+            if (loggerFactory.getClass().getName().startsWith("ch.qos.logback.")) {
+                LogbackLevels.apply(loggerFactory, verbose, quiet);
             }
-        } catch (Exception e) {
+        } catch (Exception | LinkageError e) {
             // If logging configuration fails, just continue silently
             // The application will still work, just without customized logging levels
         }
@@ -120,6 +120,21 @@ public class CommandLineInterface {
                 .desc("Predefined rule set: standard, cflint, minimal, strict (default: standard)")
                 .build());
         
+        // Baseline options
+        options.addOption(Option.builder()
+                .longOpt("baseline")
+                .hasArg()
+                .argName("FILE")
+                .desc("Only report violations that are not in the given baseline file")
+                .build());
+        
+        options.addOption(Option.builder()
+                .longOpt("write-baseline")
+                .hasArg()
+                .argName("FILE")
+                .desc("Record all current violations as a baseline file")
+                .build());
+        
         // Formatting specific options
         options.addOption(Option.builder()
                 .longOpt("dry-run")
@@ -131,6 +146,13 @@ public class CommandLineInterface {
                 .desc("Show differences that would be made")
                 .build());
         
+        options.addOption(Option.builder()
+                .longOpt("range")
+                .hasArg()
+                .argName("START-END")
+                .desc("Only format the given 1-based line range of a single file")
+                .build());
+        
         options.addOption(Option.builder()
                 .longOpt("backup")
                 .desc("Create backup files before formatting")
@@ -147,6 +169,11 @@ public class CommandLineInterface {
                 .desc("Clear cache and exit")
                 .build());
         
+        options.addOption(Option.builder()
+                .longOpt("project-index")
+                .desc("Build a cross-file index of the components in the input directory")
+                .build());
+        
         options.addOption(Option.builder()
                 .longOpt("max-threads")
                 .hasArg()
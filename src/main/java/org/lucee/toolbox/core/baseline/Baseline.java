@@ -0,0 +1,187 @@
+package org.lucee.toolbox.core.baseline;
+
+import org.lucee.toolbox.core.model.LintingViolation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Baseline of previously accepted violations.
+ * The baseline file is a small header followed by a sorted array of 64-bit
+ * violation fingerprints. The array is memory-mapped on first lookup and
+ * searched in place, so large legacy baselines cost neither heap nor load time.
+ */
+public class Baseline {
+    
+    static final int MAGIC = 0x4C54424C; // "LTBL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    
+    private final Path path;
+    private final int count;
+    private volatile LongBuffer fingerprints;
+    
+    private Baseline(Path path, int count) {
+        this.path = path;
+        this.count = count;
+    }
+    
+    /**
+     * Open a baseline file, validating its header. Fingerprints are mapped lazily on first use.
+     */
+    public static Baseline open(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path);
+             DataInputStream data = new DataInputStream(in)) {
+            int magic = data.readInt();
+            int version = data.readInt();
+            int count = data.readInt();
+            
+            if (magic != MAGIC) {
+                throw new IOException("Not a lucee-toolbox baseline file: " + path);
+            }
+            if (version != VERSION) {
+                throw new IOException("Unsupported baseline version " + version + " in " + path);
+            }
+            if (count < 0 || Files.size(path) < HEADER_SIZE + (long) count * Long.BYTES) {
+                throw new IOException("Truncated baseline file: " + path);
+            }
+            return new Baseline(path, count);
+        }
+    }
+    
+    /**
+     * Write the given fingerprints as a baseline file. The array is sorted in place.
+     */
+    public static void write(Path path, long[] fingerprints, int length) throws IOException {
+        Arrays.sort(fingerprints, 0, length);
+        
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        
+        // Write to a sibling temp file first so a crashed run never leaves a half-written baseline
+        Path tempFile = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(length);
+            out.writeInt(0); // reserved, keeps the fingerprint array 8-byte aligned
+            for (int i = 0; i < length; i++) {
+                out.writeLong(fingerprints[i]);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * Number of times the fingerprint occurs in the baseline
+     */
+    public int occurrences(long fingerprint) {
+        LongBuffer buffer = fingerprints();
+        int first = lowerBound(buffer, fingerprint);
+        if (first >= count || buffer.get(first) != fingerprint) {
+            return 0;
+        }
+        
+        int last = first;
+        while (last < count && buffer.get(last) == fingerprint) {
+            last++;
+        }
+        return last - first;
+    }
+    
+    public boolean contains(long fingerprint) {
+        return occurrences(fingerprint) > 0;
+    }
+    
+    /**
+     * Return only the violations that are not covered by the baseline.
+     * Fingerprints must be parallel to the violations list. Duplicate fingerprints
+     * are matched by count, so adding a second identical violation is still reported.
+     */
+    public List<LintingViolation> filterNew(List<LintingViolation> violations, long[] violationFingerprints) {
+        if (count == 0 || violations.isEmpty()) {
+            return violations;
+        }
+        
+        List<LintingViolation> newViolations = new ArrayList<>();
+        Map<Long, Integer> seen = new HashMap<>();
+        
+        for (int i = 0; i < violationFingerprints.length; i++) {
+            long fingerprint = violationFingerprints[i];
+            int seenCount = seen.merge(fingerprint, 1, Integer::sum);
+            if (seenCount > occurrences(fingerprint)) {
+                newViolations.add(violations.get(i));
+            }
+        }
+        
+        return newViolations;
+    }
+    
+    private LongBuffer fingerprints() {
+        LongBuffer buffer = fingerprints;
+        if (buffer == null) {
+            synchronized (this) {
+                buffer = fingerprints;
+                if (buffer == null) {
+                    buffer = mapFingerprints();
+                    fingerprints = buffer;
+                }
+            }
+        }
+        return buffer;
+    }
+    
+    private LongBuffer mapFingerprints() {
+        if (count == 0) {
+            return LongBuffer.allocate(0);
+        }
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) count * Long.BYTES).asLongBuffer();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load baseline " + path + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private int lowerBound(LongBuffer buffer, long fingerprint) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.get(mid) < fingerprint) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,37 @@
+package org.lucee.toolbox.core.baseline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Collects violation fingerprints during a run so they can be written as a new baseline.
+ * Safe to use from parallel linting workers.
+ */
+public class BaselineRecorder {
+    
+    private long[] fingerprints = new long[1024];
+    private int size = 0;
+    
+    /**
+     * Record the fingerprints of one file
+     */
+    public synchronized void record(long[] fileFingerprints) {
+        if (size + fileFingerprints.length > fingerprints.length) {
+            fingerprints = Arrays.copyOf(fingerprints, Math.max(fingerprints.length * 2, size + fileFingerprints.length));
+        }
+        System.arraycopy(fileFingerprints, 0, fingerprints, size, fileFingerprints.length);
+        size += fileFingerprints.length;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Write all recorded fingerprints as a baseline file
+     */
+    public synchronized void write(Path path) throws IOException {
+        Baseline.write(path, fingerprints, size);
+    }
+}
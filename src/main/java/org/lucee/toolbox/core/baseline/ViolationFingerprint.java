@@ -0,0 +1,89 @@
+package org.lucee.toolbox.core.baseline;
+
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.util.ContentHash;
+
+import java.util.List;
+
+/**
+ * Computes stable 64-bit fingerprints for linting violations.
+ * A fingerprint combines the rule ID, the file path relative to the project root
+ * and the normalized text of the offending line, so it survives line shifts caused
+ * by edits elsewhere in the file. Hashed with {@link ContentHash}.
+ */
+public final class ViolationFingerprint {
+    
+    private ViolationFingerprint() {
+        // Utility class
+    }
+    
+    /**
+     * Compute the fingerprint of a single violation
+     */
+    public static long compute(String ruleId, String relativePath, String lineText) {
+        long hash = ContentHash.start();
+        hash = ContentHash.separate(hashChars(hash, ruleId));
+        hash = ContentHash.separate(ContentHash.hashChars(hash, normalizePath(relativePath)));
+        hash = hashNormalizedLine(hash, lineText);
+        return ContentHash.finish(hash);
+    }
+    
+    /**
+     * Compute fingerprints for all violations of one file, in the same order as the violations
+     */
+    public static long[] computeAll(List<LintingViolation> violations, String[] lines, String relativePath) {
+        long[] fingerprints = new long[violations.size()];
+        for (int i = 0; i < fingerprints.length; i++) {
+            LintingViolation violation = violations.get(i);
+            int lineIndex = violation.getLine() - 1;
+            String lineText = lineIndex >= 0 && lineIndex < lines.length ? lines[lineIndex] : "";
+            fingerprints[i] = compute(violation.getRuleId(), relativePath, lineText);
+        }
+        return fingerprints;
+    }
+    
+    /**
+     * Hash the line text with leading/trailing whitespace removed and inner whitespace runs collapsed
+     */
+    private static long hashNormalizedLine(long hash, String lineText) {
+        if (lineText == null) {
+            return hash;
+        }
+        
+        int start = 0;
+        int end = lineText.length();
+        while (start < end && Character.isWhitespace(lineText.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(lineText.charAt(end - 1))) {
+            end--;
+        }
+        
+        boolean pendingSpace = false;
+        for (int i = start; i < end; i++) {
+            char c = lineText.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace) {
+                hash = ContentHash.hashChar(hash, ' ');
+                pendingSpace = false;
+            }
+            hash = ContentHash.hashChar(hash, c);
+        }
+        return hash;
+    }
+    
+    private static String normalizePath(String path) {
+        if (path == null) {
+            return "";
+        }
+        String normalized = path.replace('\\', '/');
+        return normalized.startsWith("./") ? normalized.substring(2) : normalized;
+    }
+    
+    private static long hashChars(long hash, String value) {
+        return value == null ? hash : ContentHash.hashChars(hash, value);
+    }
+}
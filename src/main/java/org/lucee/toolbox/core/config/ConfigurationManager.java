@@ -22,13 +22,24 @@ public class ConfigurationManager {
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationManager.class);
     private static final String DEFAULT_CONFIG_RESOURCE = "/lucee-toolbox.json";
     
-    private JsonNode configuration;
+    // Null until a file is loaded or a value is first read, so the bundled defaults are only parsed when used
+    private volatile JsonNode configuration;
     private final ObjectMapper objectMapper;
     private Path configBaseDirectory;
     
+    // Rule selection from the command line, applied on top of the configuration file
+    private String ruleSetOverride;
+    private final List<String> ruleOverrides = new ArrayList<>();
+    
+    // Caching switched off with --no-cache
+    private boolean cachingDisabled;
+    
+    // Project index switched on with --project-index
+    private boolean projectIndexRequested;
+    
     public ConfigurationManager() {
         this.objectMapper = new ObjectMapper();
-        loadDefaultConfiguration();
+        this.configBaseDirectory = Paths.get(".").toAbsolutePath();
     }
     
     /**
@@ -43,10 +54,27 @@ public class ConfigurationManager {
             this.configBaseDirectory = path.getParent().toAbsolutePath();
         } else {
             logger.warn("Configuration file not found: {}, using defaults", configPath);
-            loadDefaultConfiguration();
+            this.configuration = null;
+            this.configBaseDirectory = Paths.get(".").toAbsolutePath();
         }
     }
     
+    /**
+     * The loaded configuration, falling back to the bundled defaults on first use
+     */
+    private JsonNode configuration() {
+        JsonNode current = configuration;
+        if (current == null) {
+            synchronized (this) {
+                if (configuration == null) {
+                    loadDefaultConfiguration();
+                }
+                current = configuration;
+            }
+        }
+        return current;
+    }
+    
     /**
      * Load default configuration from resources
      */
@@ -95,13 +123,56 @@ public class ConfigurationManager {
     }
     
     public boolean isCachingEnabled() {
-        return getBooleanValue("performance.enableCaching", true);
+        return !cachingDisabled && getBooleanValue("performance.enableCaching", true);
+    }
+    
+    public void setCachingEnabled(boolean enabled) {
+        this.cachingDisabled = !enabled;
     }
     
     public String getCacheDirectory() {
         return getStringValue("performance.cacheDirectory", ".lucee-toolbox-cache");
     }
     
+    /**
+     * The cache directory, relative paths resolved against the configuration file's directory
+     */
+    public Path getCacheDirectoryPath() {
+        return configBaseDirectory.resolve(getCacheDirectory()).normalize();
+    }
+    
+    /**
+     * Whether linting a directory first builds the cross-file component index
+     */
+    public boolean isProjectIndexEnabled() {
+        return projectIndexRequested || getBooleanValue("performance.projectIndex", false);
+    }
+    
+    public void setProjectIndexEnabled(boolean enabled) {
+        this.projectIndexRequested = enabled;
+    }
+    
+    /**
+     * Whether the rules for a single large file run in parallel
+     */
+    public boolean isIntraFileParallelismEnabled() {
+        return getBooleanValue("performance.intraFileParallelism", true);
+    }
+    
+    /**
+     * Size in characters from which a file's rules run in parallel
+     */
+    public long getIntraFileThreshold() {
+        return getLongValue("performance.intraFileThreshold", 1048576L);
+    }
+    
+    /**
+     * Character reads a rule's regex matches may make per character of the file, 0 for no limit
+     */
+    public long getRegexBudget() {
+        return getLongValue("performance.regexBudget", 1000L);
+    }
+    
     // Linting configuration
     public boolean isLintingEnabled() {
         return getBooleanValue("linting.enabled", true);
@@ -119,6 +190,37 @@ public class ConfigurationManager {
         return getStringListValue("linting.severity.info", Arrays.asList("STYLE_GUIDE", "DOCUMENTATION"));
     }
     
+    /**
+     * Predefined rule set, from --rule-set or linting.ruleSet
+     */
+    public String getRuleSet() {
+        return ruleSetOverride != null ? ruleSetOverride : getStringValue("linting.ruleSet", "standard");
+    }
+    
+    public void setRuleSet(String ruleSet) {
+        this.ruleSetOverride = ruleSet;
+    }
+    
+    /**
+     * +RULE/-RULE entries from linting.ruleOverrides followed by those from --rules
+     */
+    public List<String> getRuleOverrides() {
+        List<String> overrides = new ArrayList<>(getStringListValue("linting.ruleOverrides", Collections.emptyList()));
+        overrides.addAll(ruleOverrides);
+        return overrides;
+    }
+    
+    /**
+     * Add comma-separated +RULE/-RULE entries, as given to --rules
+     */
+    public void addRuleOverrides(String overrides) {
+        for (String entry : overrides.split(",")) {
+            if (!entry.trim().isEmpty()) {
+                ruleOverrides.add(entry.trim());
+            }
+        }
+    }
+    
     // Naming convention rules
     public String getComponentCase() {
         return getStringValue("linting.rules.naming.componentCase", "PascalCase");
@@ -214,6 +316,15 @@ public class ConfigurationManager {
         return getBooleanValue("linting.rules.codeStructure.useAccessors", true);
     }
     
+    // CFML tag rules
+    public String getTagCase() {
+        return getStringValue("linting.rules.cfmlTags.tagCase", "lowercase");
+    }
+    
+    public String getAttributeCase() {
+        return getStringValue("linting.rules.cfmlTags.attributeCase", "lowercase");
+    }
+    
     // Best practices
     public boolean shouldUseVarScoping() {
         return getBooleanValue("linting.rules.bestPractices.useVarScoping", true);
@@ -249,6 +360,18 @@ public class ConfigurationManager {
         return getIntValue("formatting.indentation.size", 4);
     }
     
+    public int getFormattingContinuationIndent() {
+        return getIntValue("formatting.indentation.continuationIndent", 8);
+    }
+    
+    public int getFormattingMaxEmptyLines() {
+        return getIntValue("formatting.lineBreaks.maxEmptyLines", 1);
+    }
+    
+    public boolean isFormattingSpaceAroundOperators() {
+        return getBooleanValue("formatting.spacing.aroundOperators", true);
+    }
+    
     public String getFormattingBraceStyle() {
         return getStringValue("formatting.braces.style", "same-line");
     }
@@ -275,7 +398,7 @@ public class ConfigurationManager {
     
     // Custom rules
     public JsonNode getCustomRules(String ruleSet) {
-        JsonNode customRules = configuration.path("customRules");
+        JsonNode customRules = configuration().path("customRules");
         return customRules.path(ruleSet);
     }
     
@@ -317,7 +440,7 @@ public class ConfigurationManager {
     }
     
     private JsonNode getNode(String path) {
-        JsonNode current = configuration;
+        JsonNode current = configuration();
         String[] parts = path.split("\\.");
         
         for (String part : parts) {
@@ -337,7 +460,7 @@ public class ConfigurationManager {
     
     // Configuration export
     public String exportConfiguration() throws IOException {
-        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(configuration);
+        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(configuration());
     }
     
     // Get configuration summary for display
@@ -361,6 +484,10 @@ public class ConfigurationManager {
         
         summary.append("\nLinting Settings:\n");
         summary.append("  Enabled: ").append(isLintingEnabled()).append("\n");
+        summary.append("  Rule set: ").append(getRuleSet()).append("\n");
+        if (!getRuleOverrides().isEmpty()) {
+            summary.append("  Rule overrides: ").append(String.join(", ", getRuleOverrides())).append("\n");
+        }
         summary.append("  Max line length: ").append(getMaxLineLength()).append("\n");
         summary.append("  Max function length: ").append(getMaxFunctionLength()).append("\n");
         summary.append("  Require curly braces: ").append(shouldRequireCurlyBraces()).append("\n");
@@ -385,6 +512,10 @@ public class ConfigurationManager {
         summary.append("  Parallel processing: ").append(isParallelProcessingEnabled()).append("\n");
         summary.append("  Max threads: ").append(getMaxThreads()).append("\n");
         summary.append("  Caching enabled: ").append(isCachingEnabled()).append("\n");
+        summary.append("  Project index: ").append(isProjectIndexEnabled()).append("\n");
+        summary.append("  Intra-file parallelism: ").append(isIntraFileParallelismEnabled())
+                .append(" (from ").append(getIntraFileThreshold()).append(" characters)\n");
+        summary.append("  Regex budget: ").append(getRegexBudget()).append(" reads per character\n");
         
         return summary.toString();
     }
@@ -404,6 +535,10 @@ public class ConfigurationManager {
             errors.add("maxThreads must be at least 1");
         }
         
+        if (getRegexBudget() < 0) {
+            errors.add("regexBudget must not be negative");
+        }
+        
         // Validate indent settings
         if (getIndentSize() < 1) {
             errors.add("indentSize must be at least 1");
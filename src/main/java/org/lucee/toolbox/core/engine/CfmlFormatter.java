@@ -0,0 +1,1174 @@
+package org.lucee.toolbox.core.engine;
+
+import org.lucee.toolbox.core.config.ConfigurationManager;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Single-pass, token-aware CFML formatter.
+ * Walks the source once, tracking strings, comments, tags and block nesting, and writes
+ * indentation, operator spacing, trailing whitespace trimming, blank line collapsing and the
+ * final newline into one pre-sized buffer. String literals and comments are never rewritten.
+ */
+public class CfmlFormatter {
+    
+    // Tags whose attribute section is a CFML expression rather than name="value" pairs
+    private static final Set<String> EXPRESSION_TAGS = Set.of("set", "if", "elseif", "return");
+    
+    // Keywords after which + and - are unary
+    private static final Set<String> UNARY_KEYWORDS = Set.of(
+            "return", "case", "throw", "and", "or", "not", "xor", "eqv", "imp", "eq", "neq", "is",
+            "gt", "gte", "lt", "lte", "ge", "le", "mod", "contains", "in");
+    
+    // Keywords whose parentheses hold a condition or loop header rather than call arguments
+    private static final Set<String> CONTROL_KEYWORDS = Set.of("for", "if", "while", "switch", "catch");
+    
+    // Statements that open with a header of name=value attributes, which keep their own spacing
+    private static final Set<String> DECLARATION_KEYWORDS = Set.of(
+            "component", "interface", "property", "thread", "lock", "transaction", "savecontent", "param");
+    
+    // Last characters of a line that leave the statement open on the next line
+    private static final String CONTINUATION_ENDINGS = "&+-*/=|?";
+    
+    // First characters of a line that continue the previous statement
+    private static final String CONTINUATION_STARTS = ".&|+?:";
+    
+    // Longest first, so compound operators win over their prefixes
+    private static final String[] OPERATORS = {
+            "===", "!==", "==", "!=", "<=", ">=", "+=", "-=", "*=", "/=", "&=", "%=",
+            "=>", "->", "++", "--", "&&", "||", "+", "-", "*", "/", "=", "!", "<", ">", "&", "%"};
+    
+    private static final Set<String> SPACED_OPERATORS = Set.of(
+            "===", "!==", "==", "!=", "<=", ">=", "+=", "-=", "*=", "/=", "&=", "%=",
+            "=>", "+", "-", "*", "/", "=");
+    
+    private final int indentSize;
+    private final int continuationIndent;
+    private final boolean useTabs;
+    private final int maxEmptyLines;
+    private final boolean spaceAroundOperators;
+    private final boolean insertFinalNewline;
+    
+    public CfmlFormatter(ConfigurationManager configManager) {
+        this(configManager.getFormattingIndentationSize(),
+             configManager.getFormattingContinuationIndent(),
+             "tabs".equalsIgnoreCase(configManager.getFormattingIndentationType()),
+             configManager.getFormattingMaxEmptyLines(),
+             configManager.isFormattingSpaceAroundOperators(),
+             configManager.shouldInsertFinalNewline());
+    }
+    
+    public CfmlFormatter(int indentSize, int continuationIndent, boolean useTabs, int maxEmptyLines,
+                         boolean spaceAroundOperators, boolean insertFinalNewline) {
+        this.indentSize = Math.max(1, indentSize);
+        this.continuationIndent = Math.max(0, continuationIndent);
+        this.useTabs = useTabs;
+        this.maxEmptyLines = Math.max(0, maxEmptyLines);
+        this.spaceAroundOperators = spaceAroundOperators;
+        this.insertFinalNewline = insertFinalNewline;
+    }
+    
+    /**
+     * Format content, detecting script or tag syntax from the content itself
+     */
+    public String format(String content) {
+        return format(content, isScriptSyntax(content));
+    }
+    
+    /**
+     * Format content, using the file extension to tell templates from script files
+     */
+    public String format(String content, String filePath) {
+        return format(content, !isTemplatePath(filePath) && isScriptSyntax(content));
+    }
+    
+    /**
+     * Format content as either a script file or a tag-based template
+     */
+    public String format(String content, boolean scriptSyntax) {
+        if (content.isEmpty()) {
+            return content;
+        }
+        return new Pass(content, 0, content.length(), scriptSyntax, 0, 0).run();
+    }
+    
+    /**
+     * Format only the given 1-based, inclusive line range.
+     * Indentation context is taken from the nearest enclosing block opener above the range, whose
+     * own indentation is trusted, so only the lines from that opener down to the range are processed.
+     */
+    public RangeEdit formatRange(String content, int startLine, int endLine, boolean scriptSyntax) {
+        if (startLine < 1 || endLine < startLine) {
+            throw new IllegalArgumentException("Invalid line range: " + startLine + "-" + endLine);
+        }
+        int rangeStart = offsetOfLine(content, 0, 1, startLine);
+        int rangeEnd = offsetOfLine(content, rangeStart, startLine, endLine + 1);
+        
+        int anchor = rangeStart;
+        boolean anchorInScript = scriptSyntax;
+        int scriptTag = -1;
+        if (!scriptSyntax) {
+            scriptTag = findEnclosingScriptTag(content, rangeStart);
+            if (scriptTag >= 0) {
+                int opener = findEnclosingOpener(content, rangeStart, scriptTag);
+                anchor = opener >= 0 ? opener : lineStartOf(content, scriptTag);
+                anchorInScript = opener >= 0;
+            }
+        } else {
+            int opener = findEnclosingOpener(content, rangeStart, 0);
+            if (opener >= 0) {
+                anchor = opener;
+            }
+        }
+        
+        int baseIndent = anchor < rangeStart ? leadingWidth(content, anchor) : 0;
+        Pass pass = new Pass(content, anchor, rangeEnd, anchorInScript, baseIndent, rangeStart);
+        if (scriptTag >= 0) {
+            pass.outerScriptIndent = leadingWidth(content, lineStartOf(content, scriptTag));
+        }
+        String formatted = pass.run();
+        return new RangeEdit(startLine, endLine, rangeStart, rangeEnd,
+                content.substring(rangeStart, rangeEnd), formatted.substring(Math.min(pass.markOffset(), formatted.length())));
+    }
+    
+    /**
+     * Format the lines touched by the given character offsets, end exclusive
+     */
+    public RangeEdit formatOffsets(String content, int startOffset, int endOffset, boolean scriptSyntax) {
+        int startLine = lineOfOffset(content, startOffset);
+        int endLine = endOffset > startOffset ? lineOfOffset(content, endOffset - 1) : startLine;
+        return formatRange(content, startLine, endLine, scriptSyntax);
+    }
+    
+    /**
+     * Replacement text for a formatted line range
+     */
+    public static final class RangeEdit {
+        private final int startLine;
+        private final int endLine;
+        private final int startOffset;
+        private final int endOffset;
+        private final String originalText;
+        private final String formattedText;
+        
+        RangeEdit(int startLine, int endLine, int startOffset, int endOffset, String originalText, String formattedText) {
+            this.startLine = startLine;
+            this.endLine = endLine;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+            this.originalText = originalText;
+            this.formattedText = formattedText;
+        }
+        
+        public int getStartLine() {
+            return startLine;
+        }
+        
+        public int getEndLine() {
+            return endLine;
+        }
+        
+        public int getStartOffset() {
+            return startOffset;
+        }
+        
+        public int getEndOffset() {
+            return endOffset;
+        }
+        
+        public String getOriginalText() {
+            return originalText;
+        }
+        
+        public String getFormattedText() {
+            return formattedText;
+        }
+        
+        public boolean hasChanges() {
+            return !originalText.equals(formattedText);
+        }
+        
+        /**
+         * Apply this edit to the content it was computed from
+         */
+        public String applyTo(String content) {
+            return content.substring(0, startOffset) + formattedText + content.substring(endOffset);
+        }
+    }
+    
+    /**
+     * True when the first significant token is not a tag, i.e. the file is written in script syntax
+     */
+    public static boolean isScriptSyntax(String content) {
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            char c = content.charAt(i);
+            if (Character.isWhitespace(c) || c == '\uFEFF') {
+                i++;
+            } else if (content.startsWith("//", i)) {
+                int end = content.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (content.startsWith("/*", i)) {
+                int end = content.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (content.startsWith("<!---", i)) {
+                int end = content.indexOf("--->", i + 5);
+                i = end < 0 ? length : end + 4;
+            } else {
+                return c != '<';
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * True for extensions that are always tag-based templates
+     */
+    public static boolean isTemplatePath(String filePath) {
+        if (filePath == null) {
+            return false;
+        }
+        String lower = filePath.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".cfm") || lower.endsWith(".cfml") || lower.endsWith(".bxm")
+                || lower.endsWith(".htm") || lower.endsWith(".html");
+    }
+    
+    /**
+     * State of one formatting traversal. Not shared between threads.
+     */
+    private final class Pass {
+        private final String src;
+        private final int end;
+        private final StringBuilder out;
+        private int pos;
+        
+        // Open blocks: indentation of the opening line, indentation of the block content, and block kind
+        private int[] openerIndent = new int[16];
+        private int[] innerIndent = new int[16];
+        private String[] kinds = new String[16];
+        private int depth = 0;
+        
+        private boolean scriptMode;
+        private int lineStart = 0;
+        private int lineIndent = 0;
+        private int lineDelta = 0;
+        private int blankLines = 0;
+        private boolean declarationHeader = false;
+        private int headerIndent = 0;
+        // Where the expression of a tag such as cfreturn starts in the output, -1 outside one
+        private int tagExpressionStart = -1;
+        private boolean lineHasComment = false;
+        private boolean openStatement = false;
+        
+        // Range formatting: indentation outside any tracked block, and where the requested range starts
+        private final int baseIndent;
+        private final int markPosition;
+        private int markOffset = -1;
+        private int outerScriptIndent = 0;
+        
+        Pass(String src, int start, int stop, boolean scriptSyntax, int baseIndent, int markPosition) {
+            this.src = src;
+            this.pos = start;
+            this.end = stop;
+            this.scriptMode = scriptSyntax;
+            this.baseIndent = baseIndent;
+            this.lineIndent = baseIndent;
+            this.markPosition = markPosition;
+            int size = stop - start;
+            this.out = new StringBuilder(size + (size >> 3) + 16);
+        }
+        
+        /**
+         * Output offset of the first line at or after the mark position
+         */
+        int markOffset() {
+            return markOffset < 0 ? out.length() : markOffset;
+        }
+        
+        String run() {
+            boolean atLineStart = true;
+            while (pos < end) {
+                if (atLineStart) {
+                    if (markOffset < 0 && pos >= markPosition) {
+                        markOffset = out.length();
+                    }
+                    atLineStart = false;
+                    if (beginLine()) {
+                        atLineStart = true;
+                        continue;
+                    }
+                }
+                
+                int newline = newlineLength(pos);
+                if (newline > 0) {
+                    endLine();
+                    pos += newline;
+                    atLineStart = true;
+                } else if (scriptMode) {
+                    scanCode();
+                } else {
+                    scanText();
+                }
+            }
+            finish();
+            return out.toString();
+        }
+        
+        /**
+         * Consume leading whitespace and write the computed indentation. Returns true for blank lines.
+         */
+        private boolean beginLine() {
+            int width = 0;
+            while (pos < end) {
+                char c = src.charAt(pos);
+                if (c == ' ') {
+                    width++;
+                } else if (c == '\t') {
+                    width += indentSize;
+                } else {
+                    break;
+                }
+                pos++;
+            }
+            
+            if (pos >= end) {
+                return true;
+            }
+            
+            int newline = newlineLength(pos);
+            if (newline > 0) {
+                pos += newline;
+                if (blankLines < maxEmptyLines) {
+                    out.append('\n');
+                    lineStart = out.length();
+                    blankLines++;
+                }
+                return true;
+            }
+            
+            blankLines = 0;
+            lineHasComment = false;
+            if (!scriptMode) {
+                // Markup nesting is not tracked, so template lines keep their own indentation
+                writeIndent(width);
+                lineIndent = width;
+                lineDelta = 0;
+                return false;
+            }
+            if (declarationHeader && !insideBrackets()) {
+                // Wrapped header attributes move with the header's first line
+                int indent = Math.max(0, width + lineDelta);
+                writeIndent(indent);
+                lineIndent = indent;
+                return false;
+            }
+            
+            boolean caseLabel = isCaseLabel(pos);
+            if (caseLabel && depth > 0 && kinds[depth - 1].equals(":")) {
+                depth--;
+            }
+            int indent = codeLineIndent();
+            if (indent == currentIndent() && !insideBrackets()
+                    && (openStatement || CONTINUATION_STARTS.indexOf(src.charAt(pos)) >= 0)) {
+                indent += continuationIndent;
+            }
+            writeIndent(indent);
+            lineIndent = indent;
+            lineDelta = indent - width;
+            if (caseLabel) {
+                push(":", indentSize);
+            }
+            return false;
+        }
+        
+        private void endLine() {
+            trimTrailing();
+            if (scriptMode) {
+                char last = previousSignificant();
+                openStatement = !lineHasComment && last != 0 && CONTINUATION_ENDINGS.indexOf(last) >= 0
+                        && !endsWith("++") && !endsWith("--");
+            }
+            out.append('\n');
+            lineStart = out.length();
+        }
+        
+        /**
+         * Newline inside a multi-line comment or tag: trim, then shift the next line by the same
+         * amount the construct's first line moved, keeping relative alignment intact
+         */
+        private void continuationNewline(int newline) {
+            trimTrailing();
+            out.append('\n');
+            pos += newline;
+            lineStart = out.length();
+            
+            int width = 0;
+            int p = pos;
+            while (p < end && (src.charAt(p) == ' ' || src.charAt(p) == '\t')) {
+                width += src.charAt(p) == '\t' ? indentSize : 1;
+                p++;
+            }
+            if (p >= end || newlineLength(p) > 0) {
+                pos = p;
+                return;
+            }
+            pos = p;
+            writeIndent(Math.max(0, width + lineDelta));
+        }
+        
+        private void finish() {
+            trimTrailing();
+            if (end < src.length()) {
+                // A range ends on a line break, and the rest of the file follows
+                return;
+            }
+            int length = out.length();
+            while (length > 0 && out.charAt(length - 1) == '\n') {
+                length--;
+            }
+            out.setLength(length);
+            if (insertFinalNewline && length > 0) {
+                out.append('\n');
+            }
+        }
+        
+        private int codeLineIndent() {
+            int index = depth;
+            int p = pos;
+            while (p < end) {
+                char c = src.charAt(p);
+                if (c == '}' || c == ')' || c == ']') {
+                    int match = findOpener(index, openerFor(c));
+                    if (match < 0) {
+                        break;
+                    }
+                    index = match;
+                    p++;
+                } else if (c == ' ' || c == '\t') {
+                    p++;
+                } else {
+                    if (c == '<' && startsWithIgnoreCase(p, "</cfscript")) {
+                        int match = findTag(index, "script");
+                        if (match < 0) {
+                            // The opening tag lies above a formatted range
+                            return outerScriptIndent;
+                        }
+                        index = match;
+                    }
+                    break;
+                }
+            }
+            return index < depth ? openerIndent[index] : currentIndent();
+        }
+        
+        /**
+         * True for a switch label such as case "x": or default:
+         */
+        private boolean isCaseLabel(int at) {
+            if (startsWithIgnoreCase(at, "case") && at + 4 < end && !isIdentifierPart(src.charAt(at + 4))) {
+                return true;
+            }
+            if (startsWithIgnoreCase(at, "default")) {
+                int p = at + 7;
+                while (p < end && (src.charAt(p) == ' ' || src.charAt(p) == '\t')) {
+                    p++;
+                }
+                return p < end && src.charAt(p) == ':';
+            }
+            return false;
+        }
+        
+        private boolean insideBrackets() {
+            return depth > 0 && (kinds[depth - 1].equals("(") || kinds[depth - 1].equals("["));
+        }
+        
+        private void scanCode() {
+            char c = src.charAt(pos);
+            switch (c) {
+                case '"':
+                case '\'':
+                    copyString(c);
+                    return;
+                case '/':
+                    if (pos + 1 < end && src.charAt(pos + 1) == '/') {
+                        copyLineComment();
+                        return;
+                    }
+                    if (pos + 1 < end && src.charAt(pos + 1) == '*') {
+                        copyBlockComment();
+                        return;
+                    }
+                    handleOperator(false);
+                    return;
+                case '{':
+                    if (declarationHeader && !insideBrackets()) {
+                        // The body of a wrapped header is indented from the header's first line
+                        lineIndent = Math.min(lineIndent, headerIndent);
+                        declarationHeader = false;
+                    }
+                    push("{", indentSize);
+                    break;
+                case '(':
+                    push("(", indentSize);
+                    break;
+                case '[':
+                    push("[", indentSize);
+                    break;
+                case '}':
+                case ')':
+                case ']':
+                    pop(openerFor(c));
+                    break;
+                case ';':
+                    declarationHeader = false;
+                    break;
+                case '<':
+                    if (startsWithIgnoreCase(pos, "</cfscript")) {
+                        handleCloseTag();
+                        return;
+                    }
+                    handleOperator(false);
+                    return;
+                default:
+                    if (isIdentifierStart(c)) {
+                        copyWord(true);
+                        return;
+                    }
+                    if (c >= '0' && c <= '9') {
+                        copyNumber();
+                        return;
+                    }
+                    if (isOperatorChar(c)) {
+                        handleOperator(false);
+                        return;
+                    }
+            }
+            out.append(c);
+            pos++;
+        }
+        
+        private void copyWord(boolean trackDeclarations) {
+            int start = pos;
+            while (pos < end && isIdentifierPart(src.charAt(pos))) {
+                pos++;
+            }
+            
+            if (trackDeclarations && !declarationHeader && pos - start >= 4 && pos - start <= 11) {
+                String word = src.substring(start, pos).toLowerCase(Locale.ROOT);
+                if (word.equals("function")) {
+                    // Covers return types and access modifiers in front, and closures
+                    declarationHeader = true;
+                } else if (DECLARATION_KEYWORDS.contains(word)) {
+                    String previous = previousWord();
+                    if (previousSignificant() == 0 || "abstract".equals(previous) || "final".equals(previous)) {
+                        declarationHeader = true;
+                    }
+                }
+                if (declarationHeader) {
+                    headerIndent = lineIndent;
+                }
+            }
+            out.append(src, start, pos);
+        }
+        
+        private void copyNumber() {
+            int start = pos;
+            while (pos < end && (Character.isDigit(src.charAt(pos)) || src.charAt(pos) == '.')) {
+                pos++;
+            }
+            // Exponent, so the sign in 1e-5 is not treated as an operator
+            if (pos < end && (src.charAt(pos) == 'e' || src.charAt(pos) == 'E')) {
+                int p = pos + 1;
+                if (p < end && (src.charAt(p) == '+' || src.charAt(p) == '-')) {
+                    p++;
+                }
+                if (p < end && Character.isDigit(src.charAt(p))) {
+                    pos = p;
+                    while (pos < end && Character.isDigit(src.charAt(pos))) {
+                        pos++;
+                    }
+                }
+            }
+            out.append(src, start, pos);
+        }
+        
+        private void handleOperator(boolean inTag) {
+            String op = matchOperator(pos);
+            if (op == null || (inTag && (op.charAt(0) == '<' || op.charAt(0) == '>'))) {
+                out.append(src.charAt(pos));
+                pos++;
+                return;
+            }
+            pos += op.length();
+            
+            if (!spaceAroundOperators || declarationHeader || !SPACED_OPERATORS.contains(op)
+                    || (op.equals("=") && isNamedArgument())) {
+                out.append(op);
+                return;
+            }
+            
+            char previous = previousSignificant();
+            boolean unary = (op.equals("+") || op.equals("-")) && isUnaryContext(previous);
+            boolean wildcard = op.equals("*") && previous == '.';
+            if (previous == 0 || unary || wildcard) {
+                // Line continuations, unary signs and import wildcards keep their original spacing
+                out.append(op);
+                return;
+            }
+            
+            trimTrailing();
+            out.append(' ').append(op);
+            while (pos < end && (src.charAt(pos) == ' ' || src.charAt(pos) == '\t')) {
+                pos++;
+            }
+            if (pos < end && newlineLength(pos) == 0) {
+                out.append(' ');
+            }
+        }
+        
+        /**
+         * True when = follows a bare name directly after ( or , as in throw(type="x")
+         */
+        private boolean isNamedArgument() {
+            if (depth == 0 || !kinds[depth - 1].equals("(")) {
+                return false;
+            }
+            int i = out.length() - 1;
+            while (i >= lineStart && (out.charAt(i) == ' ' || out.charAt(i) == '\t')) {
+                i--;
+            }
+            int wordEnd = i;
+            while (i >= lineStart && isIdentifierPart(out.charAt(i))) {
+                i--;
+            }
+            if (i == wordEnd) {
+                return false;
+            }
+            while (i >= lineStart && (out.charAt(i) == ' ' || out.charAt(i) == '\t')) {
+                i--;
+            }
+            if (i < lineStart || out.charAt(i) == ',') {
+                return true;
+            }
+            // for (i=1; ...) assigns, it does not name an argument
+            return out.charAt(i) == '(' && !CONTROL_KEYWORDS.contains(wordBefore(i));
+        }
+        
+        private boolean isUnaryContext(char previous) {
+            if (tagExpressionStart >= 0 && out.substring(tagExpressionStart).isBlank()) {
+                // First thing in the expression of <cfreturn -1> or <cfset -x>
+                return true;
+            }
+            if (isIdentifierPart(previous)) {
+                return UNARY_KEYWORDS.contains(previousWord());
+            }
+            return previous != ')' && previous != ']' && previous != '}'
+                    && previous != '"' && previous != '\'' && previous != '#';
+        }
+        
+        private void copyString(char quote) {
+            out.append(quote);
+            pos++;
+            while (pos < end) {
+                char c = src.charAt(pos);
+                int newline = newlineLength(pos);
+                if (newline > 0) {
+                    // String content: no trimming, no re-indentation
+                    out.append('\n');
+                    pos += newline;
+                    lineStart = out.length();
+                    continue;
+                }
+                if (c == quote) {
+                    if (pos + 1 < end && src.charAt(pos + 1) == quote) {
+                        out.append(quote).append(quote);
+                        pos += 2;
+                        continue;
+                    }
+                    out.append(quote);
+                    pos++;
+                    return;
+                }
+                if (c == '#') {
+                    if (pos + 1 < end && src.charAt(pos + 1) == '#') {
+                        out.append("##");
+                        pos += 2;
+                        continue;
+                    }
+                    int close = findInterpolationEnd(pos + 1);
+                    if (close > 0) {
+                        out.append(src, pos, close + 1);
+                        pos = close + 1;
+                        continue;
+                    }
+                }
+                out.append(c);
+                pos++;
+            }
+        }
+        
+        /**
+         * Find the closing # of an interpolation on the same line, skipping nested string literals
+         */
+        private int findInterpolationEnd(int from) {
+            int p = from;
+            while (p < end) {
+                char c = src.charAt(p);
+                if (c == '\n' || c == '\r') {
+                    return -1;
+                }
+                if (c == '#') {
+                    return p;
+                }
+                if (c == '"' || c == '\'') {
+                    int close = src.indexOf(c, p + 1);
+                    int lineEnd = nextLineBreak(p + 1);
+                    if (close < 0 || close > lineEnd) {
+                        return -1;
+                    }
+                    p = close;
+                }
+                p++;
+            }
+            return -1;
+        }
+        
+        private void copyLineComment() {
+            lineHasComment = true;
+            int stop = nextLineBreak(pos);
+            out.append(src, pos, stop);
+            pos = stop;
+        }
+        
+        private void copyBlockComment() {
+            lineHasComment = true;
+            out.append("/*");
+            pos += 2;
+            while (pos < end) {
+                if (src.startsWith("*/", pos)) {
+                    out.append("*/");
+                    pos += 2;
+                    return;
+                }
+                int newline = newlineLength(pos);
+                if (newline > 0) {
+                    continuationNewline(newline);
+                } else {
+                    out.append(src.charAt(pos));
+                    pos++;
+                }
+            }
+        }
+        
+        private void copyTagComment() {
+            int nesting = 0;
+            while (pos < end) {
+                if (src.startsWith("<!---", pos)) {
+                    nesting++;
+                    out.append("<!---");
+                    pos += 5;
+                } else if (src.startsWith("--->", pos)) {
+                    out.append("--->");
+                    pos += 4;
+                    if (--nesting == 0) {
+                        return;
+                    }
+                } else {
+                    int newline = newlineLength(pos);
+                    if (newline > 0) {
+                        continuationNewline(newline);
+                    } else {
+                        out.append(src.charAt(pos));
+                        pos++;
+                    }
+                }
+            }
+        }
+        
+        private void scanText() {
+            char c = src.charAt(pos);
+            if (c == '<') {
+                if (src.startsWith("<!---", pos)) {
+                    copyTagComment();
+                    return;
+                }
+                if (startsWithIgnoreCase(pos, "<cf") && pos + 3 < end && isIdentifierStart(src.charAt(pos + 3))) {
+                    handleOpenTag();
+                    return;
+                }
+                if (startsWithIgnoreCase(pos, "</cf") && pos + 4 < end && isIdentifierStart(src.charAt(pos + 4))) {
+                    handleCloseTag();
+                    return;
+                }
+                out.append(c);
+                pos++;
+                return;
+            }
+            
+            // Copy markup in bulk up to the next tag or line break
+            int stop = pos + 1;
+            while (stop < end) {
+                char next = src.charAt(stop);
+                if (next == '<' || next == '\n' || next == '\r') {
+                    break;
+                }
+                stop++;
+            }
+            out.append(src, pos, stop);
+            pos = stop;
+        }
+        
+        private void handleOpenTag() {
+            int nameEnd = scanName(pos + 3);
+            String name = src.substring(pos + 3, nameEnd).toLowerCase(Locale.ROOT);
+            out.append(src, pos, nameEnd);
+            pos = nameEnd;
+            
+            boolean expression = EXPRESSION_TAGS.contains(name);
+            tagExpressionStart = expression ? out.length() : -1;
+            boolean selfClosing = false;
+            while (pos < end) {
+                char c = src.charAt(pos);
+                int newline = newlineLength(pos);
+                if (newline > 0) {
+                    continuationNewline(newline);
+                    continue;
+                }
+                if (c == '>') {
+                    selfClosing = previousSignificant() == '/';
+                    out.append('>');
+                    pos++;
+                    break;
+                }
+                if (c == '"' || c == '\'') {
+                    copyString(c);
+                    continue;
+                }
+                if (expression) {
+                    if (c == '/' && pos + 1 < end && src.charAt(pos + 1) == '>') {
+                        out.append(c);
+                        pos++;
+                        continue;
+                    }
+                    if (isIdentifierStart(c)) {
+                        copyWord(false);
+                        continue;
+                    }
+                    if (c >= '0' && c <= '9') {
+                        copyNumber();
+                        continue;
+                    }
+                    if (isOperatorChar(c)) {
+                        handleOperator(true);
+                        continue;
+                    }
+                }
+                out.append(c);
+                pos++;
+            }
+            tagExpressionStart = -1;
+            
+            if (!selfClosing && name.equals("script")) {
+                push(name, indentSize);
+                scriptMode = true;
+                openStatement = false;
+            }
+        }
+        
+        private void handleCloseTag() {
+            int nameEnd = scanName(pos + 4);
+            String name = src.substring(pos + 4, nameEnd).toLowerCase(Locale.ROOT);
+            int close = src.indexOf('>', nameEnd);
+            int stop = close < 0 ? end : close + 1;
+            out.append(src, pos, stop);
+            pos = stop;
+            
+            int match = findTag(depth, name);
+            if (match >= 0) {
+                depth = match;
+            }
+            if (name.equals("script")) {
+                scriptMode = false;
+                declarationHeader = false;
+            }
+        }
+        
+        private void push(String kind, int delta) {
+            if (depth == kinds.length) {
+                openerIndent = Arrays.copyOf(openerIndent, depth * 2);
+                innerIndent = Arrays.copyOf(innerIndent, depth * 2);
+                kinds = Arrays.copyOf(kinds, depth * 2);
+            }
+            openerIndent[depth] = lineIndent;
+            innerIndent[depth] = lineIndent + delta;
+            kinds[depth] = kind;
+            depth++;
+        }
+        
+        private void pop(String kind) {
+            int match = findOpener(depth, kind);
+            if (match >= 0) {
+                // A block opened after this closer belongs to the statement that opened the bracket
+                lineIndent = Math.min(lineIndent, openerIndent[match]);
+                depth = match;
+            }
+        }
+        
+        private int currentIndent() {
+            return depth > 0 ? innerIndent[depth - 1] : baseIndent;
+        }
+        
+        /**
+         * Find the innermost bracket of the given kind below limit, without crossing a tag block
+         */
+        private int findOpener(int limit, String kind) {
+            for (int i = limit - 1; i >= 0; i--) {
+                if (kinds[i].equals(kind)) {
+                    return i;
+                }
+                if (isTagKind(kinds[i])) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+        
+        private int findTag(int limit, String name) {
+            for (int i = limit - 1; i >= 0; i--) {
+                if (kinds[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        private void writeIndent(int columns) {
+            if (useTabs) {
+                for (int i = 0; i < columns / indentSize; i++) {
+                    out.append('\t');
+                }
+                columns %= indentSize;
+            }
+            for (int i = 0; i < columns; i++) {
+                out.append(' ');
+            }
+        }
+        
+        private void trimTrailing() {
+            int length = out.length();
+            while (length > lineStart && (out.charAt(length - 1) == ' ' || out.charAt(length - 1) == '\t')) {
+                length--;
+            }
+            out.setLength(length);
+        }
+        
+        /**
+         * Last non-blank character written on the current line, or 0 if there is none
+         */
+        private char previousSignificant() {
+            for (int i = out.length() - 1; i >= lineStart; i--) {
+                char c = out.charAt(i);
+                if (c != ' ' && c != '\t') {
+                    return c;
+                }
+            }
+            return 0;
+        }
+        
+        private String previousWord() {
+            return wordBefore(out.length());
+        }
+        
+        /**
+         * The word ending just before an offset on the current line, skipping blanks
+         */
+        private String wordBefore(int offset) {
+            int i = offset - 1;
+            while (i >= lineStart && (out.charAt(i) == ' ' || out.charAt(i) == '\t')) {
+                i--;
+            }
+            int wordEnd = i + 1;
+            while (i >= lineStart && isIdentifierPart(out.charAt(i))) {
+                i--;
+            }
+            return out.substring(i + 1, wordEnd).toLowerCase(Locale.ROOT);
+        }
+        
+        private boolean endsWith(String suffix) {
+            int length = out.length();
+            return length - suffix.length() >= lineStart
+                    && out.substring(length - suffix.length()).equals(suffix);
+        }
+        
+        private String matchOperator(int at) {
+            for (String op : OPERATORS) {
+                if (src.startsWith(op, at)) {
+                    return op;
+                }
+            }
+            return null;
+        }
+        
+        private int newlineLength(int at) {
+            char c = src.charAt(at);
+            if (c == '\n') {
+                return 1;
+            }
+            if (c == '\r') {
+                return at + 1 < end && src.charAt(at + 1) == '\n' ? 2 : 1;
+            }
+            return 0;
+        }
+        
+        private int nextLineBreak(int from) {
+            int p = from;
+            while (p < end && src.charAt(p) != '\n' && src.charAt(p) != '\r') {
+                p++;
+            }
+            return p;
+        }
+        
+        private int scanName(int from) {
+            int p = from;
+            while (p < end && (isIdentifierPart(src.charAt(p)) || src.charAt(p) == '-' || src.charAt(p) == ':')) {
+                p++;
+            }
+            return p;
+        }
+        
+        private boolean startsWithIgnoreCase(int at, String prefix) {
+            return src.regionMatches(true, at, prefix, 0, prefix.length());
+        }
+    }
+    
+    /**
+     * Offset of the start of targetLine, counting forward from a known line start
+     */
+    private static int offsetOfLine(String content, int from, int fromLine, int targetLine) {
+        int offset = from;
+        for (int line = fromLine; line < targetLine && offset < content.length(); line++) {
+            int newline = content.indexOf('\n', offset);
+            offset = newline < 0 ? content.length() : newline + 1;
+        }
+        return offset;
+    }
+    
+    private static int lineOfOffset(String content, int offset) {
+        int line = 1;
+        int limit = Math.min(offset, content.length());
+        for (int i = 0; i < limit; i++) {
+            if (content.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+    
+    private static int lineStartOf(String content, int offset) {
+        return content.lastIndexOf('\n', offset - 1) + 1;
+    }
+    
+    private int leadingWidth(String content, int lineStart) {
+        int width = 0;
+        for (int i = lineStart; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == ' ') {
+                width++;
+            } else if (c == '\t') {
+                width += indentSize;
+            } else {
+                break;
+            }
+        }
+        return width;
+    }
+    
+    /**
+     * Offset of the last opening cfscript tag before the given offset that has not been closed yet, or -1
+     */
+    private static int findEnclosingScriptTag(String content, int before) {
+        for (int i = before - 1; i >= 0; i--) {
+            if (content.charAt(i) != '<') {
+                continue;
+            }
+            if (content.regionMatches(true, i, "</cfscript", 0, 10)) {
+                return -1;
+            }
+            if (content.regionMatches(true, i, "<cfscript", 0, 9)) {
+                int close = content.indexOf('>', i);
+                return close >= 0 && close < before && content.charAt(close - 1) != '/' ? i : -1;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Walk lines upward from the range start to the line holding the innermost unclosed bracket.
+     * Strings and line comments are skipped per line. Returns that line's start offset, or -1.
+     */
+    private static int findEnclosingOpener(String content, int rangeStart, int floor) {
+        int unmatched = 0;
+        char[] brackets = new char[64];
+        int lineEnd = rangeStart;
+        while (lineEnd > floor) {
+            int lineStart = Math.max(floor, lineStartOf(content, lineEnd - 1));
+            
+            int count = 0;
+            char quote = 0;
+            for (int i = lineStart; i < lineEnd; i++) {
+                char c = content.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '/' && i + 1 < lineEnd && content.charAt(i + 1) == '/') {
+                    break;
+                } else if (c == '{' || c == '(' || c == '[' || c == '}' || c == ')' || c == ']') {
+                    if (count == brackets.length) {
+                        brackets = Arrays.copyOf(brackets, count * 2);
+                    }
+                    brackets[count++] = c;
+                }
+            }
+            
+            for (int i = count - 1; i >= 0; i--) {
+                char c = brackets[i];
+                if (c == '}' || c == ')' || c == ']') {
+                    unmatched++;
+                } else if (unmatched == 0) {
+                    return lineStart;
+                } else {
+                    unmatched--;
+                }
+            }
+            lineEnd = lineStart;
+        }
+        return -1;
+    }
+    
+    private static String openerFor(char closer) {
+        return closer == '}' ? "{" : closer == ')' ? "(" : "[";
+    }
+    
+    private static boolean isTagKind(String kind) {
+        return Character.isLetter(kind.charAt(0));
+    }
+    
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+    
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+    
+    private static boolean isOperatorChar(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '*' || c == '/' || c == '!'
+                || c == '<' || c == '>' || c == '&' || c == '%' || c == '|';
+    }
+}
@@ -3,10 +3,14 @@ package org.lucee.toolbox.core.engine;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.FormattingChange;
 import org.lucee.toolbox.core.model.ToolboxResult;
+import org.lucee.toolbox.core.util.AtomicFileWriter;
+import org.lucee.toolbox.core.util.EncodingDetector;
+import org.lucee.toolbox.core.util.LineDiff;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -25,18 +29,36 @@ public class FormattingEngine {
     private final ConfigurationManager configManager;
     private final String parserType;
     private final boolean performanceMode;
+    private final CfmlFormatter formatter;
     private ExecutorService executorService;
+    private boolean dryRun = false;
+    private boolean createBackups = false;
     
     public FormattingEngine(ConfigurationManager configManager, String parserType, boolean performanceMode) {
         this.configManager = configManager;
         this.parserType = parserType;
         this.performanceMode = performanceMode;
+        this.formatter = new CfmlFormatter(configManager);
         
         if (performanceMode && configManager.isParallelProcessingEnabled()) {
             this.executorService = Executors.newFixedThreadPool(configManager.getMaxThreads());
         }
     }
     
+    /**
+     * Report formatting changes without writing them to disk
+     */
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+    
+    /**
+     * Keep a copy of each original file next to it before overwriting
+     */
+    public void setCreateBackups(boolean createBackups) {
+        this.createBackups = createBackups;
+    }
+    
     /**
      * Format the given file or directory
      */
@@ -185,32 +207,29 @@ public class FormattingEngine {
     }
     
     private void formatSingleFile(Path file, ToolboxResult result, boolean verbose, boolean quiet, boolean singleFileMode) throws IOException {
+        long fileStart = System.nanoTime();
         if (!quiet && verbose) {
             logger.debug("Formatting file: {}", file);
         }
         
-        // Read file content
-        String originalContent = Files.readString(file, java.nio.charset.Charset.forName(configManager.getEncoding()));
+        // Read file content, remembering encoding and BOM so they survive the write
+        Charset fallbackEncoding = Charset.forName(configManager.getEncoding());
+        EncodingDetector.DecodedFile decodedFile = EncodingDetector.readFile(file, fallbackEncoding);
+        String originalContent = decodedFile.getContent();
         
-        // Apply basic formatting
-        String formattedContent = applyBasicFormatting(originalContent);
+        // Format in a single token-aware pass
+        String formattedContent = formatter.format(originalContent, file.toString());
         
         // Check if formatting actually changed anything
         if (!originalContent.equals(formattedContent)) {
-            // Create a meaningful formatting change
-            FormattingChange change = new FormattingChange(
-                file.toString(), 
-                1, 
-                originalContent.split("\n").length, 
-                originalContent, 
-                formattedContent, 
-                "formatting", 
-                "Applied code formatting (indentation, line breaks, etc.)"
-            );
-            result.addFormattingChange(change);
+            if (!dryRun) {
+                AtomicFileWriter.write(file, decodedFile.encode(formattedContent), createBackups);
+            }
+            
+            addChanges(result, file, LineDiff.of(originalContent, formattedContent), 0);
             
             if (!quiet && verbose) {
-                logger.debug("Applied formatting change in {}", file);
+                logger.debug(dryRun ? "Formatting change pending in {}" : "Applied formatting change in {}", file);
             }
         } else {
             if (!quiet && verbose) {
@@ -219,6 +238,66 @@ public class FormattingEngine {
         }
         
         result.getStats().incrementFilesProcessed();
+        result.getStats().recordFileLatency(System.nanoTime() - fileStart);
+    }
+    
+    /**
+     * Format only the given 1-based, inclusive line range of a file.
+     * Indentation context comes from the nearest enclosing block, so the rest of the file is not reprocessed.
+     */
+    public ToolboxResult formatRange(Path file, int startLine, int endLine) throws IOException {
+        long startTime = System.currentTimeMillis();
+        ToolboxResult result = new ToolboxResult();
+        
+        Charset fallbackEncoding = Charset.forName(configManager.getEncoding());
+        EncodingDetector.DecodedFile decodedFile = EncodingDetector.readFile(file, fallbackEncoding);
+        String originalContent = decodedFile.getContent();
+        
+        boolean scriptSyntax = !CfmlFormatter.isTemplatePath(file.toString()) && CfmlFormatter.isScriptSyntax(originalContent);
+        CfmlFormatter.RangeEdit edit = formatter.formatRange(originalContent, startLine, endLine, scriptSyntax);
+        
+        if (edit.hasChanges()) {
+            if (!dryRun) {
+                AtomicFileWriter.write(file, decodedFile.encode(edit.applyTo(originalContent)), createBackups);
+            }
+            addChanges(result, file, LineDiff.of(edit.getOriginalText(), edit.getFormattedText()), startLine - 1);
+        }
+        
+        result.getStats().incrementFilesProcessed();
+        result.getStats().setExecutionTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+    
+    /**
+     * Add one change per diff hunk; the line text is only kept when it is needed to preview a dry run
+     */
+    private void addChanges(ToolboxResult result, Path file, LineDiff diff, int lineOffset) {
+        for (LineDiff.Hunk hunk : diff.getHunks()) {
+            int startLine = lineOffset + hunk.getOriginalStart() + 1;
+            FormattingChange change = new FormattingChange(
+                file.toString(), 
+                startLine, 
+                Math.max(startLine, lineOffset + hunk.getOriginalEnd()), 
+                dryRun ? diff.originalText(hunk) : null, 
+                dryRun ? diff.revisedText(hunk) : null, 
+                "formatting", 
+                describe(hunk)
+            );
+            result.addFormattingChange(change);
+        }
+    }
+    
+    /**
+     * Describe a diff hunk for reports
+     */
+    private String describe(LineDiff.Hunk hunk) {
+        if (hunk.getOriginalLineCount() == 0) {
+            return "Inserted " + hunk.getRevisedLineCount() + " line(s)";
+        }
+        if (hunk.getRevisedLineCount() == 0) {
+            return "Removed " + hunk.getOriginalLineCount() + " line(s)";
+        }
+        return "Reformatted " + hunk.getOriginalLineCount() + " line(s)";
     }
     
     /**
@@ -285,38 +364,4 @@ public class FormattingEngine {
         
         return path.matches(regex);
     }
-    
-    /**
-     * Apply basic formatting to CFML code
-     */
-    private String applyBasicFormatting(String content) {
-        // Basic formatting improvements
-        String formatted = content;
-        
-        // Normalize line endings
-        formatted = formatted.replaceAll("\r\n", "\n").replaceAll("\r", "\n");
-        
-        // Remove trailing whitespace from lines
-        formatted = formatted.replaceAll("[ \\t]+$", "");
-        
-        // Ensure consistent indentation (convert tabs to spaces)
-        int indentSize = configManager.getIndentSize();
-        String spaces = " ".repeat(indentSize);
-        formatted = formatted.replaceAll("\\t", spaces);
-        
-        // Add consistent spacing around operators
-        formatted = formatted.replaceAll("\\s*=\\s*", " = ");
-        formatted = formatted.replaceAll("\\s*\\+\\s*", " + ");
-        formatted = formatted.replaceAll("\\s*-\\s*", " - ");
-        formatted = formatted.replaceAll("\\s*\\*\\s*", " * ");
-        formatted = formatted.replaceAll("\\s*/\\s*", " / ");
-        
-        // Clean up multiple blank lines
-        formatted = formatted.replaceAll("\n{3,}", "\n\n");
-        
-        // Ensure file ends with single newline
-        formatted = formatted.replaceAll("\n*$", "\n");
-        
-        return formatted;
-    }
 }
@@ -1,10 +1,16 @@
 package org.lucee.toolbox.core.engine;
 
+import org.lucee.toolbox.core.baseline.Baseline;
+import org.lucee.toolbox.core.baseline.BaselineRecorder;
+import org.lucee.toolbox.core.baseline.ViolationFingerprint;
 import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.index.CallGraph;
+import org.lucee.toolbox.core.index.ProjectIndex;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
 import org.lucee.toolbox.core.model.ToolboxResult;
-import org.lucee.toolbox.core.parser.CfmlParser;
+import org.lucee.toolbox.core.parser.ParseFailureCache;
+import org.lucee.toolbox.core.parser.ParserChain;
 import org.lucee.toolbox.core.parser.ParserFactory;
 import org.lucee.toolbox.core.rules.LintingRuleEngine;
 import org.lucee.toolbox.core.util.EncodingDetector;
@@ -16,7 +22,11 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -28,25 +38,64 @@ public class LintingEngine {
     
     private static final Logger logger = LoggerFactory.getLogger(LintingEngine.class);
     
+    // Prefixes of errors that mean files went unlinted, rather than that a single file failed
+    private static final String LINTING_FAILED = "Linting failed: ";
+    private static final String PARALLEL_FAILED = "Parallel processing error: ";
+    
     private final ConfigurationManager configManager;
     private final String parserType;
     private final boolean performanceMode;
     private final LintingRuleEngine ruleEngine;
-    private final ParserFactory parserFactory;
+    private final ParserChain parserChain;
+    private final ParseFailureCache parseFailures;
+    private ProjectIndex projectIndex;
     private ExecutorService executorService;
+    private Baseline baseline;
+    private BaselineRecorder baselineRecorder;
     
     public LintingEngine(ConfigurationManager configManager, String parserType, boolean performanceMode) {
         this.configManager = configManager;
         this.parserType = parserType;
         this.performanceMode = performanceMode;
         this.ruleEngine = new LintingRuleEngine(configManager);
-        this.parserFactory = new ParserFactory(configManager);
+        this.parseFailures = configManager.isCachingEnabled()
+                ? ParseFailureCache.load(configManager.getCacheDirectoryPath())
+                : ParseFailureCache.inMemory();
+        this.parserChain = new ParserChain(new ParserFactory(configManager), parseFailures);
         
         if (performanceMode && configManager.isParallelProcessingEnabled()) {
             this.executorService = Executors.newFixedThreadPool(configManager.getMaxThreads());
         }
     }
     
+    /**
+     * Only report violations that are not part of the given baseline
+     */
+    public void setBaseline(Baseline baseline) {
+        this.baseline = baseline;
+    }
+    
+    /**
+     * Record fingerprints of all violations found, for writing a new baseline
+     */
+    public void setBaselineRecorder(BaselineRecorder baselineRecorder) {
+        this.baselineRecorder = baselineRecorder;
+    }
+    
+    /**
+     * The cross-file component index of the last directory linted, or null if it was not built
+     */
+    public ProjectIndex getProjectIndex() {
+        return projectIndex;
+    }
+    
+    /**
+     * True if an error in a result means the run stopped or lost files, so its violations are incomplete
+     */
+    public static boolean isRunFailure(String error) {
+        return error.startsWith(LINTING_FAILED) || error.startsWith(PARALLEL_FAILED);
+    }
+    
     /**
      * Lint the given path (file or directory)
      */
@@ -73,11 +122,13 @@ public class LintingEngine {
             }
         } catch (Exception e) {
             logger.error("Error during linting: {}", e.getMessage(), e);
-            result.addError("Linting failed: " + e.getMessage());
+            result.addError(LINTING_FAILED + e.getMessage());
         } finally {
             if (executorService != null) {
                 executorService.shutdown();
             }
+            saveParseFailures();
+            saveProjectIndex();
         }
         
         long duration = System.currentTimeMillis() - startTime;
@@ -111,6 +162,14 @@ public class LintingEngine {
                 logger.info("Found {} CFML files to analyze", cfmlFiles.size());
             }
             
+            boolean callGraphNeeded = ruleEngine.requiresCallGraph();
+            if (configManager.isProjectIndexEnabled() || callGraphNeeded) {
+                buildProjectIndex(directory, cfmlFiles, verbose, quiet);
+            }
+            if (callGraphNeeded) {
+                buildCallGraph(verbose, quiet);
+            }
+            
             // Note: singleFileMode is always false for directory processing
             if (performanceMode && executorService != null && cfmlFiles.size() > 1) {
                 lintFilesInParallel(cfmlFiles, result, verbose, quiet, false);
@@ -120,6 +179,36 @@ public class LintingEngine {
         }
     }
     
+    /**
+     * Index the files before linting them, re-reading only files changed since the last run
+     */
+    private void buildProjectIndex(Path directory, List<Path> files, boolean verbose, boolean quiet) {
+        long start = System.currentTimeMillis();
+        projectIndex = configManager.isCachingEnabled()
+                ? ProjectIndex.load(configManager.getCacheDirectoryPath())
+                : ProjectIndex.inMemory();
+        int reindexed = projectIndex.update(directory, files, Charset.forName(configManager.getEncoding()), executorService);
+        
+        if (!quiet && verbose) {
+            logger.info("Indexed {} components ({} files read) in {} ms",
+                    projectIndex.size(), reindexed, System.currentTimeMillis() - start);
+        }
+    }
+    
+    /**
+     * Join the index into the call graph the project rules judge each file by
+     */
+    private void buildCallGraph(boolean verbose, boolean quiet) {
+        long start = System.currentTimeMillis();
+        CallGraph callGraph = CallGraph.of(projectIndex);
+        ruleEngine.setCallGraph(callGraph);
+        
+        if (!quiet && verbose) {
+            logger.info("Built the call graph of {} components in {} ms",
+                    callGraph.getComponentCount(), System.currentTimeMillis() - start);
+        }
+    }
+    
     /**
      * Lint files in parallel for better performance
      */
@@ -146,7 +235,7 @@ public class LintingEngine {
                 result.mergeWith(fileResult);
             } catch (Exception e) {
                 logger.error("Error getting parallel linting result: {}", e.getMessage());
-                result.addError("Parallel processing error: " + e.getMessage());
+                result.addError(PARALLEL_FAILED + e.getMessage());
             }
         }
     }
@@ -176,6 +265,7 @@ public class LintingEngine {
      * Core method to lint a single file
      */
     private void lintSingleFile(Path file, ToolboxResult result, boolean verbose, boolean quiet, boolean singleFileMode) throws IOException {
+        long fileStart = System.nanoTime();
         if (!quiet && verbose) {
             logger.debug("Analyzing file: {}", file);
         }
@@ -192,20 +282,18 @@ public class LintingEngine {
         Charset fallbackEncoding = Charset.forName(configManager.getEncoding());
         String content = EncodingDetector.readFileWithEncodingDetection(file, fallbackEncoding);
         
-        // Determine and create parser
-        String selectedParserType = determineParserType(content);
-        CfmlParser parser = parserFactory.createParser(selectedParserType);
-        if (parser == null) {
-            logger.error("No suitable parser found for file: {}", file);
-            result.addError("No parser available for: " + file);
-            return;
-        }
-        
         try {
-            // Parse and analyze
-            var parseResult = parser.parse(content, file.toString());
+            // Parse and analyze, parsing only as far as the active rules need and falling back on failure
+            ParserChain.Outcome outcome = parserChain.parse(content, file.toString(),
+                    determineParserTypes(content), ruleEngine.getAnalysisLevel());
+            var parseResult = outcome.getResult();
             List<LintingViolation> violations = ruleEngine.analyzeFile(parseResult, file.toString());
             
+            // Match against the baseline before any context is added
+            if ((baseline != null || baselineRecorder != null) && !violations.isEmpty()) {
+                violations = applyBaseline(file, parseResult.getLines(), violations, result);
+            }
+            
             // If in single file mode, enhance violations with context
             if (singleFileMode) {
                 violations = enhanceViolationsWithContext(violations, content);
@@ -214,9 +302,10 @@ public class LintingEngine {
             // Add violations to result
             result.addViolations(violations);
             result.getStats().incrementFilesProcessed();
+            result.getStats().recordFileLatency(System.nanoTime() - fileStart);
             
             // Track parser usage
-            result.getStats().incrementParserUsage(parser.getParserType());
+            result.getStats().incrementParserUsage(outcome.getParserType());
             
             if (!quiet && verbose && !violations.isEmpty()) {
                 logger.debug("Found {} violations in {}", violations.size(), file);
@@ -229,20 +318,73 @@ public class LintingEngine {
     }
     
     /**
-     * Determine which parser to use based on content analysis
+     * Record violation fingerprints and drop violations already covered by the baseline
      */
-    private String determineParserType(String content) {
+    private List<LintingViolation> applyBaseline(Path file, String[] lines, List<LintingViolation> violations, ToolboxResult result) {
+        String relativePath = getRelativePathString(file, configManager.getConfigBaseDirectory());
+        long[] fingerprints = ViolationFingerprint.computeAll(violations, lines, relativePath);
+        
+        if (baselineRecorder != null) {
+            baselineRecorder.record(fingerprints);
+        }
+        
+        if (baseline == null) {
+            return violations;
+        }
+        
+        List<LintingViolation> newViolations = baseline.filterNew(violations, fingerprints);
+        result.getStats().incrementBaselineSuppressed(violations.size() - newViolations.size());
+        return newViolations;
+    }
+    
+    /**
+     * Parsers to try in order: the one suited to the content first, then the other configured parser
+     */
+    private List<String> determineParserTypes(String content) {
+        String first;
         if ("auto".equals(parserType)) {
             // Simple heuristics to determine parser type
             if (content.contains("component") || content.contains("interface")) {
-                return configManager.getPrimaryParser();
+                first = configManager.getPrimaryParser();
             } else if (content.contains("<cf") || content.contains("</cf")) {
-                return configManager.getPrimaryParser();
+                first = configManager.getPrimaryParser();
             } else {
-                return configManager.getFallbackParser();
+                first = configManager.getFallbackParser();
             }
+        } else {
+            first = parserType;
+        }
+        
+        Set<String> types = new LinkedHashSet<>();
+        types.add(first.toLowerCase(Locale.ROOT));
+        types.add(configManager.getPrimaryParser().toLowerCase(Locale.ROOT));
+        types.add(configManager.getFallbackParser().toLowerCase(Locale.ROOT));
+        return new ArrayList<>(types);
+    }
+    
+    /**
+     * Keep the parsers that failed this run for the next one, unless caching is off
+     */
+    private void saveParseFailures() {
+        try {
+            parseFailures.save();
+        } catch (IOException e) {
+            logger.warn("Could not write the parse failure cache: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Keep the project index for the next run, unless caching is off
+     */
+    private void saveProjectIndex() {
+        if (projectIndex == null) {
+            return;
+        }
+        try {
+            projectIndex.save();
+        } catch (IOException e) {
+            logger.warn("Could not write the project index: {}", e.getMessage());
         }
-        return parserType;
     }
     
     /**
@@ -299,7 +441,7 @@ public class LintingEngine {
                 return true;
             }
         }
-
+        
         // Convert glob pattern to regex for complex patterns
         String regex = pattern
                 .replace("**", "DOUBLE_STAR")
@@ -3,11 +3,16 @@ package org.lucee.toolbox.core.engine;
 import org.lucee.toolbox.core.model.FormattingChange;
 import org.lucee.toolbox.core.model.ToolboxResult;
 import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.util.LineDiff;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
-import javax.script.ScriptContext;
+import javax.script.SimpleScriptContext;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,9 +23,74 @@ import java.util.List;
  */
 public class LuceeFormattingEngine {
     
+    // Compiled once per engine; the source and indentation settings come in through per-call bindings
+    private static final String FORMATTING_SCRIPT = """
+            // sourceCode, useSpaces, indentSize and maxLineLength are bound per call
+            // Basic CFML formatting using Lucee string functions
+            formattedCode = sourceCode;
+
+            // Normalize line endings
+            formattedCode = replace(formattedCode, chr(13) & chr(10), chr(10), "all");
+            formattedCode = replace(formattedCode, chr(13), chr(10), "all");
+
+            // Split into lines for processing
+            lines = listToArray(formattedCode, chr(10));
+            processedLines = [];
+            indentLevel = 0;
+
+            for (i = 1; i <= arrayLen(lines); i++) {
+                line = lines[i];
+                trimmedLine = trim(line);
+
+                if (len(trimmedLine) == 0) {
+                    // Empty line
+                    arrayAppend(processedLines, "");
+                    continue;
+                }
+
+                // Adjust indent level before processing
+                if (reFind("^\\s*</", trimmedLine) || reFind("^\\s*}", trimmedLine)) {
+                    indentLevel = max(0, indentLevel - 1);
+                }
+
+                // Create indentation
+                indent = "";
+                if (useSpaces) {
+                    indent = repeatString(" ", indentLevel * indentSize);
+                } else {
+                    indent = repeatString(chr(9), indentLevel);
+                }
+
+                // Apply indentation
+                processedLine = indent & trimmedLine;
+
+                // Adjust indent level after processing
+                if (reFind("<[^/].*>\\s*$", trimmedLine) || reFind("\\{\\s*$", trimmedLine)) {
+                    indentLevel++;
+                }
+
+                arrayAppend(processedLines, processedLine);
+            }
+
+            // Join lines back together
+            formattedResult = arrayToList(processedLines, chr(10));
+
+            // Clean up extra blank lines
+            formattedResult = reReplace(formattedResult, "\\n\\s*\\n\\s*\\n", chr(10) & chr(10), "all");
+            """;
+    
     private final ScriptEngine luceeEngine;
     private final boolean isEngineAvailable;
     private final ConfigurationManager configManager;
+    private CompiledScript compiledScript;
+    
+    // One context per thread, each with its own output writers
+    private final ThreadLocal<ScriptContext> contexts = ThreadLocal.withInitial(() -> {
+        ScriptContext context = new SimpleScriptContext();
+        context.setWriter(new StringWriter());
+        context.setErrorWriter(new StringWriter());
+        return context;
+    });
     
     public LuceeFormattingEngine(ConfigurationManager configManager) {
         this.configManager = configManager;
@@ -55,92 +125,26 @@ public class LuceeFormattingEngine {
         }
         
         try {
-            // Create isolated context for formatting
-            ScriptContext context = luceeEngine.getContext();
-            StringWriter output = new StringWriter();
-            StringWriter errorOutput = new StringWriter();
-            
-            context.setWriter(output);
-            context.setErrorWriter(errorOutput);
-            
-            // Set the code to be formatted
-            luceeEngine.put("sourceCode", cfmlCode);
-            
-            // Get formatting configuration
-            boolean useSpaces = configManager.getFormattingIndentationType().equals("spaces");
-            int indentSize = configManager.getFormattingIndentationSize();
-            int maxLineLength = configManager.getFormattingMaxLineLength();
-            
-            // Lucee-based formatting script
-            String formattingScript = """
-                // Formatting configuration
-                useSpaces = %s;
-                indentSize = %d;
-                maxLineLength = %d;
-                
-                // Basic CFML formatting using Lucee string functions
-                formattedCode = sourceCode;
-                
-                // Normalize line endings
-                formattedCode = replace(formattedCode, chr(13) & chr(10), chr(10), "all");
-                formattedCode = replace(formattedCode, chr(13), chr(10), "all");
-                
-                // Split into lines for processing
-                lines = listToArray(formattedCode, chr(10));
-                processedLines = [];
-                indentLevel = 0;
-                
-                for (i = 1; i <= arrayLen(lines); i++) {
-                    line = lines[i];
-                    trimmedLine = trim(line);
-                    
-                    if (len(trimmedLine) == 0) {
-                        // Empty line
-                        arrayAppend(processedLines, "");
-                        continue;
-                    }
-                    
-                    // Adjust indent level before processing
-                    if (reFind("^\\s*</", trimmedLine) || reFind("^\\s*}", trimmedLine)) {
-                        indentLevel = max(0, indentLevel - 1);
-                    }
-                    
-                    // Create indentation
-                    indent = "";
-                    if (useSpaces) {
-                        indent = repeatString(" ", indentLevel * indentSize);
-                    } else {
-                        indent = repeatString(chr(9), indentLevel);
-                    }
-                    
-                    // Apply indentation
-                    processedLine = indent & trimmedLine;
-                    
-                    // Adjust indent level after processing
-                    if (reFind("<[^/].*>\\s*$", trimmedLine) || reFind("\\{\\s*$", trimmedLine)) {
-                        indentLevel++;
-                    }
-                    
-                    arrayAppend(processedLines, processedLine);
-                }
-                
-                // Join lines back together
-                formattedResult = arrayToList(processedLines, chr(10));
-                
-                // Clean up extra blank lines
-                formattedResult = reReplace(formattedResult, "\\n\\s*\\n\\s*\\n", chr(10) & chr(10), "all");
-                """.formatted(
-                useSpaces ? "true" : "false", 
-                indentSize, 
-                maxLineLength
-            );
-            
-            luceeEngine.eval(formattingScript);
+            // Fresh variables for this call in this thread's context, so calls never see each other's state
+            ScriptContext context = contexts.get();
+            Bindings bindings = luceeEngine.createBindings();
+            bindings.put("sourceCode", cfmlCode);
+            bindings.put("useSpaces", "spaces".equals(configManager.getFormattingIndentationType()));
+            bindings.put("indentSize", configManager.getFormattingIndentationSize());
+            bindings.put("maxLineLength", configManager.getFormattingMaxLineLength());
+            context.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+            
+            CompiledScript script = compiledScript();
+            if (script != null) {
+                script.eval(context);
+            } else {
+                luceeEngine.eval(FORMATTING_SCRIPT, context);
+            }
             
             // Get the formatted result
-            String formattedCode = (String) luceeEngine.get("formattedResult");
+            Object formattedCode = context.getAttribute("formattedResult");
             
-            return formattedCode != null ? formattedCode : cfmlCode;
+            return formattedCode != null ? formattedCode.toString() : cfmlCode;
             
         } catch (ScriptException e) {
             System.err.println("Error formatting CFML with Lucee: " + e.getMessage());
@@ -152,53 +156,33 @@ public class LuceeFormattingEngine {
     }
     
     /**
-     * Generate list of formatting changes
+     * The formatting script, compiled on first use, or null if the engine cannot compile
+     */
+    private synchronized CompiledScript compiledScript() throws ScriptException {
+        if (compiledScript == null && luceeEngine instanceof Compilable) {
+            compiledScript = ((Compilable) luceeEngine).compile(FORMATTING_SCRIPT);
+        }
+        return compiledScript;
+    }
+    
+    /**
+     * Generate list of formatting changes, one per changed run of lines
      */
     public List<FormattingChange> getFormattingChanges(String originalCode, String formattedCode) {
         List<FormattingChange> changes = new ArrayList<>();
         
-        if (!isEngineAvailable) {
-            return changes;
-        }
-        
-        try {
-            // Use Lucee to analyze differences
-            luceeEngine.put("originalCode", originalCode);
-            luceeEngine.put("formattedCode", formattedCode);
-            
-            String diffScript = """
-                // Split both codes into lines
-                originalLines = listToArray(originalCode, chr(10));
-                formattedLines = listToArray(formattedCode, chr(10));
-                
-                // Simple diff analysis
-                changes = [];
-                maxLines = max(arrayLen(originalLines), arrayLen(formattedLines));
-                
-                for (i = 1; i <= maxLines; i++) {
-                    origLine = (i <= arrayLen(originalLines)) ? originalLines[i] : "";
-                    formLine = (i <= arrayLen(formattedLines)) ? formattedLines[i] : "";
-                    
-                    if (origLine != formLine) {
-                        change = {
-                            "lineNumber": i,
-                            "type": "modification",
-                            "original": origLine,
-                            "formatted": formLine,
-                            "description": "Line formatting changed"
-                        };
-                        arrayAppend(changes, change);
-                    }
-                }
-                """;
-            
-            luceeEngine.eval(diffScript);
-            
-            // Note: In a real implementation, you would convert the Lucee array
-            // to Java objects and create FormattingChange instances
-            
-        } catch (Exception e) {
-            System.err.println("Error analyzing formatting changes: " + e.getMessage());
+        LineDiff diff = LineDiff.of(originalCode, formattedCode);
+        for (LineDiff.Hunk hunk : diff.getHunks()) {
+            int startLine = hunk.getOriginalStart() + 1;
+            changes.add(new FormattingChange(
+                null,
+                startLine,
+                Math.max(startLine, hunk.getOriginalEnd()),
+                diff.originalText(hunk),
+                diff.revisedText(hunk),
+                "modification",
+                "Line formatting changed"
+            ));
         }
         
         return changes;
@@ -0,0 +1,195 @@
+package org.lucee.toolbox.core.index;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Project-wide join of the per-file facts in a {@link ProjectIndex}: which components are referenced from
+ * other files, and which names each component's file, or a subtype's file, uses. Components and names are
+ * interned to int IDs once, after which references are counted in an int array, each component's names are
+ * a sorted int array and subtypes are adjacency arrays, so a query is a few array reads and binary searches.
+ * Read-only once built, so rules on several threads can share it.
+ */
+public final class CallGraph {
+    
+    private final Path root;
+    private final ComponentSymbol[] components;
+    private final Map<ComponentSymbol, Integer> componentIds = new IdentityHashMap<>();
+    private final Map<String, Integer> componentsByPath = new HashMap<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    // Sorted IDs of the names used in each component's file
+    private final int[][] componentNames;
+    // Number of references to each component from other files
+    private final int[] inbound;
+    // Component each one extends, -1 if none or not in the project
+    private final int[] parent;
+    // Direct subtypes by extends: those of component i are children[childStart[i]] to children[childStart[i + 1] - 1]
+    private final int[] childStart;
+    private final int[] children;
+    
+    private CallGraph(ProjectIndex index) {
+        this.root = Paths.get(index.getRoot());
+        Map<String, ProjectIndex.Entry> entries = index.getEntries();
+        
+        List<ComponentSymbol> symbols = new ArrayList<>();
+        List<List<String>> names = new ArrayList<>();
+        for (Map.Entry<String, ProjectIndex.Entry> entry : entries.entrySet()) {
+            ComponentSymbol symbol = entry.getValue().getSymbol();
+            if (symbol != null) {
+                componentIds.put(symbol, symbols.size());
+                componentsByPath.put(entry.getKey(), symbols.size());
+                symbols.add(symbol);
+                names.add(entry.getValue().getFacts().getNames());
+            }
+        }
+        this.components = symbols.toArray(new ComponentSymbol[0]);
+        
+        // Intern the names each component's file uses
+        this.componentNames = new int[components.length][];
+        for (int id = 0; id < components.length; id++) {
+            List<String> used = names.get(id);
+            int[] ids = new int[used.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = nameIds.computeIfAbsent(used.get(i), name -> nameIds.size());
+            }
+            Arrays.sort(ids);
+            componentNames[id] = ids;
+        }
+        
+        // Count references from other files, and from extends and implements
+        this.inbound = new int[components.length];
+        for (ProjectIndex.Entry entry : entries.values()) {
+            ComponentSymbol from = entry.getSymbol();
+            for (String reference : entry.getFacts().getReferences()) {
+                countReference(index.resolve(reference, from), from);
+            }
+        }
+        this.parent = new int[components.length];
+        int[] childCount = new int[components.length];
+        for (int id = 0; id < components.length; id++) {
+            ComponentSymbol component = components[id];
+            ComponentSymbol parentSymbol = index.resolve(component.getExtendsName(), component);
+            countReference(parentSymbol, component);
+            for (String name : component.getImplementsNames()) {
+                countReference(index.resolve(name, component), component);
+            }
+            parent[id] = parentSymbol == null || parentSymbol == component ? -1 : componentIds.get(parentSymbol);
+            if (parent[id] >= 0) {
+                childCount[parent[id]]++;
+            }
+        }
+        
+        // Subtypes as adjacency arrays
+        this.childStart = new int[components.length + 1];
+        for (int id = 0; id < components.length; id++) {
+            childStart[id + 1] = childStart[id] + childCount[id];
+        }
+        this.children = new int[childStart[components.length]];
+        int[] next = Arrays.copyOf(childStart, components.length);
+        for (int id = 0; id < components.length; id++) {
+            if (parent[id] >= 0) {
+                children[next[parent[id]]++] = id;
+            }
+        }
+    }
+    
+    /**
+     * Join the facts of an up-to-date index
+     */
+    public static CallGraph of(ProjectIndex index) {
+        return new CallGraph(index);
+    }
+    
+    /**
+     * The indexed component declared in a file, or null if the file is not in the index or declares none
+     * @param filePath Path of the file as given to the linter
+     */
+    public ComponentSymbol getComponent(String filePath) {
+        try {
+            Path relative = root.relativize(Paths.get(filePath).toAbsolutePath().normalize());
+            Integer id = componentsByPath.get(relative.toString().replace('\\', '/'));
+            return id == null ? null : components[id];
+        } catch (IllegalArgumentException e) {
+            // On another file system than the index
+            return null;
+        }
+    }
+    
+    /**
+     * True if another file creates, invokes, extends or implements the component
+     */
+    public boolean isReferenced(ComponentSymbol component) {
+        Integer id = componentIds.get(component);
+        return id != null && inbound[id] > 0;
+    }
+    
+    /**
+     * The component's private functions that neither its own file nor any file of a component extending
+     * it, directly or further down, calls or mentions
+     */
+    public List<FunctionSymbol> getUnusedPrivateFunctions(ComponentSymbol component) {
+        List<FunctionSymbol> unused = new ArrayList<>();
+        Integer id = componentIds.get(component);
+        if (id == null) {
+            return unused;
+        }
+        for (FunctionSymbol function : component.getFunctions()) {
+            if (function.isPrivate() && !isUsedInHierarchy(id, nameIds.get(function.getName().toLowerCase(Locale.ROOT)))) {
+                unused.add(function);
+            }
+        }
+        return unused;
+    }
+    
+    /**
+     * True if the component extends a base that is not in the project, such as a framework class
+     */
+    public boolean hasExternalBase(ComponentSymbol component) {
+        Integer id = componentIds.get(component);
+        return id != null && component.getExtendsName() != null && parent[id] < 0;
+    }
+    
+    private boolean isUsedInHierarchy(int id, Integer nameId) {
+        if (nameId == null) {
+            // No file uses the name at all
+            return false;
+        }
+        BitSet visited = new BitSet(components.length);
+        int[] stack = new int[components.length];
+        int size = 0;
+        stack[size++] = id;
+        visited.set(id);
+        while (size > 0) {
+            int current = stack[--size];
+            if (Arrays.binarySearch(componentNames[current], nameId) >= 0) {
+                return true;
+            }
+            for (int i = childStart[current]; i < childStart[current + 1]; i++) {
+                // Guard against extends cycles
+                if (!visited.get(children[i])) {
+                    visited.set(children[i]);
+                    stack[size++] = children[i];
+                }
+            }
+        }
+        return false;
+    }
+    
+    private void countReference(ComponentSymbol target, ComponentSymbol from) {
+        if (target != null && target != from) {
+            inbound[componentIds.get(target)]++;
+        }
+    }
+    
+    public int getComponentCount() {
+        return components.length;
+    }
+}
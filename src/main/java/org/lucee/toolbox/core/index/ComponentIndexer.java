@@ -0,0 +1,219 @@
+package org.lucee.toolbox.core.index;
+
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.ComponentHeader;
+import org.lucee.toolbox.core.parser.outline.FunctionDeclaration;
+import org.lucee.toolbox.core.parser.outline.SourceMask;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
+import org.lucee.toolbox.core.parser.tag.CfmlTagTokenizer;
+import org.lucee.toolbox.core.parser.tag.TagHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the symbols of one component file, from its outline for script and from tag events for
+ * cfcomponent, cffunction and cfproperty. This is the map step of building a {@link ProjectIndex}.
+ */
+final class ComponentIndexer {
+    
+    private static final Pattern PROPERTY = Pattern.compile("(?i)\\bproperty\\s+([^;{}]+);");
+    private static final Pattern NAME_ATTRIBUTE = Pattern.compile("(?i)\\bname\\s*=\\s*[\"']?([\\w$]+)");
+    
+    private ComponentIndexer() {
+    }
+    
+    /**
+     * Index a component file
+     * @param parseResult The file, with its path relative to the indexed directory and / separators
+     * @return The component's symbols, or null if the file declares no component or interface
+     */
+    static ComponentSymbol index(ParseResult parseResult) {
+        String filePath = parseResult.getFilePath();
+        String content = parseResult.getContent();
+        SourceKind kind = parseResult.getSourceKind();
+        if (!SourceKind.components().contains(kind)) {
+            return null;
+        }
+        SourceOutline outline = parseResult.getOutline();
+        List<FunctionSymbol> functions = new ArrayList<>();
+        List<String> properties = new ArrayList<>();
+        
+        TagComponent tags = null;
+        if (kind.isMarkup(content)) {
+            tags = new TagComponent(content, outline, functions, properties);
+            CfmlTagTokenizer.tokenize(content, tags);
+        }
+        for (FunctionDeclaration function : outline.getFunctions()) {
+            functions.add(new FunctionSymbol(function.getName(), function.getAccess(), function.isStatic(),
+                    function.isAbstract(), function.getStartLine()));
+        }
+        
+        String dottedName = dottedName(filePath);
+        ComponentHeader header = outline.getComponent();
+        if (header != null) {
+            addScriptProperties(content, parseResult.getMask(), header.getBodyStart(), properties);
+            return new ComponentSymbol(filePath, dottedName, header.isInterface(), header.isAbstract(),
+                    header.getAttribute("extends"), splitNames(header.getAttribute("implements")), functions, properties);
+        }
+        if (tags != null && tags.attributes != null) {
+            String isAbstract = tags.attributes.get("abstract");
+            return new ComponentSymbol(filePath, dottedName, tags.isInterface, "true".equalsIgnoreCase(isAbstract),
+                    tags.attributes.get("extends"), splitNames(tags.attributes.get("implements")), functions, properties);
+        }
+        return null;
+    }
+    
+    /**
+     * The dotted path of a component file: its relative path without the extension, separated by dots
+     */
+    static String dottedName(String filePath) {
+        int dot = filePath.lastIndexOf('.');
+        int slash = filePath.lastIndexOf('/');
+        String withoutExtension = dot > slash ? filePath.substring(0, dot) : filePath;
+        return withoutExtension.replace('/', '.');
+    }
+    
+    private static List<String> splitNames(String value) {
+        List<String> names = new ArrayList<>();
+        if (value != null) {
+            for (String name : value.split(",")) {
+                if (!name.isBlank()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Add the names of script property declarations that start a statement in the component body
+     */
+    private static void addScriptProperties(String content, SourceMask mask, int bodyStart, List<String> properties) {
+        Matcher matcher = PROPERTY.matcher(content);
+        int from = Math.max(bodyStart, 0);
+        while (matcher.find(from)) {
+            from = matcher.end();
+            if (!mask.isCode(matcher.start()) || !startsStatement(content, mask, matcher.start())) {
+                continue;
+            }
+            String declaration = matcher.group(1);
+            Matcher name = NAME_ATTRIBUTE.matcher(declaration);
+            if (name.find()) {
+                properties.add(name.group(1));
+                continue;
+            }
+            // property [type] name [attributes]: the name is the last word before any attribute
+            String last = null;
+            for (String word : declaration.trim().split("\\s+")) {
+                if (word.contains("=")) {
+                    break;
+                }
+                last = word;
+            }
+            if (last != null) {
+                properties.add(last);
+            }
+        }
+    }
+    
+    private static boolean startsStatement(String content, SourceMask mask, int offset) {
+        int pos = offset - 1;
+        while (pos >= 0 && (Character.isWhitespace(content.charAt(pos)) || mask.isComment(pos))) {
+            pos--;
+        }
+        if (pos < 0) {
+            return true;
+        }
+        char c = content.charAt(pos);
+        return c == '{' || c == '}' || c == ';';
+    }
+    
+    /**
+     * Collects cfcomponent or cfinterface attributes, cffunction declarations and cfproperty names
+     */
+    private static final class TagComponent implements TagHandler {
+        
+        private final String content;
+        private final SourceOutline outline;
+        private final List<FunctionSymbol> functions;
+        private final List<String> properties;
+        private Map<String, String> attributes;
+        private boolean isInterface;
+        private String currentTag;
+        private int currentStart;
+        private Map<String, String> currentAttributes;
+        
+        TagComponent(String content, SourceOutline outline, List<FunctionSymbol> functions, List<String> properties) {
+            this.content = content;
+            this.outline = outline;
+            this.functions = functions;
+            this.properties = properties;
+        }
+        
+        @Override
+        public void startTag(int start, int nameStart, int nameEnd) {
+            String name = content.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+            // cfcomponent and bx:component alike
+            String bare = name.startsWith("bx:") ? name.substring(3) : name.substring(2);
+            switch (bare) {
+                case "component":
+                case "interface":
+                case "function":
+                case "property":
+                    currentTag = bare;
+                    currentStart = start;
+                    currentAttributes = new HashMap<>();
+                    break;
+                default:
+                    currentTag = null;
+            }
+        }
+        
+        @Override
+        public void attribute(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+            if (currentTag != null) {
+                String value = valueStart < 0 ? "" : content.substring(valueStart, valueEnd);
+                currentAttributes.put(content.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT), value);
+            }
+        }
+        
+        @Override
+        public void startTagEnd(int end, boolean selfClosing) {
+            if (currentTag == null) {
+                return;
+            }
+            String name = currentAttributes.get("name");
+            switch (currentTag) {
+                case "component":
+                case "interface":
+                    if (attributes == null) {
+                        attributes = currentAttributes;
+                        isInterface = currentTag.equals("interface");
+                    }
+                    break;
+                case "function":
+                    if (name != null && !name.isEmpty()) {
+                        String access = currentAttributes.get("access");
+                        String modifier = currentAttributes.getOrDefault("modifier", "").toLowerCase(Locale.ROOT);
+                        functions.add(new FunctionSymbol(name,
+                                access != null ? access.toLowerCase(Locale.ROOT) : null,
+                                modifier.contains("static"), modifier.contains("abstract"),
+                                outline.lineOf(currentStart)));
+                    }
+                    break;
+                default:
+                    if (name != null && !name.isEmpty()) {
+                        properties.add(name);
+                    }
+            }
+            currentTag = null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.lucee.toolbox.core.index;
+
+import java.util.List;
+
+/**
+ * What the project index knows about one component or interface: where it is, what it extends and
+ * implements, and the functions and properties it declares
+ */
+public final class ComponentSymbol {
+    
+    private final String filePath;
+    private final String dottedName;
+    private final boolean isInterface;
+    private final boolean isAbstract;
+    private final String extendsName;
+    private final List<String> implementsNames;
+    private final List<FunctionSymbol> functions;
+    private final List<String> properties;
+    
+    ComponentSymbol(String filePath, String dottedName, boolean isInterface, boolean isAbstract, String extendsName,
+                    List<String> implementsNames, List<FunctionSymbol> functions, List<String> properties) {
+        this.filePath = filePath;
+        this.dottedName = dottedName;
+        this.isInterface = isInterface;
+        this.isAbstract = isAbstract;
+        this.extendsName = extendsName;
+        this.implementsNames = List.copyOf(implementsNames);
+        this.functions = List.copyOf(functions);
+        this.properties = List.copyOf(properties);
+    }
+    
+    /**
+     * Path of the file relative to the indexed directory, with / separators
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    /**
+     * Dotted path CFML resolves the component by, such as models.user.UserService
+     */
+    public String getDottedName() {
+        return dottedName;
+    }
+    
+    /**
+     * The last part of the dotted path, which is the file name without its extension
+     */
+    public String getSimpleName() {
+        return dottedName.substring(dottedName.lastIndexOf('.') + 1);
+    }
+    
+    /**
+     * The dotted path without the simple name, empty for a component at the root
+     */
+    public String getPackageName() {
+        int dot = dottedName.lastIndexOf('.');
+        return dot < 0 ? "" : dottedName.substring(0, dot);
+    }
+    
+    public boolean isInterface() {
+        return isInterface;
+    }
+    
+    public boolean isAbstract() {
+        return isAbstract;
+    }
+    
+    /**
+     * The extends attribute as written, or null if there is none
+     */
+    public String getExtendsName() {
+        return extendsName;
+    }
+    
+    /**
+     * The names in the implements attribute as written, in order
+     */
+    public List<String> getImplementsNames() {
+        return implementsNames;
+    }
+    
+    public List<FunctionSymbol> getFunctions() {
+        return functions;
+    }
+    
+    /**
+     * The first function with the given name, ignoring case, or null
+     */
+    public FunctionSymbol findFunction(String name) {
+        for (FunctionSymbol function : functions) {
+            if (function.getName().equalsIgnoreCase(name)) {
+                return function;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Names of the declared properties, in order
+     */
+    public List<String> getProperties() {
+        return properties;
+    }
+}
@@ -0,0 +1,35 @@
+package org.lucee.toolbox.core.index;
+
+import java.util.List;
+
+/**
+ * What one file refers to, extracted on its own so files can be scanned in parallel: the component
+ * names it creates or invokes, and every name it calls or mentions in code. The {@link CallGraph}
+ * joins these across the project.
+ */
+final class FileFacts {
+    
+    static final FileFacts NONE = new FileFacts(List.of(), List.of());
+    
+    private final List<String> references;
+    private final List<String> names;
+    
+    FileFacts(List<String> references, List<String> names) {
+        this.references = List.copyOf(references);
+        this.names = List.copyOf(names);
+    }
+    
+    /**
+     * Component names as written in new, createObject, cfinvoke and cfobject, in source order
+     */
+    List<String> getReferences() {
+        return references;
+    }
+    
+    /**
+     * Distinct lower-case names of functions called, and of identifiers used in code, sorted
+     */
+    List<String> getNames() {
+        return names;
+    }
+}
@@ -0,0 +1,48 @@
+package org.lucee.toolbox.core.index;
+
+/**
+ * A function declared by an indexed component, script or cffunction
+ */
+public final class FunctionSymbol {
+    
+    private final String name;
+    private final String access;
+    private final boolean isStatic;
+    private final boolean isAbstract;
+    private final int line;
+    
+    FunctionSymbol(String name, String access, boolean isStatic, boolean isAbstract, int line) {
+        this.name = name;
+        this.access = access;
+        this.isStatic = isStatic;
+        this.isAbstract = isAbstract;
+        this.line = line;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Access modifier in lower case, or null if none is declared, which CFML treats as public
+     */
+    public String getAccess() {
+        return access;
+    }
+    
+    public boolean isPrivate() {
+        return "private".equals(access);
+    }
+    
+    public boolean isStatic() {
+        return isStatic;
+    }
+    
+    public boolean isAbstract() {
+        return isAbstract;
+    }
+    
+    public int getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,436 @@
+package org.lucee.toolbox.core.index;
+
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.util.EncodingDetector;
+import org.lucee.toolbox.core.util.ImplementationVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Project-wide symbol index of the components under a directory: their dotted paths, what they extend
+ * and implement, and their functions and properties, along with the components and names every file
+ * refers to. It answers questions a single file cannot, such as whether an extends target is abstract.
+ * Building it maps each file to its symbols and facts, in parallel when given an executor, and reduces
+ * them into one table keyed by path. The table is kept as a compact binary file in the cache directory,
+ * and later runs re-index only the files whose size or modification time changed. The file records the
+ * toolbox version and is dropped when it changes, since an upgraded indexer may find other facts.
+ */
+public final class ProjectIndex {
+    
+    static final int MAGIC = 0x4C545049; // "LTPI"
+    static final int VERSION = 3;
+    static final String FILE_NAME = "project-index.bin";
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProjectIndex.class);
+    
+    // Null when the index is only kept for this run
+    private final Path file;
+    private final String toolboxVersion;
+    private String root = "";
+    private Map<String, Entry> entries = new TreeMap<>();
+    private Map<String, ComponentSymbol> byName = Map.of();
+    private Map<String, List<ComponentSymbol>> bySimpleName = Map.of();
+    private boolean changed;
+    
+    private ProjectIndex(Path file, String toolboxVersion) {
+        this.file = file;
+        this.toolboxVersion = toolboxVersion;
+    }
+    
+    /**
+     * An index that is never read from or written to disk, for runs with caching disabled
+     */
+    public static ProjectIndex inMemory() {
+        return new ProjectIndex(null, "");
+    }
+    
+    /**
+     * Load the index kept in a cache directory. A missing, unreadable or outdated file starts empty.
+     */
+    public static ProjectIndex load(Path cacheDirectory) {
+        return load(cacheDirectory, ImplementationVersion.of(ProjectIndex.class));
+    }
+    
+    /**
+     * Load the index written by a given toolbox version. A file written by another version starts empty.
+     */
+    static ProjectIndex load(Path cacheDirectory, String toolboxVersion) {
+        ProjectIndex index = new ProjectIndex(cacheDirectory.resolve(FILE_NAME), toolboxVersion);
+        if (!Files.isRegularFile(index.file)) {
+            return index;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index.file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                logger.debug("Ignoring project index in an unknown format: {}", index.file);
+                return index;
+            }
+            if (!in.readUTF().equals(toolboxVersion)) {
+                // Indexed by another version, whose facts may differ from what this one finds
+                logger.debug("Dropping project index from another toolbox version: {}", index.file);
+                index.changed = true;
+                return index;
+            }
+            index.root = in.readUTF();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long modified = in.readLong();
+                ComponentSymbol symbol = in.readBoolean() ? readSymbol(in, path) : null;
+                List<String> references = readStrings(in);
+                List<String> names = readStrings(in);
+                index.entries.put(path, new Entry(size, modified, symbol, new FileFacts(references, names)));
+            }
+        } catch (IOException e) {
+            logger.debug("Ignoring unreadable project index {}: {}", index.file, e.getMessage());
+            index.root = "";
+            index.entries.clear();
+        }
+        index.rebuildLookups();
+        return index;
+    }
+    
+    /**
+     * Delete the index file from a cache directory
+     * @return true if there was one to delete
+     */
+    public static boolean clear(Path cacheDirectory) throws IOException {
+        return Files.deleteIfExists(cacheDirectory.resolve(FILE_NAME));
+    }
+    
+    /**
+     * Bring the index up to date with the CFML files among the given files under a directory.
+     * Files with the size and modification time already recorded keep their entries, the others are read
+     * and indexed, in parallel on the executor if there is one. Files not in the list are dropped.
+     * Not safe to call while other threads read the index.
+     * @return The number of files read and indexed
+     */
+    public int update(Path directory, List<Path> files, Charset encoding, ExecutorService executor) {
+        Path base = directory.toAbsolutePath().normalize();
+        if (!base.toString().equals(root)) {
+            // Entries are relative to another directory
+            entries.clear();
+            root = base.toString();
+        }
+        Map<String, Entry> previous = entries;
+        
+        List<Path> sources = new ArrayList<>();
+        for (Path file : files) {
+            if (SourceKind.of(file.toString(), "") != SourceKind.OTHER) {
+                sources.add(file);
+            }
+        }
+        
+        List<IndexedFile> indexed = new ArrayList<>(sources.size());
+        if (executor != null && sources.size() > 1) {
+            List<CompletableFuture<IndexedFile>> futures = new ArrayList<>(sources.size());
+            for (Path file : sources) {
+                futures.add(CompletableFuture.supplyAsync(() -> indexFile(base, file, previous, encoding), executor));
+            }
+            for (CompletableFuture<IndexedFile> future : futures) {
+                indexed.add(future.join());
+            }
+        } else {
+            for (Path file : sources) {
+                indexed.add(indexFile(base, file, previous, encoding));
+            }
+        }
+        
+        Map<String, Entry> updated = new TreeMap<>();
+        int reindexed = 0;
+        for (IndexedFile result : indexed) {
+            if (result != null) {
+                updated.put(result.path, result.entry);
+                if (result.reindexed) {
+                    reindexed++;
+                }
+            }
+        }
+        if (reindexed > 0 || !updated.keySet().equals(previous.keySet())) {
+            changed = true;
+        }
+        entries = updated;
+        rebuildLookups();
+        return reindexed;
+    }
+    
+    /**
+     * The component with a dotted path, ignoring case, or null
+     */
+    public ComponentSymbol getComponent(String dottedName) {
+        return dottedName == null ? null : byName.get(dottedName.toLowerCase(Locale.ROOT));
+    }
+    
+    /**
+     * All indexed components, in path order
+     */
+    public Collection<ComponentSymbol> getComponents() {
+        return byName.values();
+    }
+    
+    /**
+     * Resolve a component name as written in an extends or implements attribute, or in new or
+     * createObject: first relative to the referring component's package, then as a full dotted path,
+     * and last, for a bare name, as the only component with that name anywhere in the project.
+     * @param from The referring component, or null
+     * @return The component, or null if there is none or a bare name is ambiguous
+     */
+    public ComponentSymbol resolve(String reference, ComponentSymbol from) {
+        if (reference == null || reference.isBlank()) {
+            return null;
+        }
+        String name = reference.trim();
+        if (from != null && !from.getPackageName().isEmpty()) {
+            ComponentSymbol sibling = getComponent(from.getPackageName() + "." + name);
+            if (sibling != null) {
+                return sibling;
+            }
+        }
+        ComponentSymbol exact = getComponent(name);
+        if (exact != null || name.indexOf('.') >= 0) {
+            return exact;
+        }
+        List<ComponentSymbol> candidates = bySimpleName.getOrDefault(name.toLowerCase(Locale.ROOT), List.of());
+        return candidates.size() == 1 ? candidates.get(0) : null;
+    }
+    
+    /**
+     * Components that extend or implement the given one directly
+     */
+    public List<ComponentSymbol> getSubtypes(ComponentSymbol component) {
+        List<ComponentSymbol> subtypes = new ArrayList<>();
+        for (ComponentSymbol candidate : byName.values()) {
+            if (resolve(candidate.getExtendsName(), candidate) == component) {
+                subtypes.add(candidate);
+                continue;
+            }
+            for (String name : candidate.getImplementsNames()) {
+                if (resolve(name, candidate) == component) {
+                    subtypes.add(candidate);
+                    break;
+                }
+            }
+        }
+        return subtypes;
+    }
+    
+    public int size() {
+        return byName.size();
+    }
+    
+    /**
+     * Write the index back to the cache directory if it changed. Does nothing for an in-memory index.
+     */
+    public void save() throws IOException {
+        if (file == null || !changed) {
+            return;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        
+        // Write to a sibling temp file first so an interrupted run never leaves a half-written index
+        Path tempFile = Files.createTempFile(directory, FILE_NAME, ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(toolboxVersion);
+            out.writeUTF(root);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                Entry value = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(value.size);
+                out.writeLong(value.modified);
+                out.writeBoolean(value.symbol != null);
+                if (value.symbol != null) {
+                    writeSymbol(out, value.symbol);
+                }
+                writeStrings(out, value.facts.getReferences());
+                writeStrings(out, value.facts.getNames());
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        changed = false;
+    }
+    
+    /**
+     * The absolute directory the entry paths are relative to, empty before the first update
+     */
+    String getRoot() {
+        return root;
+    }
+    
+    /**
+     * The entries by path relative to the root, in path order
+     */
+    Map<String, Entry> getEntries() {
+        return entries;
+    }
+    
+    /**
+     * Map one file to its entry, reusing the previous one if the file is unchanged. Null if it cannot be read
+     * or indexed, which leaves the file out of the index rather than failing the run.
+     */
+    private static IndexedFile indexFile(Path base, Path file, Map<String, Entry> previous, Charset encoding) {
+        try {
+            String path = base.relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+            long size = Files.size(file);
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            Entry known = previous.get(path);
+            if (known != null && known.size == size && known.modified == modified) {
+                return new IndexedFile(path, known, false);
+            }
+            String content = EncodingDetector.readFileWithEncodingDetection(file, encoding);
+            ParseResult parseResult = new ParseResult(path, content, true);
+            ComponentSymbol symbol = SourceKind.components().contains(parseResult.getSourceKind())
+                    ? ComponentIndexer.index(parseResult)
+                    : null;
+            return new IndexedFile(path, new Entry(size, modified, symbol, ReferenceScanner.scan(parseResult)), true);
+        } catch (IOException e) {
+            logger.debug("Could not index {}: {}", file, e.getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            logger.warn("Leaving {} out of the project index: {}", file, e.getMessage());
+            return null;
+        }
+    }
+    
+    private void rebuildLookups() {
+        Map<String, ComponentSymbol> names = new TreeMap<>();
+        Map<String, List<ComponentSymbol>> simpleNames = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            if (entry.symbol != null) {
+                names.put(entry.symbol.getDottedName().toLowerCase(Locale.ROOT), entry.symbol);
+                simpleNames.computeIfAbsent(entry.symbol.getSimpleName().toLowerCase(Locale.ROOT),
+                        name -> new ArrayList<>()).add(entry.symbol);
+            }
+        }
+        byName = Collections.unmodifiableMap(names);
+        bySimpleName = simpleNames;
+    }
+    
+    private static void writeSymbol(DataOutputStream out, ComponentSymbol symbol) throws IOException {
+        out.writeBoolean(symbol.isInterface());
+        out.writeBoolean(symbol.isAbstract());
+        writeNullable(out, symbol.getExtendsName());
+        writeStrings(out, symbol.getImplementsNames());
+        out.writeInt(symbol.getFunctions().size());
+        for (FunctionSymbol function : symbol.getFunctions()) {
+            out.writeUTF(function.getName());
+            writeNullable(out, function.getAccess());
+            out.writeBoolean(function.isStatic());
+            out.writeBoolean(function.isAbstract());
+            out.writeInt(function.getLine());
+        }
+        writeStrings(out, symbol.getProperties());
+    }
+    
+    private static ComponentSymbol readSymbol(DataInputStream in, String path) throws IOException {
+        boolean isInterface = in.readBoolean();
+        boolean isAbstract = in.readBoolean();
+        String extendsName = readNullable(in);
+        List<String> implementsNames = readStrings(in);
+        int functionCount = in.readInt();
+        List<FunctionSymbol> functions = new ArrayList<>(functionCount);
+        for (int i = 0; i < functionCount; i++) {
+            functions.add(new FunctionSymbol(in.readUTF(), readNullable(in), in.readBoolean(), in.readBoolean(),
+                    in.readInt()));
+        }
+        List<String> properties = readStrings(in);
+        return new ComponentSymbol(path, ComponentIndexer.dottedName(path), isInterface, isAbstract, extendsName,
+                implementsNames, functions, properties);
+    }
+    
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+    
+    /**
+     * A file's size and modification time when it was indexed, its symbols and what it refers to
+     */
+    static final class Entry {
+        
+        private final long size;
+        private final long modified;
+        private final ComponentSymbol symbol;
+        private final FileFacts facts;
+        
+        Entry(long size, long modified, ComponentSymbol symbol, FileFacts facts) {
+            this.size = size;
+            this.modified = modified;
+            this.symbol = symbol;
+            this.facts = facts;
+        }
+        
+        /**
+         * The component the file declares, or null if it declares none
+         */
+        ComponentSymbol getSymbol() {
+            return symbol;
+        }
+        
+        FileFacts getFacts() {
+            return facts;
+        }
+    }
+    
+    private static final class IndexedFile {
+        
+        private final String path;
+        private final Entry entry;
+        private final boolean reindexed;
+        
+        IndexedFile(String path, Entry entry, boolean reindexed) {
+            this.path = path;
+            this.entry = entry;
+            this.reindexed = reindexed;
+        }
+    }
+}
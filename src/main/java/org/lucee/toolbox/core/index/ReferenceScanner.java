@@ -0,0 +1,120 @@
+package org.lucee.toolbox.core.index;
+
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.outline.SourceMask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the {@link FileFacts} of one file. Names are over-collected on purpose: a call inside
+ * template output or a string still counts, so a function is only reported unused when no file
+ * mentions it at all.
+ */
+final class ReferenceScanner {
+    
+    private static final Pattern NEW = Pattern.compile("(?i)\\bnew\\s+([A-Za-z_][\\w.]*)\\s*\\(");
+    private static final Pattern CREATE_OBJECT = Pattern.compile(
+            "(?i)\\bcreateObject\\s*\\(\\s*([\"']component[\"']\\s*,\\s*)?[\"']([\\w.]+)[\"']\\s*([,)])");
+    private static final Pattern COMPONENT_TAG = Pattern.compile(
+            "(?i)<(?:cf|bx:)(?:invoke|object)\\b[^>]*?\\bcomponent\\s*=\\s*[\"']([\\w.]+)[\"']");
+    // Functions named in strings: cfinvoke method="name" and invoke(object, "name")
+    private static final Pattern METHOD_NAME = Pattern.compile(
+            "(?i)(?:\\bmethod\\s*=\\s*|\\binvoke\\s*\\(\\s*[^,()]+,\\s*)[\"']([\\w$]+)[\"']");
+    
+    private ReferenceScanner() {
+    }
+    
+    static FileFacts scan(ParseResult parseResult) {
+        String content = parseResult.getContent();
+        SourceMask mask = parseResult.getMask();
+        
+        List<String> references = new ArrayList<>();
+        Matcher matcher = NEW.matcher(content);
+        while (matcher.find()) {
+            if (mask.isCode(matcher.start())) {
+                references.add(matcher.group(1));
+            }
+        }
+        matcher = CREATE_OBJECT.matcher(content);
+        while (matcher.find()) {
+            // createObject("name") defaults to a component, createObject("java", ...) does not
+            if (!mask.isComment(matcher.start()) && (matcher.group(1) != null || matcher.group(3).equals(")"))) {
+                references.add(matcher.group(2));
+            }
+        }
+        matcher = COMPONENT_TAG.matcher(content);
+        while (matcher.find()) {
+            if (!mask.isComment(matcher.start())) {
+                references.add(matcher.group(1));
+            }
+        }
+        
+        TreeSet<String> names = new TreeSet<>();
+        addNames(content, mask, names);
+        matcher = METHOD_NAME.matcher(content);
+        while (matcher.find()) {
+            if (!mask.isComment(matcher.start())) {
+                names.add(matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        
+        if (references.isEmpty() && names.isEmpty()) {
+            return FileFacts.NONE;
+        }
+        return new FileFacts(references, new ArrayList<>(names));
+    }
+    
+    /**
+     * Add identifiers followed by a parenthesis anywhere outside comments, and bare identifiers in code,
+     * except the names of function declarations
+     */
+    private static void addNames(String content, SourceMask mask, TreeSet<String> names) {
+        int length = content.length();
+        int pos = 0;
+        while (pos < length) {
+            char c = content.charAt(pos);
+            if (!Character.isLetter(c) && c != '_' && c != '$') {
+                pos++;
+                continue;
+            }
+            int start = pos;
+            while (pos < length && isIdentifierPart(content.charAt(pos))) {
+                pos++;
+            }
+            if (start > 0 && Character.isDigit(content.charAt(start - 1)) || mask.isComment(start)) {
+                continue;
+            }
+            int after = pos;
+            while (after < length && Character.isWhitespace(content.charAt(after))) {
+                after++;
+            }
+            boolean call = after < length && content.charAt(after) == '(';
+            if (call ? isDeclaration(content, start) : !mask.isCode(start)) {
+                continue;
+            }
+            names.add(content.substring(start, pos).toLowerCase(Locale.ROOT));
+        }
+    }
+    
+    /**
+     * True if the word before an offset is the function keyword
+     */
+    private static boolean isDeclaration(String content, int offset) {
+        int end = offset;
+        while (end > 0 && Character.isWhitespace(content.charAt(end - 1))) {
+            end--;
+        }
+        int start = end - "function".length();
+        return start >= 0 && end < offset && content.regionMatches(true, start, "function", 0, 8)
+                && (start == 0 || !isIdentifierPart(content.charAt(start - 1)));
+    }
+    
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -2,6 +2,7 @@ package org.lucee.toolbox.core.model;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -142,8 +143,12 @@ public class ToolboxResult {
         private int warningCount = 0;
         private int infoCount = 0;
         private int formattingChanges = 0;
+        private int baselineSuppressed = 0;
         private long executionTimeMs = 0;
         private final Map<String, Integer> parserUsage = new HashMap<>();
+        // Per-file processing time in nanoseconds, kept unsorted until a percentile is asked for
+        private long[] fileLatencies = new long[0];
+        private int fileLatencyCount = 0;
         
         public void incrementFilesProcessed() {
             this.filesProcessed++;
@@ -176,6 +181,10 @@ public class ToolboxResult {
             this.formattingChanges++;
         }
         
+        public void incrementBaselineSuppressed(int count) {
+            this.baselineSuppressed += count;
+        }
+        
         public void setExecutionTime(long timeMs) {
             this.executionTimeMs = timeMs;
         }
@@ -184,6 +193,29 @@ public class ToolboxResult {
             this.parserUsage.put(parserType, this.parserUsage.getOrDefault(parserType, 0) + 1);
         }
         
+        /**
+         * Record how long one file took to process
+         */
+        public void recordFileLatency(long nanos) {
+            if (fileLatencyCount == fileLatencies.length) {
+                fileLatencies = Arrays.copyOf(fileLatencies, Math.max(16, fileLatencyCount * 2));
+            }
+            fileLatencies[fileLatencyCount++] = nanos;
+        }
+        
+        /**
+         * Nearest-rank percentile (0-100) of the recorded per-file latencies, 0 when nothing was recorded
+         */
+        public long getFileLatencyPercentileNanos(double percentile) {
+            if (fileLatencyCount == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(fileLatencies, fileLatencyCount);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+        }
+        
         public void mergeWith(ExecutionStats other) {
             this.filesProcessed += other.filesProcessed;
             this.totalViolations += other.totalViolations;
@@ -191,7 +223,11 @@ public class ToolboxResult {
             this.warningCount += other.warningCount;
             this.infoCount += other.infoCount;
             this.formattingChanges += other.formattingChanges;
+            this.baselineSuppressed += other.baselineSuppressed;
             this.executionTimeMs += other.executionTimeMs;
+            for (int i = 0; i < other.fileLatencyCount; i++) {
+                recordFileLatency(other.fileLatencies[i]);
+            }
             
             // Merge parser usage statistics
             for (Map.Entry<String, Integer> entry : other.parserUsage.entrySet()) {
@@ -207,7 +243,9 @@ public class ToolboxResult {
         public int getWarningCount() { return warningCount; }
         public int getInfoCount() { return infoCount; }
         public int getFormattingChanges() { return formattingChanges; }
+        public int getBaselineSuppressed() { return baselineSuppressed; }
         public long getExecutionTimeMs() { return executionTimeMs; }
         public Map<String, Integer> getParserUsage() { return new HashMap<>(parserUsage); }
+        public int getFileLatencyCount() { return fileLatencyCount; }
     }
 }
@@ -0,0 +1,28 @@
+package org.lucee.toolbox.core.parser;
+
+/**
+ * How much of a file's structure an analysis needs, from least to most costly.
+ * Rules declare their level so the parser only does the work the active rules need;
+ * everything below the syntax tree is built lazily by {@link ParseResult} on first use.
+ */
+public enum AnalysisLevel {
+    
+    /** The content and its lines */
+    LINES,
+    
+    /** Lexical structure: comment, string and markup masks, brace nesting and tag events */
+    TOKENS,
+    
+    /** Component headers and function declarations from the outline */
+    OUTLINE,
+    
+    /** A full parse by the selected parser, with its syntax tree and parse issues */
+    SYNTAX_TREE;
+    
+    /**
+     * Whether this level includes everything another level provides
+     */
+    public boolean covers(AnalysisLevel other) {
+        return compareTo(other) >= 0;
+    }
+}
@@ -1,5 +1,7 @@
 package org.lucee.toolbox.core.parser;
 
+import org.lucee.toolbox.core.util.ImplementationVersion;
+
 /**
  * Interface for CFML parsers
  */
@@ -14,12 +16,35 @@ public interface CfmlParser {
      */
     ParseResult parse(String content, String filePath) throws ParseException;
     
+    /**
+     * Parse CFML content only as far as an analysis level needs. Below
+     * {@link AnalysisLevel#SYNTAX_TREE} a parser may skip its own parse and return the content alone,
+     * leaving the lighter structures to be built lazily by the result.
+     * @param content The CFML content to parse
+     * @param filePath The file path for context
+     * @param level The highest level of analysis that will be asked of the result
+     * @return ParseResult containing the parsed information
+     * @throws ParseException if parsing fails
+     */
+    default ParseResult parse(String content, String filePath, AnalysisLevel level) throws ParseException {
+        return parse(content, filePath);
+    }
+    
     /**
      * Get the parser type identifier
      * @return Parser type string
      */
     String getParserType();
     
+    /**
+     * Version of this parser's implementation. Cached parse failures are kept per version, so an upgraded
+     * parser gets to try the content again.
+     * @return Version string, by default that of the code the parser class was loaded from
+     */
+    default String getImplementationVersion() {
+        return ImplementationVersion.of(getClass());
+    }
+    
     /**
      * Check if this parser can handle the given content
      * @param content Content to check
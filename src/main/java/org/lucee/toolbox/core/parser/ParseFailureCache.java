@@ -0,0 +1,161 @@
+package org.lucee.toolbox.core.parser;
+
+import org.lucee.toolbox.core.util.ContentHash;
+import org.lucee.toolbox.core.util.ImplementationVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which parsers failed on which file contents, so later runs go straight to a parser that works.
+ * Entries are 64-bit hashes of the parser type, the parser's implementation version and the content, kept in
+ * a small binary file in the cache directory: a header with the toolbox version followed by the hashes.
+ * An edited file hashes differently and is tried afresh, an upgraded parser misses its old entries, and
+ * the whole file is dropped when the toolbox version changes. Failures that say nothing about the content,
+ * such as a parser that could not start, are only kept for the current run.
+ */
+public final class ParseFailureCache {
+    
+    static final int MAGIC = 0x4C545046; // "LTPF"
+    static final int VERSION = 3;
+    static final String FILE_NAME = "parse-failures.bin";
+    
+    private static final Logger logger = LoggerFactory.getLogger(ParseFailureCache.class);
+    
+    // Null when the failures are only kept for this run
+    private final Path file;
+    private final String toolboxVersion;
+    private final Set<Long> failures = ConcurrentHashMap.newKeySet();
+    // Never saved
+    private final Set<Long> transientFailures = ConcurrentHashMap.newKeySet();
+    private volatile boolean changed;
+    
+    private ParseFailureCache(Path file, String toolboxVersion) {
+        this.file = file;
+        this.toolboxVersion = toolboxVersion;
+    }
+    
+    /**
+     * A cache that is never read from or written to disk, for runs with caching disabled
+     */
+    public static ParseFailureCache inMemory() {
+        return new ParseFailureCache(null, "");
+    }
+    
+    /**
+     * Load the failures recorded in a cache directory. A missing, unreadable or outdated file starts empty.
+     */
+    public static ParseFailureCache load(Path cacheDirectory) {
+        return load(cacheDirectory, ImplementationVersion.of(ParseFailureCache.class));
+    }
+    
+    /**
+     * Load the failures recorded by a given toolbox version. A file written by another version starts empty.
+     */
+    static ParseFailureCache load(Path cacheDirectory, String toolboxVersion) {
+        ParseFailureCache cache = new ParseFailureCache(cacheDirectory.resolve(FILE_NAME), toolboxVersion);
+        if (!Files.isRegularFile(cache.file)) {
+            return cache;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cache.file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                logger.debug("Ignoring parse failure cache in an unknown format: {}", cache.file);
+                cache.changed = true;
+                return cache;
+            }
+            if (!in.readUTF().equals(toolboxVersion)) {
+                // Written by another version, whose parsers may have failed where these do not
+                logger.debug("Dropping parse failure cache from another toolbox version: {}", cache.file);
+                cache.changed = true;
+                return cache;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                cache.failures.add(in.readLong());
+            }
+        } catch (IOException e) {
+            logger.debug("Ignoring unreadable parse failure cache {}: {}", cache.file, e.getMessage());
+            cache.failures.clear();
+        }
+        return cache;
+    }
+    
+    /**
+     * Delete the cache file from a cache directory
+     * @return true if there was one to delete
+     */
+    public static boolean clear(Path cacheDirectory) throws IOException {
+        return Files.deleteIfExists(cacheDirectory.resolve(FILE_NAME));
+    }
+    
+    public boolean hasFailed(String parserType, String parserVersion, String content) {
+        long key = key(parserType, parserVersion, content);
+        return failures.contains(key) || transientFailures.contains(key);
+    }
+    
+    /**
+     * Record that a parser rejected a content, to be skipped in later runs too
+     */
+    public void recordFailure(String parserType, String parserVersion, String content) {
+        if (failures.add(key(parserType, parserVersion, content))) {
+            changed = true;
+        }
+    }
+    
+    /**
+     * Record that a parser failed on a content for a reason other than the content, to be skipped in this run only
+     */
+    public void recordTransientFailure(String parserType, String parserVersion, String content) {
+        transientFailures.add(key(parserType, parserVersion, content));
+    }
+    
+    private static long key(String parserType, String parserVersion, String content) {
+        return ContentHash.of(parserType + '@' + parserVersion, content);
+    }
+    
+    /**
+     * Number of failures that will be saved
+     */
+    public int size() {
+        return failures.size();
+    }
+    
+    /**
+     * Write the failures back to the cache directory if any were added. Does nothing for an in-memory cache.
+     */
+    public void save() throws IOException {
+        if (file == null || !changed) {
+            return;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        
+        // Write to a sibling temp file first so an interrupted run never leaves a half-written cache
+        Path tempFile = Files.createTempFile(directory, FILE_NAME, ".tmp");
+        Long[] entries = failures.toArray(new Long[0]);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(toolboxVersion);
+            out.writeInt(entries.length);
+            for (Long entry : entries) {
+                out.writeLong(entry);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        changed = false;
+    }
+}
@@ -1,5 +1,9 @@
 package org.lucee.toolbox.core.parser;
 
+import org.lucee.toolbox.core.parser.outline.BlockIndex;
+import org.lucee.toolbox.core.parser.outline.SourceMask;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
+
 import java.util.List;
 import java.util.ArrayList;
 
@@ -13,6 +17,11 @@ public class ParseResult {
     private final boolean parseSuccessful;
     private final List<String> parseErrors;
     private final Object syntaxTree; // Will be implementation-specific
+    private SourceKind sourceKind;
+    private String[] lines;
+    private SourceOutline outline;
+    private BlockIndex blocks;
+    private SourceMask mask;
     
     public ParseResult(String filePath, String content, boolean parseSuccessful) {
         this.filePath = filePath;
@@ -54,8 +63,54 @@ public class ParseResult {
         return syntaxTree;
     }
     
+    /**
+     * Kind of source, classified on first use
+     */
+    public SourceKind getSourceKind() {
+        if (sourceKind == null) {
+            sourceKind = SourceKind.of(filePath, content);
+        }
+        return sourceKind;
+    }
+    
+    /**
+     * Outline of the script components and functions, built on first use and shared by the rules
+     */
+    public synchronized SourceOutline getOutline() {
+        if (outline == null) {
+            outline = SourceOutline.of(content, getSourceKind());
+        }
+        return outline;
+    }
+    
+    /**
+     * Brace, parenthesis and tag nesting, built on first use and shared by the rules
+     */
+    public synchronized BlockIndex getBlocks() {
+        if (blocks == null) {
+            blocks = BlockIndex.of(content, getSourceKind());
+        }
+        return blocks;
+    }
+    
+    /**
+     * Comment, string literal and markup regions, built on first use and shared by the rules
+     */
+    public synchronized SourceMask getMask() {
+        if (mask == null) {
+            mask = SourceMask.of(content, getSourceKind());
+        }
+        return mask;
+    }
+    
+    /**
+     * Lines of the content, split on first use. The array is shared, callers must not modify it.
+     */
     public String[] getLines() {
-        return content.split("\r?\n");
+        if (lines == null) {
+            lines = content.split("\r?\n");
+        }
+        return lines;
     }
     
     public int getLineCount() {
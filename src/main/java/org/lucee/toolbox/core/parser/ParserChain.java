@@ -0,0 +1,113 @@
+package org.lucee.toolbox.core.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tries parsers in order until one succeeds, so a file the first parser cannot handle is retried
+ * with the next instead of being reported as a parse error. Parsers already known to fail on the
+ * same content are skipped, as recorded in a {@link ParseFailureCache}. Only rejections of the content,
+ * a ParseException or an unsuccessful result, are kept for later runs.
+ */
+public class ParserChain {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ParserChain.class);
+    
+    private final ParserFactory parserFactory;
+    private final ParseFailureCache failures;
+    
+    public ParserChain(ParserFactory parserFactory, ParseFailureCache failures) {
+        this.parserFactory = parserFactory;
+        this.failures = failures;
+    }
+    
+    /**
+     * A parse result and the type of the parser that produced it
+     */
+    public static final class Outcome {
+        private final ParseResult result;
+        private final String parserType;
+        
+        private Outcome(ParseResult result, String parserType) {
+            this.result = result;
+            this.parserType = parserType;
+        }
+        
+        public ParseResult getResult() {
+            return result;
+        }
+        
+        public String getParserType() {
+            return parserType;
+        }
+    }
+    
+    /**
+     * Parse with the first of the given parser types that succeeds. If every parser fails, the first
+     * unsuccessful result is returned, or the first exception rethrown if none produced a result.
+     * @param parserTypes Parser types in the order to try them
+     * @throws ParseException if no parser produced a result
+     */
+    public Outcome parse(String content, String filePath, List<String> parserTypes, AnalysisLevel level) throws ParseException {
+        List<CfmlParser> parsers = new ArrayList<>();
+        for (String type : parserTypes) {
+            CfmlParser parser = parserFactory.createParser(type);
+            if (parser != null) {
+                parsers.add(parser);
+            }
+        }
+        List<CfmlParser> candidates = new ArrayList<>();
+        for (CfmlParser parser : parsers) {
+            if (!failures.hasFailed(parser.getParserType(), parser.getImplementationVersion(), content)) {
+                candidates.add(parser);
+            }
+        }
+        if (candidates.isEmpty() && !parsers.isEmpty()) {
+            // Every parser failed on this content before, so only the last resort is worth repeating
+            candidates.add(parsers.get(parsers.size() - 1));
+        }
+        
+        Outcome unsuccessful = null;
+        ParseException firstError = null;
+        for (CfmlParser parser : candidates) {
+            String type = parser.getParserType();
+            boolean rejected = true;
+            try {
+                ParseResult result = parser.parse(content, filePath, level);
+                if (result.isParseSuccessful()) {
+                    return new Outcome(result, parser.getParserType());
+                }
+                if (unsuccessful == null) {
+                    unsuccessful = new Outcome(result, parser.getParserType());
+                }
+            } catch (ParseException e) {
+                if (firstError == null) {
+                    firstError = e;
+                }
+            } catch (RuntimeException e) {
+                // Says more about the parser than the content, such as an engine that did not start
+                rejected = false;
+                if (firstError == null) {
+                    firstError = new ParseException(e.getMessage(), filePath, 1, 1, e);
+                }
+            }
+            if (rejected) {
+                failures.recordFailure(type, parser.getImplementationVersion(), content);
+            } else {
+                failures.recordTransientFailure(type, parser.getImplementationVersion(), content);
+            }
+            logger.debug("Parser {} failed on {}, trying the next", type, filePath);
+        }
+        
+        if (unsuccessful != null) {
+            return unsuccessful;
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+        throw new ParseException("No parser available for: " + filePath, filePath, 1, 1);
+    }
+}
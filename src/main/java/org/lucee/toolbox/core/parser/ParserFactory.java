@@ -5,12 +5,18 @@ import org.lucee.toolbox.core.parser.impl.RegexParser;
 import org.lucee.toolbox.core.parser.impl.BoxLangParser;
 import org.lucee.toolbox.core.parser.impl.LuceeScriptEngineParser;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
- * Factory for creating CFML parsers
+ * Factory for creating CFML parsers.
+ * Parsers are created on first request and reused, one set per thread, since the Lucee
+ * parser holds a script engine that is expensive to start and not safe to share.
  */
 public class ParserFactory {
     
     private final ConfigurationManager configManager;
+    private final ThreadLocal<Map<String, CfmlParser>> parsers = ThreadLocal.withInitial(HashMap::new);
     
     public ParserFactory(ConfigurationManager configManager) {
         this.configManager = configManager;
@@ -19,10 +25,23 @@ public class ParserFactory {
     /**
      * Create a parser of the specified type
      * @param parserType The type of parser (boxlang, lucee, lucee-script, regex)
-     * @return CfmlParser instance or null if type not supported
+     * @return CfmlParser instance, shared by later calls on the same thread, or null if type not supported
      */
     public CfmlParser createParser(String parserType) {
-        switch (parserType.toLowerCase()) {
+        String type = parserType.toLowerCase();
+        Map<String, CfmlParser> cache = parsers.get();
+        CfmlParser parser = cache.get(type);
+        if (parser == null) {
+            parser = newParser(type);
+            if (parser != null) {
+                cache.put(type, parser);
+            }
+        }
+        return parser;
+    }
+    
+    private CfmlParser newParser(String parserType) {
+        switch (parserType) {
             case "boxlang":
                 return createBoxLangParser();
             case "lucee":
@@ -0,0 +1,127 @@
+package org.lucee.toolbox.core.parser;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Kind of source file, from its extension and, for components, whether it is written in tags.
+ * Rules declare the kinds they apply to so the rule engine can skip the others.
+ */
+public enum SourceKind {
+    
+    /** Component (.cfc, .bx) written in script, in whole or in part */
+    COMPONENT,
+    
+    /** Component written only in tags, with no cfscript block */
+    TAG_COMPONENT,
+    
+    /** Template (.cfm, .cfml, .bxm, .htm, .html), tags with optional cfscript blocks */
+    TEMPLATE,
+    
+    /** Script file (.cfs, .bxs) */
+    SCRIPT,
+    
+    /** Any other extension */
+    OTHER;
+    
+    /**
+     * Component kinds, tag or script
+     */
+    public static Set<SourceKind> components() {
+        return EnumSet.of(COMPONENT, TAG_COMPONENT);
+    }
+    
+    /**
+     * Kinds that can contain CFML script syntax, which is every kind except tag-only components
+     */
+    public static Set<SourceKind> withScript() {
+        return EnumSet.complementOf(EnumSet.of(TAG_COMPONENT));
+    }
+    
+    /**
+     * Kinds that can contain CFML tags, which is every component and template
+     */
+    public static Set<SourceKind> withTags() {
+        return EnumSet.of(COMPONENT, TAG_COMPONENT, TEMPLATE);
+    }
+    
+    /**
+     * True if a file of this kind is read as markup with optional cfscript blocks rather than as script:
+     * templates, tag components, and components whose first token is a tag
+     */
+    public boolean isMarkup(String content) {
+        switch (this) {
+            case TEMPLATE:
+            case TAG_COMPONENT:
+                return true;
+            case COMPONENT:
+                int start = skipLeadingTrivia(content);
+                return start < content.length() && content.charAt(start) == '<';
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * Classify a file from its path and content
+     */
+    public static SourceKind of(String filePath, String content) {
+        String lower = filePath != null ? filePath.toLowerCase(Locale.ROOT) : "";
+        if (lower.endsWith(".cfc") || lower.endsWith(".bx")) {
+            return isTagOnly(content) ? TAG_COMPONENT : COMPONENT;
+        }
+        if (lower.endsWith(".cfm") || lower.endsWith(".cfml") || lower.endsWith(".bxm")
+                || lower.endsWith(".htm") || lower.endsWith(".html")) {
+            return TEMPLATE;
+        }
+        if (lower.endsWith(".cfs") || lower.endsWith(".bxs")) {
+            return SCRIPT;
+        }
+        return OTHER;
+    }
+    
+    /**
+     * True if the first thing after whitespace and tag comments is a CFML tag, and there is no cfscript block
+     */
+    private static boolean isTagOnly(String content) {
+        if (content == null) {
+            return false;
+        }
+        int pos = skipLeadingTrivia(content);
+        return content.regionMatches(true, pos, "<cf", 0, 3)
+                && indexOfIgnoreCase(content, "<cfscript", pos) < 0;
+    }
+    
+    /**
+     * Offset of the first character after leading whitespace and tag comments, the length if there is none
+     */
+    private static int skipLeadingTrivia(String content) {
+        int pos = 0;
+        int length = content.length();
+        while (pos < length) {
+            char c = content.charAt(pos);
+            if (Character.isWhitespace(c) || c == '\uFEFF') {
+                pos++;
+            } else if (content.startsWith("<!---", pos)) {
+                int close = content.indexOf("--->", pos + 5);
+                if (close < 0) {
+                    return length;
+                }
+                pos = close + 4;
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+    
+    private static int indexOfIgnoreCase(String content, String needle, int from) {
+        for (int i = from, last = content.length() - needle.length(); i <= last; i++) {
+            if (content.charAt(i) == needle.charAt(0) && content.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,8 +1,10 @@
 package org.lucee.toolbox.core.parser.impl;
 
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.CfmlParser;
 import org.lucee.toolbox.core.parser.ParseException;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.util.ImplementationVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,10 +19,20 @@ import java.io.IOException;
 public class BoxLangParser implements CfmlParser {
     
     private static final Logger logger = LoggerFactory.getLogger(BoxLangParser.class);
+    private static final String BOXLANG_VERSION = boxLangVersion();
     
     // We'll use BoxLang's parser classes once they're available
     // For now, this is a placeholder implementation
     
+    @Override
+    public ParseResult parse(String content, String filePath, AnalysisLevel level) throws ParseException {
+        if (!level.covers(AnalysisLevel.SYNTAX_TREE)) {
+            // No active rule reads the AST, the lighter structures are built from the content on demand
+            return new ParseResult(filePath, content, true);
+        }
+        return parse(content, filePath);
+    }
+    
     @Override
     public ParseResult parse(String content, String filePath) throws ParseException {
         try {
@@ -102,6 +114,20 @@ public class BoxLangParser implements CfmlParser {
         return "boxlang";
     }
     
+    @Override
+    public String getImplementationVersion() {
+        // The toolbox and the optional BoxLang compiler can be upgraded separately
+        return ImplementationVersion.of(getClass()) + "/" + BOXLANG_VERSION;
+    }
+    
+    private static String boxLangVersion() {
+        try {
+            return ImplementationVersion.of(Class.forName("ortus.boxlang.compiler.parser.BoxParser"));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return "none";
+        }
+    }
+    
     @Override
     public boolean canParse(String content) {
         // BoxLang parser can handle most CFML content
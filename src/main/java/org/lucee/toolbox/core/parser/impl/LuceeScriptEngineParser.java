@@ -1,18 +1,26 @@
 package org.lucee.toolbox.core.parser.impl;
 
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.CfmlParser;
 import org.lucee.toolbox.core.parser.ParseResult;
 import org.lucee.toolbox.core.parser.ParseException;
 import org.lucee.toolbox.core.parser.EnhancedParseResult;
+import org.lucee.toolbox.core.parser.ParseComment;
 import org.lucee.toolbox.core.parser.ParseIssue;
+import org.lucee.toolbox.core.util.ContentHash;
+import org.lucee.toolbox.core.util.NativeImage;
 
+import javax.script.Compilable;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
-import javax.script.ScriptContext;
-import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * CFML parser using Lucee's JSR-223 ScriptEngine
@@ -20,20 +28,44 @@ import java.util.List;
  */
 public class LuceeScriptEngineParser implements CfmlParser {
     
-    private final ScriptEngine luceeEngine;
-    private final boolean isEngineAvailable;
+    // Compilation outcomes by content hash, shared by the parsers of all threads
+    private static final int MAX_VALIDATED = 1024;
+    private static final Map<Long, List<ParseIssue>> VALIDATED = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, List<ParseIssue>> eldest) {
+                    return size() > MAX_VALIDATED;
+                }
+            });
+    private static final Pattern LINE_IN_MESSAGE = Pattern.compile("\\bline:? (\\d+)", Pattern.CASE_INSENSITIVE);
+    
+    // Started on the first full parse, so runs that never need one do not pay for the engine
+    private ScriptEngine luceeEngine;
+    private boolean isEngineAvailable;
+    private boolean engineStarted;
     
-    public LuceeScriptEngineParser() {
-        ScriptEngineManager manager = new ScriptEngineManager();
+    /**
+     * Look up the Lucee engine once, returning whether it is available
+     */
+    private boolean startEngine() {
+        if (engineStarted) {
+            return isEngineAvailable;
+        }
+        engineStarted = true;
         ScriptEngine engine = null;
         
-        // Try different engine names that Lucee might register under
-        String[] engineNames = {"lucee", "cfml", "CFML", "coldfusion", "cfscript"};
-        
-        for (String name : engineNames) {
-            engine = manager.getEngineByName(name);
-            if (engine != null) {
-                break;
+        // Native executables are built without the Lucee engine, so skip the service lookup
+        if (!NativeImage.isRuntime()) {
+            ScriptEngineManager manager = new ScriptEngineManager();
+            
+            // Try different engine names that Lucee might register under
+            String[] engineNames = {"lucee", "cfml", "CFML", "coldfusion", "cfscript"};
+            
+            for (String name : engineNames) {
+                engine = manager.getEngineByName(name);
+                if (engine != null) {
+                    break;
+                }
             }
         }
         
@@ -43,11 +75,26 @@ public class LuceeScriptEngineParser implements CfmlParser {
         if (!isEngineAvailable) {
             System.err.println("Lucee ScriptEngine not available, falling back to syntax-only validation");
         }
+        return isEngineAvailable;
     }
     
     @Override
     public ParseResult parse(String content, String filePath) throws ParseException {
-        if (!isEngineAvailable) {
+        return parse(content, filePath, AnalysisLevel.SYNTAX_TREE);
+    }
+    
+    @Override
+    public ParseResult parse(String content, String filePath, AnalysisLevel level) throws ParseException {
+        if (!level.covers(AnalysisLevel.SYNTAX_TREE)) {
+            // Nothing asks for Lucee's validation, and comments only once tokens are wanted
+            EnhancedParseResult result = new EnhancedParseResult(filePath, content, true, null, getParserType());
+            if (level.covers(AnalysisLevel.TOKENS)) {
+                addComments(result);
+            }
+            return result;
+        }
+        
+        if (!startEngine()) {
             // If Lucee engine is not available, do basic syntax checking
             return createBasicParseResult(content, filePath);
         }
@@ -55,6 +102,7 @@ public class LuceeScriptEngineParser implements CfmlParser {
         try {
             // Create enhanced parse result
             EnhancedParseResult result = new EnhancedParseResult(filePath, content, true, null, getParserType());
+            addComments(result);
             
             // Use Lucee to validate the syntax
             List<ParseIssue> issues = validateSyntax(content);
@@ -70,103 +118,87 @@ public class LuceeScriptEngineParser implements CfmlParser {
     }
     
     /**
-     * Validate CFML syntax using Lucee ScriptEngine
+     * Validate CFML syntax by compiling it with the Lucee engine, without running it.
+     * Outcomes are shared by all parsers and keyed by content, so identical files compile once.
+     * Engine failures other than a compilation error say nothing about the content and are not shared.
      */
     private List<ParseIssue> validateSyntax(String cfmlCode) {
+        long key = ContentHash.of(cfmlCode);
+        List<ParseIssue> issues = VALIDATED.get(key);
+        if (issues == null) {
+            try {
+                issues = List.copyOf(compile(cfmlCode));
+            } catch (RuntimeException e) {
+                return List.of(new ParseIssue(
+                    "Parser error: " + e.getMessage(),
+                    ParseIssue.Severity.ERROR,
+                    1, 1, -1, -1, e.toString()
+                ));
+            }
+            VALIDATED.put(key, issues);
+        }
+        return issues;
+    }
+    
+    private List<ParseIssue> compile(String cfmlCode) {
         List<ParseIssue> issues = new ArrayList<>();
+        if (!(luceeEngine instanceof Compilable)) {
+            // Never fall back to evaluating the code, check what can be checked without the engine
+            issues.addAll(basicSyntaxIssues(cfmlCode));
+            return issues;
+        }
         
         try {
-            // Create isolated context for validation
-            ScriptContext context = luceeEngine.getContext();
-            StringWriter output = new StringWriter();
-            StringWriter errorOutput = new StringWriter();
-            
-            context.setWriter(output);
-            context.setErrorWriter(errorOutput);
-            
-            // Try to compile/validate the CFML code
-            // We wrap in a try-catch to capture any compilation errors
-            String validationCode = """
-                try {
-                    // Wrap user code in a function to isolate it
-                    evalResult = evaluate("%s");
-                    validationSuccess = true;
-                } catch (any e) {
-                    validationSuccess = false;
-                    validationError = e.message;
-                    validationDetail = e.detail ?: '';
-                    validationLine = e.line ?: 1;
-                    validationColumn = e.column ?: 1;
-                }
-                """.formatted(cfmlCode.replace("\"", "\\\""));
-            
-            luceeEngine.eval(validationCode);
-            
-            // Check validation results
-            Boolean success = (Boolean) luceeEngine.get("validationSuccess");
-            if (success == null || !success) {
-                String errorMessage = (String) luceeEngine.get("validationError");
-                String errorDetail = (String) luceeEngine.get("validationDetail");
-                Integer line = (Integer) luceeEngine.get("validationLine");
-                Integer column = (Integer) luceeEngine.get("validationColumn");
-                
-                ParseIssue issue = new ParseIssue(
-                    errorMessage != null ? errorMessage : "Syntax error",
-                    ParseIssue.Severity.ERROR,
-                    line != null ? line : 1,
-                    column != null ? column : 1,
-                    -1, -1, errorDetail != null ? errorDetail : null
-                );
-                
-                issues.add(issue);
-            }
-            
-            // Check for any output in error stream
-            String errors = errorOutput.toString();
-            if (!errors.isEmpty()) {
-                // Parse error output for additional issues
-                String[] errorLines = errors.split("\n");
-                for (String errorLine : errorLines) {
-                    if (!errorLine.trim().isEmpty()) {
-                        ParseIssue issue = new ParseIssue(
-                            "Lucee warning: " + errorLine.trim(),
-                            ParseIssue.Severity.WARNING,
-                            1, 1, -1, -1, null
-                        );
-                        issues.add(issue);
-                    }
-                }
-            }
-            
+            ((Compilable) luceeEngine).compile(cfmlCode);
         } catch (ScriptException e) {
-            // Script execution error indicates syntax problem
-            ParseIssue issue = new ParseIssue(
+            // A compilation error is a syntax problem in the file
+            issues.add(new ParseIssue(
                 "Syntax error: " + e.getMessage(),
                 ParseIssue.Severity.ERROR,
-                e.getLineNumber() > 0 ? e.getLineNumber() : 1,
+                e.getLineNumber() > 0 ? e.getLineNumber() : lineFromMessage(e.getMessage()),
                 e.getColumnNumber() > 0 ? e.getColumnNumber() : 1,
                 -1, -1, e.toString()
-            );
-            issues.add(issue);
-        } catch (Exception e) {
-            // Other errors
-            ParseIssue issue = new ParseIssue(
-                "Parser error: " + e.getMessage(),
-                ParseIssue.Severity.ERROR,
-                1, 1, -1, -1, e.toString()
-            );
-            issues.add(issue);
+            ));
         }
         
         return issues;
     }
     
+    /**
+     * Line of a compilation error that Lucee only reports in its message, such as "... [line 12]", or 1
+     */
+    private static int lineFromMessage(String message) {
+        Matcher matcher = message != null ? LINE_IN_MESSAGE.matcher(message) : null;
+        return matcher != null && matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+    
+    /**
+     * Record the file's comments, found by the same pass that masks them for the rules
+     */
+    private void addComments(EnhancedParseResult result) {
+        for (ParseComment comment : result.getMask().getComments(result.getContent())) {
+            result.addComment(comment);
+        }
+    }
+    
     /**
      * Create basic parse result when Lucee engine is not available
      */
     private ParseResult createBasicParseResult(String cfmlCode, String filePath) {
         EnhancedParseResult result = new EnhancedParseResult(filePath, cfmlCode, true, null, getParserType());
+        addComments(result);
+        
+        for (ParseIssue issue : basicSyntaxIssues(cfmlCode)) {
+            result.addIssue(issue);
+        }
         
+        return result;
+    }
+    
+    /**
+     * Syntax checks that need no engine
+     */
+    private static List<ParseIssue> basicSyntaxIssues(String cfmlCode) {
         List<ParseIssue> issues = new ArrayList<>();
         
         // Basic syntax checks without Lucee
@@ -195,11 +227,7 @@ public class LuceeScriptEngineParser implements CfmlParser {
             issues.add(new ParseIssue("Unmatched braces", ParseIssue.Severity.ERROR, 1, 1, -1, -1, null));
         }
         
-        for (ParseIssue issue : issues) {
-            result.addIssue(issue);
-        }
-        
-        return result;
+        return issues;
     }
     
     @Override
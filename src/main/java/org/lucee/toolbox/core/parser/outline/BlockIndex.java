@@ -0,0 +1,144 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.lucee.toolbox.core.parser.SourceKind;
+
+/**
+ * Nesting tree of a file's matched {...} and (...) ranges in script code and &lt;cfX&gt;...&lt;/cfX&gt;
+ * ranges in markup, built in one pass that skips comments and strings.
+ * Blocks are numbered in order of their start offset and stored in parallel int arrays, so the block
+ * starting at an offset and the innermost block enclosing an offset are found by binary search.
+ */
+public final class BlockIndex {
+    
+    /**
+     * What delimits a block
+     */
+    public enum Kind {
+        BRACE,
+        PAREN,
+        TAG
+    }
+    
+    private static final Kind[] KINDS = Kind.values();
+    
+    private final int size;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] parents;
+    private final int[] depths;
+    private final byte[] kinds;
+    private final int[] lineStarts;
+    
+    BlockIndex(int size, int[] starts, int[] ends, int[] parents, int[] depths, byte[] kinds, int[] lineStarts) {
+        this.size = size;
+        this.starts = starts;
+        this.ends = ends;
+        this.parents = parents;
+        this.depths = depths;
+        this.kinds = kinds;
+        this.lineStarts = lineStarts;
+    }
+    
+    /**
+     * Index a file's content
+     */
+    public static BlockIndex of(String content, SourceKind kind) {
+        return new BlockScanner(content, kind).scan();
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Offset of the opening delimiter: the brace, the parenthesis or the &lt; of the opening tag
+     */
+    public int getStart(int block) {
+        return starts[block];
+    }
+    
+    /**
+     * Offset of the closing delimiter: the brace, the parenthesis or the &lt; of the closing tag.
+     * A brace or parenthesis that is never closed ends at the end of its script region.
+     */
+    public int getEnd(int block) {
+        return ends[block];
+    }
+    
+    public Kind getKind(int block) {
+        return KINDS[kinds[block]];
+    }
+    
+    /**
+     * Index of the innermost block enclosing this one, -1 at the top level
+     */
+    public int getParent(int block) {
+        return parents[block];
+    }
+    
+    /**
+     * Number of blocks enclosing this one, 0 at the top level
+     */
+    public int getDepth(int block) {
+        return depths[block];
+    }
+    
+    public int getStartLine(int block) {
+        return SourceOutline.lineOf(lineStarts, starts[block]);
+    }
+    
+    public int getEndLine(int block) {
+        return SourceOutline.lineOf(lineStarts, ends[block]);
+    }
+    
+    /**
+     * Number of lines from the opening to the closing delimiter, both included
+     */
+    public int getLineSpan(int block) {
+        return getEndLine(block) - getStartLine(block) + 1;
+    }
+    
+    /**
+     * Index of the block opened at an offset, or -1 if no block starts there
+     */
+    public int blockAt(int offset) {
+        int index = lastStartingAtOrBefore(offset);
+        return index >= 0 && starts[index] == offset ? index : -1;
+    }
+    
+    /**
+     * Index of the innermost block whose delimiters enclose or sit at an offset, or -1
+     */
+    public int enclosing(int offset) {
+        int block = lastStartingAtOrBefore(offset);
+        while (block >= 0 && ends[block] < offset) {
+            block = parents[block];
+        }
+        return block;
+    }
+    
+    /**
+     * Index of the innermost block of a kind enclosing an offset, or -1
+     */
+    public int enclosing(int offset, Kind kind) {
+        int block = enclosing(offset);
+        while (block >= 0 && kinds[block] != kind.ordinal()) {
+            block = parents[block];
+        }
+        return block;
+    }
+    
+    private int lastStartingAtOrBefore(int offset) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,198 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Single forward pass that builds a {@link BlockIndex}.
+ * Script regions match braces and parentheses, markup regions match CFML and BoxLang tags by name.
+ * Tags that are never closed, such as cfset or cfelse, are not blocks.
+ */
+final class BlockScanner extends ScriptScanner {
+    
+    private static final int UNCLOSED = -1;
+    
+    private int size;
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private byte[] kinds = new byte[64];
+    private String[] tagNames = new String[64];
+    // Open tags, which may span script regions
+    private int[] openTags = new int[16];
+    private int openTagCount;
+    
+    BlockScanner(String content, SourceKind kind) {
+        super(content, kind);
+    }
+    
+    BlockIndex scan() {
+        scanRegions();
+        
+        // Drop tags that were never closed, then link each block to the innermost one enclosing it
+        int count = 0;
+        for (int block = 0; block < size; block++) {
+            if (ends[block] != UNCLOSED) {
+                starts[count] = starts[block];
+                ends[count] = ends[block];
+                kinds[count] = kinds[block];
+                count++;
+            }
+        }
+        int[] parents = new int[count];
+        int[] depths = new int[count];
+        int[] stack = new int[16];
+        int depth = 0;
+        for (int block = 0; block < count; block++) {
+            while (depth > 0 && ends[stack[depth - 1]] < starts[block]) {
+                depth--;
+            }
+            parents[block] = depth > 0 ? stack[depth - 1] : -1;
+            depths[block] = depth;
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+            }
+            stack[depth++] = block;
+        }
+        return new BlockIndex(count, Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), parents, depths,
+                Arrays.copyOf(kinds, count), lineStarts);
+    }
+    
+    @Override
+    void scanScript(int from, int to) {
+        int[] stack = new int[16];
+        int depth = 0;
+        int pos = from;
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (isCommentStart(pos, to)) {
+                pos = skipComment(pos, to);
+                continue;
+            }
+            if (c == '<' && content.startsWith("<!---", pos)) {
+                pos = skipTagComment(pos, to);
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                pos = skipString(pos, to);
+                continue;
+            }
+            if (c == '{' || c == '(') {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = add(pos, c == '{' ? BlockIndex.Kind.BRACE : BlockIndex.Kind.PAREN, null);
+            } else if (c == '}') {
+                // A closing brace also closes parentheses left open inside its block
+                int match = depth - 1;
+                while (match >= 0 && kinds[stack[match]] != BlockIndex.Kind.BRACE.ordinal()) {
+                    match--;
+                }
+                if (match >= 0) {
+                    while (depth > match) {
+                        ends[stack[--depth]] = pos;
+                    }
+                }
+            } else if (c == ')' && depth > 0 && kinds[stack[depth - 1]] == BlockIndex.Kind.PAREN.ordinal()) {
+                ends[stack[--depth]] = pos;
+            }
+            pos++;
+        }
+        while (depth > 0) {
+            ends[stack[--depth]] = to;
+        }
+    }
+    
+    @Override
+    void scanMarkup(int from, int to) {
+        int pos = from;
+        while (pos < to) {
+            int open = content.indexOf('<', pos);
+            if (open < 0 || open >= to) {
+                return;
+            }
+            if (content.startsWith("<!---", open)) {
+                pos = skipTagComment(open, to);
+                continue;
+            }
+            boolean closing = open + 1 < to && content.charAt(open + 1) == '/';
+            int nameStart = closing ? open + 2 : open + 1;
+            int nameEnd = tagNameEnd(nameStart, to);
+            if (nameEnd < 0) {
+                pos = open + 1;
+                continue;
+            }
+            String name = content.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+            int end = tagEnd(nameEnd, to);
+            if (closing) {
+                closeTag(name, open);
+            } else if (end < 0 || content.charAt(end - 1) != '/') {
+                if (openTagCount == openTags.length) {
+                    openTags = Arrays.copyOf(openTags, openTagCount * 2);
+                }
+                openTags[openTagCount++] = add(open, BlockIndex.Kind.TAG, name);
+            }
+            pos = end < 0 ? to : end + 1;
+        }
+    }
+    
+    private void closeTag(String name, int offset) {
+        for (int index = openTagCount - 1; index >= 0; index--) {
+            int block = openTags[index];
+            if (tagNames[block].equals(name)) {
+                // Tags opened after it and still open, such as cfset, stay unclosed
+                ends[block] = offset;
+                openTagCount = index;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * End of a cf or bx: tag name starting at an offset, or -1 if no such tag starts there
+     */
+    private int tagNameEnd(int pos, int to) {
+        int prefix;
+        if (content.regionMatches(true, pos, "cf", 0, 2)) {
+            prefix = 2;
+        } else if (content.regionMatches(true, pos, "bx:", 0, 3)) {
+            prefix = 3;
+        } else {
+            return -1;
+        }
+        if (pos + prefix >= to || !isIdentifierStart(content.charAt(pos + prefix))) {
+            return -1;
+        }
+        return identifierEnd(pos + prefix, to);
+    }
+    
+    /**
+     * Offset of the &gt; ending a tag, skipping quoted attribute values, or -1 if it is not closed
+     */
+    private int tagEnd(int pos, int to) {
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (c == '>') {
+                return pos;
+            }
+            pos = c == '"' || c == '\'' ? skipString(pos, to) : pos + 1;
+        }
+        return -1;
+    }
+    
+    private int add(int start, BlockIndex.Kind kind, String tagName) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            tagNames = Arrays.copyOf(tagNames, capacity);
+        }
+        starts[size] = start;
+        ends[size] = UNCLOSED;
+        kinds[size] = (byte) kind.ordinal();
+        tagNames[size] = tagName;
+        return size++;
+    }
+}
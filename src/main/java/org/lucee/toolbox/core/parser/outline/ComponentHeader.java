@@ -0,0 +1,94 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A script component or interface header: [abstract] [final] component|interface [name] attributes {
+ */
+public final class ComponentHeader {
+    
+    private final boolean isInterface;
+    private final Set<String> modifiers;
+    private final String name;
+    private final int nameOffset;
+    private final Map<String, String> attributes;
+    private final int offset;
+    private final int bodyStart;
+    private final int line;
+    
+    ComponentHeader(boolean isInterface, Set<String> modifiers, String name, int nameOffset,
+                    Map<String, String> attributes, int offset, int bodyStart, int line) {
+        this.isInterface = isInterface;
+        this.modifiers = Collections.unmodifiableSet(modifiers);
+        this.name = name;
+        this.nameOffset = nameOffset;
+        this.attributes = Collections.unmodifiableMap(attributes);
+        this.offset = offset;
+        this.bodyStart = bodyStart;
+        this.line = line;
+    }
+    
+    public boolean isInterface() {
+        return isInterface;
+    }
+    
+    /**
+     * Modifiers before the keyword in lower case, such as abstract or final
+     */
+    public Set<String> getModifiers() {
+        return modifiers;
+    }
+    
+    /**
+     * True for an abstract modifier or an abstract="true" attribute
+     */
+    public boolean isAbstract() {
+        return modifiers.contains("abstract") || "true".equalsIgnoreCase(getAttribute("abstract"));
+    }
+    
+    /**
+     * Declared name, from a name attribute or a bare name after the keyword, or null if there is none
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Offset of the declared name, -1 if there is none
+     */
+    public int getNameOffset() {
+        return nameOffset;
+    }
+    
+    /**
+     * Attributes by lower-case name, values without quotes. Valueless attributes map to an empty string.
+     */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+    
+    public String getAttribute(String attributeName) {
+        return attributes.get(attributeName.toLowerCase(Locale.ROOT));
+    }
+    
+    /**
+     * Offset of the first token of the header, the first modifier or the keyword
+     */
+    public int getOffset() {
+        return offset;
+    }
+    
+    /**
+     * Offset of the opening brace of the body
+     */
+    public int getBodyStart() {
+        return bodyStart;
+    }
+    
+    public int getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,50 @@
+package org.lucee.toolbox.core.parser.outline;
+
+/**
+ * One argument of a script function declaration: [required] [type] name [= default] [attributes]
+ */
+public final class FunctionArgument {
+    
+    private final String name;
+    private final String type;
+    private final boolean required;
+    private final String defaultValue;
+    private final int offset;
+    
+    FunctionArgument(String name, String type, boolean required, String defaultValue, int offset) {
+        this.name = name;
+        this.type = type;
+        this.required = required;
+        this.defaultValue = defaultValue;
+        this.offset = offset;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Declared type, or null if the argument is untyped
+     */
+    public String getType() {
+        return type;
+    }
+    
+    public boolean isRequired() {
+        return required;
+    }
+    
+    /**
+     * Source text of the default value, or null if there is none
+     */
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+    
+    /**
+     * Offset of the argument in the file content
+     */
+    public int getOffset() {
+        return offset;
+    }
+}
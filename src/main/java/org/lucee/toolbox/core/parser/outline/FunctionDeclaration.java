@@ -0,0 +1,129 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import java.util.List;
+
+/**
+ * A named script function: [access] [static] [abstract] [final] [returnType] function name(arguments) [attributes] {body} or ;
+ */
+public final class FunctionDeclaration {
+    
+    private final String name;
+    private final int offset;
+    private final int nameOffset;
+    private final String access;
+    private final boolean isStatic;
+    private final boolean isAbstract;
+    private final boolean isFinal;
+    private final String returnType;
+    private final List<FunctionArgument> arguments;
+    private final int bodyStart;
+    private final int bodyEnd;
+    private final int startLine;
+    private final int endLine;
+    
+    FunctionDeclaration(String name, int offset, int nameOffset, String access, boolean isStatic,
+                        boolean isAbstract, boolean isFinal, String returnType, List<FunctionArgument> arguments,
+                        int bodyStart, int bodyEnd, int startLine, int endLine) {
+        this.name = name;
+        this.offset = offset;
+        this.nameOffset = nameOffset;
+        this.access = access;
+        this.isStatic = isStatic;
+        this.isAbstract = isAbstract;
+        this.isFinal = isFinal;
+        this.returnType = returnType;
+        this.arguments = List.copyOf(arguments);
+        this.bodyStart = bodyStart;
+        this.bodyEnd = bodyEnd;
+        this.startLine = startLine;
+        this.endLine = endLine;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Offset of the first token of the declaration, the first modifier or the function keyword
+     */
+    public int getOffset() {
+        return offset;
+    }
+    
+    public int getNameOffset() {
+        return nameOffset;
+    }
+    
+    /**
+     * Access modifier in lower case (public, private, package or remote), or null if none is declared
+     */
+    public String getAccess() {
+        return access;
+    }
+    
+    public boolean isStatic() {
+        return isStatic;
+    }
+    
+    public boolean isAbstract() {
+        return isAbstract;
+    }
+    
+    public boolean isFinal() {
+        return isFinal;
+    }
+    
+    /**
+     * Declared return type, or null if none is declared
+     */
+    public String getReturnType() {
+        return returnType;
+    }
+    
+    public List<FunctionArgument> getArguments() {
+        return arguments;
+    }
+    
+    /**
+     * True if the function has a body, false for a declaration ending in a semicolon
+     */
+    public boolean hasBody() {
+        return bodyStart >= 0;
+    }
+    
+    /**
+     * Offset of the opening brace of the body, -1 if there is no body
+     */
+    public int getBodyStart() {
+        return bodyStart;
+    }
+    
+    /**
+     * Offset of the closing brace of the body, or the end of the script if the body is not closed.
+     * -1 if there is no body.
+     */
+    public int getBodyEnd() {
+        return bodyEnd;
+    }
+    
+    /**
+     * Text between the braces of the body, empty if there is no body
+     */
+    public String getBody(String content) {
+        return hasBody() ? content.substring(bodyStart + 1, Math.max(bodyStart + 1, bodyEnd)) : "";
+    }
+    
+    /**
+     * Line of the first token of the declaration, 1-based
+     */
+    public int getStartLine() {
+        return startLine;
+    }
+    
+    /**
+     * Line of the end of the body, or of the declaration if there is no body
+     */
+    public int getEndLine() {
+        return endLine;
+    }
+}
@@ -0,0 +1,176 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.lucee.toolbox.core.parser.ParseComment;
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Single forward pass that builds a {@link SourceMask}.
+ * Script regions mark comments and string literals; markup regions mark CFML and HTML comments,
+ * quoted attribute values of CFML tags, and everything outside CFML tags as markup.
+ */
+final class MaskScanner extends ScriptScanner {
+    
+    private final BitSet comments = new BitSet();
+    private final BitSet strings = new BitSet();
+    private final BitSet markup = new BitSet();
+    private int commentCount;
+    private int[] commentStarts = new int[16];
+    private int[] commentEnds = new int[16];
+    private ParseComment.CommentType[] commentTypes = new ParseComment.CommentType[16];
+    
+    MaskScanner(String content, SourceKind kind) {
+        super(content, kind);
+    }
+    
+    SourceMask scan() {
+        scanRegions();
+        return new SourceMask(comments, strings, markup, Arrays.copyOf(commentStarts, commentCount),
+                Arrays.copyOf(commentEnds, commentCount), Arrays.copyOf(commentTypes, commentCount),
+                lineStarts, length);
+    }
+    
+    @Override
+    void scanScript(int from, int to) {
+        int pos = from;
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (isCommentStart(pos, to)) {
+                int end = skipComment(pos, to);
+                ParseComment.CommentType type;
+                if (content.charAt(pos + 1) == '/') {
+                    type = ParseComment.CommentType.SINGLE_LINE;
+                } else if (content.startsWith("/**", pos) && !content.startsWith("/**/", pos)) {
+                    type = ParseComment.CommentType.JAVADOC;
+                } else {
+                    type = ParseComment.CommentType.MULTI_LINE;
+                }
+                pos = addComment(pos, end, type);
+            } else if (c == '<' && content.startsWith("<!---", pos)) {
+                pos = addComment(pos, skipTagComment(pos, to), ParseComment.CommentType.CFML);
+            } else if (c == '"' || c == '\'') {
+                pos = markString(pos, to);
+            } else {
+                pos++;
+            }
+        }
+    }
+    
+    @Override
+    void scanMarkup(int from, int to) {
+        int pos = from;
+        while (pos < to) {
+            int open = content.indexOf('<', pos);
+            if (open < 0 || open >= to) {
+                markup.set(pos, to);
+                return;
+            }
+            markup.set(pos, open);
+            if (content.startsWith("<!---", open)) {
+                pos = addComment(open, skipTagComment(open, to), ParseComment.CommentType.CFML);
+            } else if (content.startsWith("<!--", open)) {
+                int end = content.indexOf("-->", open + 4);
+                pos = addComment(open, end < 0 || end + 3 > to ? to : end + 3, ParseComment.CommentType.HTML);
+            } else if (isCfmlTag(open, to)) {
+                pos = markTag(open, to);
+            } else {
+                markup.set(open);
+                pos = open + 1;
+            }
+        }
+    }
+    
+    private boolean isCfmlTag(int pos, int to) {
+        int nameStart = pos + 1 < to && content.charAt(pos + 1) == '/' ? pos + 2 : pos + 1;
+        return content.regionMatches(true, nameStart, "cf", 0, 2) || content.regionMatches(true, nameStart, "bx:", 0, 3);
+    }
+    
+    /**
+     * Mark the quoted attribute values of a CFML tag; the rest of the tag is code. Returns the offset after it.
+     */
+    private int markTag(int pos, int to) {
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (c == '>') {
+                return pos + 1;
+            }
+            pos = c == '"' || c == '\'' ? markString(pos, to) : pos + 1;
+        }
+        return to;
+    }
+    
+    /**
+     * Mark a string literal from its opening quote, leaving #expressions# unmarked but marking strings
+     * nested in them. Returns the offset after the closing quote.
+     */
+    private int markString(int pos, int to) {
+        char quote = content.charAt(pos);
+        int start = pos;
+        pos++;
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (c == quote) {
+                if (pos + 1 < to && content.charAt(pos + 1) == quote) {
+                    pos += 2;
+                    continue;
+                }
+                strings.set(start, pos + 1);
+                return pos + 1;
+            }
+            if (c == '#') {
+                if (pos + 1 < to && content.charAt(pos + 1) == '#') {
+                    pos += 2;
+                    continue;
+                }
+                strings.set(start, pos + 1);
+                pos = markExpression(pos + 1, to);
+                start = pos;
+                if (pos < to && content.charAt(pos) == '#') {
+                    pos++;
+                }
+                continue;
+            }
+            pos++;
+        }
+        strings.set(start, to);
+        return to;
+    }
+    
+    /**
+     * Mark strings inside an interpolated expression. Returns the offset of its closing #.
+     */
+    private int markExpression(int pos, int to) {
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (c == '#') {
+                return pos;
+            }
+            if (c == '"' || c == '\'') {
+                pos = markString(pos, to);
+            } else if (c == '\n') {
+                // A lone # in a string, not an expression
+                return pos;
+            } else {
+                pos++;
+            }
+        }
+        return to;
+    }
+    
+    private int addComment(int start, int end, ParseComment.CommentType type) {
+        comments.set(start, end);
+        if (commentCount == commentStarts.length) {
+            int capacity = commentCount * 2;
+            commentStarts = Arrays.copyOf(commentStarts, capacity);
+            commentEnds = Arrays.copyOf(commentEnds, capacity);
+            commentTypes = Arrays.copyOf(commentTypes, capacity);
+        }
+        commentStarts[commentCount] = start;
+        commentEnds[commentCount] = end;
+        commentTypes[commentCount] = type;
+        commentCount++;
+        return end;
+    }
+}
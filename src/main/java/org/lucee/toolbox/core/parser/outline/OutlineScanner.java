@@ -0,0 +1,397 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single forward pass over the script code of a file that builds a {@link SourceOutline}.
+ * Comments and strings, including expressions interpolated with #, are skipped, and braces are
+ * matched so function bodies end at their own closing brace rather than the first one.
+ */
+final class OutlineScanner extends ScriptScanner {
+    
+    private static final Set<String> ACCESS_MODIFIERS = Set.of("public", "private", "package", "remote");
+    private static final Set<String> FUNCTION_MODIFIERS = Set.of("static", "abstract", "final");
+    private static final Set<String> COMPONENT_MODIFIERS = Set.of("abstract", "final");
+    // Words that can precede a function keyword on the same line without being its return type
+    private static final Set<String> NOT_A_TYPE = Set.of("return", "else", "new", "var", "case", "default",
+            "do", "throw", "try", "finally", "import", "function", "component", "interface", "property");
+    
+    private final List<ComponentHeader> components = new ArrayList<>();
+    private final List<FunctionDeclaration> functions = new ArrayList<>();
+    
+    OutlineScanner(String content, SourceKind kind) {
+        super(content, kind);
+    }
+    
+    SourceOutline scan() {
+        scanRegions();
+        return new SourceOutline(components, functions, lineStarts);
+    }
+    
+    @Override
+    void scanScript(int from, int to) {
+        int depth = 0;
+        int pos = from;
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (isCommentStart(pos, to)) {
+                pos = skipComment(pos, to);
+            } else if (c == '<' && content.startsWith("<!---", pos)) {
+                pos = skipTagComment(pos, to);
+            } else if (c == '"' || c == '\'') {
+                pos = skipString(pos, to);
+            } else if (c == '{') {
+                depth++;
+                pos++;
+            } else if (c == '}') {
+                depth = Math.max(0, depth - 1);
+                pos++;
+            } else if (isIdentifierStart(c) && (pos == from || !isTypeChar(content.charAt(pos - 1)))) {
+                int end = identifierEnd(pos, to);
+                int next = -1;
+                if (isWord(pos, end, "function")) {
+                    next = readFunction(pos, end, from, to);
+                } else if (depth == 0 && components.isEmpty()
+                        && (isWord(pos, end, "component") || isWord(pos, end, "interface"))) {
+                    next = readHeader(pos, end, from, to);
+                    if (next >= 0) {
+                        depth++;
+                    }
+                }
+                pos = next >= 0 ? next : end;
+            } else {
+                pos++;
+            }
+        }
+    }
+    
+    /**
+     * Read a named function declaration at the function keyword.
+     * Returns the offset after its argument list, so the body is still scanned for nested functions, or -1.
+     */
+    private int readFunction(int keywordStart, int keywordEnd, int from, int to) {
+        int pos = skipWhitespace(keywordEnd, to);
+        if (pos == keywordEnd || pos >= to || !isIdentifierStart(content.charAt(pos))) {
+            return -1;
+        }
+        int nameStart = pos;
+        pos = identifierEnd(pos, to);
+        String name = content.substring(nameStart, pos);
+        pos = skipWhitespace(pos, to);
+        if (pos >= to || content.charAt(pos) != '(') {
+            return -1;
+        }
+        int argumentsEnd = findClosing(pos, to, '(', ')');
+        if (argumentsEnd < 0) {
+            return -1;
+        }
+        List<FunctionArgument> arguments = readArguments(pos + 1, argumentsEnd);
+        
+        // Metadata attributes such as output=false may follow the argument list
+        int bodyStart = -1;
+        int bodyEnd = -1;
+        int after = skipAttributes(argumentsEnd + 1, to);
+        if (after < to && content.charAt(after) == '{') {
+            bodyStart = after;
+            int close = findClosing(after, to, '{', '}');
+            bodyEnd = close >= 0 ? close : to;
+        }
+        
+        // Modifiers and return type precede the keyword on the same line
+        int start = keywordStart;
+        String access = null;
+        String returnType = null;
+        Set<String> modifiers = new LinkedHashSet<>();
+        int cursor = keywordStart;
+        while (true) {
+            int wordEnd = cursor;
+            while (wordEnd > from && isInlineWhitespace(content.charAt(wordEnd - 1))) {
+                wordEnd--;
+            }
+            if (wordEnd == cursor) {
+                break;
+            }
+            int wordStart = wordEnd;
+            while (wordStart > from && isReturnTypeChar(content.charAt(wordStart - 1))) {
+                wordStart--;
+            }
+            if (wordStart == wordEnd || !isIdentifierStart(content.charAt(wordStart))) {
+                break;
+            }
+            String word = content.substring(wordStart, wordEnd);
+            String lower = word.toLowerCase(Locale.ROOT);
+            if (ACCESS_MODIFIERS.contains(lower) && access == null) {
+                access = lower;
+            } else if (FUNCTION_MODIFIERS.contains(lower)) {
+                modifiers.add(lower);
+            } else if (returnType == null && access == null && modifiers.isEmpty() && !NOT_A_TYPE.contains(lower)) {
+                returnType = word;
+            } else {
+                break;
+            }
+            start = wordStart;
+            cursor = wordStart;
+        }
+        
+        int endLine = lineOf(bodyStart >= 0 ? Math.min(bodyEnd, length - 1) : argumentsEnd);
+        functions.add(new FunctionDeclaration(name, start, nameStart, access, modifiers.contains("static"),
+                modifiers.contains("abstract"), modifiers.contains("final"), returnType, arguments,
+                bodyStart, bodyEnd, lineOf(start), endLine));
+        return argumentsEnd + 1;
+    }
+    
+    private List<FunctionArgument> readArguments(int from, int to) {
+        List<FunctionArgument> arguments = new ArrayList<>();
+        int segmentStart = from;
+        int pos = from;
+        int depth = 0;
+        while (pos <= to) {
+            char c = pos < to ? content.charAt(pos) : 0;
+            if (pos < to && (c == '"' || c == '\'')) {
+                pos = skipString(pos, to);
+                continue;
+            }
+            if (pos < to && isCommentStart(pos, to)) {
+                pos = skipComment(pos, to);
+                continue;
+            }
+            if (pos < to && (c == '(' || c == '[' || c == '{')) {
+                depth++;
+            } else if (pos < to && (c == ')' || c == ']' || c == '}')) {
+                depth--;
+            } else if (pos == to || (c == ',' && depth <= 0)) {
+                FunctionArgument argument = readArgument(segmentStart, pos);
+                if (argument != null) {
+                    arguments.add(argument);
+                }
+                segmentStart = pos + 1;
+            }
+            pos++;
+        }
+        return arguments;
+    }
+    
+    /**
+     * Read one argument: [required] [type] name [= default] [attribute=value ...]
+     */
+    private FunctionArgument readArgument(int from, int to) {
+        List<int[]> words = new ArrayList<>();
+        int equals = -1;
+        int pos = from;
+        while (pos < to) {
+            pos = skipTrivia(pos, to);
+            if (pos >= to) {
+                break;
+            }
+            char c = content.charAt(pos);
+            if (c == '=') {
+                equals = pos;
+                break;
+            }
+            if (!isIdentifierStart(c)) {
+                break;
+            }
+            int end = typeEnd(pos, to);
+            words.add(new int[] {pos, end});
+            pos = end;
+        }
+        if (words.isEmpty()) {
+            return null;
+        }
+        
+        int first = 0;
+        boolean required = false;
+        if (words.size() > 1 && isWord(words.get(0)[0], words.get(0)[1], "required")) {
+            required = true;
+            first = 1;
+        }
+        int remaining = words.size() - first;
+        String type = null;
+        int[] name = words.get(first);
+        if (remaining >= 2) {
+            type = content.substring(words.get(first)[0], words.get(first)[1]);
+            name = words.get(first + 1);
+        }
+        // With more than two words the equals sign belongs to an attribute, not a default
+        String defaultValue = equals >= 0 && remaining <= 2 ? content.substring(equals + 1, to).trim() : null;
+        return new FunctionArgument(content.substring(name[0], name[1]), type, required, defaultValue, name[0]);
+    }
+    
+    /**
+     * Read a component or interface header at its keyword.
+     * Returns the offset after the opening brace of the body, or -1 if this is not a header.
+     */
+    private int readHeader(int keywordStart, int keywordEnd, int from, int to) {
+        // Only modifiers may precede the keyword on its line
+        Set<String> modifiers = new LinkedHashSet<>();
+        int start = keywordStart;
+        int pos = keywordStart;
+        while (true) {
+            while (pos > from && isInlineWhitespace(content.charAt(pos - 1))) {
+                pos--;
+            }
+            if (pos == from || content.charAt(pos - 1) == '\n' || ";}/>".indexOf(content.charAt(pos - 1)) >= 0) {
+                break;
+            }
+            int wordStart = pos;
+            while (wordStart > from && Character.isLetter(content.charAt(wordStart - 1))) {
+                wordStart--;
+            }
+            String word = content.substring(wordStart, pos).toLowerCase(Locale.ROOT);
+            if (!COMPONENT_MODIFIERS.contains(word)) {
+                return -1;
+            }
+            modifiers.add(word);
+            start = wordStart;
+            pos = wordStart;
+        }
+        
+        Map<String, String> attributes = new LinkedHashMap<>();
+        String name = null;
+        int nameOffset = -1;
+        pos = keywordEnd;
+        while (true) {
+            pos = skipTrivia(pos, to);
+            if (pos >= to) {
+                return -1;
+            }
+            char c = content.charAt(pos);
+            if (c == '{') {
+                break;
+            }
+            if (!isIdentifierStart(c)) {
+                return -1;
+            }
+            int wordEnd = attributeNameEnd(pos, to);
+            String word = content.substring(pos, wordEnd);
+            String lower = word.toLowerCase(Locale.ROOT);
+            int next = skipWhitespace(wordEnd, to);
+            if (next < to && content.charAt(next) == '=') {
+                int valueStart = skipWhitespace(next + 1, to);
+                int valueEnd;
+                String value;
+                if (valueStart < to && (content.charAt(valueStart) == '"' || content.charAt(valueStart) == '\'')) {
+                    valueEnd = skipString(valueStart, to);
+                    value = content.substring(valueStart + 1, Math.max(valueStart + 1, valueEnd - 1));
+                    valueStart++;
+                } else {
+                    valueEnd = valueStart;
+                    while (valueEnd < to && !Character.isWhitespace(content.charAt(valueEnd))
+                            && content.charAt(valueEnd) != '{') {
+                        valueEnd++;
+                    }
+                    value = content.substring(valueStart, valueEnd);
+                }
+                attributes.put(lower, value);
+                if ("name".equals(lower)) {
+                    name = value;
+                    nameOffset = valueStart;
+                }
+                pos = valueEnd;
+            } else if (("extends".equals(lower) || "implements".equals(lower))
+                    && next < to && isIdentifierStart(content.charAt(next))) {
+                int valueEnd = typeEnd(next, to);
+                attributes.put(lower, content.substring(next, valueEnd));
+                pos = valueEnd;
+            } else {
+                if (name == null && attributes.isEmpty()) {
+                    name = word;
+                    nameOffset = pos;
+                } else {
+                    attributes.put(lower, "");
+                }
+                pos = wordEnd;
+            }
+        }
+        
+        boolean isInterface = isWord(keywordStart, keywordEnd, "interface");
+        components.add(new ComponentHeader(isInterface, modifiers, name, nameOffset, attributes,
+                start, pos, lineOf(start)));
+        return pos + 1;
+    }
+    
+    /**
+     * Skip name=value metadata pairs after a function's argument list, returning the offset of what follows
+     */
+    private int skipAttributes(int pos, int to) {
+        while (true) {
+            pos = skipTrivia(pos, to);
+            if (pos >= to || !isIdentifierStart(content.charAt(pos))) {
+                return pos;
+            }
+            int next = skipWhitespace(attributeNameEnd(pos, to), to);
+            if (next >= to || content.charAt(next) != '=') {
+                return pos;
+            }
+            next = skipWhitespace(next + 1, to);
+            if (next < to && (content.charAt(next) == '"' || content.charAt(next) == '\'')) {
+                pos = skipString(next, to);
+            } else {
+                pos = next;
+                while (pos < to && !Character.isWhitespace(content.charAt(pos))
+                        && content.charAt(pos) != '{' && content.charAt(pos) != ';') {
+                    pos++;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Offset of the bracket that closes the one at open, skipping strings and comments, or -1
+     */
+    private int findClosing(int open, int to, char opening, char closing) {
+        int depth = 0;
+        int pos = open;
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (c == '"' || c == '\'') {
+                pos = skipString(pos, to);
+                continue;
+            }
+            if (isCommentStart(pos, to)) {
+                pos = skipComment(pos, to);
+                continue;
+            }
+            if (c == opening) {
+                depth++;
+            } else if (c == closing) {
+                depth--;
+                if (depth == 0) {
+                    return pos;
+                }
+            }
+            pos++;
+        }
+        return -1;
+    }
+    
+    private int typeEnd(int pos, int to) {
+        while (pos < to && isReturnTypeChar(content.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    private int attributeNameEnd(int pos, int to) {
+        while (pos < to && (isTypeChar(content.charAt(pos)) || content.charAt(pos) == ':' || content.charAt(pos) == '-')) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    private static boolean isTypeChar(char c) {
+        return isIdentifierPart(c) || c == '.';
+    }
+    
+    private static boolean isReturnTypeChar(char c) {
+        return isTypeChar(c) || c == '[' || c == ']';
+    }
+}
@@ -0,0 +1,229 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.lucee.toolbox.core.parser.SourceKind;
+
+/**
+ * Shared lexing for the single-pass scanners of this package: splits a file into script and markup
+ * regions and skips comments, strings and interpolated expressions without tokenizing.
+ */
+abstract class ScriptScanner {
+    
+    final String content;
+    final SourceKind kind;
+    final int length;
+    final int[] lineStarts;
+    
+    ScriptScanner(String content, SourceKind kind) {
+        this.content = content;
+        this.kind = kind;
+        this.length = content.length();
+        this.lineStarts = computeLineStarts(content);
+    }
+    
+    /**
+     * Scan script files whole, and templates and tag-based components as markup with cfscript regions.
+     * A markup region includes the opening script tag before it and starts at the closing tag after it.
+     */
+    final void scanRegions() {
+        if (!kind.isMarkup(content)) {
+            scanScript(0, length);
+            return;
+        }
+        int pos = 0;
+        while (pos < length) {
+            int open = indexOfScriptTag(pos);
+            int start = open < 0 ? -1 : content.indexOf('>', open);
+            if (start < 0) {
+                break;
+            }
+            scanMarkup(pos, start + 1);
+            int end = indexOfIgnoreCase(content.startsWith("<bx:", open) || content.startsWith("<BX:", open)
+                    ? "</bx:script" : "</cfscript", start + 1);
+            if (end < 0) {
+                end = length;
+            }
+            scanScript(start + 1, end);
+            pos = end;
+        }
+        if (pos < length) {
+            scanMarkup(pos, length);
+        }
+    }
+    
+    abstract void scanScript(int from, int to);
+    
+    void scanMarkup(int from, int to) {
+        // Markup is not scanned unless a scanner needs it
+    }
+    
+    /**
+     * True at the start of a // or /* comment
+     */
+    final boolean isCommentStart(int pos, int to) {
+        return content.charAt(pos) == '/' && pos + 1 < to
+                && (content.charAt(pos + 1) == '/' || content.charAt(pos + 1) == '*');
+    }
+    
+    /**
+     * Skip a string literal starting at its quote, including doubled quotes and #expressions#
+     */
+    final int skipString(int pos, int to) {
+        char quote = content.charAt(pos);
+        pos++;
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (c == quote) {
+                if (pos + 1 < to && content.charAt(pos + 1) == quote) {
+                    pos += 2;
+                    continue;
+                }
+                return pos + 1;
+            }
+            if (c == '#') {
+                if (pos + 1 < to && content.charAt(pos + 1) == '#') {
+                    pos += 2;
+                    continue;
+                }
+                pos = skipExpression(pos + 1, to);
+                continue;
+            }
+            pos++;
+        }
+        return to;
+    }
+    
+    /**
+     * Skip an interpolated expression up to and including its closing #, which may contain strings of its own
+     */
+    final int skipExpression(int pos, int to) {
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (c == '#') {
+                return pos + 1;
+            }
+            if (c == '"' || c == '\'') {
+                pos = skipString(pos, to);
+            } else if (c == '\n') {
+                // A lone # in a string, not an expression
+                return pos;
+            } else {
+                pos++;
+            }
+        }
+        return to;
+    }
+    
+    final int skipComment(int pos, int to) {
+        if (content.charAt(pos + 1) == '/') {
+            int end = content.indexOf('\n', pos);
+            return end < 0 || end > to ? to : end;
+        }
+        int end = content.indexOf("*/", pos + 2);
+        return end < 0 || end + 2 > to ? to : end + 2;
+    }
+    
+    final int skipTagComment(int pos, int to) {
+        // CFML tag comments nest
+        int depth = 0;
+        while (pos < to) {
+            if (content.startsWith("<!---", pos)) {
+                depth++;
+                pos += 5;
+            } else if (content.startsWith("--->", pos)) {
+                depth--;
+                pos += 4;
+                if (depth == 0) {
+                    return pos;
+                }
+            } else {
+                pos++;
+            }
+        }
+        return to;
+    }
+    
+    final int skipTrivia(int pos, int to) {
+        while (pos < to) {
+            char c = content.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (isCommentStart(pos, to)) {
+                pos = skipComment(pos, to);
+            } else if (c == '<' && content.startsWith("<!---", pos)) {
+                pos = skipTagComment(pos, to);
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+    
+    final int skipWhitespace(int pos, int to) {
+        while (pos < to && Character.isWhitespace(content.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    final int identifierEnd(int pos, int to) {
+        while (pos < to && isIdentifierPart(content.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    final boolean isWord(int start, int end, String word) {
+        return end - start == word.length() && content.regionMatches(true, start, word, 0, word.length());
+    }
+    
+    final int indexOfScriptTag(int from) {
+        int cf = indexOfIgnoreCase("<cfscript", from);
+        int bx = indexOfIgnoreCase("<bx:script", from);
+        if (cf < 0) {
+            return bx;
+        }
+        return bx < 0 ? cf : Math.min(cf, bx);
+    }
+    
+    final int indexOfIgnoreCase(String needle, int from) {
+        for (int i = from, last = length - needle.length(); i <= last; i++) {
+            if (content.charAt(i) == '<' && content.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    final int lineOf(int offset) {
+        return SourceOutline.lineOf(lineStarts, offset);
+    }
+    
+    static int[] computeLineStarts(String content) {
+        int count = 1;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        int[] starts = new int[count];
+        int line = 1;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                starts[line++] = i + 1;
+            }
+        }
+        return starts;
+    }
+    
+    static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+    
+    static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+    
+    static boolean isInlineWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
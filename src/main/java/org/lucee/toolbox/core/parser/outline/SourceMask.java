@@ -0,0 +1,139 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.lucee.toolbox.core.parser.ParseComment;
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Marks which characters of a file are comments, string literals or template markup, computed in one pass.
+ * Rules that match with regular expressions reject a match by its offset in constant time instead of
+ * re-scanning around it. Expressions interpolated with # inside strings stay code; markup covers
+ * template text and HTML outside CFML tags and script blocks, including any #expressions# in it.
+ */
+public final class SourceMask {
+    
+    private final BitSet comments;
+    private final BitSet strings;
+    private final BitSet markup;
+    private final BitSet masked;
+    private final int[] commentStarts;
+    private final int[] commentEnds;
+    private final ParseComment.CommentType[] commentTypes;
+    private final int[] lineStarts;
+    private final int length;
+    
+    SourceMask(BitSet comments, BitSet strings, BitSet markup, int[] commentStarts, int[] commentEnds,
+               ParseComment.CommentType[] commentTypes, int[] lineStarts, int length) {
+        this.comments = comments;
+        this.strings = strings;
+        this.markup = markup;
+        this.masked = (BitSet) comments.clone();
+        this.masked.or(strings);
+        this.masked.or(markup);
+        this.commentStarts = commentStarts;
+        this.commentEnds = commentEnds;
+        this.commentTypes = commentTypes;
+        this.lineStarts = lineStarts;
+        this.length = length;
+    }
+    
+    /**
+     * Mask a file's content
+     */
+    public static SourceMask of(String content, SourceKind kind) {
+        return new MaskScanner(content, kind).scan();
+    }
+    
+    public boolean isComment(int offset) {
+        return comments.get(offset);
+    }
+    
+    /**
+     * True inside a string literal, including its quotes but not its interpolated expressions
+     */
+    public boolean isString(int offset) {
+        return strings.get(offset);
+    }
+    
+    public boolean isMarkup(int offset) {
+        return markup.get(offset);
+    }
+    
+    /**
+     * True if the character at an offset is code: not in a comment, a string literal or markup
+     */
+    public boolean isCode(int offset) {
+        return !masked.get(offset);
+    }
+    
+    /**
+     * True if any character in [from, to) is code
+     */
+    public boolean hasCode(int from, int to) {
+        return from < to && masked.nextClearBit(from) < to;
+    }
+    
+    /**
+     * True if a 1-based line has no code characters, such as an empty line or one inside a block comment
+     */
+    public boolean isLineMasked(int line) {
+        int from = lineStarts[line - 1];
+        int to = line < lineStarts.length ? lineStarts[line] - 1 : length;
+        return !hasCode(from, to);
+    }
+    
+    public int getCommentCount() {
+        return commentStarts.length;
+    }
+    
+    /**
+     * The comments in source order, with positions and text without their delimiters
+     */
+    public List<ParseComment> getComments(String content) {
+        List<ParseComment> result = new ArrayList<>(commentStarts.length);
+        for (int i = 0; i < commentStarts.length; i++) {
+            int start = commentStarts[i];
+            int end = commentEnds[i];
+            String raw = content.substring(start, end);
+            ParseComment.CommentType type = commentTypes[i];
+            int startLine = SourceOutline.lineOf(lineStarts, start);
+            int endLine = SourceOutline.lineOf(lineStarts, Math.max(start, end - 1));
+            result.add(new ParseComment(stripDelimiters(raw, type), type,
+                    startLine, start - lineStarts[startLine - 1] + 1,
+                    endLine, end - lineStarts[endLine - 1], start, end, raw));
+        }
+        return result;
+    }
+    
+    private static String stripDelimiters(String raw, ParseComment.CommentType type) {
+        int open;
+        int close;
+        switch (type) {
+            case SINGLE_LINE:
+                open = 2;
+                close = 0;
+                break;
+            case JAVADOC:
+                open = 3;
+                close = raw.endsWith("*/") ? 2 : 0;
+                break;
+            case MULTI_LINE:
+                open = 2;
+                close = raw.endsWith("*/") ? 2 : 0;
+                break;
+            case HTML:
+                open = 4;
+                close = raw.endsWith("-->") ? 3 : 0;
+                break;
+            default:
+                open = 5;
+                close = raw.endsWith("--->") ? 4 : 0;
+                break;
+        }
+        int from = Math.min(open, raw.length());
+        return raw.substring(from, Math.max(from, raw.length() - close)).trim();
+    }
+}
@@ -0,0 +1,91 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Structural outline of a file's script code: its component or interface headers and named function
+ * declarations, found in one pass that skips comments and strings.
+ * Script files and script components are outlined whole, templates and tag-based components only inside
+ * their cfscript blocks. Tag declarations (cfcomponent, cffunction) are not outlined.
+ */
+public final class SourceOutline {
+    
+    private final List<ComponentHeader> components;
+    private final List<FunctionDeclaration> functions;
+    private final int[] lineStarts;
+    
+    SourceOutline(List<ComponentHeader> components, List<FunctionDeclaration> functions, int[] lineStarts) {
+        this.components = List.copyOf(components);
+        this.functions = List.copyOf(functions);
+        this.lineStarts = lineStarts;
+    }
+    
+    /**
+     * Outline a file's content
+     */
+    public static SourceOutline of(String content, SourceKind kind) {
+        return new OutlineScanner(content, kind).scan();
+    }
+    
+    /**
+     * Component and interface headers in source order, usually at most one
+     */
+    public List<ComponentHeader> getComponents() {
+        return components;
+    }
+    
+    /**
+     * The first component or interface header, or null if there is none
+     */
+    public ComponentHeader getComponent() {
+        return components.isEmpty() ? null : components.get(0);
+    }
+    
+    /**
+     * Named functions in source order, including nested ones
+     */
+    public List<FunctionDeclaration> getFunctions() {
+        return functions;
+    }
+    
+    /**
+     * The first function with the given name, ignoring case, or null
+     */
+    public FunctionDeclaration findFunction(String name) {
+        for (FunctionDeclaration function : functions) {
+            if (function.getName().equalsIgnoreCase(name)) {
+                return function;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * True if there are functions and none of them has a body, the shape of an interface
+     */
+    public boolean hasOnlyBodilessFunctions() {
+        return !functions.isEmpty() && functions.stream().noneMatch(FunctionDeclaration::hasBody);
+    }
+    
+    /**
+     * 1-based line of an offset in the content
+     */
+    public int lineOf(int offset) {
+        return lineOf(lineStarts, offset);
+    }
+    
+    /**
+     * 1-based column of an offset in the content
+     */
+    public int columnOf(int offset) {
+        return offset - lineStarts[lineOf(offset) - 1] + 1;
+    }
+    
+    static int lineOf(int[] lineStarts, int offset) {
+        int index = Arrays.binarySearch(lineStarts, offset);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
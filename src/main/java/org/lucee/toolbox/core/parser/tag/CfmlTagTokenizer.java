@@ -0,0 +1,407 @@
+package org.lucee.toolbox.core.parser.tag;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Streaming tokenizer for tag-based CFML: templates and tag components with embedded HTML.
+ * One forward pass reports tags, attributes, #expressions#, CFML comments, cfscript blocks and the
+ * text runs between them to a {@link TagHandler}. Text is skipped with indexOf, which the JVM vectorizes
+ * for strings, so large HTML and JavaScript runs cost little. Only CFML and BoxLang tags are reported,
+ * HTML tags are part of the text, and #expressions# in text are reported only inside output tags such as
+ * cfoutput and cfquery, where CFML evaluates them.
+ */
+public final class CfmlTagTokenizer {
+    
+    // Tags whose body text CFML evaluates #expressions# in
+    private static final Set<String> OUTPUT_TAGS = Set.of("cfoutput", "cfquery", "cfmail",
+            "bx:output", "bx:query", "bx:mail");
+    // Tags followed by an expression rather than attributes
+    private static final Set<String> EXPRESSION_TAGS = Set.of("cfset", "cfif", "cfelseif", "cfreturn",
+            "bx:set", "bx:if", "bx:elseif", "bx:return");
+    
+    private final CharSequence source;
+    private final String text;
+    private final TagHandler handler;
+    private final int length;
+    private int outputDepth;
+    
+    private CfmlTagTokenizer(CharSequence source, TagHandler handler) {
+        this.source = source;
+        this.text = source instanceof String ? (String) source : null;
+        this.handler = handler;
+        this.length = source.length();
+    }
+    
+    /**
+     * Tokenize the whole of a text as markup
+     */
+    public static void tokenize(CharSequence source, TagHandler handler) {
+        new CfmlTagTokenizer(source, handler).run();
+    }
+    
+    private void run() {
+        int pos = 0;
+        int textStart = 0;
+        while (pos < length) {
+            int next = nextSpecial(pos);
+            if (next < 0) {
+                break;
+            }
+            int end = -1;
+            if (source.charAt(next) == '#') {
+                end = readInterpolation(next, textStart);
+            } else if (startsWith(next, "<!---")) {
+                flushText(textStart, next);
+                end = skipComment(next);
+                handler.comment(next, end);
+            } else if (next + 1 < length && source.charAt(next + 1) == '/' && tagNameEnd(next + 2) > 0) {
+                flushText(textStart, next);
+                end = readEndTag(next);
+            } else if (tagNameEnd(next + 1) > 0) {
+                flushText(textStart, next);
+                end = readStartTag(next);
+            }
+            if (end < 0) {
+                pos = next + 1;
+            } else {
+                pos = end;
+                textStart = end;
+            }
+        }
+        flushText(textStart, length);
+    }
+    
+    /**
+     * Offset of the next &lt;, or of the next # inside an output tag, or -1
+     */
+    private int nextSpecial(int from) {
+        int tag = indexOf('<', from);
+        if (outputDepth == 0) {
+            return tag;
+        }
+        int hash = indexOf('#', from);
+        if (hash < 0) {
+            return tag;
+        }
+        return tag < 0 ? hash : Math.min(tag, hash);
+    }
+    
+    /**
+     * Report #expression# in output text. Returns the offset after it, or -1 if the # is escaped or not closed.
+     */
+    private int readInterpolation(int hash, int textStart) {
+        if (hash + 1 < length && source.charAt(hash + 1) == '#') {
+            // An escaped ##; resume after both so the second is not read as an opening #
+            flushText(textStart, hash + 2);
+            return hash + 2;
+        }
+        int close = findExpressionEnd(hash + 1, length);
+        if (close < 0) {
+            return -1;
+        }
+        flushText(textStart, hash);
+        handler.expression(hash + 1, close);
+        handler.text(close, close + 1);
+        return close + 1;
+    }
+    
+    private int readStartTag(int start) {
+        int nameStart = start + 1;
+        int nameEnd = tagNameEnd(nameStart);
+        String name = lowerName(nameStart, nameEnd);
+        handler.startTag(start, nameStart, nameEnd);
+        
+        int pos = EXPRESSION_TAGS.contains(name) ? readTagExpression(nameEnd) : readAttributes(nameEnd);
+        boolean selfClosing = pos > 0 && pos - 1 < length && source.charAt(pos - 1) == '/';
+        int end = Math.min(pos + 1, length);
+        handler.startTagEnd(end, selfClosing);
+        
+        if (selfClosing) {
+            return end;
+        }
+        if (name.equals("cfscript") || name.equals("bx:script")) {
+            int close = indexOfIgnoreCase(name.equals("cfscript") ? "</cfscript" : "</bx:script", end);
+            int bodyEnd = close < 0 ? length : close;
+            handler.script(end, bodyEnd);
+            return bodyEnd;
+        }
+        if (OUTPUT_TAGS.contains(name)) {
+            outputDepth++;
+        }
+        return end;
+    }
+    
+    private int readEndTag(int start) {
+        int nameStart = start + 2;
+        int nameEnd = tagNameEnd(nameStart);
+        int close = indexOf('>', nameEnd);
+        int end = close < 0 ? length : close + 1;
+        if (outputDepth > 0 && OUTPUT_TAGS.contains(lowerName(nameStart, nameEnd))) {
+            outputDepth--;
+        }
+        handler.endTag(start, nameStart, nameEnd, end);
+        return end;
+    }
+    
+    /**
+     * Report the attributes of a start tag. Returns the offset of its &gt;, or the length if it is not closed.
+     */
+    private int readAttributes(int pos) {
+        while (pos < length) {
+            char c = source.charAt(pos);
+            if (c == '>') {
+                return pos;
+            }
+            if (Character.isWhitespace(c) || c == '/') {
+                pos++;
+                continue;
+            }
+            int nameStart = pos;
+            while (pos < length && isAttributeNameChar(source.charAt(pos))) {
+                pos++;
+            }
+            if (pos == nameStart) {
+                // Not an attribute, such as a stray quote or an expression in a custom tag
+                pos = c == '"' || c == '\'' ? skipQuoted(pos, length) : pos + 1;
+                continue;
+            }
+            int nameEnd = pos;
+            int afterName = skipWhitespace(pos);
+            if (afterName >= length || source.charAt(afterName) != '=') {
+                handler.attribute(nameStart, nameEnd, -1, -1);
+                continue;
+            }
+            pos = skipWhitespace(afterName + 1);
+            if (pos >= length) {
+                handler.attribute(nameStart, nameEnd, -1, -1);
+                break;
+            }
+            char quote = source.charAt(pos);
+            if (quote == '"' || quote == '\'') {
+                int after = skipQuoted(pos, length);
+                // An unterminated value runs to the end of the text
+                int valueEnd = after - 1 > pos && source.charAt(after - 1) == quote ? after - 1 : after;
+                handler.attribute(nameStart, nameEnd, pos + 1, valueEnd);
+                reportInterpolations(pos + 1, valueEnd);
+                pos = after;
+            } else {
+                int valueStart = pos;
+                while (pos < length && !Character.isWhitespace(source.charAt(pos)) && source.charAt(pos) != '>') {
+                    pos++;
+                }
+                handler.attribute(nameStart, nameEnd, valueStart, pos);
+                reportInterpolations(valueStart, pos);
+            }
+        }
+        return length;
+    }
+    
+    /**
+     * Report the expression of a tag such as cfset. Returns the offset of its &gt;, or the length.
+     */
+    private int readTagExpression(int pos) {
+        int start = skipWhitespace(pos);
+        int depth = 0;
+        pos = start;
+        while (pos < length) {
+            char c = source.charAt(pos);
+            if (c == '"' || c == '\'') {
+                pos = skipQuoted(pos, length);
+                continue;
+            }
+            if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if ((c == ')' || c == ']' || c == '}') && depth > 0) {
+                depth--;
+            } else if (c == '>' && depth == 0) {
+                break;
+            }
+            pos++;
+        }
+        int end = pos;
+        if (end > start && source.charAt(end - 1) == '/') {
+            end--;
+        }
+        while (end > start && Character.isWhitespace(source.charAt(end - 1))) {
+            end--;
+        }
+        if (end > start) {
+            handler.expression(start, end);
+        }
+        return pos;
+    }
+    
+    private void reportInterpolations(int from, int to) {
+        int pos = from;
+        while (pos < to) {
+            if (source.charAt(pos) != '#') {
+                pos++;
+            } else if (pos + 1 < to && source.charAt(pos + 1) == '#') {
+                pos += 2;
+            } else {
+                int close = findExpressionEnd(pos + 1, to);
+                if (close < 0) {
+                    return;
+                }
+                handler.expression(pos + 1, close);
+                pos = close + 1;
+            }
+        }
+    }
+    
+    /**
+     * Offset of the # closing an expression, skipping strings inside it, or -1 if it ends at a line break first
+     */
+    private int findExpressionEnd(int pos, int to) {
+        while (pos < to) {
+            char c = source.charAt(pos);
+            if (c == '#') {
+                return pos;
+            }
+            if (c == '\n' || c == '<') {
+                return -1;
+            }
+            pos = c == '"' || c == '\'' ? skipQuoted(pos, to) : pos + 1;
+        }
+        return -1;
+    }
+    
+    /**
+     * Skip a quoted string from its opening quote, including doubled quotes and quotes inside #expressions#.
+     * Returns the offset after the closing quote.
+     */
+    private int skipQuoted(int pos, int to) {
+        char quote = source.charAt(pos);
+        pos++;
+        while (pos < to) {
+            char c = source.charAt(pos);
+            if (c == quote) {
+                if (pos + 1 < to && source.charAt(pos + 1) == quote) {
+                    pos += 2;
+                    continue;
+                }
+                return pos + 1;
+            }
+            if (c == '#' && pos + 1 < to && source.charAt(pos + 1) != '#') {
+                int close = findExpressionEnd(pos + 1, to);
+                if (close >= 0) {
+                    pos = close + 1;
+                    continue;
+                }
+            }
+            pos = c == '#' ? pos + 2 : pos + 1;
+        }
+        return to;
+    }
+    
+    private int skipComment(int pos) {
+        // CFML comments nest
+        int depth = 0;
+        while (pos < length) {
+            if (startsWith(pos, "<!---")) {
+                depth++;
+                pos += 5;
+            } else if (startsWith(pos, "--->")) {
+                depth--;
+                pos += 4;
+                if (depth == 0) {
+                    return pos;
+                }
+            } else {
+                pos++;
+            }
+        }
+        return length;
+    }
+    
+    /**
+     * End of a cf or bx: tag name starting at an offset, or -1 if no such tag starts there
+     */
+    private int tagNameEnd(int pos) {
+        int prefix;
+        if (regionMatches(pos, "cf")) {
+            prefix = 2;
+        } else if (regionMatches(pos, "bx:")) {
+            prefix = 3;
+        } else {
+            return -1;
+        }
+        pos += prefix;
+        if (pos >= length || !Character.isLetter(source.charAt(pos))) {
+            return -1;
+        }
+        while (pos < length && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    private String lowerName(int start, int end) {
+        return source.subSequence(start, end).toString().toLowerCase(Locale.ROOT);
+    }
+    
+    private void flushText(int start, int end) {
+        if (end > start) {
+            handler.text(start, end);
+        }
+    }
+    
+    private int skipWhitespace(int pos) {
+        while (pos < length && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    private int indexOf(char c, int from) {
+        if (text != null) {
+            return text.indexOf(c, from);
+        }
+        for (int i = from; i < length; i++) {
+            if (source.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private int indexOfIgnoreCase(String needle, int from) {
+        int pos = from;
+        while (true) {
+            int open = indexOf('<', pos);
+            if (open < 0 || regionMatches(open, needle)) {
+                return open;
+            }
+            pos = open + 1;
+        }
+    }
+    
+    private boolean startsWith(int pos, String prefix) {
+        if (pos + prefix.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (source.charAt(pos + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean regionMatches(int pos, String lowerPrefix) {
+        if (pos + lowerPrefix.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < lowerPrefix.length(); i++) {
+            if (Character.toLowerCase(source.charAt(pos + i)) != lowerPrefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isAttributeNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == ':' || c == '.';
+    }
+}
@@ -0,0 +1,124 @@
+package org.lucee.toolbox.core.parser.tag;
+
+import java.util.List;
+
+/**
+ * Receives the events of a {@link CfmlTagTokenizer} pass in source order, SAX style.
+ * Events carry offsets into the tokenized text rather than strings, so a handler only allocates
+ * for what it keeps. Every method does nothing by default.
+ */
+public interface TagHandler {
+    
+    /**
+     * A run of text, HTML or JavaScript between CFML constructs
+     */
+    default void text(int start, int end) {
+    }
+    
+    /**
+     * A CFML comment, &lt;!--- to ---&gt; inclusive
+     */
+    default void comment(int start, int end) {
+    }
+    
+    /**
+     * The start of a CFML or BoxLang tag. The name excludes the &lt; and includes the cf or bx: prefix.
+     */
+    default void startTag(int start, int nameStart, int nameEnd) {
+    }
+    
+    /**
+     * An attribute of the current start tag. The value excludes its quotes; both value offsets are -1 without one.
+     */
+    default void attribute(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+    }
+    
+    /**
+     * A CFML expression: the inside of #...# in an attribute value or in the body of an output tag,
+     * or the expression of a tag such as cfset, cfif or cfreturn
+     */
+    default void expression(int start, int end) {
+    }
+    
+    /**
+     * The end of the current start tag, just after its &gt;
+     */
+    default void startTagEnd(int end, boolean selfClosing) {
+    }
+    
+    /**
+     * A closing tag from &lt;/ to just after its &gt;
+     */
+    default void endTag(int start, int nameStart, int nameEnd, int end) {
+    }
+    
+    /**
+     * The body of a cfscript block, between its tags
+     */
+    default void script(int start, int end) {
+    }
+    
+    /**
+     * One handler that passes every event to each of the given handlers in turn
+     */
+    static TagHandler all(List<? extends TagHandler> handlers) {
+        TagHandler[] targets = handlers.toArray(new TagHandler[0]);
+        return new TagHandler() {
+            @Override
+            public void text(int start, int end) {
+                for (TagHandler target : targets) {
+                    target.text(start, end);
+                }
+            }
+            
+            @Override
+            public void comment(int start, int end) {
+                for (TagHandler target : targets) {
+                    target.comment(start, end);
+                }
+            }
+            
+            @Override
+            public void startTag(int start, int nameStart, int nameEnd) {
+                for (TagHandler target : targets) {
+                    target.startTag(start, nameStart, nameEnd);
+                }
+            }
+            
+            @Override
+            public void attribute(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+                for (TagHandler target : targets) {
+                    target.attribute(nameStart, nameEnd, valueStart, valueEnd);
+                }
+            }
+            
+            @Override
+            public void expression(int start, int end) {
+                for (TagHandler target : targets) {
+                    target.expression(start, end);
+                }
+            }
+            
+            @Override
+            public void startTagEnd(int end, boolean selfClosing) {
+                for (TagHandler target : targets) {
+                    target.startTagEnd(end, selfClosing);
+                }
+            }
+            
+            @Override
+            public void endTag(int start, int nameStart, int nameEnd, int end) {
+                for (TagHandler target : targets) {
+                    target.endTag(start, nameStart, nameEnd, end);
+                }
+            }
+            
+            @Override
+            public void script(int start, int end) {
+                for (TagHandler target : targets) {
+                    target.script(start, end);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package org.lucee.toolbox.core.rules;
+
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
+import org.lucee.toolbox.core.parser.ParseResult;
+
+import java.util.List;
+
+/**
+ * A rule that checks lines on their own, so the rule engine can split a large file
+ * into line ranges and check the ranges in parallel
+ */
+public interface LineRule extends LintingRule {
+    
+    /**
+     * Analyze the lines in [from, to). Lines before from may be read for context,
+     * but only violations within the range are reported.
+     * @param parseResult The parsed content
+     * @param lines The lines of the content, as returned by {@link ParseResult#getLines()}
+     * @param from First line index, inclusive
+     * @param to Last line index, exclusive
+     * @return Violations found in the range, in line order
+     */
+    List<LintingViolation> analyzeLines(ParseResult parseResult, String[] lines, int from, int to);
+    
+    @Override
+    default AnalysisLevel getAnalysisLevel() {
+        return AnalysisLevel.LINES;
+    }
+    
+    @Override
+    default List<LintingViolation> analyze(ParseResult parseResult) {
+        String[] lines = parseResult.getLines();
+        return analyzeLines(parseResult, lines, 0, lines.length);
+    }
+}
@@ -1,9 +1,14 @@
 package org.lucee.toolbox.core.rules;
 
 import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Interface for linting rules
@@ -22,4 +27,39 @@ public interface LintingRule {
      * @return List of violations found by this rule
      */
     List<LintingViolation> analyze(ParseResult parseResult);
+    
+    /**
+     * Whether the configuration leaves this rule anything to check. Read once when the rule engine is built,
+     * so rules resolve their settings in the constructor and analyze() does not look at the configuration.
+     * @return false if switched off or configured with nothing to enforce
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+    
+    /**
+     * Literals of which at least one must occur in the content, ignoring case, for this rule to report anything.
+     * The rule engine skips the rule for files containing none of them. Empty means the rule always runs.
+     * @return Required literals, all ASCII
+     */
+    default Set<String> getRequiredLiterals() {
+        return Collections.emptySet();
+    }
+    
+    /**
+     * Kinds of source this rule applies to. The rule engine never runs it on other kinds.
+     * @return Applicable source kinds, all of them by default
+     */
+    default Set<SourceKind> getApplicableKinds() {
+        return EnumSet.allOf(SourceKind.class);
+    }
+    
+    /**
+     * Highest level of analysis this rule reads. The rule engine asks the parser for the highest level
+     * of any active rule, so a full parse only happens when some rule needs the syntax tree.
+     * @return Analysis level, the full syntax tree unless a rule declares less
+     */
+    default AnalysisLevel getAnalysisLevel() {
+        return AnalysisLevel.SYNTAX_TREE;
+    }
 }
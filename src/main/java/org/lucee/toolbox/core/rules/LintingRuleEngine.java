@@ -1,14 +1,33 @@
 package org.lucee.toolbox.core.rules;
 
 import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.index.CallGraph;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
-import org.lucee.toolbox.core.rules.naming.*;
-import org.lucee.toolbox.core.rules.structure.*;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.tag.CfmlTagTokenizer;
+import org.lucee.toolbox.core.parser.tag.TagHandler;
+import org.lucee.toolbox.core.util.LiteralScanner;
+import org.lucee.toolbox.core.util.RegexGuard;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Engine for applying linting rules to parsed CFML code
@@ -16,80 +35,302 @@ import java.util.List;
 public class LintingRuleEngine {
     
     private final ConfigurationManager configManager;
-    private final List<LintingRule> rules;
+    // Active rules, resolved once from the rule set, overrides and rule configuration
+    private final LintingRule[] rules;
+    
+    // Prefilter over the literals the rules require, null if no rule declares any
+    private final LiteralScanner literalScanner;
+    private final BitSet[] requiredLiterals;
+    
+    // Dispatch table: indexes of the rules that apply to each kind of source, in execution order
+    private final Map<SourceKind, int[]> rulesByKind;
+    
+    // Files from this size have their rules run in parallel, line rules split into ranges of at least MIN_LINES_PER_CHUNK
+    private static final int MIN_LINES_PER_CHUNK = 4096;
+    private final boolean intraFileParallelism;
+    private final long intraFileThreshold;
+    
+    // Regex matches in a rule may read this many characters per character of the file, at least MIN_REGEX_BUDGET
+    private static final long MIN_REGEX_BUDGET = 1_000_000L;
+    private final long regexBudget;
+    
+    // Highest analysis level of any active rule, what the parser needs to provide
+    private final AnalysisLevel analysisLevel;
+    
+    // Project-wide facts for project rules, set before linting a directory
+    private volatile CallGraph callGraph;
     
     public LintingRuleEngine(ConfigurationManager configManager) {
         this.configManager = configManager;
-        this.rules = new ArrayList<>();
-        initializeRules();
+        this.rules = RuleRegistry.createActiveRules(configManager).toArray(new LintingRule[0]);
+        
+        Set<String> literals = new LinkedHashSet<>();
+        for (LintingRule rule : rules) {
+            literals.addAll(rule.getRequiredLiterals());
+        }
+        this.literalScanner = literals.isEmpty() ? null : new LiteralScanner(literals);
+        this.requiredLiterals = new BitSet[rules.length];
+        for (int i = 0; i < rules.length && literalScanner != null; i++) {
+            Set<String> required = rules[i].getRequiredLiterals();
+            if (!required.isEmpty()) {
+                BitSet bits = new BitSet();
+                for (String literal : required) {
+                    bits.set(literalScanner.indexOf(literal));
+                }
+                requiredLiterals[i] = bits;
+            }
+        }
+        
+        this.intraFileParallelism = configManager.isIntraFileParallelismEnabled();
+        this.intraFileThreshold = configManager.getIntraFileThreshold();
+        this.regexBudget = configManager.getRegexBudget();
+        
+        AnalysisLevel level = AnalysisLevel.LINES;
+        for (LintingRule rule : rules) {
+            if (!level.covers(rule.getAnalysisLevel())) {
+                level = rule.getAnalysisLevel();
+            }
+        }
+        this.analysisLevel = level;
+        
+        this.rulesByKind = new EnumMap<>(SourceKind.class);
+        for (SourceKind kind : SourceKind.values()) {
+            rulesByKind.put(kind, IntStream.range(0, rules.length)
+                    .filter(i -> rules[i].getApplicableKinds().contains(kind))
+                    .toArray());
+        }
     }
     
     /**
      * Analyze a parsed file and return violations
      */
     public List<LintingViolation> analyzeFile(ParseResult parseResult, String filePath) {
+        // Only the rules for this kind of source, and of those only the ones whose literals occur
+        int[] applicable = rulesByKind.get(parseResult.getSourceKind());
+        BitSet presentLiterals = null;
+        int[] selected = new int[applicable.length];
+        int count = 0;
+        for (int i : applicable) {
+            if (requiredLiterals[i] != null) {
+                if (presentLiterals == null) {
+                    presentLiterals = literalScanner.scan(parseResult.getContent());
+                }
+                if (!requiredLiterals[i].intersects(presentLiterals)) {
+                    continue;
+                }
+            }
+            selected[count++] = i;
+        }
+        selected = Arrays.copyOf(selected, count);
+        
+        if (intraFileParallelism && count > 1 && parseResult.getContent().length() >= intraFileThreshold) {
+            return analyzeInParallel(parseResult, filePath, selected);
+        }
+        
         List<LintingViolation> violations = new ArrayList<>();
+        Map<LintingRule, List<LintingViolation>> tagged = analyzeTagsOnce(parseResult, selected);
         
         // Apply each rule to the parse result
-        for (LintingRule rule : rules) {
+        for (int i : selected) {
+            LintingRule rule = rules[i];
+            if (tagged.containsKey(rule)) {
+                violations.addAll(tagged.get(rule));
+                continue;
+            }
             try {
-                List<LintingViolation> ruleViolations = rule.analyze(parseResult);
+                List<LintingViolation> ruleViolations = guarded(parseResult, () -> analyze(rule, parseResult));
                 violations.addAll(ruleViolations);
             } catch (Exception e) {
                 // Log rule execution error but continue with other rules
-                violations.add(new LintingViolation(
-                    "RULE_EXECUTION_ERROR",
-                    "Rule " + rule.getRuleId() + " failed: " + e.getMessage(),
-                    Severity.WARNING,
-                    filePath,
-                    1,
-                    1
-                ));
+                violations.add(ruleExecutionError(rule, filePath, e));
+            }
+        }
+        
+        return violations;
+    }
+    
+    /**
+     * Tokenize markup once for all the selected tag-aware rules when there are several of them.
+     * If the shared pass fails, nothing is returned and each rule runs on its own to report its own error.
+     */
+    private Map<LintingRule, List<LintingViolation>> analyzeTagsOnce(ParseResult parseResult, int[] selected) {
+        List<TagAwareRule> tagRules = new ArrayList<>();
+        for (int i : selected) {
+            if (rules[i] instanceof TagAwareRule) {
+                tagRules.add((TagAwareRule) rules[i]);
+            }
+        }
+        if (tagRules.size() < 2 || !parseResult.getSourceKind().isMarkup(parseResult.getContent())) {
+            return Collections.emptyMap();
+        }
+        
+        Map<LintingRule, List<LintingViolation>> results = new IdentityHashMap<>();
+        List<TagHandler> handlers = new ArrayList<>(tagRules.size());
+        for (TagAwareRule rule : tagRules) {
+            List<LintingViolation> ruleViolations = new ArrayList<>();
+            results.put(rule, ruleViolations);
+            handlers.add(rule.newHandler(parseResult, ruleViolations));
+        }
+        try {
+            guarded(parseResult, () -> {
+                CfmlTagTokenizer.tokenize(parseResult.getContent(), TagHandler.all(handlers));
+                return Collections.emptyList();
+            });
+        } catch (Exception e) {
+            return Collections.emptyMap();
+        }
+        return results;
+    }
+    
+    /**
+     * Run the selected rules for one large file on the common fork-join pool. Line rules are split
+     * into line ranges as well. Results are gathered in rule order, then range order, so the output
+     * is the same as a sequential run.
+     */
+    private List<LintingViolation> analyzeInParallel(ParseResult parseResult, String filePath, int[] selected) {
+        // Split once on this thread so the tasks share the lines
+        String[] lines = parseResult.getLines();
+        int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() + 1, lines.length / MIN_LINES_PER_CHUNK));
+        
+        List<Callable<List<LintingViolation>>> tasks = new ArrayList<>();
+        int[] taskCounts = new int[selected.length];
+        for (int k = 0; k < selected.length; k++) {
+            LintingRule rule = rules[selected[k]];
+            if (rule instanceof LineRule && chunks > 1) {
+                LineRule lineRule = (LineRule) rule;
+                for (int c = 0; c < chunks; c++) {
+                    int from = (int) ((long) lines.length * c / chunks);
+                    int to = (int) ((long) lines.length * (c + 1) / chunks);
+                    tasks.add(() -> guarded(parseResult, () -> lineRule.analyzeLines(parseResult, lines, from, to)));
+                }
+                taskCounts[k] = chunks;
+            } else {
+                tasks.add(() -> guarded(parseResult, () -> analyze(rule, parseResult)));
+                taskCounts[k] = 1;
+            }
+        }
+        
+        List<Future<List<LintingViolation>>> results = ForkJoinPool.commonPool().invokeAll(tasks);
+        
+        List<LintingViolation> violations = new ArrayList<>();
+        int next = 0;
+        for (int k = 0; k < selected.length; k++) {
+            LintingRule rule = rules[selected[k]];
+            List<LintingViolation> ruleViolations = new ArrayList<>();
+            Throwable failure = null;
+            for (int t = 0; t < taskCounts[k]; t++) {
+                Future<List<LintingViolation>> result = results.get(next++);
+                if (failure != null) {
+                    continue;
+                }
+                try {
+                    ruleViolations.addAll(result.get());
+                } catch (ExecutionException e) {
+                    failure = originalCause(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                // Report the failure as a sequential run would, without running the rule again
+                ruleViolations = List.of(ruleExecutionError(rule, filePath, failure));
             }
+            violations.addAll(ruleViolations);
         }
         
         return violations;
     }
     
     /**
-     * Initialize the default set of rules
+     * The exception a task threw. The pool may rethrow a copy made on the waiting thread, whose cause is the original.
      */
-    private void initializeRules() {
-        // Add basic whitespace rules
-        rules.add(new BasicTrailingWhitespaceRule(configManager));
-        rules.add(new BasicEmptyLineRule(configManager));
-        
-        // Add naming convention rules
-        rules.add(new ComponentNamingRule(configManager));
-        rules.add(new FunctionNamingRule(configManager));
-        rules.add(new VariableNamingRule(configManager));
-        rules.add(new ConstantNamingRule(configManager));
-        rules.add(new FileNamingRule(configManager));
-        rules.add(new InterfacePrefixRule(configManager));
-        rules.add(new AbstractSuffixRule(configManager));
-        
-        // Add code structure rules
-        rules.add(new RequireCurlyBracesRule(configManager));
-        rules.add(new MaxFunctionLengthRule(configManager));
-        rules.add(new MaxLineLengthRule(configManager));
-        rules.add(new MaxFileLengthRule(configManager));
-        rules.add(new RequireInitRule(configManager));
-        rules.add(new RequireReturnTypesRule(configManager));
-        rules.add(new AdditionalStructureRules.RequireArgumentTypesRule(configManager));
-        rules.add(new AdditionalStructureRules.UseAccessorsRule(configManager));
-        rules.add(new AdditionalStructureRules.CurlyBraceStyleRule(configManager));
-        
-        // TODO: Add more comprehensive rule implementations:
-        // - CFLint rule adapters
-        // - Security rules
-        // - Best practice rules
-        // - Additional whitespace & formatting rules
+    private static Throwable originalCause(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause == null) {
+            return e;
+        }
+        Throwable original = cause.getCause();
+        return original != null && original.getClass() == cause.getClass() ? original : cause;
+    }
+    
+    /**
+     * Run a rule on a file, with the call graph if it is a project rule and there is one
+     */
+    private List<LintingViolation> analyze(LintingRule rule, ParseResult parseResult) {
+        CallGraph graph = callGraph;
+        if (graph != null && rule instanceof ProjectRule) {
+            return ((ProjectRule) rule).analyze(parseResult, graph);
+        }
+        return rule.analyze(parseResult);
+    }
+    
+    /**
+     * Run part of a rule with a regex budget in proportion to the file size, so a runaway match aborts
+     */
+    private List<LintingViolation> guarded(ParseResult parseResult, Supplier<List<LintingViolation>> task) {
+        if (regexBudget <= 0) {
+            return task.get();
+        }
+        long budget = Math.max(MIN_REGEX_BUDGET, regexBudget * parseResult.getContent().length());
+        return RegexGuard.withBudget(budget, task);
+    }
+    
+    private static LintingViolation ruleExecutionError(LintingRule rule, String filePath, Throwable e) {
+        return new LintingViolation(
+            "RULE_EXECUTION_ERROR",
+            "Rule " + rule.getRuleId() + " failed: " + e.getMessage(),
+            Severity.WARNING,
+            filePath,
+            1,
+            1
+        );
+    }
+    
+    /**
+     * The active rules, in execution order
+     */
+    public List<LintingRule> getRules() {
+        return Collections.unmodifiableList(Arrays.asList(rules));
+    }
+    
+    /**
+     * The level of analysis the active rules need, for the parser to provide and no more
+     */
+    public AnalysisLevel getAnalysisLevel() {
+        return analysisLevel;
+    }
+    
+    /**
+     * True if an active rule needs the project's call graph
+     */
+    public boolean requiresCallGraph() {
+        for (LintingRule rule : rules) {
+            if (rule instanceof ProjectRule) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Give project rules the call graph of the directory about to be linted
+     */
+    public void setCallGraph(CallGraph callGraph) {
+        this.callGraph = callGraph;
+    }
+    
+    /**
+     * Number of active rules that apply to a kind of source
+     */
+    public int getRuleCount(SourceKind kind) {
+        return rulesByKind.get(kind).length;
     }
     
     /**
      * Basic rule to check for trailing whitespace
      */
-    private static class BasicTrailingWhitespaceRule implements LintingRule {
+    static class BasicTrailingWhitespaceRule implements LineRule {
         private final ConfigurationManager config;
         
         public BasicTrailingWhitespaceRule(ConfigurationManager config) {
@@ -102,15 +343,15 @@ public class LintingRuleEngine {
         }
         
         @Override
-        public List<LintingViolation> analyze(ParseResult parseResult) {
+        public boolean isEnabled() {
+            return config.shouldTrimTrailingWhitespace();
+        }
+        
+        @Override
+        public List<LintingViolation> analyzeLines(ParseResult parseResult, String[] lines, int from, int to) {
             List<LintingViolation> violations = new ArrayList<>();
             
-            if (!config.shouldTrimTrailingWhitespace()) {
-                return violations;
-            }
-            
-            String[] lines = parseResult.getLines();
-            for (int i = 0; i < lines.length; i++) {
+            for (int i = from; i < to; i++) {
                 String line = lines[i];
                 if (line.length() > 0 && Character.isWhitespace(line.charAt(line.length() - 1))) {
                     violations.add(new LintingViolation(
@@ -131,11 +372,13 @@ public class LintingRuleEngine {
     /**
      * Basic rule to check for too many empty lines
      */
-    private static class BasicEmptyLineRule implements LintingRule {
+    static class BasicEmptyLineRule implements LineRule {
         private final ConfigurationManager config;
+        private final int maxEmptyLines;
         
         public BasicEmptyLineRule(ConfigurationManager config) {
             this.config = config;
+            this.maxEmptyLines = config.getMaxEmptyLines();
         }
         
         @Override
@@ -144,14 +387,16 @@ public class LintingRuleEngine {
         }
         
         @Override
-        public List<LintingViolation> analyze(ParseResult parseResult) {
+        public List<LintingViolation> analyzeLines(ParseResult parseResult, String[] lines, int from, int to) {
             List<LintingViolation> violations = new ArrayList<>();
             
-            int maxEmptyLines = config.getMaxEmptyLines();
-            String[] lines = parseResult.getLines();
+            // A run of empty lines that starts before the range belongs to the first non-empty line in it
             int consecutiveEmptyLines = 0;
+            for (int i = from - 1; i >= 0 && lines[i].trim().isEmpty(); i--) {
+                consecutiveEmptyLines++;
+            }
             
-            for (int i = 0; i < lines.length; i++) {
+            for (int i = from; i < to; i++) {
                 String line = lines[i].trim();
                 
                 if (line.isEmpty()) {
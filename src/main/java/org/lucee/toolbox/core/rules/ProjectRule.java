@@ -0,0 +1,46 @@
+package org.lucee.toolbox.core.rules;
+
+import org.lucee.toolbox.core.index.CallGraph;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A rule that judges a component against the whole project. When one of these is active, linting a
+ * directory first indexes it and joins the index into a {@link CallGraph}, which the rule engine passes
+ * to the rule for each file.
+ */
+public interface ProjectRule extends LintingRule {
+    
+    /**
+     * Analyze a file with the project's call graph
+     * @param parseResult The parsed content to analyze
+     * @param callGraph The call graph of the directory being linted
+     * @return Violations found by this rule
+     */
+    List<LintingViolation> analyze(ParseResult parseResult, CallGraph callGraph);
+    
+    @Override
+    default Set<SourceKind> getApplicableKinds() {
+        return SourceKind.components();
+    }
+    
+    @Override
+    default AnalysisLevel getAnalysisLevel() {
+        // Everything comes from the call graph
+        return AnalysisLevel.LINES;
+    }
+    
+    /**
+     * Without a call graph, as when linting a single file, there is nothing to judge by
+     */
+    @Override
+    default List<LintingViolation> analyze(ParseResult parseResult) {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,184 @@
+package org.lucee.toolbox.core.rules;
+
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.rules.naming.*;
+import org.lucee.toolbox.core.rules.project.*;
+import org.lucee.toolbox.core.rules.structure.*;
+import org.lucee.toolbox.core.rules.tags.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Catalogue of the built-in linting rules and the named rule sets.
+ * Resolves the active rules once from the configured rule set, the +RULE/-RULE overrides
+ * and each rule's own configuration, so disabled rules are never created per file.
+ */
+public final class RuleRegistry {
+    
+    private static final Map<String, RuleDefinition> RULES = new LinkedHashMap<>();
+    private static final Map<String, Set<String>> RULE_SETS = new LinkedHashMap<>();
+    
+    static {
+        // Registration order is execution order
+        register("TRAILING_WHITESPACE", "Lines with trailing whitespace", LintingRuleEngine.BasicTrailingWhitespaceRule::new);
+        register("EXCESSIVE_EMPTY_LINES", "Too many consecutive empty lines", LintingRuleEngine.BasicEmptyLineRule::new);
+        
+        register("COMPONENT_NAMING", "Component names in PascalCase", ComponentNamingRule::new);
+        register("FUNCTION_NAMING", "Function names in camelCase", FunctionNamingRule::new);
+        register("VARIABLE_NAMING", "Variable and argument names in camelCase", VariableNamingRule::new);
+        register("CONSTANT_NAMING", "Constants in UPPER_CASE", ConstantNamingRule::new);
+        register("FILE_NAMING", "CFC and CFM file name conventions", FileNamingRule::new);
+        register("INTERFACE_PREFIX", "Interface names start with the configured prefix", InterfacePrefixRule::new);
+        register("ABSTRACT_SUFFIX", "Abstract component names end with the configured suffix", AbstractSuffixRule::new);
+        
+        register("REQUIRE_CURLY_BRACES", "Control structures use curly braces", RequireCurlyBracesRule::new);
+        register("MAX_FUNCTION_LENGTH", "Functions within the maximum length", MaxFunctionLengthRule::new);
+        register("MAX_LINE_LENGTH", "Lines within the maximum length", MaxLineLengthRule::new);
+        register("MAX_FILE_LENGTH", "Files within the maximum length", MaxFileLengthRule::new);
+        register("REQUIRE_INIT", "Components define init()", RequireInitRule::new);
+        register("REQUIRE_RETURN_TYPES", "Functions declare a return type", RequireReturnTypesRule::new);
+        register("REQUIRE_ARGUMENT_TYPES", "Function arguments declare a type", AdditionalStructureRules.RequireArgumentTypesRule::new);
+        register("USE_ACCESSORS", "Components with properties use accessors", AdditionalStructureRules.UseAccessorsRule::new);
+        register("CURLY_BRACE_STYLE", "Opening braces on the configured line", AdditionalStructureRules.CurlyBraceStyleRule::new);
+        
+        RULE_SETS.put("standard", Collections.unmodifiableSet(new LinkedHashSet<>(RULES.keySet())));
+        // The built-in rules that have a CFLint counterpart
+        RULE_SETS.put("cflint", ruleSet("COMPONENT_NAMING", "FUNCTION_NAMING", "VARIABLE_NAMING",
+                "MAX_FUNCTION_LENGTH", "MAX_FILE_LENGTH", "REQUIRE_RETURN_TYPES", "REQUIRE_ARGUMENT_TYPES"));
+        RULE_SETS.put("minimal", ruleSet("TRAILING_WHITESPACE", "EXCESSIVE_EMPTY_LINES",
+                "MAX_LINE_LENGTH", "MAX_FILE_LENGTH", "REQUIRE_CURLY_BRACES"));
+        
+        // Opt-in rules: only in strict, or enabled with +RULE
+        register("TAG_CASE", "CFML tag names in the configured case", TagCaseRule::new);
+        register("ATTRIBUTE_CASE", "CFML tag attribute names in the configured case", AttributeCaseRule::new);
+        register("UNUSED_PRIVATE_FUNCTION", "Private functions are called somewhere", config -> new UnusedPrivateFunctionRule());
+        register("DEAD_COMPONENT", "Components are referenced somewhere in the project", config -> new DeadComponentRule());
+        
+        // Every rule, including the opt-in rules left out of standard
+        RULE_SETS.put("strict", Collections.unmodifiableSet(new LinkedHashSet<>(RULES.keySet())));
+    }
+    
+    private RuleRegistry() {
+        // Utility class
+    }
+    
+    /**
+     * A built-in rule: its id, a one-line description and how to create it
+     */
+    public static final class RuleDefinition {
+        private final String id;
+        private final String description;
+        private final Function<ConfigurationManager, LintingRule> factory;
+        
+        private RuleDefinition(String id, String description, Function<ConfigurationManager, LintingRule> factory) {
+            this.id = id;
+            this.description = description;
+            this.factory = factory;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+        
+        public LintingRule create(ConfigurationManager config) {
+            return factory.apply(config);
+        }
+    }
+    
+    /**
+     * All built-in rules, in execution order
+     */
+    public static List<RuleDefinition> getDefinitions() {
+        return Collections.unmodifiableList(new ArrayList<>(RULES.values()));
+    }
+    
+    /**
+     * Names of the predefined rule sets
+     */
+    public static Set<String> getRuleSetNames() {
+        return Collections.unmodifiableSet(RULE_SETS.keySet());
+    }
+    
+    /**
+     * Rule ids in a named rule set
+     * @throws IllegalArgumentException if there is no such rule set
+     */
+    public static Set<String> getRuleSet(String name) {
+        Set<String> ruleSet = RULE_SETS.get(name.toLowerCase(Locale.ROOT));
+        if (ruleSet == null) {
+            throw new IllegalArgumentException("Unknown rule set: " + name + ". Use one of: "
+                    + String.join(", ", RULE_SETS.keySet()));
+        }
+        return ruleSet;
+    }
+    
+    /**
+     * Ids of the rules selected by the configured rule set and overrides, before each rule's own
+     * configuration is consulted. Overrides are applied in order, "+ID" adds a rule and "-ID" removes it.
+     * @throws IllegalArgumentException for an unknown rule set or rule id
+     */
+    public static Set<String> resolveSelection(ConfigurationManager config) {
+        Set<String> selected = new LinkedHashSet<>(getRuleSet(config.getRuleSet()));
+        for (String override : config.getRuleOverrides()) {
+            String entry = override.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            char sign = entry.charAt(0);
+            String id = (sign == '+' || sign == '-' ? entry.substring(1) : entry).trim().toUpperCase(Locale.ROOT);
+            if (!RULES.containsKey(id)) {
+                throw new IllegalArgumentException("Unknown rule: " + id + " (use --list-rules to see the available rules)");
+            }
+            if (sign == '-') {
+                selected.remove(id);
+            } else {
+                selected.add(id);
+            }
+        }
+        
+        // Keep execution order independent of the override order
+        Set<String> ordered = new LinkedHashSet<>(RULES.keySet());
+        ordered.retainAll(selected);
+        return ordered;
+    }
+    
+    /**
+     * Create the active rules: the selected rules that their configuration leaves enabled, in execution order
+     */
+    public static List<LintingRule> createActiveRules(ConfigurationManager config) {
+        List<LintingRule> active = new ArrayList<>();
+        for (String id : resolveSelection(config)) {
+            LintingRule rule = RULES.get(id).create(config);
+            if (rule.isEnabled()) {
+                active.add(rule);
+            }
+        }
+        return active;
+    }
+    
+    private static void register(String id, String description, Function<ConfigurationManager, LintingRule> factory) {
+        RULES.put(id, new RuleDefinition(id, description, factory));
+    }
+    
+    private static Set<String> ruleSet(String... ids) {
+        for (String id : ids) {
+            if (!RULES.containsKey(id)) {
+                throw new IllegalStateException("Rule set refers to unregistered rule " + id);
+            }
+        }
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(ids)));
+    }
+}
@@ -0,0 +1,46 @@
+package org.lucee.toolbox.core.rules;
+
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.tag.CfmlTagTokenizer;
+import org.lucee.toolbox.core.parser.tag.TagHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A rule that checks tag markup through {@link CfmlTagTokenizer} events, so the rule engine can
+ * tokenize a template once for all of these rules instead of once per rule
+ */
+public interface TagAwareRule extends LintingRule {
+    
+    /**
+     * Create a handler for one file's tag events
+     * @param parseResult The parsed content being tokenized
+     * @param violations Where the handler adds violations, in source order
+     * @return Handler for a single pass over the content
+     */
+    TagHandler newHandler(ParseResult parseResult, List<LintingViolation> violations);
+    
+    @Override
+    default Set<SourceKind> getApplicableKinds() {
+        return SourceKind.withTags();
+    }
+    
+    @Override
+    default AnalysisLevel getAnalysisLevel() {
+        return AnalysisLevel.TOKENS;
+    }
+    
+    @Override
+    default List<LintingViolation> analyze(ParseResult parseResult) {
+        List<LintingViolation> violations = new ArrayList<>();
+        if (parseResult.getSourceKind().isMarkup(parseResult.getContent())) {
+            CfmlTagTokenizer.tokenize(parseResult.getContent(), newHandler(parseResult, violations));
+        }
+        return violations;
+    }
+}
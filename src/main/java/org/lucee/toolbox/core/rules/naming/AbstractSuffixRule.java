@@ -3,14 +3,20 @@ package org.lucee.toolbox.core.rules.naming;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.ComponentHeader;
+import org.lucee.toolbox.core.parser.outline.FunctionDeclaration;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
 import org.lucee.toolbox.core.rules.LintingRule;
+import org.lucee.toolbox.core.util.RegexGuard;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -19,16 +25,14 @@ import java.util.regex.Pattern;
 public class AbstractSuffixRule implements LintingRule {
     
     private final ConfigurationManager config;
+    private final String expectedSuffix;
     
-    // Pattern to detect abstract components
-    private static final Pattern ABSTRACT_COMPONENT_PATTERN = 
-        Pattern.compile("^\\s*component\\s+[^{]*\\babstract\\s*=\\s*[\"']?true[\"']?[^{]*\\{", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    // Comments and throw statements in function bodies, for the empty method heuristic
+    private static final Pattern COMMENT_PATTERN = 
+        Pattern.compile("//[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
     
-    // Pattern to detect components with abstract methods
-    private static final Pattern ABSTRACT_METHOD_PATTERN = 
-        Pattern.compile("(?:^|\\s)(?:public|private|package|remote)?\\s*abstract\\s+function\\s+([a-zA-Z_][a-zA-Z0-9_]*)\\s*\\(", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private static final Pattern THROW_PATTERN = 
+        Pattern.compile("\\bthrow\\b", Pattern.CASE_INSENSITIVE);
     
     // Pattern to detect base/parent components that are meant to be extended
     private static final Pattern BASE_COMPONENT_INDICATORS = 
@@ -36,6 +40,7 @@ public class AbstractSuffixRule implements LintingRule {
     
     public AbstractSuffixRule(ConfigurationManager config) {
         this.config = config;
+        this.expectedSuffix = config.getStringValue("linting.rules.naming.abstractSuffix", "Abstract");
     }
     
     @Override
@@ -43,6 +48,23 @@ public class AbstractSuffixRule implements LintingRule {
         return "ABSTRACT_SUFFIX";
     }
     
+    @Override
+    public boolean isEnabled() {
+        return expectedSuffix != null && !expectedSuffix.isEmpty();
+    }
+    
+    @Override
+    public Set<SourceKind> getApplicableKinds() {
+        // Only components can be abstract
+        return SourceKind.components();
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Component headers and abstract functions from the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
@@ -52,40 +74,37 @@ public class AbstractSuffixRule implements LintingRule {
             return violations;
         }
         
-        String expectedSuffix = config.getStringValue("linting.rules.naming.abstractSuffix", "Abstract");
-        if (expectedSuffix == null || expectedSuffix.isEmpty()) {
-            return violations; // No suffix required
-        }
-        
         String content = parseResult.getContent();
+        SourceOutline outline = parseResult.getOutline();
         
         // Check for explicit abstract components
-        if (isExplicitlyAbstract(content)) {
+        if (isExplicitlyAbstract(outline)) {
             checkAbstractNaming(parseResult, violations, expectedSuffix, "explicitly abstract");
         }
         
         // Check for components with abstract methods
-        if (hasAbstractMethods(content)) {
+        if (hasAbstractMethods(outline)) {
             checkAbstractNaming(parseResult, violations, expectedSuffix, "contains abstract methods");
         }
         
         // Check for components that appear to be base/parent classes
-        if (appearsToBeBaseClass(content, parseResult.getFilePath())) {
+        if (appearsToBeBaseClass(content, outline, parseResult.getFilePath())) {
             checkAbstractNaming(parseResult, violations, expectedSuffix, "appears to be a base class");
         }
         
         return violations;
     }
     
-    private boolean isExplicitlyAbstract(String content) {
-        return ABSTRACT_COMPONENT_PATTERN.matcher(content).find();
+    private boolean isExplicitlyAbstract(SourceOutline outline) {
+        ComponentHeader header = outline.getComponent();
+        return header != null && header.isAbstract();
     }
     
-    private boolean hasAbstractMethods(String content) {
-        return ABSTRACT_METHOD_PATTERN.matcher(content).find();
+    private boolean hasAbstractMethods(SourceOutline outline) {
+        return outline.getFunctions().stream().anyMatch(FunctionDeclaration::isAbstract);
     }
     
-    private boolean appearsToBeBaseClass(String content, String filePath) {
+    private boolean appearsToBeBaseClass(String content, SourceOutline outline, String filePath) {
         // Check filename for base class indicators
         Path path = Paths.get(filePath);
         String fileName = path.getFileName().toString().toLowerCase();
@@ -105,36 +124,25 @@ public class AbstractSuffixRule implements LintingRule {
         }
         
         // Check for minimal implementation with mostly empty or throw methods
-        Pattern emptyMethodPattern = Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\([^)]*\\)\\s*\\{\\s*(?://[^}]*|/\\*[^}]*\\*/\\s*)?\\s*\\}", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Pattern throwMethodPattern = Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\([^)]*\\)\\s*\\{[^}]*throw[^}]*\\}", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Matcher emptyMatcher = emptyMethodPattern.matcher(content);
-        Matcher throwMatcher = throwMethodPattern.matcher(content);
-        
         int emptyMethods = 0;
         int throwMethods = 0;
-        
-        while (emptyMatcher.find()) {
-            emptyMethods++;
-        }
-        
-        while (throwMatcher.find()) {
-            throwMethods++;
-        }
-        
-        // If more than half the methods are empty or throw, likely a base class
-        Pattern allMethodsPattern = Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\([^)]*\\)\\s*\\{", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Matcher allMethodsMatcher = allMethodsPattern.matcher(content);
         int totalMethods = 0;
-        while (allMethodsMatcher.find()) {
+        
+        for (FunctionDeclaration function : outline.getFunctions()) {
+            if (!function.hasBody()) {
+                continue;
+            }
             totalMethods++;
+            String body = function.getBody(content);
+            if (RegexGuard.matcher(COMMENT_PATTERN, body).replaceAll("").trim().isEmpty()) {
+                emptyMethods++;
+            }
+            if (RegexGuard.matcher(THROW_PATTERN, body).find()) {
+                throwMethods++;
+            }
         }
         
+        // If more than half the methods are empty or throw, likely a base class
         return totalMethods > 0 && (emptyMethods + throwMethods) > totalMethods / 2;
     }
     
@@ -3,15 +3,17 @@ package org.lucee.toolbox.core.rules.naming;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.ComponentHeader;
 import org.lucee.toolbox.core.rules.LintingRule;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Rule that enforces component naming conventions
@@ -19,10 +21,6 @@ import java.util.regex.Pattern;
 public class ComponentNamingRule implements LintingRule {
     
     private final ConfigurationManager config;
-    private static final Pattern COMPONENT_DECLARATION_PATTERN = 
-        Pattern.compile("^\\s*component\\s+(?:extends\\s*=\\s*[\"']?[^\\s\"']+[\"']?\\s+)?(?:accessors\\s*=\\s*[\"']?(?:true|false)[\"']?\\s+)?(?:displayname\\s*=\\s*[\"'][^\"']*[\"']\\s+)?(?:hint\\s*=\\s*[\"'][^\"']*[\"']\\s+)?(?:output\\s*=\\s*[\"']?(?:true|false)[\"']?\\s+)?(?:persistent\\s*=\\s*[\"']?(?:true|false)[\"']?\\s+)?(?:name\\s*=\\s*[\"']?([^\\s\"']+)[\"']?\\s*)?\\{?", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-    
     public ComponentNamingRule(ConfigurationManager config) {
         this.config = config;
     }
@@ -32,6 +30,24 @@ public class ComponentNamingRule implements LintingRule {
         return "COMPONENT_NAMING";
     }
     
+    @Override
+    public boolean isEnabled() {
+        // Only enforce PascalCase for now
+        return "PascalCase".equals(config.getComponentCase());
+    }
+    
+    @Override
+    public Set<SourceKind> getApplicableKinds() {
+        // Component file and declaration names only
+        return SourceKind.components();
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // The component header from the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
@@ -41,11 +57,6 @@ public class ComponentNamingRule implements LintingRule {
             return violations;
         }
         
-        String expectedCase = config.getComponentCase();
-        if (!"PascalCase".equals(expectedCase)) {
-            return violations; // Only enforce PascalCase for now
-        }
-        
         // Check filename
         Path path = Paths.get(parseResult.getFilePath());
         String fileName = path.getFileName().toString();
@@ -63,23 +74,17 @@ public class ComponentNamingRule implements LintingRule {
         }
         
         // Check component declaration name attribute if present
-        String content = parseResult.getContent();
-        String[] lines = parseResult.getLines();
-        
-        Matcher matcher = COMPONENT_DECLARATION_PATTERN.matcher(content);
-        while (matcher.find()) {
-            String declaredName = matcher.group(1);
-            if (declaredName != null && !isPascalCase(declaredName)) {
-                int line = getLineNumber(content, matcher.start());
-                violations.add(new LintingViolation(
-                    getRuleId(),
-                    String.format("Component name attribute '%s' should be PascalCase", declaredName),
-                    Severity.WARNING,
-                    parseResult.getFilePath(),
-                    line,
-                    1
-                ));
-            }
+        ComponentHeader header = parseResult.getOutline().getComponent();
+        String declaredName = header != null ? header.getAttribute("name") : null;
+        if (declaredName != null && !isPascalCase(declaredName)) {
+            violations.add(new LintingViolation(
+                getRuleId(),
+                String.format("Component name attribute '%s' should be PascalCase", declaredName),
+                Severity.WARNING,
+                parseResult.getFilePath(),
+                header.getLine(),
+                1
+            ));
         }
         
         return violations;
@@ -93,14 +98,4 @@ public class ComponentNamingRule implements LintingRule {
         // PascalCase: starts with uppercase, no underscores, no spaces
         return name.matches("^[A-Z][a-zA-Z0-9]*$");
     }
-    
-    private int getLineNumber(String content, int position) {
-        int line = 1;
-        for (int i = 0; i < position && i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                line++;
-            }
-        }
-        return line;
-    }
 }
@@ -3,11 +3,18 @@ package org.lucee.toolbox.core.rules.naming;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.outline.SourceMask;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
 import org.lucee.toolbox.core.rules.LintingRule;
+import org.lucee.toolbox.core.util.RegexGuard;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,6 +35,11 @@ public class ConstantNamingRule implements LintingRule {
         Pattern.compile("(?:^|\\s)(?:static\\s+)?(?:final\\s+)?(?:variables\\.|this\\.|local\\.)?([a-zA-Z_][a-zA-Z0-9_]*)\\s*=\\s*(?:[\"'][^\"']*[\"']|\\d+|true|false)", 
         Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
     
+    // Pattern to match variables assigned a literal value, the candidates for constants
+    private static final Pattern VARIABLE_PATTERN = 
+        Pattern.compile("(?:^|\\s)(?:variables\\.|this\\.|local\\.)?([a-zA-Z_][a-zA-Z0-9_]*)\\s*=\\s*(?:[\"'][^\"']*[\"']|\\d+|true|false)", 
+        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    
     public ConstantNamingRule(ConfigurationManager config) {
         this.config = config;
     }
@@ -37,31 +49,42 @@ public class ConstantNamingRule implements LintingRule {
         return "CONSTANT_NAMING";
     }
     
+    @Override
+    public boolean isEnabled() {
+        // Only enforce UPPER_CASE for now
+        return "UPPER_CASE".equals(config.getConstantCase());
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Masks assignments in comments and strings, positions them with the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        String expectedCase = config.getConstantCase();
-        if (!"UPPER_CASE".equals(expectedCase)) {
-            return violations; // Only enforce UPPER_CASE for now
-        }
-        
-        String content = parseResult.getContent();
-        
         // Check for constants based on naming pattern (all uppercase variables)
-        checkConstantsByPattern(content, parseResult.getFilePath(), violations);
+        checkConstantsByPattern(parseResult, violations);
         
         return violations;
     }
     
-    private void checkConstantsByPattern(String content, String filePath, List<LintingViolation> violations) {
+    private void checkConstantsByPattern(ParseResult parseResult, List<LintingViolation> violations) {
         // Look for variables that appear to be constants but don't follow UPPER_CASE
-        Pattern variablePattern = Pattern.compile("(?:^|\\s)(?:variables\\.|this\\.|local\\.)?([a-zA-Z_][a-zA-Z0-9_]*)\\s*=\\s*(?:[\"'][^\"']*[\"']|\\d+|true|false)", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+        String content = parseResult.getContent();
+        SourceMask mask = parseResult.getMask();
+        SourceOutline outline = parseResult.getOutline();
+        Map<String, Integer> assignmentCounts = new HashMap<>();
         
-        Matcher matcher = variablePattern.matcher(content);
+        Matcher matcher = RegexGuard.matcher(VARIABLE_PATTERN, content);
         
         while (matcher.find()) {
+            // Assignments quoted in strings or commented out are not code
+            if (!mask.isCode(matcher.start(1))) {
+                continue;
+            }
             String variableName = matcher.group(1);
             
             // Skip if it's already in correct format
@@ -70,17 +93,14 @@ public class ConstantNamingRule implements LintingRule {
             }
             
             // Check if this looks like a constant (assigned a literal value and never reassigned)
-            if (appearsToBeConstant(content, variableName)) {
-                int line = getLineNumber(content, matcher.start());
-                int column = getColumnNumber(content, matcher.start(1));
-                
+            if (appearsToBeConstant(content, mask, variableName, assignmentCounts)) {
                 violations.add(new LintingViolation(
                     getRuleId(),
                     String.format("Constant '%s' should be UPPER_CASE", variableName),
                     Severity.WARNING,
-                    filePath,
-                    line,
-                    column
+                    parseResult.getFilePath(),
+                    outline.lineOf(matcher.start()),
+                    outline.columnOf(matcher.start(1))
                 ));
             }
         }
@@ -95,7 +115,8 @@ public class ConstantNamingRule implements LintingRule {
         return name.matches("^[A-Z][A-Z0-9_]*$");
     }
     
-    private boolean appearsToBeConstant(String content, String variableName) {
+    private boolean appearsToBeConstant(String content, SourceMask mask, String variableName,
+                                        Map<String, Integer> assignmentCounts) {
         // Heuristics to determine if a variable is likely a constant:
         // 1. Has multiple uppercase letters
         // 2. Contains underscores between words
@@ -108,15 +129,9 @@ public class ConstantNamingRule implements LintingRule {
         
         // Check if variable name suggests it's a constant (multiple caps or underscores)
         if (variableName.matches(".*[A-Z].*[A-Z].*") || variableName.contains("_")) {
-            // Count assignments to this variable
-            Pattern assignmentPattern = Pattern.compile("\\b" + Pattern.quote(variableName) + "\\s*=", 
-                Pattern.CASE_INSENSITIVE);
-            Matcher assignmentMatcher = assignmentPattern.matcher(content);
-            
-            int assignmentCount = 0;
-            while (assignmentMatcher.find()) {
-                assignmentCount++;
-            }
+            // Count assignments to this variable in code, once per name
+            int assignmentCount = assignmentCounts.computeIfAbsent(variableName.toLowerCase(Locale.ROOT),
+                name -> countAssignments(content, mask, variableName));
             
             // If only assigned once, likely a constant
             return assignmentCount == 1;
@@ -125,21 +140,17 @@ public class ConstantNamingRule implements LintingRule {
         return false;
     }
     
-    private int getLineNumber(String content, int position) {
-        int line = 1;
-        for (int i = 0; i < position && i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                line++;
+    private int countAssignments(String content, SourceMask mask, String variableName) {
+        Pattern assignmentPattern = Pattern.compile("\\b" + Pattern.quote(variableName) + "\\s*=", 
+            Pattern.CASE_INSENSITIVE);
+        Matcher assignmentMatcher = RegexGuard.matcher(assignmentPattern, content);
+        
+        int assignmentCount = 0;
+        while (assignmentMatcher.find()) {
+            if (mask.isCode(assignmentMatcher.start())) {
+                assignmentCount++;
             }
         }
-        return line;
-    }
-    
-    private int getColumnNumber(String content, int position) {
-        int column = 1;
-        for (int i = position - 1; i >= 0 && content.charAt(i) != '\n'; i--) {
-            column++;
-        }
-        return column;
+        return assignmentCount;
     }
 }
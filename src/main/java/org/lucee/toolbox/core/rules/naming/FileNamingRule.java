@@ -3,6 +3,7 @@ package org.lucee.toolbox.core.rules.naming;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
 import org.lucee.toolbox.core.rules.LintingRule;
 
@@ -27,6 +28,12 @@ public class FileNamingRule implements LintingRule {
         return "FILE_NAMING";
     }
     
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Only the file name
+        return AnalysisLevel.LINES;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
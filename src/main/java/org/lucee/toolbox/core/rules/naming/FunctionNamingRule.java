@@ -3,13 +3,16 @@ package org.lucee.toolbox.core.rules.naming;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.FunctionDeclaration;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
 import org.lucee.toolbox.core.rules.LintingRule;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Rule that enforces function naming conventions
@@ -18,11 +21,6 @@ public class FunctionNamingRule implements LintingRule {
     
     private final ConfigurationManager config;
     
-    // Pattern to match function declarations
-    private static final Pattern FUNCTION_PATTERN = 
-        Pattern.compile("(?:^|\\s)(?:(public|private|package|remote)\\s+)?(?:(static)\\s+)?(?:([a-zA-Z_][a-zA-Z0-9_]*)\\s+)?function\\s+([a-zA-Z_][a-zA-Z0-9_]*)\\s*\\(", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-    
     public FunctionNamingRule(ConfigurationManager config) {
         this.config = config;
     }
@@ -32,20 +30,38 @@ public class FunctionNamingRule implements LintingRule {
         return "FUNCTION_NAMING";
     }
     
+    @Override
+    public boolean isEnabled() {
+        // Only enforce camelCase for now
+        return "camelCase".equals(config.getFunctionCase());
+    }
+    
+    @Override
+    public Set<String> getRequiredLiterals() {
+        // Only function declarations are checked
+        return Set.of("function");
+    }
+    
+    @Override
+    public Set<SourceKind> getApplicableKinds() {
+        // Tag functions are declared with cffunction, which this rule does not read
+        return SourceKind.withScript();
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Function declarations from the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        String expectedCase = config.getFunctionCase();
-        if (!"camelCase".equals(expectedCase)) {
-            return violations; // Only enforce camelCase for now
-        }
-        
-        String content = parseResult.getContent();
-        Matcher matcher = FUNCTION_PATTERN.matcher(content);
+        SourceOutline outline = parseResult.getOutline();
         
-        while (matcher.find()) {
-            String functionName = matcher.group(4);
+        for (FunctionDeclaration function : outline.getFunctions()) {
+            String functionName = function.getName();
             
             // Skip constructor functions (init) and special methods
             if ("init".equals(functionName) || isSpecialMethod(functionName)) {
@@ -53,16 +69,13 @@ public class FunctionNamingRule implements LintingRule {
             }
             
             if (!isCamelCase(functionName)) {
-                int line = getLineNumber(content, matcher.start());
-                int column = getColumnNumber(content, matcher.start(4));
-                
                 violations.add(new LintingViolation(
                     getRuleId(),
                     String.format("Function name '%s' should be camelCase", functionName),
                     Severity.WARNING,
                     parseResult.getFilePath(),
-                    line,
-                    column
+                    function.getStartLine(),
+                    outline.columnOf(function.getNameOffset())
                 ));
             }
         }
@@ -92,22 +105,4 @@ public class FunctionNamingRule implements LintingRule {
                name.equals("onMissingTemplate") ||
                name.startsWith("on") && Character.isUpperCase(name.charAt(2));
     }
-    
-    private int getLineNumber(String content, int position) {
-        int line = 1;
-        for (int i = 0; i < position && i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                line++;
-            }
-        }
-        return line;
-    }
-    
-    private int getColumnNumber(String content, int position) {
-        int column = 1;
-        for (int i = position - 1; i >= 0 && content.charAt(i) != '\n'; i--) {
-            column++;
-        }
-        return column;
-    }
 }
@@ -3,15 +3,18 @@ package org.lucee.toolbox.core.rules.naming;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.ComponentHeader;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
 import org.lucee.toolbox.core.rules.LintingRule;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Rule that enforces interface naming conventions with specified prefix
@@ -19,19 +22,11 @@ import java.util.regex.Pattern;
 public class InterfacePrefixRule implements LintingRule {
     
     private final ConfigurationManager config;
-    
-    // Pattern to detect interface declarations
-    private static final Pattern INTERFACE_PATTERN = 
-        Pattern.compile("^\\s*interface\\s+([a-zA-Z_][a-zA-Z0-9_]*)\\s*(?:extends\\s+[^{]*)?\\s*\\{", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-    
-    // Pattern to detect if a component has only abstract methods (likely an interface)
-    private static final Pattern ABSTRACT_FUNCTION_PATTERN = 
-        Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\([^)]*\\)\\s*;", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private final String expectedPrefix;
     
     public InterfacePrefixRule(ConfigurationManager config) {
         this.config = config;
+        this.expectedPrefix = config.getStringValue("linting.rules.naming.interfacePrefix", "I");
     }
     
     @Override
@@ -39,6 +34,29 @@ public class InterfacePrefixRule implements LintingRule {
         return "INTERFACE_PREFIX";
     }
     
+    @Override
+    public boolean isEnabled() {
+        return expectedPrefix != null && !expectedPrefix.isEmpty();
+    }
+    
+    @Override
+    public Set<String> getRequiredLiterals() {
+        // Explicit interface declarations, or components with bodiless function declarations
+        return Set.of("interface", "function");
+    }
+    
+    @Override
+    public Set<SourceKind> getApplicableKinds() {
+        // Interfaces are components
+        return SourceKind.components();
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // The component header from the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
@@ -48,52 +66,44 @@ public class InterfacePrefixRule implements LintingRule {
             return violations;
         }
         
-        String expectedPrefix = config.getStringValue("linting.rules.naming.interfacePrefix", "I");
-        if (expectedPrefix == null || expectedPrefix.isEmpty()) {
-            return violations; // No prefix required
-        }
-        
-        String content = parseResult.getContent();
+        SourceOutline outline = parseResult.getOutline();
+        ComponentHeader header = outline.getComponent();
         
-        // Check for explicit interface declarations
-        checkExplicitInterfaces(content, parseResult, violations, expectedPrefix);
-        
-        // Check for components that appear to be interfaces (only abstract methods)
-        checkImplicitInterfaces(content, parseResult, violations, expectedPrefix);
+        if (header != null && header.isInterface()) {
+            // Explicit interface declaration
+            checkExplicitInterface(header, outline, parseResult, violations, expectedPrefix);
+        } else {
+            // Components that appear to be interfaces (only abstract methods)
+            checkImplicitInterfaces(outline, parseResult, violations, expectedPrefix);
+        }
         
         return violations;
     }
     
-    private void checkExplicitInterfaces(String content, ParseResult parseResult, 
-                                       List<LintingViolation> violations, String expectedPrefix) {
-        Matcher matcher = INTERFACE_PATTERN.matcher(content);
+    private void checkExplicitInterface(ComponentHeader header, SourceOutline outline, ParseResult parseResult,
+                                        List<LintingViolation> violations, String expectedPrefix) {
+        // A declared name, otherwise the file name
+        String interfaceName = header.getName() != null ? header.getName() : getComponentName(parseResult);
         
-        while (matcher.find()) {
-            String interfaceName = matcher.group(1);
+        if (!interfaceName.startsWith(expectedPrefix)) {
+            int column = header.getNameOffset() >= 0 ? outline.columnOf(header.getNameOffset()) : 1;
             
-            if (!interfaceName.startsWith(expectedPrefix)) {
-                int line = getLineNumber(content, matcher.start());
-                int column = getColumnNumber(content, matcher.start(1));
-                
-                violations.add(new LintingViolation(
-                    getRuleId(),
-                    String.format("Interface name '%s' should start with prefix '%s'", interfaceName, expectedPrefix),
-                    Severity.INFO,
-                    parseResult.getFilePath(),
-                    line,
-                    column
-                ));
-            }
+            violations.add(new LintingViolation(
+                getRuleId(),
+                String.format("Interface name '%s' should start with prefix '%s'", interfaceName, expectedPrefix),
+                Severity.INFO,
+                parseResult.getFilePath(),
+                header.getLine(),
+                column
+            ));
         }
     }
     
-    private void checkImplicitInterfaces(String content, ParseResult parseResult, 
+    private void checkImplicitInterfaces(SourceOutline outline, ParseResult parseResult, 
                                        List<LintingViolation> violations, String expectedPrefix) {
-        // Check if this component looks like an interface (only has abstract method declarations)
-        if (looksLikeInterface(content)) {
-            Path path = Paths.get(parseResult.getFilePath());
-            String fileName = path.getFileName().toString();
-            String componentName = fileName.substring(0, fileName.lastIndexOf('.'));
+        // Check if this component looks like an interface (function declarations but no implementations)
+        if (outline.hasOnlyBodilessFunctions()) {
+            String componentName = getComponentName(parseResult);
             
             if (!componentName.startsWith(expectedPrefix)) {
                 violations.add(new LintingViolation(
@@ -109,58 +119,9 @@ public class InterfacePrefixRule implements LintingRule {
         }
     }
     
-    private boolean looksLikeInterface(String content) {
-        // Remove comments and strings to avoid false positives
-        String cleanContent = removeCommentsAndStrings(content);
-        
-        // Count function declarations vs function implementations
-        Pattern functionDeclPattern = Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\([^)]*\\)\\s*;", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        Pattern functionImplPattern = Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\([^)]*\\)\\s*\\{", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Matcher declMatcher = functionDeclPattern.matcher(cleanContent);
-        Matcher implMatcher = functionImplPattern.matcher(cleanContent);
-        
-        int declarationCount = 0;
-        int implementationCount = 0;
-        
-        while (declMatcher.find()) {
-            declarationCount++;
-        }
-        
-        while (implMatcher.find()) {
-            implementationCount++;
-        }
-        
-        // If it has function declarations but no implementations, likely an interface
-        return declarationCount > 0 && implementationCount == 0;
-    }
-    
-    private String removeCommentsAndStrings(String content) {
-        // Simple removal of single-line comments, multi-line comments, and strings
-        content = content.replaceAll("//.*$", ""); // Single-line comments
-        content = content.replaceAll("/\\*[\\s\\S]*?\\*/", ""); // Multi-line comments
-        content = content.replaceAll("\"[^\"]*\"", "\"\""); // Double-quoted strings
-        content = content.replaceAll("'[^']*'", "''"); // Single-quoted strings
-        return content;
-    }
-    
-    private int getLineNumber(String content, int position) {
-        int line = 1;
-        for (int i = 0; i < position && i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                line++;
-            }
-        }
-        return line;
-    }
-    
-    private int getColumnNumber(String content, int position) {
-        int column = 1;
-        for (int i = position - 1; i >= 0 && content.charAt(i) != '\n'; i--) {
-            column++;
-        }
-        return column;
+    private String getComponentName(ParseResult parseResult) {
+        Path path = Paths.get(parseResult.getFilePath());
+        String fileName = path.getFileName().toString();
+        return fileName.substring(0, fileName.lastIndexOf('.'));
     }
 }
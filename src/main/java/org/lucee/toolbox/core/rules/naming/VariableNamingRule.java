@@ -3,8 +3,14 @@ package org.lucee.toolbox.core.rules.naming;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.outline.FunctionArgument;
+import org.lucee.toolbox.core.parser.outline.FunctionDeclaration;
+import org.lucee.toolbox.core.parser.outline.SourceMask;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
 import org.lucee.toolbox.core.rules.LintingRule;
+import org.lucee.toolbox.core.util.RegexGuard;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -25,16 +31,6 @@ public class VariableNamingRule implements LintingRule {
         Pattern.compile("(?:^|\\s)(?:var\\s+|local\\.|variables\\.)([a-zA-Z_][a-zA-Z0-9_]*)\\s*=", 
         Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
     
-    // Pattern to match function arguments
-    private static final Pattern FUNCTION_ARG_PATTERN = 
-        Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\(([^)]+)\\)", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-    
-    // Pattern to match individual arguments
-    private static final Pattern ARG_PATTERN = 
-        Pattern.compile("(?:required\\s+)?(?:[a-zA-Z_][a-zA-Z0-9_]*\\s+)?([a-zA-Z_][a-zA-Z0-9_]*)(?:\\s*=\\s*[^,)]+)?", 
-        Pattern.CASE_INSENSITIVE);
-    
     // Built-in variables that don't need to follow naming conventions
     private static final Set<String> BUILTIN_VARIABLES = new HashSet<>();
     static {
@@ -63,30 +59,49 @@ public class VariableNamingRule implements LintingRule {
         return "VARIABLE_NAMING";
     }
     
+    @Override
+    public boolean isEnabled() {
+        // Only enforce camelCase for now
+        return "camelCase".equals(config.getVariableCase());
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Function arguments from the outline, variables outside masked text
+        return AnalysisLevel.OUTLINE;
+    }
+    
+    @Override
+    public Set<String> getRequiredLiterals() {
+        // Scoped or var declarations, or function arguments
+        return Set.of("var", "local.", "function");
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        String expectedCase = config.getVariableCase();
-        if (!"camelCase".equals(expectedCase)) {
-            return violations; // Only enforce camelCase for now
-        }
-        
         String content = parseResult.getContent();
+        SourceOutline outline = parseResult.getOutline();
         
         // Check variable declarations
-        checkVariableDeclarations(content, parseResult.getFilePath(), violations);
+        checkVariableDeclarations(content, outline, parseResult.getMask(), parseResult.getFilePath(), violations);
         
         // Check function arguments
-        checkFunctionArguments(content, parseResult.getFilePath(), violations);
+        checkFunctionArguments(outline, parseResult.getFilePath(), violations);
         
         return violations;
     }
     
-    private void checkVariableDeclarations(String content, String filePath, List<LintingViolation> violations) {
-        Matcher matcher = VAR_DECLARATION_PATTERN.matcher(content);
+    private void checkVariableDeclarations(String content, SourceOutline outline, SourceMask mask, String filePath,
+                                           List<LintingViolation> violations) {
+        Matcher matcher = RegexGuard.matcher(VAR_DECLARATION_PATTERN, content);
         
         while (matcher.find()) {
+            // Declarations quoted in strings or commented out are not code
+            if (!mask.isCode(matcher.start(1))) {
+                continue;
+            }
             String variableName = matcher.group(1);
             
             if (BUILTIN_VARIABLES.contains(variableName.toLowerCase())) {
@@ -94,8 +109,8 @@ public class VariableNamingRule implements LintingRule {
             }
             
             if (!isCamelCase(variableName)) {
-                int line = getLineNumber(content, matcher.start());
-                int column = getColumnNumber(content, matcher.start(1));
+                int line = outline.lineOf(matcher.start());
+                int column = outline.columnOf(matcher.start(1));
                 
                 violations.add(new LintingViolation(
                     getRuleId(),
@@ -109,38 +124,24 @@ public class VariableNamingRule implements LintingRule {
         }
     }
     
-    private void checkFunctionArguments(String content, String filePath, List<LintingViolation> violations) {
-        Matcher functionMatcher = FUNCTION_ARG_PATTERN.matcher(content);
-        
-        while (functionMatcher.find()) {
-            String argumentsStr = functionMatcher.group(1);
-            
-            // Split arguments by comma and check each one
-            String[] arguments = argumentsStr.split(",");
-            for (String arg : arguments) {
-                arg = arg.trim();
-                if (arg.isEmpty()) continue;
+    private void checkFunctionArguments(SourceOutline outline, String filePath, List<LintingViolation> violations) {
+        for (FunctionDeclaration function : outline.getFunctions()) {
+            for (FunctionArgument argument : function.getArguments()) {
+                String argName = argument.getName();
                 
-                Matcher argMatcher = ARG_PATTERN.matcher(arg);
-                if (argMatcher.find()) {
-                    String argName = argMatcher.group(1);
-                    
-                    if (BUILTIN_VARIABLES.contains(argName.toLowerCase())) {
-                        continue;
-                    }
-                    
-                    if (!isCamelCase(argName)) {
-                        int line = getLineNumber(content, functionMatcher.start());
-                        
-                        violations.add(new LintingViolation(
-                            getRuleId(),
-                            String.format("Function argument '%s' should be camelCase", argName),
-                            Severity.WARNING,
-                            filePath,
-                            line,
-                            1
-                        ));
-                    }
+                if (BUILTIN_VARIABLES.contains(argName.toLowerCase())) {
+                    continue;
+                }
+                
+                if (!isCamelCase(argName)) {
+                    violations.add(new LintingViolation(
+                        getRuleId(),
+                        String.format("Function argument '%s' should be camelCase", argName),
+                        Severity.WARNING,
+                        filePath,
+                        outline.lineOf(argument.getOffset()),
+                        1
+                    ));
                 }
             }
         }
@@ -154,22 +155,4 @@ public class VariableNamingRule implements LintingRule {
         // camelCase: starts with lowercase, no underscores, no spaces
         return name.matches("^[a-z][a-zA-Z0-9]*$");
     }
-    
-    private int getLineNumber(String content, int position) {
-        int line = 1;
-        for (int i = 0; i < position && i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                line++;
-            }
-        }
-        return line;
-    }
-    
-    private int getColumnNumber(String content, int position) {
-        int column = 1;
-        for (int i = position - 1; i >= 0 && content.charAt(i) != '\n'; i--) {
-            column++;
-        }
-        return column;
-    }
 }
@@ -0,0 +1,58 @@
+package org.lucee.toolbox.core.rules.project;
+
+import org.lucee.toolbox.core.index.CallGraph;
+import org.lucee.toolbox.core.index.ComponentSymbol;
+import org.lucee.toolbox.core.index.FunctionSymbol;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.rules.ProjectRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rule that reports components no other file creates, invokes, extends or implements.
+ * Components the server or a framework finds on its own are left out: Application.cfc, components with
+ * remote functions, and components extending a base that is not part of the project.
+ */
+public class DeadComponentRule implements ProjectRule {
+    
+    @Override
+    public String getRuleId() {
+        return "DEAD_COMPONENT";
+    }
+    
+    @Override
+    public List<LintingViolation> analyze(ParseResult parseResult, CallGraph callGraph) {
+        List<LintingViolation> violations = new ArrayList<>();
+        ComponentSymbol component = callGraph.getComponent(parseResult.getFilePath());
+        if (component == null || callGraph.isReferenced(component) || isEntryPoint(component, callGraph)) {
+            return violations;
+        }
+        
+        violations.add(new LintingViolation(
+            getRuleId(),
+            String.format("%s '%s' is never referenced in the project",
+                    component.isInterface() ? "Interface" : "Component", component.getDottedName()),
+            Severity.INFO,
+            parseResult.getFilePath(),
+            1,
+            1
+        ));
+        
+        return violations;
+    }
+    
+    private static boolean isEntryPoint(ComponentSymbol component, CallGraph callGraph) {
+        if (component.getSimpleName().equalsIgnoreCase("Application")) {
+            return true;
+        }
+        for (FunctionSymbol function : component.getFunctions()) {
+            if ("remote".equals(function.getAccess())) {
+                return true;
+            }
+        }
+        return callGraph.hasExternalBase(component);
+    }
+}
@@ -0,0 +1,45 @@
+package org.lucee.toolbox.core.rules.project;
+
+import org.lucee.toolbox.core.index.CallGraph;
+import org.lucee.toolbox.core.index.ComponentSymbol;
+import org.lucee.toolbox.core.index.FunctionSymbol;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.rules.ProjectRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rule that reports private functions never called in their component or in a component extending it
+ */
+public class UnusedPrivateFunctionRule implements ProjectRule {
+    
+    @Override
+    public String getRuleId() {
+        return "UNUSED_PRIVATE_FUNCTION";
+    }
+    
+    @Override
+    public List<LintingViolation> analyze(ParseResult parseResult, CallGraph callGraph) {
+        List<LintingViolation> violations = new ArrayList<>();
+        ComponentSymbol component = callGraph.getComponent(parseResult.getFilePath());
+        if (component == null) {
+            return violations;
+        }
+        
+        for (FunctionSymbol function : callGraph.getUnusedPrivateFunctions(component)) {
+            violations.add(new LintingViolation(
+                getRuleId(),
+                String.format("Private function '%s' is never called", function.getName()),
+                Severity.WARNING,
+                parseResult.getFilePath(),
+                function.getLine(),
+                1
+            ));
+        }
+        
+        return violations;
+    }
+}
@@ -3,11 +3,24 @@ package org.lucee.toolbox.core.rules.structure;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.BlockIndex;
+import org.lucee.toolbox.core.parser.outline.ComponentHeader;
+import org.lucee.toolbox.core.parser.outline.FunctionArgument;
+import org.lucee.toolbox.core.parser.outline.FunctionDeclaration;
+import org.lucee.toolbox.core.parser.outline.SourceMask;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
 import org.lucee.toolbox.core.rules.LintingRule;
+import org.lucee.toolbox.core.util.RegexGuard;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,14 +36,6 @@ public class AdditionalStructureRules {
         
         private final ConfigurationManager config;
         
-        private static final Pattern FUNCTION_PATTERN = 
-            Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\(([^)]+)\\)", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        private static final Pattern TYPED_ARG_PATTERN = 
-            Pattern.compile("(?:required\\s+)?([a-zA-Z_][a-zA-Z0-9_]*)\\s+([a-zA-Z_][a-zA-Z0-9_]*)", 
-            Pattern.CASE_INSENSITIVE);
-        
         public RequireArgumentTypesRule(ConfigurationManager config) {
             this.config = config;
         }
@@ -40,35 +45,43 @@ public class AdditionalStructureRules {
             return "REQUIRE_ARGUMENT_TYPES";
         }
         
+        @Override
+        public boolean isEnabled() {
+            return config.shouldRequireArgumentTypes();
+        }
+        
+        @Override
+        public Set<String> getRequiredLiterals() {
+            // Only function arguments are checked
+            return Set.of("function");
+        }
+        
+        @Override
+        public Set<SourceKind> getApplicableKinds() {
+            // Checks script function arguments only
+            return SourceKind.withScript();
+        }
+        
+        @Override
+        public AnalysisLevel getAnalysisLevel() {
+            // Function arguments from the outline
+            return AnalysisLevel.OUTLINE;
+        }
+        
         @Override
         public List<LintingViolation> analyze(ParseResult parseResult) {
             List<LintingViolation> violations = new ArrayList<>();
             
-            if (!config.shouldRequireArgumentTypes()) {
-                return violations;
-            }
-            
-            String content = parseResult.getContent();
-            Matcher functionMatcher = FUNCTION_PATTERN.matcher(content);
-            
-            while (functionMatcher.find()) {
-                String argumentsStr = functionMatcher.group(1);
-                
-                // Split arguments by comma
-                String[] arguments = argumentsStr.split(",");
-                for (String arg : arguments) {
-                    arg = arg.trim();
-                    if (arg.isEmpty()) continue;
-                    
-                    // Check if argument has type annotation
-                    if (!hasTypeAnnotation(arg)) {
-                        int line = getLineNumber(content, functionMatcher.start());
+            SourceOutline outline = parseResult.getOutline();
+            for (FunctionDeclaration function : outline.getFunctions()) {
+                for (FunctionArgument argument : function.getArguments()) {
+                    if (argument.getType() == null) {
                         violations.add(new LintingViolation(
                             getRuleId(),
-                            String.format("Function argument '%s' should specify a type", getArgumentName(arg)),
+                            String.format("Function argument '%s' should specify a type", argument.getName()),
                             Severity.WARNING,
                             parseResult.getFilePath(),
-                            line,
+                            outline.lineOf(argument.getOffset()),
                             1
                         ));
                     }
@@ -77,26 +90,6 @@ public class AdditionalStructureRules {
             
             return violations;
         }
-        
-        private boolean hasTypeAnnotation(String argument) {
-            return TYPED_ARG_PATTERN.matcher(argument).find();
-        }
-        
-        private String getArgumentName(String argument) {
-            // Extract argument name (last word in the argument declaration)
-            String[] parts = argument.trim().split("\\s+");
-            return parts[parts.length - 1].replaceAll("[=].*", "");
-        }
-        
-        private int getLineNumber(String content, int position) {
-            int line = 1;
-            for (int i = 0; i < position && i < content.length(); i++) {
-                if (content.charAt(i) == '\n') {
-                    line++;
-                }
-            }
-            return line;
-        }
     }
 
     /**
@@ -106,14 +99,8 @@ public class AdditionalStructureRules {
         
         private final ConfigurationManager config;
         
-        private static final Pattern COMPONENT_PATTERN = 
-            Pattern.compile("^\\s*component\\s*([^{]*)?\\{", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
         private static final Pattern PROPERTY_PATTERN = 
-            Pattern.compile("^\\s*property\\s+", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        private static final Pattern ACCESSORS_PATTERN = 
-            Pattern.compile("accessors\\s*=\\s*[\"']?true[\"']?", Pattern.CASE_INSENSITIVE);
+            Pattern.compile("^\\s*(property)\\s+", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
         
         public UseAccessorsRule(ConfigurationManager config) {
             this.config = config;
@@ -124,14 +111,33 @@ public class AdditionalStructureRules {
             return "USE_ACCESSORS";
         }
         
+        @Override
+        public boolean isEnabled() {
+            return config.shouldUseAccessors();
+        }
+        
+        @Override
+        public Set<String> getRequiredLiterals() {
+            // Only components with properties need accessors
+            return Set.of("property");
+        }
+        
+        @Override
+        public Set<SourceKind> getApplicableKinds() {
+            // Properties only exist in components
+            return SourceKind.components();
+        }
+        
+        @Override
+        public AnalysisLevel getAnalysisLevel() {
+            // Component headers from the outline, properties outside masked text
+            return AnalysisLevel.OUTLINE;
+        }
+        
         @Override
         public List<LintingViolation> analyze(ParseResult parseResult) {
             List<LintingViolation> violations = new ArrayList<>();
             
-            if (!config.shouldUseAccessors()) {
-                return violations;
-            }
-            
             // Only check .cfc files
             if (!parseResult.getFilePath().toLowerCase().endsWith(".cfc")) {
                 return violations;
@@ -139,39 +145,31 @@ public class AdditionalStructureRules {
             
             String content = parseResult.getContent();
             
-            // Check if component has properties
-            Matcher propertyMatcher = PROPERTY_PATTERN.matcher(content);
-            if (propertyMatcher.find()) {
+            // Check if component has properties, ignoring commented-out ones
+            SourceMask mask = parseResult.getMask();
+            Matcher propertyMatcher = RegexGuard.matcher(PROPERTY_PATTERN, content);
+            boolean hasProperties = false;
+            while (!hasProperties && propertyMatcher.find()) {
+                hasProperties = mask.isCode(propertyMatcher.start(1));
+            }
+            if (hasProperties) {
                 // Component has properties, check if it uses accessors
-                Matcher componentMatcher = COMPONENT_PATTERN.matcher(content);
-                if (componentMatcher.find()) {
-                    String componentDeclaration = componentMatcher.group(1);
-                    if (componentDeclaration == null || !ACCESSORS_PATTERN.matcher(componentDeclaration).find()) {
-                        int line = getLineNumber(content, componentMatcher.start());
-                        violations.add(new LintingViolation(
-                            getRuleId(),
-                            "Component with properties should use accessors=\"true\"",
-                            Severity.INFO,
-                            parseResult.getFilePath(),
-                            line,
-                            1
-                        ));
-                    }
+                ComponentHeader component = parseResult.getOutline().getComponent();
+                if (component != null && !component.isInterface()
+                        && !"true".equalsIgnoreCase(component.getAttribute("accessors"))) {
+                    violations.add(new LintingViolation(
+                        getRuleId(),
+                        "Component with properties should use accessors=\"true\"",
+                        Severity.INFO,
+                        parseResult.getFilePath(),
+                        component.getLine(),
+                        1
+                    ));
                 }
             }
             
             return violations;
         }
-        
-        private int getLineNumber(String content, int position) {
-            int line = 1;
-            for (int i = 0; i < position && i < content.length(); i++) {
-                if (content.charAt(i) == '\n') {
-                    line++;
-                }
-            }
-            return line;
-        }
     }
 
     /**
@@ -181,9 +179,9 @@ public class AdditionalStructureRules {
         
         private final ConfigurationManager config;
         
-        private static final Pattern BRACE_PATTERN = 
-            Pattern.compile("(?i)(if|else|for|while|function|component|try|catch)\\s*(?:\\([^)]*\\))?\\s*\\n\\s*\\{", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+        // Keywords before a condition or directly before the brace; function and component bodies come from the outline
+        private static final Set<String> CONDITION_KEYWORDS = Set.of("if", "for", "while", "catch", "function");
+        private static final Set<String> BLOCK_KEYWORDS = Set.of("else", "try");
         
         public CurlyBraceStyleRule(ConfigurationManager config) {
             this.config = config;
@@ -194,21 +192,87 @@ public class AdditionalStructureRules {
             return "CURLY_BRACE_STYLE";
         }
         
+        @Override
+        public boolean isEnabled() {
+            // Only enforce same-line style for now
+            return "same-line".equals(config.getCurlyBraceStyle());
+        }
+        
+        @Override
+        public Set<SourceKind> getApplicableKinds() {
+            // Braces only exist in script syntax
+            return SourceKind.withScript();
+        }
+        
+        @Override
+        public AnalysisLevel getAnalysisLevel() {
+            // Brace blocks, with function and component bodies from the outline
+            return AnalysisLevel.OUTLINE;
+        }
+        
         @Override
         public List<LintingViolation> analyze(ParseResult parseResult) {
             List<LintingViolation> violations = new ArrayList<>();
             
-            String expectedStyle = config.getCurlyBraceStyle();
-            if (!"same-line".equals(expectedStyle)) {
-                return violations; // Only enforce same-line style for now
-            }
-            
             String content = parseResult.getContent();
-            Matcher matcher = BRACE_PATTERN.matcher(content);
+            SourceOutline outline = parseResult.getOutline();
+            BlockIndex blocks = parseResult.getBlocks();
             
-            while (matcher.find()) {
-                String keyword = matcher.group(1);
-                int line = getLineNumber(content, matcher.start());
+            Map<Integer, String> declarations = new HashMap<>();
+            Map<Integer, Integer> declarationLines = new HashMap<>();
+            for (FunctionDeclaration function : outline.getFunctions()) {
+                if (function.hasBody()) {
+                    declarations.put(function.getBodyStart(), "function");
+                    declarationLines.put(function.getBodyStart(), function.getStartLine());
+                }
+            }
+            for (ComponentHeader header : outline.getComponents()) {
+                declarations.put(header.getBodyStart(), header.isInterface() ? "interface" : "component");
+                declarationLines.put(header.getBodyStart(), header.getLine());
+            }
+            
+            for (int block = 0; block < blocks.size(); block++) {
+                if (blocks.getKind(block) != BlockIndex.Kind.BRACE) {
+                    continue;
+                }
+                int open = blocks.getStart(block);
+                int before = open;
+                while (before > 0 && Character.isWhitespace(content.charAt(before - 1))) {
+                    before--;
+                }
+                if (before == 0 || content.lastIndexOf('\n', open) < before) {
+                    // Brace already on the keyword's line
+                    continue;
+                }
+                
+                String keyword = declarations.get(open);
+                int line = keyword != null ? declarationLines.get(open) : -1;
+                if (keyword == null) {
+                    int wordEnd = before;
+                    if (content.charAt(before - 1) == ')') {
+                        int condition = blocks.enclosing(before - 1, BlockIndex.Kind.PAREN);
+                        if (condition < 0 || blocks.getEnd(condition) != before - 1) {
+                            continue;
+                        }
+                        wordEnd = blocks.getStart(condition);
+                        while (wordEnd > 0 && Character.isWhitespace(content.charAt(wordEnd - 1))) {
+                            wordEnd--;
+                        }
+                    }
+                    int wordStart = wordEnd;
+                    while (wordStart > 0 && Character.isLetter(content.charAt(wordStart - 1))) {
+                        wordStart--;
+                    }
+                    String word = content.substring(wordStart, wordEnd);
+                    String lower = word.toLowerCase(Locale.ROOT);
+                    boolean isKeyword = wordEnd == before ? BLOCK_KEYWORDS.contains(lower) : CONDITION_KEYWORDS.contains(lower);
+                    if (!isKeyword || (wordStart > 0 && isIdentifierOrMember(content.charAt(wordStart - 1)))) {
+                        continue;
+                    }
+                    keyword = word;
+                    line = outline.lineOf(wordStart);
+                }
+                
                 violations.add(new LintingViolation(
                     getRuleId(),
                     String.format("%s statement should have opening brace on same line", keyword),
@@ -222,14 +286,8 @@ public class AdditionalStructureRules {
             return violations;
         }
         
-        private int getLineNumber(String content, int position) {
-            int line = 1;
-            for (int i = 0; i < position && i < content.length(); i++) {
-                if (content.charAt(i) == '\n') {
-                    line++;
-                }
-            }
-            return line;
+        private static boolean isIdentifierOrMember(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
         }
     }
 }
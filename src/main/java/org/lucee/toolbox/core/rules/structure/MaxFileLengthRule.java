@@ -3,6 +3,7 @@ package org.lucee.toolbox.core.rules.structure;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
 import org.lucee.toolbox.core.rules.LintingRule;
 
@@ -15,9 +16,11 @@ import java.util.List;
 public class MaxFileLengthRule implements LintingRule {
     
     private final ConfigurationManager config;
+    private final int maxLength;
     
     public MaxFileLengthRule(ConfigurationManager config) {
         this.config = config;
+        this.maxLength = getMaxFileLength();
     }
     
     @Override
@@ -25,15 +28,21 @@ public class MaxFileLengthRule implements LintingRule {
         return "MAX_FILE_LENGTH";
     }
     
+    @Override
+    public boolean isEnabled() {
+        return maxLength > 0;
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Counts lines only
+        return AnalysisLevel.LINES;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        int maxLength = getMaxFileLength();
-        if (maxLength <= 0) {
-            return violations; // Disabled
-        }
-        
         String[] lines = parseResult.getLines();
         int actualLineCount = countNonEmptyLines(lines);
         
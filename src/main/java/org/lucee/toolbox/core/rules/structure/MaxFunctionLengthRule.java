@@ -3,13 +3,15 @@ package org.lucee.toolbox.core.rules.structure;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.FunctionDeclaration;
 import org.lucee.toolbox.core.rules.LintingRule;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Rule that enforces maximum function length limits
@@ -17,14 +19,11 @@ import java.util.regex.Pattern;
 public class MaxFunctionLengthRule implements LintingRule {
     
     private final ConfigurationManager config;
-    
-    // Pattern to match function declarations and their bodies
-    private static final Pattern FUNCTION_PATTERN = 
-        Pattern.compile("(?i)(?:^|\\s)(?:(public|private|package|remote)\\s+)?(?:(static)\\s+)?(?:([a-zA-Z_][a-zA-Z0-9_]*)\\s+)?function\\s+([a-zA-Z_][a-zA-Z0-9_]*)\\s*\\([^)]*\\)\\s*\\{([^}]*)\\}", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+    private final int maxLength;
     
     public MaxFunctionLengthRule(ConfigurationManager config) {
         this.config = config;
+        this.maxLength = config.getMaxFunctionLength();
     }
     
     @Override
@@ -32,21 +31,41 @@ public class MaxFunctionLengthRule implements LintingRule {
         return "MAX_FUNCTION_LENGTH";
     }
     
+    @Override
+    public boolean isEnabled() {
+        return maxLength > 0;
+    }
+    
+    @Override
+    public Set<String> getRequiredLiterals() {
+        // Only function bodies are measured
+        return Set.of("function");
+    }
+    
+    @Override
+    public Set<SourceKind> getApplicableKinds() {
+        // Measures script function bodies only
+        return SourceKind.withScript();
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Function bodies from the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        int maxLength = config.getMaxFunctionLength();
-        if (maxLength <= 0) {
-            return violations; // Disabled
-        }
-        
         String content = parseResult.getContent();
-        Matcher matcher = FUNCTION_PATTERN.matcher(content);
         
-        while (matcher.find()) {
-            String functionName = matcher.group(4);
-            String functionBody = matcher.group(5);
+        for (FunctionDeclaration function : parseResult.getOutline().getFunctions()) {
+            if (!function.hasBody()) {
+                continue;
+            }
+            String functionName = function.getName();
+            String functionBody = function.getBody(content);
             
             // Count non-empty lines in function body
             String[] bodyLines = functionBody.split("\\r?\\n");
@@ -64,7 +83,7 @@ public class MaxFunctionLengthRule implements LintingRule {
             }
             
             if (lineCount > maxLength) {
-                int functionStartLine = getLineNumber(content, matcher.start());
+                int functionStartLine = function.getStartLine();
                 violations.add(new LintingViolation(
                     getRuleId(),
                     String.format("Function '%s' is too long (%d lines, max %d)", functionName, lineCount, maxLength),
@@ -78,14 +97,4 @@ public class MaxFunctionLengthRule implements LintingRule {
         
         return violations;
     }
-    
-    private int getLineNumber(String content, int position) {
-        int line = 1;
-        for (int i = 0; i < position && i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                line++;
-            }
-        }
-        return line;
-    }
 }
@@ -4,7 +4,7 @@ import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
 import org.lucee.toolbox.core.parser.ParseResult;
-import org.lucee.toolbox.core.rules.LintingRule;
+import org.lucee.toolbox.core.rules.LineRule;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,12 +12,16 @@ import java.util.List;
 /**
  * Rule that enforces maximum line length limits
  */
-public class MaxLineLengthRule implements LintingRule {
+public class MaxLineLengthRule implements LineRule {
     
     private final ConfigurationManager config;
+    private final int maxLength;
+    private final int tabSize;
     
     public MaxLineLengthRule(ConfigurationManager config) {
         this.config = config;
+        this.maxLength = config.getMaxLineLength();
+        this.tabSize = config.getIndentSize();
     }
     
     @Override
@@ -26,17 +30,15 @@ public class MaxLineLengthRule implements LintingRule {
     }
     
     @Override
-    public List<LintingViolation> analyze(ParseResult parseResult) {
+    public boolean isEnabled() {
+        return maxLength > 0;
+    }
+    
+    @Override
+    public List<LintingViolation> analyzeLines(ParseResult parseResult, String[] lines, int from, int to) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        int maxLength = config.getMaxLineLength();
-        if (maxLength <= 0) {
-            return violations; // Disabled
-        }
-        
-        String[] lines = parseResult.getLines();
-        
-        for (int i = 0; i < lines.length; i++) {
+        for (int i = from; i < to; i++) {
             String line = lines[i];
             
             // Calculate actual display width (tabs count as configured tab width)
@@ -59,8 +61,6 @@ public class MaxLineLengthRule implements LintingRule {
     
     private int calculateDisplayWidth(String line) {
         int width = 0;
-        int tabSize = config.getIndentSize();
-        
         for (int i = 0; i < line.length(); i++) {
             char c = line.charAt(i);
             if (c == '\t') {
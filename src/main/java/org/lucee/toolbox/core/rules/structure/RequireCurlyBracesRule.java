@@ -3,11 +3,19 @@ package org.lucee.toolbox.core.rules.structure;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.BlockIndex;
+import org.lucee.toolbox.core.parser.outline.SourceMask;
 import org.lucee.toolbox.core.rules.LintingRule;
+import org.lucee.toolbox.core.util.RegexGuard;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,15 +26,16 @@ public class RequireCurlyBracesRule implements LintingRule {
     
     private final ConfigurationManager config;
     
-    // Pattern to detect control structures without curly braces
-    private static final Pattern CONTROL_STRUCTURE_PATTERN = 
-        Pattern.compile("(?i)\\b(if|else|for|while|switch|try|catch|finally)\\s*\\([^)]*\\)\\s*(?!\\{)([^;{]+;)", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    // Keywords that take a statement without a condition; those with a condition are found by their parentheses
+    private static final Pattern UNCONDITIONAL_PATTERN = Pattern.compile("\\b(else|try)\\b", Pattern.CASE_INSENSITIVE);
     
-    // Pattern to detect single-statement control structures
-    private static final Pattern SINGLE_STATEMENT_PATTERN = 
-        Pattern.compile("(?i)\\b(if|else|for|while)\\s*(?:\\([^)]*\\))?\\s*(?!\\{)([^;\\r\\n]+;)", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private static final Map<String, String> MESSAGES = Map.of(
+        "if", "If statement should use curly braces",
+        "else", "Else statement should use curly braces",
+        "for", "For loop should use curly braces",
+        "while", "While loop should use curly braces",
+        "try", "Try statement should use curly braces",
+        "catch", "Catch statement should use curly braces");
     
     public RequireCurlyBracesRule(ConfigurationManager config) {
         this.config = config;
@@ -37,143 +46,121 @@ public class RequireCurlyBracesRule implements LintingRule {
         return "REQUIRE_CURLY_BRACES";
     }
     
+    @Override
+    public boolean isEnabled() {
+        return config.shouldRequireCurlyBraces();
+    }
+    
+    @Override
+    public Set<SourceKind> getApplicableKinds() {
+        // Braces only exist in script syntax
+        return SourceKind.withScript();
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Condition blocks and masks, with function bodies from the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        if (!config.shouldRequireCurlyBraces()) {
-            return violations;
-        }
-        
         String content = parseResult.getContent();
+        BlockIndex blocks = parseResult.getBlocks();
         
-        // Check for if/else without braces
-        checkIfElseStatements(content, parseResult.getFilePath(), violations);
-        
-        // Check for loops without braces
-        checkLoopStatements(content, parseResult.getFilePath(), violations);
+        // if, for, while and catch: the statement follows the matching parenthesis of the condition
+        for (int block = 0; block < blocks.size(); block++) {
+            if (blocks.getKind(block) != BlockIndex.Kind.PAREN) {
+                continue;
+            }
+            int wordEnd = skipWhitespaceBackwards(content, blocks.getStart(block));
+            int wordStart = wordStart(content, wordEnd);
+            String keyword = content.substring(wordStart, wordEnd).toLowerCase(Locale.ROOT);
+            if (!keyword.equals("else") && !keyword.equals("try") && MESSAGES.containsKey(keyword)
+                    && isUnbracedStatement(content, blocks.getEnd(block) + 1)) {
+                addViolation(parseResult, keyword, wordStart, violations);
+            }
+        }
         
-        // Check for try/catch without braces
-        checkTryCatchStatements(content, parseResult.getFilePath(), violations);
+        // else and try: the statement follows the keyword, except for else if
+        SourceMask mask = parseResult.getMask();
+        Matcher matcher = RegexGuard.matcher(UNCONDITIONAL_PATTERN, content);
+        while (matcher.find()) {
+            if (!mask.isCode(matcher.start())) {
+                continue;
+            }
+            String keyword = matcher.group(1).toLowerCase(Locale.ROOT);
+            int next = skipWhitespace(content, matcher.end());
+            if (keyword.equals("else") && content.regionMatches(true, next, "if", 0, 2)) {
+                continue;
+            }
+            if (isUnbracedStatement(content, next)) {
+                addViolation(parseResult, keyword, matcher.start(), violations);
+            }
+        }
         
         return violations;
     }
     
-    private void checkIfElseStatements(String content, String filePath, List<LintingViolation> violations) {
-        // Pattern for if statements without braces
-        Pattern ifPattern = Pattern.compile("(?i)\\bif\\s*\\([^)]+\\)\\s*(?!\\{)([^;\\r\\n]+;)", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Matcher matcher = ifPattern.matcher(content);
-        while (matcher.find()) {
-            int line = getLineNumber(content, matcher.start());
-            violations.add(new LintingViolation(
-                getRuleId(),
-                "If statement should use curly braces",
-                Severity.WARNING,
-                filePath,
-                line,
-                1
-            ));
+    /**
+     * True if the statement at an offset does not open a brace and ends with a semicolon on its line
+     */
+    private boolean isUnbracedStatement(String content, int pos) {
+        pos = skipWhitespace(content, pos);
+        if (pos >= content.length() || content.charAt(pos) == '{' || content.charAt(pos) == ';') {
+            return false;
         }
-        
-        // Pattern for else statements without braces
-        Pattern elsePattern = Pattern.compile("(?i)\\belse\\s*(?!\\{|if)([^;\\r\\n]+;)", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        matcher = elsePattern.matcher(content);
-        while (matcher.find()) {
-            int line = getLineNumber(content, matcher.start());
-            violations.add(new LintingViolation(
-                getRuleId(),
-                "Else statement should use curly braces",
-                Severity.WARNING,
-                filePath,
-                line,
-                1
-            ));
+        while (pos < content.length()) {
+            char c = content.charAt(pos);
+            if (c == ';') {
+                return true;
+            }
+            if (c == '\n' || c == '\r') {
+                return false;
+            }
+            pos++;
         }
+        return false;
     }
     
-    private void checkLoopStatements(String content, String filePath, List<LintingViolation> violations) {
-        // Pattern for for loops without braces
-        Pattern forPattern = Pattern.compile("(?i)\\bfor\\s*\\([^)]+\\)\\s*(?!\\{)([^;\\r\\n]+;)", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Matcher matcher = forPattern.matcher(content);
-        while (matcher.find()) {
-            int line = getLineNumber(content, matcher.start());
-            violations.add(new LintingViolation(
-                getRuleId(),
-                "For loop should use curly braces",
-                Severity.WARNING,
-                filePath,
-                line,
-                1
-            ));
-        }
-        
-        // Pattern for while loops without braces
-        Pattern whilePattern = Pattern.compile("(?i)\\bwhile\\s*\\([^)]+\\)\\s*(?!\\{)([^;\\r\\n]+;)", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        matcher = whilePattern.matcher(content);
-        while (matcher.find()) {
-            int line = getLineNumber(content, matcher.start());
-            violations.add(new LintingViolation(
-                getRuleId(),
-                "While loop should use curly braces",
-                Severity.WARNING,
-                filePath,
-                line,
-                1
-            ));
-        }
+    private void addViolation(ParseResult parseResult, String keyword, int offset, List<LintingViolation> violations) {
+        violations.add(new LintingViolation(
+            getRuleId(),
+            MESSAGES.get(keyword),
+            Severity.WARNING,
+            parseResult.getFilePath(),
+            parseResult.getOutline().lineOf(offset),
+            1
+        ));
     }
     
-    private void checkTryCatchStatements(String content, String filePath, List<LintingViolation> violations) {
-        // Pattern for try statements without braces
-        Pattern tryPattern = Pattern.compile("(?i)\\btry\\s*(?!\\{)([^;\\r\\n]+;)", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Matcher matcher = tryPattern.matcher(content);
-        while (matcher.find()) {
-            int line = getLineNumber(content, matcher.start());
-            violations.add(new LintingViolation(
-                getRuleId(),
-                "Try statement should use curly braces",
-                Severity.WARNING,
-                filePath,
-                line,
-                1
-            ));
+    private int skipWhitespace(String content, int pos) {
+        while (pos < content.length() && Character.isWhitespace(content.charAt(pos))) {
+            pos++;
         }
-        
-        // Pattern for catch statements without braces
-        Pattern catchPattern = Pattern.compile("(?i)\\bcatch\\s*\\([^)]*\\)\\s*(?!\\{)([^;\\r\\n]+;)", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        matcher = catchPattern.matcher(content);
-        while (matcher.find()) {
-            int line = getLineNumber(content, matcher.start());
-            violations.add(new LintingViolation(
-                getRuleId(),
-                "Catch statement should use curly braces",
-                Severity.WARNING,
-                filePath,
-                line,
-                1
-            ));
+        return pos;
+    }
+    
+    private int skipWhitespaceBackwards(String content, int pos) {
+        while (pos > 0 && Character.isWhitespace(content.charAt(pos - 1))) {
+            pos--;
         }
+        return pos;
     }
     
-    private int getLineNumber(String content, int position) {
-        int line = 1;
-        for (int i = 0; i < position && i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                line++;
-            }
+    /**
+     * Start of the word ending at an offset; the word is empty if it is part of a member access
+     */
+    private int wordStart(String content, int end) {
+        int start = end;
+        while (start > 0 && Character.isLetterOrDigit(content.charAt(start - 1))) {
+            start--;
+        }
+        if (start > 0 && (content.charAt(start - 1) == '.' || content.charAt(start - 1) == '_')) {
+            return end;
         }
-        return line;
+        return start;
     }
 }
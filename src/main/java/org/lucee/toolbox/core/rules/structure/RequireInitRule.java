@@ -3,13 +3,16 @@ package org.lucee.toolbox.core.rules.structure;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.ComponentHeader;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
 import org.lucee.toolbox.core.rules.LintingRule;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Rule that enforces components to have an init() method
@@ -18,14 +21,6 @@ public class RequireInitRule implements LintingRule {
     
     private final ConfigurationManager config;
     
-    // Pattern to detect component declarations
-    private static final Pattern COMPONENT_PATTERN = 
-        Pattern.compile("^\\s*component", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-    
-    // Pattern to detect init() method
-    private static final Pattern INIT_METHOD_PATTERN = 
-        Pattern.compile("\\bfunction\\s+init\\s*\\(", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-    
     public RequireInitRule(ConfigurationManager config) {
         this.config = config;
     }
@@ -35,32 +30,50 @@ public class RequireInitRule implements LintingRule {
         return "REQUIRE_INIT";
     }
     
+    @Override
+    public boolean isEnabled() {
+        return config.shouldRequireInit();
+    }
+    
+    @Override
+    public Set<String> getRequiredLiterals() {
+        // Only components need an init() method
+        return Set.of("component");
+    }
+    
+    @Override
+    public Set<SourceKind> getApplicableKinds() {
+        // Templates have no constructor
+        return SourceKind.components();
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Function declarations from the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        if (!config.shouldRequireInit()) {
-            return violations;
-        }
-        
         // Only check .cfc files
         if (!parseResult.getFilePath().toLowerCase().endsWith(".cfc")) {
             return violations;
         }
         
-        String content = parseResult.getContent();
+        SourceOutline outline = parseResult.getOutline();
         
-        // Check if this is a component
-        Matcher componentMatcher = COMPONENT_PATTERN.matcher(content);
-        if (!componentMatcher.find()) {
+        // Check if this is a script component
+        ComponentHeader header = outline.getComponent();
+        if (header == null || header.isInterface()) {
             return violations; // Not a component
         }
         
         // Check if it has an init() method
-        Matcher initMatcher = INIT_METHOD_PATTERN.matcher(content);
-        if (!initMatcher.find()) {
-            // Check if it might be an interface or abstract class (which might not need init)
-            if (isInterfaceOrAbstract(content)) {
+        if (outline.findFunction("init") == null) {
+            // Check if it might be an interface (function declarations without implementations)
+            if (outline.hasOnlyBodilessFunctions()) {
                 return violations;
             }
             
@@ -76,38 +89,4 @@ public class RequireInitRule implements LintingRule {
         
         return violations;
     }
-    
-    private boolean isInterfaceOrAbstract(String content) {
-        // Check if it's an interface (only has function declarations, no implementations)
-        Pattern functionImplPattern = Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\([^)]*\\)\\s*\\{", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Pattern functionDeclPattern = Pattern.compile("function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\([^)]*\\)\\s*;", 
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-        
-        Matcher implMatcher = functionImplPattern.matcher(content);
-        Matcher declMatcher = functionDeclPattern.matcher(content);
-        
-        int implementations = 0;
-        int declarations = 0;
-        
-        while (implMatcher.find()) {
-            implementations++;
-        }
-        
-        while (declMatcher.find()) {
-            declarations++;
-        }
-        
-        // If it has declarations but no implementations, likely an interface
-        return declarations > 0 && implementations == 0;
-    }
-    
-    private boolean shouldRequireInit() {
-        try {
-            return config.getBooleanValue("linting.rules.codeStructure.requireInit", true);
-        } catch (Exception e) {
-            return true; // Default to requiring init
-        }
-    }
 }
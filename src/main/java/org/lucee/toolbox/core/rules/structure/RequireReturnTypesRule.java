@@ -3,13 +3,15 @@ package org.lucee.toolbox.core.rules.structure;
 import org.lucee.toolbox.core.config.ConfigurationManager;
 import org.lucee.toolbox.core.model.LintingViolation;
 import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
 import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+import org.lucee.toolbox.core.parser.outline.FunctionDeclaration;
 import org.lucee.toolbox.core.rules.LintingRule;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Rule that enforces function return type annotations
@@ -18,16 +20,6 @@ public class RequireReturnTypesRule implements LintingRule {
     
     private final ConfigurationManager config;
     
-    // Pattern to match functions without return types
-    private static final Pattern FUNCTION_WITHOUT_RETURN_TYPE_PATTERN = 
-        Pattern.compile("(?i)(?:^|\\s)(?:(public|private|package|remote)\\s+)?(?:(static)\\s+)?function\\s+([a-zA-Z_][a-zA-Z0-9_]*)\\s*\\(", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-    
-    // Pattern to match functions WITH return types
-    private static final Pattern FUNCTION_WITH_RETURN_TYPE_PATTERN = 
-        Pattern.compile("(?i)(?:^|\\s)(?:(public|private|package|remote)\\s+)?(?:(static)\\s+)?([a-zA-Z_][a-zA-Z0-9_]*)\\s+function\\s+([a-zA-Z_][a-zA-Z0-9_]*)\\s*\\(", 
-        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
-    
     public RequireReturnTypesRule(ConfigurationManager config) {
         this.config = config;
     }
@@ -37,38 +29,48 @@ public class RequireReturnTypesRule implements LintingRule {
         return "REQUIRE_RETURN_TYPES";
     }
     
+    @Override
+    public boolean isEnabled() {
+        return config.shouldRequireReturnTypes();
+    }
+    
+    @Override
+    public Set<String> getRequiredLiterals() {
+        // Only function declarations are checked
+        return Set.of("function");
+    }
+    
+    @Override
+    public Set<SourceKind> getApplicableKinds() {
+        // Checks script function declarations only
+        return SourceKind.withScript();
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Function declarations from the outline
+        return AnalysisLevel.OUTLINE;
+    }
+    
     @Override
     public List<LintingViolation> analyze(ParseResult parseResult) {
         List<LintingViolation> violations = new ArrayList<>();
         
-        if (!config.shouldRequireReturnTypes()) {
-            return violations;
-        }
-        
-        String content = parseResult.getContent();
-        
-        // Find all functions
-        Matcher functionMatcher = FUNCTION_WITHOUT_RETURN_TYPE_PATTERN.matcher(content);
-        
-        while (functionMatcher.find()) {
-            String functionName = functionMatcher.group(3);
+        for (FunctionDeclaration function : parseResult.getOutline().getFunctions()) {
+            String functionName = function.getName();
             
             // Skip constructor functions and event handlers
             if (isSpecialFunction(functionName)) {
                 continue;
             }
             
-            // Check if this function actually has a return type by checking if it matches the "with return type" pattern
-            String functionDeclaration = extractFunctionDeclaration(content, functionMatcher.start());
-            
-            if (!hasReturnType(functionDeclaration)) {
-                int line = getLineNumber(content, functionMatcher.start());
+            if (function.getReturnType() == null) {
                 violations.add(new LintingViolation(
                     getRuleId(),
                     String.format("Function '%s' should specify a return type", functionName),
                     Severity.WARNING,
                     parseResult.getFilePath(),
-                    line,
+                    function.getStartLine(),
                     1
                 ));
             }
@@ -91,31 +93,4 @@ public class RequireReturnTypesRule implements LintingRule {
                functionName.equals("onMissingMethod") ||
                functionName.equals("onMissingTemplate");
     }
-    
-    private String extractFunctionDeclaration(String content, int startPos) {
-        // Extract the function declaration line
-        int lineStart = content.lastIndexOf('\n', startPos) + 1;
-        int lineEnd = content.indexOf('\n', startPos);
-        if (lineEnd == -1) lineEnd = content.length();
-        
-        return content.substring(lineStart, lineEnd);
-    }
-    
-    private boolean hasReturnType(String functionDeclaration) {
-        // Check if the function declaration has a return type
-        // Pattern: [access] [static] returnType function functionName(
-        Pattern withTypePattern = Pattern.compile("(?i)(?:^|\\s)(?:(?:public|private|package|remote)\\s+)?(?:static\\s+)?([a-zA-Z_][a-zA-Z0-9_]*)\\s+function\\s+[a-zA-Z_][a-zA-Z0-9_]*\\s*\\(");
-        
-        return withTypePattern.matcher(functionDeclaration).find();
-    }
-    
-    private int getLineNumber(String content, int position) {
-        int line = 1;
-        for (int i = 0; i < position && i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                line++;
-            }
-        }
-        return line;
-    }
 }
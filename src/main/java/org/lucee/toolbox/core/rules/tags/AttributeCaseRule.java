@@ -0,0 +1,62 @@
+package org.lucee.toolbox.core.rules.tags;
+
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
+import org.lucee.toolbox.core.parser.tag.TagHandler;
+import org.lucee.toolbox.core.rules.TagAwareRule;
+
+import java.util.List;
+
+/**
+ * Rule that enforces the configured case of CFML tag attribute names, such as name= rather than NAME=
+ */
+public class AttributeCaseRule implements TagAwareRule {
+    
+    private final String attributeCase;
+    
+    public AttributeCaseRule(ConfigurationManager config) {
+        this.attributeCase = config.getAttributeCase();
+    }
+    
+    @Override
+    public String getRuleId() {
+        return "ATTRIBUTE_CASE";
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return TagCaseRule.isSupportedCase(attributeCase);
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Tag events, positioned with the outline's line table
+        return AnalysisLevel.OUTLINE;
+    }
+    
+    @Override
+    public TagHandler newHandler(ParseResult parseResult, List<LintingViolation> violations) {
+        String content = parseResult.getContent();
+        SourceOutline outline = parseResult.getOutline();
+        return new TagHandler() {
+            @Override
+            public void attribute(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+                String name = content.substring(nameStart, nameEnd);
+                if (!TagCaseRule.hasCase(name, attributeCase)) {
+                    violations.add(new LintingViolation(
+                        getRuleId(),
+                        String.format("Attribute name '%s' should be %s", name, attributeCase),
+                        Severity.INFO,
+                        parseResult.getFilePath(),
+                        outline.lineOf(nameStart),
+                        outline.columnOf(nameStart)
+                    ));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package org.lucee.toolbox.core.rules.tags;
+
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.model.Severity;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.outline.SourceOutline;
+import org.lucee.toolbox.core.parser.tag.TagHandler;
+import org.lucee.toolbox.core.rules.TagAwareRule;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rule that enforces the configured case of CFML tag names, such as &lt;cfoutput&gt; rather than &lt;CFOUTPUT&gt;
+ */
+public class TagCaseRule implements TagAwareRule {
+    
+    private final String tagCase;
+    
+    public TagCaseRule(ConfigurationManager config) {
+        this.tagCase = config.getTagCase();
+    }
+    
+    @Override
+    public String getRuleId() {
+        return "TAG_CASE";
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return isSupportedCase(tagCase);
+    }
+    
+    @Override
+    public AnalysisLevel getAnalysisLevel() {
+        // Tag events, positioned with the outline's line table
+        return AnalysisLevel.OUTLINE;
+    }
+    
+    @Override
+    public TagHandler newHandler(ParseResult parseResult, List<LintingViolation> violations) {
+        String content = parseResult.getContent();
+        SourceOutline outline = parseResult.getOutline();
+        return new TagHandler() {
+            @Override
+            public void startTag(int start, int nameStart, int nameEnd) {
+                check(nameStart, nameEnd);
+            }
+            
+            @Override
+            public void endTag(int start, int nameStart, int nameEnd, int end) {
+                check(nameStart, nameEnd);
+            }
+            
+            private void check(int nameStart, int nameEnd) {
+                String name = content.substring(nameStart, nameEnd);
+                if (!hasCase(name, tagCase)) {
+                    violations.add(new LintingViolation(
+                        getRuleId(),
+                        String.format("Tag name '%s' should be %s", name, tagCase),
+                        Severity.INFO,
+                        parseResult.getFilePath(),
+                        outline.lineOf(nameStart),
+                        outline.columnOf(nameStart)
+                    ));
+                }
+            }
+        };
+    }
+    
+    /**
+     * Whether a case setting is one these rules can check: lowercase or uppercase
+     */
+    static boolean isSupportedCase(String setting) {
+        return "lowercase".equals(setting) || "uppercase".equals(setting);
+    }
+    
+    /**
+     * Whether a name is all in the given case, ignoring characters without case
+     */
+    static boolean hasCase(String name, String setting) {
+        String expected = "uppercase".equals(setting) ? name.toUpperCase(Locale.ROOT) : name.toLowerCase(Locale.ROOT);
+        return name.equals(expected);
+    }
+}
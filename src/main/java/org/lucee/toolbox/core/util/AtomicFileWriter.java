@@ -0,0 +1,54 @@
+package org.lucee.toolbox.core.util;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+/**
+ * Writes files by staging the new content in a sibling temp file and moving it into place,
+ * so an interrupted run never leaves a truncated source file behind
+ */
+public class AtomicFileWriter {
+    
+    public static final String BACKUP_SUFFIX = ".bak";
+    
+    /**
+     * Replace the target file with the given bytes, optionally keeping a backup of the original
+     */
+    public static void write(Path target, byte[] bytes, boolean createBackup) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(directory, "." + target.getFileName(), ".tmp");
+        
+        try {
+            Files.write(tempFile, bytes);
+            copyPermissions(target, tempFile);
+            
+            if (createBackup) {
+                Path backup = target.resolveSibling(target.getFileName() + BACKUP_SUFFIX);
+                Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+            
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    /**
+     * Temp files are created owner-only, so carry over the original file mode where supported
+     */
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (sourceView != null && targetView != null && Files.exists(source)) {
+            targetView.setPermissions(sourceView.readAttributes().permissions());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.lucee.toolbox.core.util;
+
+/**
+ * Read-only view of a character sequence that charges every character read to a shared budget.
+ * Regex matching reads its input through {@link #charAt(int)}, so the budget bounds how much a
+ * backtracking match can do, and the match also stops when its thread is interrupted.
+ */
+public final class BudgetedCharSequence implements CharSequence {
+    
+    private final CharSequence source;
+    private final Budget budget;
+    
+    public BudgetedCharSequence(CharSequence source, Budget budget) {
+        this.source = source;
+        this.budget = budget;
+    }
+    
+    @Override
+    public char charAt(int index) {
+        budget.charge();
+        return source.charAt(index);
+    }
+    
+    @Override
+    public int length() {
+        return source.length();
+    }
+    
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new BudgetedCharSequence(source.subSequence(start, end), budget);
+    }
+    
+    @Override
+    public String toString() {
+        return source.toString();
+    }
+    
+    /**
+     * Number of character reads allowed across every sequence that shares it. Not thread-safe,
+     * a budget belongs to the thread that runs the match.
+     */
+    public static final class Budget {
+        
+        // Interrupts are checked every this many reads
+        private static final long INTERRUPT_CHECK_MASK = 0xFFF;
+        
+        private final long limit;
+        private final long startNanos;
+        private long used;
+        
+        public Budget(long limit) {
+            this.limit = limit;
+            this.startNanos = System.nanoTime();
+        }
+        
+        public long getLimit() {
+            return limit;
+        }
+        
+        public long getUsed() {
+            return used;
+        }
+        
+        void charge() {
+            used++;
+            if (used > limit) {
+                throw new RegexBudgetExceededException(
+                        "regex exceeded its budget of " + limit + " character reads after " + elapsedMillis() + " ms",
+                        limit, elapsedMillis());
+            }
+            if ((used & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new RegexBudgetExceededException(
+                        "regex interrupted after " + used + " character reads and " + elapsedMillis() + " ms",
+                        limit, elapsedMillis());
+            }
+        }
+        
+        private long elapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.lucee.toolbox.core.util;
+
+/**
+ * 64-bit hashes of file contents, for caches keyed by what a file contains rather than where it is.
+ * FNV-1a over the UTF-16 code units with the MurmurHash3 fmix64 finalizer, so similar contents spread over
+ * all bits. The incremental methods let other hashes, such as violation fingerprints, share the same function.
+ */
+public final class ContentHash {
+    
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char FIELD_SEPARATOR = '\u001f';
+    
+    private ContentHash() {
+        // Utility class
+    }
+    
+    /**
+     * Hash of a content
+     */
+    public static long of(String content) {
+        return finish(hashChars(start(), content));
+    }
+    
+    /**
+     * Hash of a content in some context, such as the parser that read it
+     */
+    public static long of(String context, String content) {
+        return finish(hashChars(separate(hashChars(start(), context)), content));
+    }
+    
+    /**
+     * Initial state for hashing incrementally
+     */
+    public static long start() {
+        return FNV_OFFSET_BASIS;
+    }
+    
+    public static long hashChar(long hash, char c) {
+        hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+        return (hash ^ (c >>> 8)) * FNV_PRIME;
+    }
+    
+    public static long hashChars(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash = hashChar(hash, text.charAt(i));
+        }
+        return hash;
+    }
+    
+    /**
+     * Mark the end of a field, so ("ab", "c") and ("a", "bc") hash differently
+     */
+    public static long separate(long hash) {
+        return hashChar(hash, FIELD_SEPARATOR);
+    }
+    
+    /**
+     * Final avalanche step (MurmurHash3 fmix64) over an incremental state
+     */
+    public static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
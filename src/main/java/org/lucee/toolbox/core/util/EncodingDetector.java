@@ -40,17 +40,27 @@ public class EncodingDetector {
      * Read file content with automatic encoding detection, using fallback encoding if detection fails
      */
     public static String readFileWithEncodingDetection(Path file, Charset fallbackEncoding) throws IOException {
+        return readFile(file, fallbackEncoding).getContent();
+    }
+    
+    /**
+     * Read file content together with the detected encoding and byte order mark,
+     * so the content can later be written back in the same form
+     */
+    public static DecodedFile readFile(Path file, Charset fallbackEncoding) throws IOException {
         // First, try to detect BOM (Byte Order Mark)
         byte[] fileBytes = Files.readAllBytes(file);
         if (fileBytes.length == 0) {
-            return "";
+            return new DecodedFile("", StandardCharsets.UTF_8, new byte[0]);
         }
         
         // Check for BOM
         Charset bomDetectedEncoding = detectBOM(fileBytes);
         if (bomDetectedEncoding != null) {
             logger.debug("Detected BOM encoding for file {}: {}", file, bomDetectedEncoding.name());
-            return new String(removeByteOrderMark(fileBytes), bomDetectedEncoding);
+            byte[] contentBytes = removeByteOrderMark(fileBytes);
+            byte[] bom = Arrays.copyOf(fileBytes, fileBytes.length - contentBytes.length);
+            return new DecodedFile(new String(contentBytes, bomDetectedEncoding), bomDetectedEncoding, bom);
         }
         
         // Try different encodings
@@ -65,7 +75,7 @@ public class EncodingDetector {
                         if (!encoding.equals(StandardCharsets.UTF_8)) {
                             logger.debug("Detected encoding for file {}: {}", file, encoding.name());
                         }
-                        return content;
+                        return new DecodedFile(content, withoutImplicitBom(encoding), new byte[0]);
                     }
                 }
             } catch (Exception e) {
@@ -76,7 +86,14 @@ public class EncodingDetector {
         
         // Fallback: use the specified fallback encoding
         logger.warn("Could not detect encoding for file {}, using fallback: {}", file, fallbackEncoding.name());
-        return new String(fileBytes, fallbackEncoding);
+        return new DecodedFile(new String(fileBytes, fallbackEncoding), withoutImplicitBom(fallbackEncoding), new byte[0]);
+    }
+    
+    /**
+     * Java's UTF-16 encoder always writes a BOM; BOM-less UTF-16 is decoded big-endian, so encode it that way too
+     */
+    private static Charset withoutImplicitBom(Charset encoding) {
+        return StandardCharsets.UTF_16.equals(encoding) ? StandardCharsets.UTF_16BE : encoding;
     }
     
     /**
@@ -204,4 +221,36 @@ public class EncodingDetector {
         // Default fallback
         return StandardCharsets.UTF_8.name();
     }
+    
+    /**
+     * File content with the encoding and byte order mark it was read with
+     */
+    public static class DecodedFile {
+        private final String content;
+        private final Charset charset;
+        private final byte[] byteOrderMark;
+        
+        public DecodedFile(String content, Charset charset, byte[] byteOrderMark) {
+            this.content = content;
+            this.charset = charset;
+            this.byteOrderMark = byteOrderMark;
+        }
+        
+        public String getContent() { return content; }
+        public Charset getCharset() { return charset; }
+        public boolean hasByteOrderMark() { return byteOrderMark.length > 0; }
+        
+        /**
+         * Encode new content with the original charset, restoring the original byte order mark
+         */
+        public byte[] encode(String newContent) {
+            byte[] contentBytes = newContent.getBytes(charset);
+            if (byteOrderMark.length == 0) {
+                return contentBytes;
+            }
+            byte[] bytes = Arrays.copyOf(byteOrderMark, byteOrderMark.length + contentBytes.length);
+            System.arraycopy(contentBytes, 0, bytes, byteOrderMark.length, contentBytes.length);
+            return bytes;
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package org.lucee.toolbox.core.util;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * Version of the code a class was loaded from, for caches that must not outlive an upgrade.
+ * The jar manifest's Implementation-Version when there is one, otherwise the modification time of
+ * the class file, so development builds are told apart as well. Computed once per class.
+ */
+public final class ImplementationVersion {
+    
+    private static final ClassValue<String> VERSIONS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return compute(type);
+        }
+    };
+    
+    private ImplementationVersion() {
+        // Utility class
+    }
+    
+    public static String of(Class<?> type) {
+        return VERSIONS.get(type);
+    }
+    
+    private static String compute(Class<?> type) {
+        Package pkg = type.getPackage();
+        if (pkg != null && pkg.getImplementationVersion() != null) {
+            return pkg.getImplementationVersion();
+        }
+        URL resource = type.getResource(type.getSimpleName() + ".class");
+        if (resource != null) {
+            try {
+                URLConnection connection = resource.openConnection();
+                connection.setUseCaches(false);
+                long modified = connection.getLastModified();
+                if (modified > 0) {
+                    return "t" + modified;
+                }
+            } catch (IOException e) {
+                // Fall through to unknown
+            }
+        }
+        return "unknown";
+    }
+}
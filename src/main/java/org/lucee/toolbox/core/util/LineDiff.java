@@ -0,0 +1,373 @@
+package org.lucee.toolbox.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Line-level diff using Myers' O(ND) algorithm with the linear space refinement.
+ * Lines are interned to int ids up front, so the search itself only compares ints.
+ * Line terminators are part of a line, so line ending changes show up as differences.
+ */
+public final class LineDiff {
+    
+    /**
+     * A run of changed lines. Positions are 0-based line indexes, end exclusive.
+     * An empty original range is a pure insertion, an empty revised range a pure deletion.
+     */
+    public static final class Hunk {
+        private final int originalStart;
+        private final int originalEnd;
+        private final int revisedStart;
+        private final int revisedEnd;
+        
+        public Hunk(int originalStart, int originalEnd, int revisedStart, int revisedEnd) {
+            this.originalStart = originalStart;
+            this.originalEnd = originalEnd;
+            this.revisedStart = revisedStart;
+            this.revisedEnd = revisedEnd;
+        }
+        
+        public int getOriginalStart() {
+            return originalStart;
+        }
+        
+        public int getOriginalEnd() {
+            return originalEnd;
+        }
+        
+        public int getRevisedStart() {
+            return revisedStart;
+        }
+        
+        public int getRevisedEnd() {
+            return revisedEnd;
+        }
+        
+        public int getOriginalLineCount() {
+            return originalEnd - originalStart;
+        }
+        
+        public int getRevisedLineCount() {
+            return revisedEnd - revisedStart;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("@@ -%d,%d +%d,%d @@", originalStart + 1, getOriginalLineCount(),
+                    revisedStart + 1, getRevisedLineCount());
+        }
+    }
+    
+    private final String original;
+    private final String revised;
+    private final int[] originalLineStarts;
+    private final int[] revisedLineStarts;
+    private final List<Hunk> hunks;
+    
+    private LineDiff(String original, String revised) {
+        this.original = original;
+        this.revised = revised;
+        this.originalLineStarts = lineStarts(original);
+        this.revisedLineStarts = lineStarts(revised);
+        
+        LineTable table = new LineTable(originalLineStarts.length + revisedLineStarts.length);
+        int[] a = table.intern(original, originalLineStarts);
+        int[] b = table.intern(revised, revisedLineStarts);
+        this.hunks = new Myers(a, b).run();
+    }
+    
+    /**
+     * Diff two texts line by line
+     */
+    public static LineDiff of(String original, String revised) {
+        return new LineDiff(original, revised);
+    }
+    
+    /**
+     * Diff two sequences of line ids
+     */
+    public static List<Hunk> diff(int[] a, int[] b) {
+        return new Myers(a, b).run();
+    }
+    
+    public List<Hunk> getHunks() {
+        return hunks;
+    }
+    
+    public boolean isEmpty() {
+        return hunks.isEmpty();
+    }
+    
+    /**
+     * Original lines covered by a hunk, including their line terminators
+     */
+    public String originalText(Hunk hunk) {
+        return original.substring(originalLineStarts[hunk.originalStart], originalLineStarts[hunk.originalEnd]);
+    }
+    
+    /**
+     * Revised lines covered by a hunk, including their line terminators
+     */
+    public String revisedText(Hunk hunk) {
+        return revised.substring(revisedLineStarts[hunk.revisedStart], revisedLineStarts[hunk.revisedEnd]);
+    }
+    
+    /**
+     * Offsets of each line start, followed by the content length as an end sentinel
+     */
+    public static int[] lineStarts(String content) {
+        int[] starts = new int[16];
+        int count = 0;
+        int length = content.length();
+        int start = 0;
+        while (start < length) {
+            if (count + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[count++] = start;
+            int newline = content.indexOf('\n', start);
+            start = newline < 0 ? length : newline + 1;
+        }
+        starts[count] = length;
+        return Arrays.copyOf(starts, count + 1);
+    }
+    
+    /**
+     * Open addressing table mapping line contents to dense int ids without creating substrings
+     */
+    private static final class LineTable {
+        private final int[] slots;
+        private final int mask;
+        private String[] sources = new String[64];
+        private int[] starts = new int[64];
+        private int[] ends = new int[64];
+        private int[] hashes = new int[64];
+        private int size = 0;
+        
+        LineTable(int expectedLines) {
+            int capacity = Integer.highestOneBit(Math.max(16, expectedLines * 2 - 1)) << 1;
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+        }
+        
+        int[] intern(String content, int[] lineStarts) {
+            int[] ids = new int[lineStarts.length - 1];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = intern(content, lineStarts[i], lineStarts[i + 1]);
+            }
+            return ids;
+        }
+        
+        private int intern(String content, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + content.charAt(i);
+            }
+            
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (slots[slot] != 0) {
+                int id = slots[slot] - 1;
+                if (hashes[id] == hash && ends[id] - starts[id] == end - start
+                        && sources[id].regionMatches(starts[id], content, start, end - start)) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+            
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            sources[size] = content;
+            starts[size] = start;
+            ends[size] = end;
+            hashes[size] = hash;
+            slots[slot] = ++size;
+            return size - 1;
+        }
+    }
+    
+    /**
+     * Divide and conquer on the middle snake, marking deleted and inserted lines.
+     * Lines that occur on one side only can never match, so they are marked up front and
+     * left out of the search, which keeps heavily rewritten files cheap to diff.
+     */
+    private static final class Myers {
+        private final int originalLength;
+        private final int revisedLength;
+        private final boolean[] deleted;
+        private final boolean[] inserted;
+        private final int[] a;
+        private final int[] b;
+        private final int[] aIndex;
+        private final int[] bIndex;
+        private final int[] forward;
+        private final int[] backward;
+        
+        Myers(int[] a, int[] b) {
+            this.originalLength = a.length;
+            this.revisedLength = b.length;
+            this.deleted = new boolean[a.length];
+            this.inserted = new boolean[b.length];
+            
+            int ids = 0;
+            for (int id : a) {
+                ids = Math.max(ids, id + 1);
+            }
+            for (int id : b) {
+                ids = Math.max(ids, id + 1);
+            }
+            boolean[] inA = new boolean[ids];
+            boolean[] inB = new boolean[ids];
+            for (int id : a) {
+                inA[id] = true;
+            }
+            for (int id : b) {
+                inB[id] = true;
+            }
+            
+            this.aIndex = new int[a.length];
+            this.a = keepMatchable(a, inB, deleted, aIndex);
+            this.bIndex = new int[b.length];
+            this.b = keepMatchable(b, inA, inserted, bIndex);
+            int size = this.a.length + this.b.length + 5;
+            this.forward = new int[size];
+            this.backward = new int[size];
+        }
+        
+        private static int[] keepMatchable(int[] lines, boolean[] inOther, boolean[] changed, int[] index) {
+            int[] kept = new int[lines.length];
+            int count = 0;
+            for (int i = 0; i < lines.length; i++) {
+                if (inOther[lines[i]]) {
+                    index[count] = i;
+                    kept[count++] = lines[i];
+                } else {
+                    changed[i] = true;
+                }
+            }
+            return Arrays.copyOf(kept, count);
+        }
+        
+        List<Hunk> run() {
+            compare(0, a.length, 0, b.length);
+            
+            List<Hunk> hunks = new ArrayList<>();
+            int i = 0;
+            int j = 0;
+            while (i < originalLength || j < revisedLength) {
+                if ((i < originalLength && deleted[i]) || (j < revisedLength && inserted[j])) {
+                    int originalStart = i;
+                    int revisedStart = j;
+                    while (i < originalLength && deleted[i]) {
+                        i++;
+                    }
+                    while (j < revisedLength && inserted[j]) {
+                        j++;
+                    }
+                    hunks.add(new Hunk(originalStart, i, revisedStart, j));
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            return hunks;
+        }
+        
+        private void markDeleted(int from, int to) {
+            for (int i = from; i < to; i++) {
+                deleted[aIndex[i]] = true;
+            }
+        }
+        
+        private void markInserted(int from, int to) {
+            for (int i = from; i < to; i++) {
+                inserted[bIndex[i]] = true;
+            }
+        }
+        
+        private void compare(int aStart, int aEnd, int bStart, int bEnd) {
+            while (aStart < aEnd && bStart < bEnd && a[aStart] == b[bStart]) {
+                aStart++;
+                bStart++;
+            }
+            while (aStart < aEnd && bStart < bEnd && a[aEnd - 1] == b[bEnd - 1]) {
+                aEnd--;
+                bEnd--;
+            }
+            
+            if (aStart == aEnd || bStart == bEnd) {
+                markDeleted(aStart, aEnd);
+                markInserted(bStart, bEnd);
+                return;
+            }
+            
+            long split = middleSnake(aStart, aEnd, bStart, bEnd);
+            int x = (int) (split >>> 32);
+            int y = (int) split;
+            if ((x == 0 && y == 0) || (x == aEnd - aStart && y == bEnd - bStart)) {
+                // No progress possible, treat the region as replaced
+                markDeleted(aStart, aEnd);
+                markInserted(bStart, bEnd);
+                return;
+            }
+            compare(aStart, aStart + x, bStart, bStart + y);
+            compare(aStart + x, aEnd, bStart + y, bEnd);
+        }
+        
+        /**
+         * Find a split point on the optimal path, relative to the region start, packed as x << 32 | y
+         */
+        private long middleSnake(int aStart, int aEnd, int bStart, int bEnd) {
+            int n = aEnd - aStart;
+            int m = bEnd - bStart;
+            int delta = n - m;
+            boolean odd = (delta & 1) != 0;
+            int max = (n + m + 1) / 2;
+            int offset = max + 1;
+            forward[offset + 1] = 0;
+            backward[offset + 1] = 0;
+            
+            for (int d = 0; d <= max; d++) {
+                for (int k = -d; k <= d; k += 2) {
+                    int x = (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1]))
+                            ? forward[offset + k + 1]
+                            : forward[offset + k - 1] + 1;
+                    int y = x - k;
+                    while (x < n && y < m && a[aStart + x] == b[bStart + y]) {
+                        x++;
+                        y++;
+                    }
+                    forward[offset + k] = x;
+                    
+                    int reverseK = delta - k;
+                    if (odd && reverseK >= -(d - 1) && reverseK <= d - 1 && x + backward[offset + reverseK] >= n) {
+                        return ((long) x << 32) | y;
+                    }
+                }
+                
+                for (int k = -d; k <= d; k += 2) {
+                    int x = (k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1]))
+                            ? backward[offset + k + 1]
+                            : backward[offset + k - 1] + 1;
+                    int y = x - k;
+                    while (x < n && y < m && a[aEnd - 1 - x] == b[bEnd - 1 - y]) {
+                        x++;
+                        y++;
+                    }
+                    backward[offset + k] = x;
+                    
+                    int forwardK = delta - k;
+                    if (!odd && forwardK >= -d && forwardK <= d && forward[offset + forwardK] + x >= n) {
+                        int forwardX = forward[offset + forwardK];
+                        return ((long) forwardX << 32) | (forwardX - forwardK);
+                    }
+                }
+            }
+            return ((long) n << 32) | m;
+        }
+    }
+}
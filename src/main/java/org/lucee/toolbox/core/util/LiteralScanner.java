@@ -0,0 +1,168 @@
+package org.lucee.toolbox.core.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Finds which of a fixed set of ASCII literals occur in a text, in a single pass.
+ * The literals are compiled into an Aho-Corasick automaton with every transition resolved up front,
+ * so scanning costs one table lookup per character however many literals there are.
+ * Matching ignores ASCII case, the same folding as a {@link java.util.regex.Pattern#CASE_INSENSITIVE} regex.
+ */
+public final class LiteralScanner {
+    
+    private static final int ALPHABET = 128;
+    
+    private final List<String> literals;
+    private final Map<String, Integer> ids;
+    private final int[][] transitions;
+    private final int[][] outputs;
+    
+    public LiteralScanner(Collection<String> literals) {
+        this.ids = new LinkedHashMap<>();
+        for (String literal : literals) {
+            String folded = fold(literal);
+            if (folded.isEmpty()) {
+                throw new IllegalArgumentException("Literal must not be empty");
+            }
+            ids.putIfAbsent(folded, ids.size());
+        }
+        this.literals = Collections.unmodifiableList(new ArrayList<>(ids.keySet()));
+        
+        // Trie of the folded literals
+        List<int[]> next = new ArrayList<>();
+        List<int[]> out = new ArrayList<>();
+        next.add(newRow());
+        out.add(new int[0]);
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            String literal = entry.getKey();
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                if (next.get(state)[c] < 0) {
+                    next.get(state)[c] = next.size();
+                    next.add(newRow());
+                    out.add(new int[0]);
+                }
+                state = next.get(state)[c];
+            }
+            out.set(state, append(out.get(state), entry.getValue()));
+        }
+        
+        // Breadth first over the trie, turning failure links into direct transitions
+        int[] fail = new int[next.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = next.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) {
+                root[c] = 0;
+            } else {
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            int[] row = next.get(state);
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = row[c];
+                int fallback = next.get(fail[state])[c];
+                if (child < 0) {
+                    row[c] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    out.set(child, merge(out.get(child), out.get(fallback)));
+                    queue.add(child);
+                }
+            }
+        }
+        
+        this.transitions = next.toArray(new int[0][]);
+        this.outputs = out.toArray(new int[0][]);
+    }
+    
+    /**
+     * The distinct literals, lower-cased, indexed by their bit in {@link #scan(CharSequence)}
+     */
+    public List<String> getLiterals() {
+        return literals;
+    }
+    
+    /**
+     * Bit index of a literal, or -1 if the scanner was not built with it
+     */
+    public int indexOf(String literal) {
+        Integer id = ids.get(fold(literal));
+        return id != null ? id : -1;
+    }
+    
+    /**
+     * Scan a text and return the set of literals found in it.
+     * Stops as soon as every literal has been seen.
+     */
+    public BitSet scan(CharSequence text) {
+        BitSet found = new BitSet(literals.size());
+        int remaining = literals.size();
+        int[][] table = transitions;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length && remaining > 0; i++) {
+            char c = text.charAt(i);
+            if (c >= ALPHABET) {
+                // No literal contains a non-ASCII character
+                state = 0;
+                continue;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            state = table[state][c];
+            for (int id : outputs[state]) {
+                if (!found.get(id)) {
+                    found.set(id);
+                    remaining--;
+                }
+            }
+        }
+        return found;
+    }
+    
+    private static String fold(String literal) {
+        StringBuilder folded = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c >= ALPHABET) {
+                throw new IllegalArgumentException("Literal must be ASCII: " + literal);
+            }
+            folded.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return folded.toString();
+    }
+    
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+    
+    private static int[] append(int[] ids, int id) {
+        int[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+    
+    private static int[] merge(int[] own, int[] inherited) {
+        if (inherited.length == 0) {
+            return own;
+        }
+        int[] result = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, result, own.length, inherited.length);
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package org.lucee.toolbox.core.util;
+
+/**
+ * Detects whether the toolbox runs as a GraalVM native executable.
+ * The native build leaves out the optional Lucee and BoxLang engines, so features that need
+ * them check this first instead of failing on a missing class or script engine.
+ */
+public final class NativeImage {
+    
+    private static final boolean RUNTIME = "runtime".equals(System.getProperty("org.graalvm.nativeimage.imagecode"));
+    
+    private NativeImage() {
+        // Utility class
+    }
+    
+    /**
+     * True inside a native executable, false on the JVM and during the image build
+     */
+    public static boolean isRuntime() {
+        return RUNTIME;
+    }
+}
@@ -0,0 +1,32 @@
+package org.lucee.toolbox.core.util;
+
+/**
+ * Thrown when a guarded regex match reads more characters than its budget allows, or its thread is interrupted
+ */
+public class RegexBudgetExceededException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final long budget;
+    private final long elapsedMillis;
+    
+    RegexBudgetExceededException(String message, long budget, long elapsedMillis) {
+        super(message);
+        this.budget = budget;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    /**
+     * Number of character reads the match was allowed
+     */
+    public long getBudget() {
+        return budget;
+    }
+    
+    /**
+     * Time from the start of the budget to the abort
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,47 @@
+package org.lucee.toolbox.core.util;
+
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs regex matches under a per-thread budget of character reads.
+ * Rules create their matchers through {@link #matcher(Pattern, CharSequence)}, and the rule engine
+ * runs each rule inside {@link #withBudget(long, Supplier)}, so a pathological backtracking match
+ * aborts with a {@link RegexBudgetExceededException} instead of holding a worker thread.
+ * Outside a budget, matchers run unguarded.
+ */
+public final class RegexGuard {
+    
+    private static final ThreadLocal<BudgetedCharSequence.Budget> ACTIVE = new ThreadLocal<>();
+    
+    private RegexGuard() {
+        // Utility class
+    }
+    
+    /**
+     * A matcher for the input, charged to the current thread's budget if one is active
+     */
+    public static Matcher matcher(Pattern pattern, CharSequence input) {
+        BudgetedCharSequence.Budget budget = ACTIVE.get();
+        return pattern.matcher(budget == null ? input : new BudgetedCharSequence(input, budget));
+    }
+    
+    /**
+     * Run a task with a fresh budget of character reads shared by every guarded matcher it creates
+     * @throws RegexBudgetExceededException if the task's matches read more than the budget
+     */
+    public static <T> T withBudget(long limit, Supplier<T> task) {
+        BudgetedCharSequence.Budget previous = ACTIVE.get();
+        ACTIVE.set(new BudgetedCharSequence.Budget(limit));
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+}
@@ -94,13 +94,12 @@ public class ConsoleFormatter implements OutputFormatter {
                           .append(change.getChangeType())
                           .append("]\n");
                     
-                    // Show before/after if available
+                    // Show the changed lines if available
                     if (change.getOriginalText() != null && change.getFormattedText() != null) {
-                        output.append("\n")
-                              .append("Before:\n")
-                              .append(RED).append("- ").append(change.getOriginalText().replace("\n", "\n- ")).append(RESET).append("\n\n")
-                              .append("After:\n")
-                              .append(GREEN).append("+ ").append(change.getFormattedText().replace("\n", "\n+ ")).append(RESET).append("\n\n");
+                        output.append("\n");
+                        appendDiffLines(output, change.getOriginalText(), RED, "- ");
+                        appendDiffLines(output, change.getFormattedText(), GREEN, "+ ");
+                        output.append("\n");
                     }
                 }
             } else {
@@ -127,6 +126,9 @@ public class ConsoleFormatter implements OutputFormatter {
         output.append("  - Warnings: ").append(YELLOW).append(result.getStats().getWarningCount()).append(RESET).append("\n");
         output.append("  - Info: ").append(BLUE).append(result.getStats().getInfoCount()).append(RESET).append("\n");
         output.append("Formatting changes: ").append(GREEN).append(result.getStats().getFormattingChanges()).append(RESET).append("\n");
+        if (result.getStats().getBaselineSuppressed() > 0) {
+            output.append("Baseline suppressed: ").append(result.getStats().getBaselineSuppressed()).append("\n");
+        }
         
         // Parser usage information
         if (!result.getStats().getParserUsage().isEmpty()) {
@@ -142,6 +144,18 @@ public class ConsoleFormatter implements OutputFormatter {
         return output.toString();
     }
     
+    /**
+     * Append each line of a diff hunk with a colored +/- prefix
+     */
+    private void appendDiffLines(StringBuilder output, String text, String color, String prefix) {
+        if (text.isEmpty()) {
+            return;
+        }
+        for (String line : text.split("\r?\n")) {
+            output.append(color).append(prefix).append(line).append(RESET).append("\n");
+        }
+    }
+    
     @Override
     public String getFileExtension() {
         return "txt";
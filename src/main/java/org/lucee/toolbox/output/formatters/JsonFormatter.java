@@ -35,7 +35,12 @@ public class JsonFormatter implements OutputFormatter {
             stats.put("warningCount", result.getStats().getWarningCount());
             stats.put("infoCount", result.getStats().getInfoCount());
             stats.put("formattingChanges", result.getStats().getFormattingChanges());
+            stats.put("baselineSuppressed", result.getStats().getBaselineSuppressed());
             stats.put("executionTimeMs", result.getStats().getExecutionTimeMs());
+            if (result.getStats().getFileLatencyCount() > 0) {
+                stats.put("fileLatencyP50Ms", result.getStats().getFileLatencyPercentileNanos(50) / 1_000_000.0);
+                stats.put("fileLatencyP99Ms", result.getStats().getFileLatencyPercentileNanos(99) / 1_000_000.0);
+            }
             
             // Add parser usage
             ObjectNode parserUsage = objectMapper.createObjectNode();
@@ -82,6 +87,10 @@ public class JsonFormatter implements OutputFormatter {
                 changeNode.put("endLine", change.getEndLine());
                 changeNode.put("changeType", change.getChangeType());
                 changeNode.put("description", change.getDescription());
+                if (change.getOriginalText() != null && change.getFormattedText() != null) {
+                    changeNode.put("originalText", change.getOriginalText());
+                    changeNode.put("formattedText", change.getFormattedText());
+                }
                 changes.add(changeNode);
             }
             root.set("formattingChanges", changes);
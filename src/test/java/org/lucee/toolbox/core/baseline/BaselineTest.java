@@ -0,0 +1,103 @@
+package org.lucee.toolbox.core.baseline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucee.toolbox.LuceeToolbox;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.model.ToolboxResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaselineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ConfigurationManager configManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        configManager = new ConfigurationManager();
+        configManager.loadConfiguration("lucee-toolbox.json");
+    }
+
+    private ToolboxResult lint(Path file, Baseline baseline, BaselineRecorder recorder) throws IOException {
+        LuceeToolbox toolbox = new LuceeToolbox();
+        toolbox.setBaseline(baseline);
+        toolbox.setBaselineRecorder(recorder);
+        return toolbox.execute(file.toString(), "lint", "auto", "json", null,
+                configManager, false, true, false, false);
+    }
+
+    @Test
+    void testFingerprintIgnoresIndentationAndLineNumber() {
+        long first = ViolationFingerprint.compute("TRAILING_WHITESPACE", "src/User.cfc", "    var x = 1;   ");
+        long shifted = ViolationFingerprint.compute("TRAILING_WHITESPACE", "./src/User.cfc", "\tvar   x = 1;");
+        long otherRule = ViolationFingerprint.compute("MAX_LINE_LENGTH", "src/User.cfc", "var x = 1;");
+
+        assertEquals(first, shifted);
+        assertNotEquals(first, otherRule);
+    }
+
+    @Test
+    void testFingerprintIsStableAcrossReleases() {
+        // Baseline files store these values, so changing the hash would un-baseline every violation
+        assertEquals(0x8f22c14017a52f4aL,
+                ViolationFingerprint.compute("TRAILING_WHITESPACE", "src/User.cfc", "  var x =  1;  "));
+    }
+
+    @Test
+    void testWriteAndLookup() throws IOException {
+        Path baselineFile = tempDir.resolve("baseline.bin");
+        long[] fingerprints = {42L, -7L, 42L, 1000L};
+        Baseline.write(baselineFile, fingerprints, fingerprints.length);
+
+        Baseline baseline = Baseline.open(baselineFile);
+        assertEquals(4, baseline.size());
+        assertEquals(2, baseline.occurrences(42L));
+        assertEquals(1, baseline.occurrences(-7L));
+        assertTrue(baseline.contains(1000L));
+        assertFalse(baseline.contains(43L));
+    }
+
+    @Test
+    void testRejectsInvalidFile() throws IOException {
+        Path bogus = tempDir.resolve("bogus.bin");
+        Files.writeString(bogus, "this is not a baseline file");
+
+        assertThrows(IOException.class, () -> Baseline.open(bogus));
+    }
+
+    @Test
+    void testOnlyNewViolationsAreReported() throws IOException {
+        Path file = tempDir.resolve("legacy.cfc");
+        Files.writeString(file, "component {\n    var a = 1;  \n    var b = 2;  \n}\n");
+
+        // Record the current violations as the baseline
+        BaselineRecorder recorder = new BaselineRecorder();
+        ToolboxResult initial = lint(file, null, recorder);
+        assertFalse(initial.getViolations().isEmpty());
+        assertEquals(initial.getViolations().size(), recorder.size());
+
+        Path baselineFile = tempDir.resolve("lucee-toolbox.baseline");
+        recorder.write(baselineFile);
+
+        // Shift the existing lines down and add one new violation
+        Files.writeString(file, "component {\n\n    // added\n    var a = 1;  \n    var b = 2;  \n    var c = 3;  \n}\n");
+
+        ToolboxResult result = lint(file, Baseline.open(baselineFile), null);
+        List<LintingViolation> violations = result.getViolations();
+
+        assertEquals(1, violations.size(), "Only the new violation should be reported: " + violations);
+        assertEquals("TRAILING_WHITESPACE", violations.get(0).getRuleId());
+        assertEquals(6, violations.get(0).getLine());
+        assertEquals(initial.getViolations().size(), result.getStats().getBaselineSuppressed());
+    }
+}
@@ -0,0 +1,210 @@
+package org.lucee.toolbox.core.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CfmlFormatterTest {
+
+    private final CfmlFormatter formatter = new CfmlFormatter(4, 8, false, 1, true, true);
+
+    @Test
+    void testOperatorSpacingSkipsStringsAndComments() {
+        String input = "component {\n"
+                + "    function f() {\n"
+                + "        var total=a+b*c;\n"
+                + "        var label = \"a-b=c\"; // x=y-z\n"
+                + "        /* keep a-b */\n"
+                + "    }\n"
+                + "}\n";
+        String expected = "component {\n"
+                + "    function f() {\n"
+                + "        var total = a + b * c;\n"
+                + "        var label = \"a-b=c\"; // x=y-z\n"
+                + "        /* keep a-b */\n"
+                + "    }\n"
+                + "}\n";
+
+        assertEquals(expected, formatter.format(input, true));
+    }
+
+    @Test
+    void testCompoundAndUnaryOperators() {
+        String input = "x==-1;\ny+=2;\nz = 1e-5;\ni++;\nreturn -x;\nfoo(-1, a-b);\n";
+        String expected = "x == -1;\ny += 2;\nz = 1e-5;\ni++;\nreturn -x;\nfoo(-1, a - b);\n";
+
+        assertEquals(expected, formatter.format(input, true));
+    }
+
+    @Test
+    void testSignAtTheStartOfATagExpressionIsUnary() {
+        String input = "<cfreturn -1>\n<cfset -x>\n<cfset y=-1>\n";
+        String expected = "<cfreturn -1>\n<cfset -x>\n<cfset y = -1>\n";
+
+        assertEquals(expected, formatter.format(input, false));
+    }
+
+    @Test
+    void testLoopHeaderAssignmentsAreSpacedLikeComparisons() {
+        String input = "for(i=1;i<=10;i++) {\n}\nfoo(name=\"x\");\n";
+        String expected = "for(i = 1;i <= 10;i++) {\n}\nfoo(name=\"x\");\n";
+
+        assertEquals(expected, formatter.format(input, true));
+    }
+
+    @Test
+    void testDeclarationHeaderKeepsAttributeSpacing() {
+        String input = "component accessors=true extends=\"Base\" {\n    property name=\"id\" default=0;\n}\n";
+
+        assertEquals(input, formatter.format(input, true));
+    }
+
+    @Test
+    void testReindentsScriptBlocks() {
+        String input = "component {\n"
+                + "function f() {\n"
+                + "\t\tif (x) {\n"
+                + "  doIt(\n"
+                + "a,\n"
+                + "b\n"
+                + ");\n"
+                + "} else {\n"
+                + "y = 1;\n"
+                + "}\n"
+                + "}\n"
+                + "}";
+        String expected = "component {\n"
+                + "    function f() {\n"
+                + "        if (x) {\n"
+                + "            doIt(\n"
+                + "                a,\n"
+                + "                b\n"
+                + "            );\n"
+                + "        } else {\n"
+                + "            y = 1;\n"
+                + "        }\n"
+                + "    }\n"
+                + "}\n";
+
+        assertEquals(expected, formatter.format(input, true));
+    }
+
+    @Test
+    void testSwitchCaseBodiesAreIndented() {
+        String input = "switch (x) {\ncase \"a\":\ny = 1;\nbreak;\ndefault:\ny = 2;\n}\n";
+        String expected = "switch (x) {\n    case \"a\":\n        y = 1;\n        break;\n"
+                + "    default:\n        y = 2;\n}\n";
+
+        assertEquals(expected, formatter.format(input, true));
+    }
+
+    @Test
+    void testFunctionHeaderAndWrappedConditions() {
+        String input = "public string function f(a=1) localMode=\"true\" {\n"
+                + "    if (a ||\n"
+                + "        b) {\n"
+                + "        total = a\n"
+                + "            .plus(b);\n"
+                + "    }\n"
+                + "}\n";
+
+        assertEquals(input, new CfmlFormatter(4, 4, false, 1, true, true).format(input, true));
+    }
+
+    @Test
+    void testTemplateKeepsMarkupIndentation() {
+        String input = "<cfif x>\n"
+                + "<cfset y=x-1>\n"
+                + "      <div class=\"a-b\">#y#</div>\n"
+                + "  <cfelse>\n"
+                + "    <cfset y = 0 />\n"
+                + "</cfif>\n";
+        String expected = "<cfif x>\n"
+                + "<cfset y = x - 1>\n"
+                + "      <div class=\"a-b\">#y#</div>\n"
+                + "  <cfelse>\n"
+                + "    <cfset y = 0 />\n"
+                + "</cfif>\n";
+
+        assertEquals(expected, formatter.format(input, false));
+    }
+
+    @Test
+    void testCfscriptBlockInTemplate() {
+        String input = "<cfoutput>\n    <cfscript>\nx=1;\n</cfscript>\n</cfoutput>\n";
+        String expected = "<cfoutput>\n    <cfscript>\n        x = 1;\n    </cfscript>\n</cfoutput>\n";
+
+        assertEquals(expected, formatter.format(input, "page.cfm"));
+    }
+
+    @Test
+    void testWhitespaceNormalization() {
+        String input = "a = 1;   \r\n\r\n\r\n\r\nb = 2;\t\r\n\n\n";
+        String expected = "a = 1;\n\nb = 2;\n";
+
+        assertEquals(expected, formatter.format(input, true));
+    }
+
+    @Test
+    void testMultiLineStringIsPreserved() {
+        String input = "x = \"line one   \n   line two-three\";\n";
+
+        assertEquals(input, formatter.format(input, true));
+    }
+
+    @Test
+    void testRangeUsesEnclosingBlockIndentation() {
+        String input = "component {\n"
+                + "    function f() {\n"
+                + "        if (x) {\n"
+                + "y=1;\n"
+                + "      z = 2;\n"
+                + "        }\n"
+                + "    }\n"
+                + "}\n";
+
+        CfmlFormatter.RangeEdit edit = formatter.formatRange(input, 4, 5, true);
+
+        assertEquals("y=1;\n      z = 2;\n", edit.getOriginalText());
+        assertEquals("            y = 1;\n            z = 2;\n", edit.getFormattedText());
+        assertEquals(formatter.format(input, true), edit.applyTo(input));
+    }
+
+    @Test
+    void testRangeLeavesLinesOutsideUntouched() {
+        String input = "a=1;\nfunction f() {\nb=2;\n}\nc=3;\n";
+
+        CfmlFormatter.RangeEdit edit = formatter.formatRange(input, 3, 3, true);
+
+        assertEquals("a=1;\nfunction f() {\n    b = 2;\n}\nc=3;\n", edit.applyTo(input));
+        assertFalse(formatter.formatRange(input, 4, 4, true).hasChanges());
+    }
+
+    @Test
+    void testRangeInsideCfscriptBlock() {
+        String input = "<div>\n  <cfscript>\n  if (a) {\nb=1;\n  }\n</cfscript>\n</div>\n";
+
+        CfmlFormatter.RangeEdit edit = formatter.formatRange(input, 4, 6, false);
+
+        assertEquals("      b = 1;\n  }\n  </cfscript>\n", edit.getFormattedText());
+    }
+
+    @Test
+    void testOffsetsExpandToWholeLines() {
+        String input = "x=1;\ny=2;\nz=3;\n";
+
+        CfmlFormatter.RangeEdit edit = formatter.formatOffsets(input, 6, 8, true);
+
+        assertEquals(2, edit.getStartLine());
+        assertEquals(2, edit.getEndLine());
+        assertEquals("y = 2;\n", edit.getFormattedText());
+    }
+
+    @Test
+    void testSyntaxDetection() {
+        assertTrue(CfmlFormatter.isScriptSyntax("// comment\ncomponent {}"));
+        assertFalse(CfmlFormatter.isScriptSyntax("<!--- header --->\n<cfcomponent>"));
+        assertTrue(CfmlFormatter.isTemplatePath("views/home.cfm"));
+        assertFalse(CfmlFormatter.isTemplatePath("model/User.cfc"));
+    }
+}
@@ -0,0 +1,127 @@
+package org.lucee.toolbox.core.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.FormattingChange;
+import org.lucee.toolbox.core.model.ToolboxResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormattingEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ConfigurationManager configManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        configManager = new ConfigurationManager();
+        configManager.loadConfiguration("lucee-toolbox.json");
+    }
+
+    private ToolboxResult format(Path file, boolean dryRun, boolean backup) throws IOException {
+        FormattingEngine engine = new FormattingEngine(configManager, "auto", false);
+        engine.setDryRun(dryRun);
+        engine.setCreateBackups(backup);
+        return engine.format(file, false, true);
+    }
+
+    @Test
+    void testFormattedContentIsWritten() throws IOException {
+        Path file = tempDir.resolve("Sample.cfc");
+        Files.writeString(file, "component {   \n    x = 1;\n}");
+
+        ToolboxResult result = format(file, false, false);
+
+        assertTrue(result.hasFormattingChanges());
+        assertEquals("component {\n    x = 1;\n}\n", Files.readString(file));
+        assertFalse(Files.exists(tempDir.resolve("Sample.cfc.bak")));
+
+        // File bodies are not retained once they have been written
+        FormattingChange change = result.getFormattingChanges().get(0);
+        assertNull(change.getOriginalText());
+        assertNull(change.getFormattedText());
+    }
+
+    @Test
+    void testDryRunLeavesFileUntouched() throws IOException {
+        Path file = tempDir.resolve("Sample.cfc");
+        String original = "component {   \n}";
+        Files.writeString(file, original);
+
+        ToolboxResult result = format(file, true, false);
+
+        assertTrue(result.hasFormattingChanges());
+        assertEquals(original, Files.readString(file));
+    }
+
+    @Test
+    void testChangesAreReportedPerHunk() throws IOException {
+        Path file = tempDir.resolve("Hunks.cfc");
+        Files.writeString(file, "component {\n    a = 1;   \n    b = 2;\n    c = 3;\n    d=4;\n}\n");
+
+        ToolboxResult result = format(file, true, false);
+
+        assertEquals(2, result.getFormattingChanges().size());
+        FormattingChange first = result.getFormattingChanges().get(0);
+        assertEquals(2, first.getStartLine());
+        assertEquals(2, first.getEndLine());
+        assertEquals("    a = 1;   \n", first.getOriginalText());
+        assertEquals("    a = 1;\n", first.getFormattedText());
+        assertEquals(5, result.getFormattingChanges().get(1).getStartLine());
+    }
+
+    @Test
+    void testRangeFormattingOnlyTouchesRange() throws IOException {
+        Path file = tempDir.resolve("Range.cfc");
+        Files.writeString(file, "component {\n  a=1;\n  b=2;\n  c=3;\n}\n");
+
+        FormattingEngine engine = new FormattingEngine(configManager, "auto", false);
+        ToolboxResult result = engine.formatRange(file, 3, 3);
+
+        assertEquals("component {\n  a=1;\n    b = 2;\n  c=3;\n}\n", Files.readString(file));
+        assertEquals(1, result.getFormattingChanges().size());
+        assertEquals(3, result.getFormattingChanges().get(0).getStartLine());
+    }
+
+    @Test
+    void testBackupAndByteOrderMarkArePreserved() throws IOException {
+        Path file = tempDir.resolve("Bom.cfc");
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = "component {   \n}".getBytes(StandardCharsets.UTF_8);
+        byte[] original = new byte[bom.length + body.length];
+        System.arraycopy(bom, 0, original, 0, bom.length);
+        System.arraycopy(body, 0, original, bom.length, body.length);
+        Files.write(file, original);
+
+        format(file, false, true);
+
+        byte[] written = Files.readAllBytes(file);
+        assertEquals((byte) 0xEF, written[0]);
+        assertEquals((byte) 0xBB, written[1]);
+        assertEquals((byte) 0xBF, written[2]);
+        assertEquals("component {\n}\n", new String(written, 3, written.length - 3, StandardCharsets.UTF_8));
+        assertArrayEquals(original, Files.readAllBytes(tempDir.resolve("Bom.cfc.bak")));
+    }
+
+    @Test
+    void testPerFileLatencyIsRecorded() throws IOException {
+        Files.writeString(tempDir.resolve("A.cfc"), "component {\n}\n");
+        Files.writeString(tempDir.resolve("B.cfc"), "component {   \n}");
+
+        ToolboxResult.ExecutionStats stats = format(tempDir, true, false).getStats();
+
+        assertEquals(2, stats.getFileLatencyCount());
+        assertTrue(stats.getFileLatencyPercentileNanos(50) > 0);
+        assertTrue(stats.getFileLatencyPercentileNanos(99) >= stats.getFileLatencyPercentileNanos(50));
+        assertEquals(0, new ToolboxResult.ExecutionStats().getFileLatencyPercentileNanos(99));
+    }
+}
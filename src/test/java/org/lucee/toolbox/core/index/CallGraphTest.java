@@ -0,0 +1,113 @@
+package org.lucee.toolbox.core.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.engine.LintingEngine;
+import org.lucee.toolbox.core.model.ToolboxResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallGraphTest {
+
+    @TempDir
+    Path projectDir;
+
+    private void write(String relativePath, String... lines) throws IOException {
+        Path file = projectDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, String.join("\n", lines));
+    }
+
+    private void writeProject() throws IOException {
+        write("index.cfm",
+                "<cfset service = createObject(\"component\", \"services.OrderService\")>",
+                "<cfinvoke component=\"services.Mailer\" method=\"send\">");
+        write("services/BaseService.cfc",
+                "component {",
+                "    private function log(message) {}",
+                "    private function unusedHelper() {}",
+                "}");
+        write("services/OrderService.cfc",
+                "component extends=\"BaseService\" {",
+                "    function place() { log(\"placed\"); return new Receipt(); }",
+                "    private function total() {}",
+                "    // total() is only mentioned in a comment",
+                "}");
+        write("services/Receipt.cfc", "component {}");
+        write("services/Mailer.cfc",
+                "<cfcomponent>",
+                "    <cffunction name=\"send\"><cfset format()></cffunction>",
+                "    <cffunction name=\"format\" access=\"private\"></cffunction>",
+                "</cfcomponent>");
+        write("services/Orphan.cfc", "component {}");
+        write("Application.cfc", "component { this.name = \"shop\"; }");
+        write("handlers/Main.cfc", "component extends=\"coldbox.system.EventHandler\" {}");
+    }
+
+    private CallGraph buildGraph() throws IOException {
+        ProjectIndex index = ProjectIndex.inMemory();
+        try (Stream<Path> walk = Files.walk(projectDir)) {
+            index.update(projectDir, walk.filter(Files::isRegularFile).toList(), StandardCharsets.UTF_8, null);
+        }
+        return CallGraph.of(index);
+    }
+
+    @Test
+    void testFindsUnusedPrivateFunctionsAcrossTheHierarchy() throws IOException {
+        writeProject();
+        CallGraph graph = buildGraph();
+
+        ComponentSymbol base = graph.getComponent(projectDir.resolve("services/BaseService.cfc").toString());
+        assertEquals(List.of("unusedHelper"), names(graph.getUnusedPrivateFunctions(base)));
+        ComponentSymbol order = graph.getComponent(projectDir.resolve("services/OrderService.cfc").toString());
+        assertEquals(List.of("total"), names(graph.getUnusedPrivateFunctions(order)));
+        ComponentSymbol mailer = graph.getComponent(projectDir.resolve("services/Mailer.cfc").toString());
+        assertTrue(graph.getUnusedPrivateFunctions(mailer).isEmpty());
+    }
+
+    @Test
+    void testCountsReferencesFromOtherFiles() throws IOException {
+        writeProject();
+        CallGraph graph = buildGraph();
+
+        assertEquals(7, graph.getComponentCount());
+        for (String referenced : List.of("OrderService", "BaseService", "Receipt", "Mailer")) {
+            assertTrue(graph.isReferenced(graph.getComponent(projectDir.resolve("services/" + referenced + ".cfc").toString())),
+                    referenced);
+        }
+        assertFalse(graph.isReferenced(graph.getComponent(projectDir.resolve("services/Orphan.cfc").toString())));
+        assertTrue(graph.hasExternalBase(graph.getComponent(projectDir.resolve("handlers/Main.cfc").toString())));
+    }
+
+    @Test
+    void testProjectRulesRunWhenLintingADirectory() throws IOException {
+        writeProject();
+        ConfigurationManager config = new ConfigurationManager();
+        config.setCachingEnabled(false);
+        config.addRuleOverrides("+UNUSED_PRIVATE_FUNCTION,+DEAD_COMPONENT");
+
+        ToolboxResult result = new LintingEngine(config, "regex", false).lint(projectDir, false, true);
+
+        List<String> reported = result.getViolations().stream()
+                .filter(v -> v.getRuleId().equals("UNUSED_PRIVATE_FUNCTION") || v.getRuleId().equals("DEAD_COMPONENT"))
+                .map(v -> v.getRuleId() + " " + projectDir.relativize(Path.of(v.getFilePath())) + ":" + v.getLine())
+                .sorted()
+                .toList();
+        assertEquals(List.of(
+                "DEAD_COMPONENT services/Orphan.cfc:1",
+                "UNUSED_PRIVATE_FUNCTION services/BaseService.cfc:3",
+                "UNUSED_PRIVATE_FUNCTION services/OrderService.cfc:3"), reported);
+    }
+
+    private static List<String> names(List<FunctionSymbol> functions) {
+        return functions.stream().map(FunctionSymbol::getName).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package org.lucee.toolbox.core.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectIndexTest {
+
+    @TempDir
+    Path projectDir;
+
+    @TempDir
+    Path cacheDir;
+
+    private void write(String relativePath, String content) throws IOException {
+        Path file = projectDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> walk = Files.walk(projectDir)) {
+            return walk.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    private void writeProject() throws IOException {
+        write("models/IRepository.cfc", "interface { public function find(required numeric id); }");
+        write("models/BaseRepository.cfc", String.join("\n",
+                "abstract component implements=\"IRepository\" {",
+                "    property name=\"datasource\" type=\"string\";",
+                "    property string tableName;",
+                "    public function find(required numeric id) { return query(id); }",
+                "    private function query(id) {}",
+                "}"));
+        write("models/UserRepository.cfc", "component extends=\"BaseRepository\" { function init() { return this; } }");
+        write("legacy/Report.cfc", String.join("\n",
+                "<cfcomponent extends=\"models.BaseRepository\" output=\"false\">",
+                "    <cfproperty name=\"title\">",
+                "    <cffunction name=\"render\" access=\"private\" returntype=\"string\">",
+                "        <cfreturn \"\">",
+                "    </cffunction>",
+                "</cfcomponent>"));
+        write("index.cfm", "<cfoutput>#now()#</cfoutput>");
+    }
+
+    @Test
+    void testIndexesScriptAndTagComponents() throws IOException {
+        writeProject();
+        ProjectIndex index = ProjectIndex.inMemory();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The template is read for its references but declares no component
+            assertEquals(5, index.update(projectDir, files(), StandardCharsets.UTF_8, executor));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4, index.size());
+        ComponentSymbol base = index.getComponent("models.BaseRepository");
+        assertTrue(base.isAbstract());
+        assertEquals(List.of("IRepository"), base.getImplementsNames());
+        assertEquals(List.of("datasource", "tableName"), base.getProperties());
+        assertTrue(base.findFunction("query").isPrivate());
+        assertTrue(index.resolve("IRepository", base).isInterface());
+
+        ComponentSymbol report = index.getComponent("legacy.report");
+        assertEquals("models.BaseRepository", report.getExtendsName());
+        assertEquals(List.of("title"), report.getProperties());
+        assertEquals(3, report.findFunction("render").getLine());
+        assertTrue(report.findFunction("render").isPrivate());
+
+        ComponentSymbol user = index.getComponent("models.UserRepository");
+        assertSame(base, index.resolve(user.getExtendsName(), user));
+        assertEquals(List.of(report, user), index.getSubtypes(base));
+    }
+
+    @Test
+    void testSavedIndexOnlyRereadsChangedFiles() throws IOException {
+        writeProject();
+        ProjectIndex first = ProjectIndex.load(cacheDir);
+        first.update(projectDir, files(), StandardCharsets.UTF_8, null);
+        first.save();
+        assertTrue(Files.isRegularFile(cacheDir.resolve(ProjectIndex.FILE_NAME)));
+
+        Path user = projectDir.resolve("models/UserRepository.cfc");
+        Files.writeString(user, "component extends=\"BaseRepository\" { function init() {} function save() {} }");
+        Files.setLastModifiedTime(user, FileTime.fromMillis(Files.getLastModifiedTime(user).toMillis() + 2000));
+        Files.delete(projectDir.resolve("legacy/Report.cfc"));
+
+        ProjectIndex second = ProjectIndex.load(cacheDir);
+        assertEquals(4, second.size());
+        assertEquals(1, second.update(projectDir, files(), StandardCharsets.UTF_8, null));
+        assertEquals(3, second.size());
+        assertNull(second.getComponent("legacy.Report"));
+        assertNotNull(second.getComponent("models.UserRepository").findFunction("save"));
+        assertEquals(List.of("datasource", "tableName"),
+                second.getComponent("models.BaseRepository").getProperties());
+    }
+
+    @Test
+    void testIndexFromAnotherToolboxVersionIsDropped() throws IOException {
+        writeProject();
+        ProjectIndex first = ProjectIndex.load(cacheDir, "1.0.0");
+        first.update(projectDir, files(), StandardCharsets.UTF_8, null);
+        first.save();
+        assertEquals(4, ProjectIndex.load(cacheDir, "1.0.0").size());
+
+        // Unchanged files are indexed again by the new version
+        ProjectIndex upgraded = ProjectIndex.load(cacheDir, "1.0.1");
+        assertEquals(0, upgraded.size());
+        assertEquals(5, upgraded.update(projectDir, files(), StandardCharsets.UTF_8, null));
+        upgraded.save();
+        assertEquals(4, ProjectIndex.load(cacheDir, "1.0.1").size());
+    }
+
+    @Test
+    void testUnreadableIndexStartsEmpty() throws IOException {
+        Files.writeString(cacheDir.resolve(ProjectIndex.FILE_NAME), "not an index");
+        assertEquals(0, ProjectIndex.load(cacheDir).size());
+        assertTrue(ProjectIndex.clear(cacheDir));
+    }
+}
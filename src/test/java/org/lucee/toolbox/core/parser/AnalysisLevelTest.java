@@ -0,0 +1,32 @@
+package org.lucee.toolbox.core.parser;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.parser.impl.LuceeScriptEngineParser;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisLevelTest {
+
+    private static final String SCRIPT = "// note\ncomponent { function run() { return 1; } }";
+
+    @Test
+    void testLevelsCoverTheLevelsBelowThem() {
+        assertTrue(AnalysisLevel.SYNTAX_TREE.covers(AnalysisLevel.OUTLINE));
+        assertTrue(AnalysisLevel.TOKENS.covers(AnalysisLevel.TOKENS));
+        assertFalse(AnalysisLevel.LINES.covers(AnalysisLevel.TOKENS));
+    }
+
+    @Test
+    void testLuceeParserSkipsWorkBelowTheSyntaxTree() throws ParseException {
+        LuceeScriptEngineParser parser = new LuceeScriptEngineParser();
+
+        EnhancedParseResult lines = (EnhancedParseResult) parser.parse(SCRIPT, "Runner.cfc", AnalysisLevel.LINES);
+        assertTrue(lines.getComments().isEmpty());
+        assertTrue(lines.getIssues().isEmpty());
+        assertEquals(2, lines.getLineCount());
+
+        EnhancedParseResult tokens = (EnhancedParseResult) parser.parse(SCRIPT, "Runner.cfc", AnalysisLevel.TOKENS);
+        assertEquals(1, tokens.getComments().size());
+        assertEquals("run", tokens.getOutline().getFunctions().get(0).getName());
+    }
+}
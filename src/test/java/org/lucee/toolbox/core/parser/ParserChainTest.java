@@ -0,0 +1,169 @@
+package org.lucee.toolbox.core.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserChainTest {
+
+    private static final String CONTENT = "component { function run() {} }";
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger strictCalls = new AtomicInteger();
+    private final AtomicInteger brokenCalls = new AtomicInteger();
+    private String strictVersion = "1";
+
+    /**
+     * A "strict" parser that always throws and a "broken" one that cannot run, next to the built-in regex parser
+     */
+    private final ParserFactory factory = new ParserFactory(new ConfigurationManager()) {
+        @Override
+        public CfmlParser createParser(String parserType) {
+            if ("broken".equals(parserType)) {
+                return new CfmlParser() {
+                    @Override
+                    public ParseResult parse(String content, String filePath) {
+                        brokenCalls.incrementAndGet();
+                        throw new IllegalStateException("engine not started");
+                    }
+
+                    @Override
+                    public String getParserType() {
+                        return "broken";
+                    }
+
+                    @Override
+                    public boolean canParse(String content) {
+                        return true;
+                    }
+                };
+            }
+            if (!"strict".equals(parserType)) {
+                return super.createParser(parserType);
+            }
+            return new CfmlParser() {
+                @Override
+                public ParseResult parse(String content, String filePath) throws ParseException {
+                    strictCalls.incrementAndGet();
+                    throw new ParseException("unsupported syntax", filePath, 1, 1);
+                }
+
+                @Override
+                public String getParserType() {
+                    return "strict";
+                }
+
+                @Override
+                public String getImplementationVersion() {
+                    return strictVersion;
+                }
+
+                @Override
+                public boolean canParse(String content) {
+                    return true;
+                }
+            };
+        }
+    };
+
+    @Test
+    void testFallsBackAndRemembersTheFailure() throws ParseException {
+        ParserChain chain = new ParserChain(factory, ParseFailureCache.inMemory());
+
+        ParserChain.Outcome first = chain.parse(CONTENT, "Runner.cfc", List.of("strict", "regex"), AnalysisLevel.SYNTAX_TREE);
+        assertEquals("regex", first.getParserType());
+        assertEquals(1, strictCalls.get());
+
+        ParserChain.Outcome second = chain.parse(CONTENT, "Runner.cfc", List.of("strict", "regex"), AnalysisLevel.SYNTAX_TREE);
+        assertEquals("regex", second.getParserType());
+        assertEquals(1, strictCalls.get());
+
+        // Other content is tried with the first parser again
+        chain.parse("x = 1;", "run.cfs", List.of("strict", "regex"), AnalysisLevel.SYNTAX_TREE);
+        assertEquals(2, strictCalls.get());
+    }
+
+    @Test
+    void testUpgradedParserIsTriedAgain() throws ParseException {
+        ParserChain chain = new ParserChain(factory, ParseFailureCache.inMemory());
+
+        chain.parse(CONTENT, "Runner.cfc", List.of("strict", "regex"), AnalysisLevel.SYNTAX_TREE);
+        strictVersion = "2";
+        chain.parse(CONTENT, "Runner.cfc", List.of("strict", "regex"), AnalysisLevel.SYNTAX_TREE);
+        assertEquals(2, strictCalls.get());
+    }
+
+    @Test
+    void testRuntimeFailuresAreNotPersisted() throws ParseException, IOException {
+        ParseFailureCache cache = ParseFailureCache.load(tempDir);
+        ParserChain chain = new ParserChain(factory, cache);
+
+        chain.parse(CONTENT, "Runner.cfc", List.of("broken", "regex"), AnalysisLevel.SYNTAX_TREE);
+        chain.parse(CONTENT, "Runner.cfc", List.of("broken", "regex"), AnalysisLevel.SYNTAX_TREE);
+        // Skipped for the rest of this run
+        assertEquals(1, brokenCalls.get());
+        assertEquals(0, cache.size());
+        cache.save();
+
+        new ParserChain(factory, ParseFailureCache.load(tempDir))
+                .parse(CONTENT, "Runner.cfc", List.of("broken", "regex"), AnalysisLevel.SYNTAX_TREE);
+        assertEquals(2, brokenCalls.get());
+    }
+
+    @Test
+    void testRethrowsWhenEveryParserFails() {
+        ParserChain chain = new ParserChain(factory, ParseFailureCache.inMemory());
+
+        ParseException e = assertThrows(ParseException.class,
+                () -> chain.parse(CONTENT, "Runner.cfc", List.of("strict"), AnalysisLevel.SYNTAX_TREE));
+        assertEquals("unsupported syntax", e.getMessage());
+        assertThrows(ParseException.class,
+                () -> chain.parse(CONTENT, "Runner.cfc", List.of("strict"), AnalysisLevel.SYNTAX_TREE));
+        assertEquals(2, strictCalls.get());
+    }
+
+    @Test
+    void testFailuresPersistInTheCacheDirectory() throws IOException {
+        ParseFailureCache cache = ParseFailureCache.load(tempDir);
+        cache.recordFailure("boxlang", "1", CONTENT);
+        cache.save();
+
+        ParseFailureCache reloaded = ParseFailureCache.load(tempDir);
+        assertTrue(reloaded.hasFailed("boxlang", "1", CONTENT));
+        assertFalse(reloaded.hasFailed("boxlang", "2", CONTENT));
+        assertFalse(reloaded.hasFailed("regex", "1", CONTENT));
+        assertFalse(reloaded.hasFailed("boxlang", "1", CONTENT + " "));
+
+        assertTrue(ParseFailureCache.clear(tempDir));
+        assertEquals(0, ParseFailureCache.load(tempDir).size());
+    }
+
+    @Test
+    void testCacheFromAnotherToolboxVersionStartsEmpty() throws IOException {
+        ParseFailureCache cache = ParseFailureCache.load(tempDir, "1.0.0");
+        cache.recordFailure("boxlang", "1", CONTENT);
+        cache.save();
+
+        assertEquals(1, ParseFailureCache.load(tempDir, "1.0.0").size());
+        ParseFailureCache upgraded = ParseFailureCache.load(tempDir, "1.0.1");
+        assertEquals(0, upgraded.size());
+        upgraded.save();
+        assertEquals(0, ParseFailureCache.load(tempDir, "1.0.0").size());
+    }
+
+    @Test
+    void testUnreadableCacheStartsEmpty() throws IOException {
+        Files.writeString(tempDir.resolve(ParseFailureCache.FILE_NAME), "not a cache");
+        assertEquals(0, ParseFailureCache.load(tempDir).size());
+    }
+}
@@ -0,0 +1,34 @@
+package org.lucee.toolbox.core.parser;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserFactoryTest {
+
+    private final ParserFactory factory = new ParserFactory(new ConfigurationManager());
+
+    @Test
+    void testParsersAreReusedOnTheSameThread() {
+        CfmlParser parser = factory.createParser("regex");
+
+        assertSame(parser, factory.createParser("REGEX"));
+        assertNull(factory.createParser("unknown"));
+    }
+
+    @Test
+    void testEachThreadGetsItsOwnParser() throws InterruptedException {
+        CfmlParser parser = factory.createParser("regex");
+        AtomicReference<CfmlParser> other = new AtomicReference<>();
+
+        Thread thread = new Thread(() -> other.set(factory.createParser("regex")));
+        thread.start();
+        thread.join();
+
+        assertNotNull(other.get());
+        assertNotSame(parser, other.get());
+    }
+}
@@ -0,0 +1,47 @@
+package org.lucee.toolbox.core.parser;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.rules.LintingRuleEngine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceKindTest {
+
+    @Test
+    void testClassifiesByExtension() {
+        assertEquals(SourceKind.TEMPLATE, SourceKind.of("views/index.cfm", "<cfoutput>#now()#</cfoutput>"));
+        assertEquals(SourceKind.TEMPLATE, SourceKind.of("INDEX.CFML", ""));
+        assertEquals(SourceKind.SCRIPT, SourceKind.of("task.bxs", "x = 1;"));
+        assertEquals(SourceKind.OTHER, SourceKind.of("readme.txt", "component {}"));
+        assertEquals(SourceKind.COMPONENT, SourceKind.of("User.cfc", "component accessors=true {}"));
+    }
+
+    @Test
+    void testTagComponentsSkipLeadingCommentsAndBom() {
+        String tags = "\uFEFF<!--- User bean --->\n<cfcomponent>\n<cffunction name=\"get\"></cffunction>\n</cfcomponent>";
+        assertEquals(SourceKind.TAG_COMPONENT, SourceKind.of("User.cfc", tags));
+
+        String withScript = "<cfcomponent>\n<cfscript>function get() {}</cfscript>\n</cfcomponent>";
+        assertEquals(SourceKind.COMPONENT, SourceKind.of("User.cfc", withScript));
+        assertEquals(SourceKind.COMPONENT, SourceKind.of("User.cfc", "<!--- unterminated"));
+    }
+
+    @Test
+    void testParseResultKindIsCached() {
+        ParseResult result = new ParseResult("Service.cfc", "<cfcomponent></cfcomponent>", true);
+
+        assertEquals(SourceKind.TAG_COMPONENT, result.getSourceKind());
+        assertSame(result.getSourceKind(), result.getSourceKind());
+    }
+
+    @Test
+    void testEngineDispatchesFewerRulesToTemplatesAndTagComponents() {
+        LintingRuleEngine engine = new LintingRuleEngine(new ConfigurationManager());
+        int all = engine.getRules().size();
+
+        assertEquals(all, engine.getRuleCount(SourceKind.COMPONENT));
+        assertTrue(engine.getRuleCount(SourceKind.TEMPLATE) < all);
+        assertTrue(engine.getRuleCount(SourceKind.TAG_COMPONENT) < all);
+    }
+}
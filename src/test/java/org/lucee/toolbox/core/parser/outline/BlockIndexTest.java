@@ -0,0 +1,91 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockIndexTest {
+    
+    private static final String SCRIPT = String.join("\n",
+            "component {",
+            "    function run(a, b) {",
+            "        var s = \"} ) {\"; // }",
+            "        if (len(trim(a))) {",
+            "            /* { */ return s;",
+            "        }",
+            "    }",
+            "}");
+    
+    @Test
+    void testMatchesBracesAndParenthesesOutsideCommentsAndStrings() {
+        BlockIndex blocks = BlockIndex.of(SCRIPT, SourceKind.COMPONENT);
+        
+        // component {, (a, b), run {, (len(trim(a))), len(, trim(, if {
+        assertEquals(7, blocks.size());
+        int component = blocks.blockAt(SCRIPT.indexOf('{'));
+        assertEquals(BlockIndex.Kind.BRACE, blocks.getKind(component));
+        assertEquals(SCRIPT.lastIndexOf('}'), blocks.getEnd(component));
+        assertEquals(8, blocks.getLineSpan(component));
+        assertEquals(-1, blocks.getParent(component));
+        
+        int condition = blocks.blockAt(SCRIPT.indexOf("(len"));
+        assertEquals(BlockIndex.Kind.PAREN, blocks.getKind(condition));
+        assertEquals(SCRIPT.indexOf(") {", SCRIPT.indexOf("(len")), blocks.getEnd(condition));
+        assertEquals(2, blocks.getDepth(condition));
+        
+        int ifBody = blocks.blockAt(SCRIPT.indexOf("{", SCRIPT.indexOf("(len")));
+        assertEquals(4, blocks.getStartLine(ifBody));
+        assertEquals(6, blocks.getEndLine(ifBody));
+        assertEquals(ifBody, blocks.enclosing(SCRIPT.indexOf("return")));
+        assertEquals(-1, blocks.blockAt(SCRIPT.indexOf("/* {") + 3));
+    }
+    
+    @Test
+    void testEnclosingByKind() {
+        BlockIndex blocks = BlockIndex.of(SCRIPT, SourceKind.COMPONENT);
+        
+        int inner = SCRIPT.indexOf("a)))");
+        assertEquals(BlockIndex.Kind.PAREN, blocks.getKind(blocks.enclosing(inner)));
+        int brace = blocks.enclosing(inner, BlockIndex.Kind.BRACE);
+        assertEquals(SCRIPT.indexOf("{", SCRIPT.indexOf("run")), blocks.getStart(brace));
+        assertEquals(-1, blocks.enclosing(0, BlockIndex.Kind.PAREN));
+        assertEquals(-1, blocks.enclosing(SCRIPT.length() + 1));
+    }
+    
+    @Test
+    void testMatchesClosedTagsInMarkup() {
+        String template = String.join("\n",
+                "<!--- <cfif> --->",
+                "<cfoutput>",
+                "  <cfset x = 1>",
+                "  <cfif x GT 0><p>#x#</p><cfelse>none</cfif>",
+                "  <cfinclude template=\"a.cfm\" />",
+                "</cfoutput>",
+                "<cfscript>",
+                "  if (x) { y = 2; }",
+                "</cfscript>");
+        BlockIndex blocks = BlockIndex.of(template, SourceKind.TEMPLATE);
+        
+        // cfoutput, cfif, cfscript, (x), {...}
+        assertEquals(5, blocks.size());
+        int output = blocks.blockAt(template.indexOf("<cfoutput>"));
+        assertEquals(BlockIndex.Kind.TAG, blocks.getKind(output));
+        assertEquals(template.indexOf("</cfoutput>"), blocks.getEnd(output));
+        int cfif = blocks.blockAt(template.indexOf("<cfif x"));
+        assertEquals(output, blocks.getParent(cfif));
+        assertEquals(-1, blocks.blockAt(template.indexOf("<cfset")));
+        
+        int script = blocks.blockAt(template.indexOf("<cfscript>"));
+        int body = blocks.blockAt(template.indexOf("{ y"));
+        assertEquals(script, blocks.getParent(body));
+        assertEquals(BlockIndex.Kind.PAREN, blocks.getKind(blocks.enclosing(template.indexOf("x)"))));
+    }
+    
+    @Test
+    void testParseResultBlocksAreCached() {
+        ParseResult result = new ParseResult("Runner.cfc", SCRIPT, true);
+        assertSame(result.getBlocks(), result.getBlocks());
+    }
+}
@@ -0,0 +1,95 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.parser.ParseComment;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceMaskTest {
+    
+    private static final String SCRIPT = String.join("\n",
+            "/** Docs */",
+            "x = \"a #fn('b')# c\"; // note",
+            "/*",
+            "   var y = 1;",
+            "*/",
+            "z = 'it''s';");
+    
+    @Test
+    void testMasksCommentsAndStringsButNotInterpolation() {
+        SourceMask mask = SourceMask.of(SCRIPT, SourceKind.SCRIPT);
+        
+        assertTrue(mask.isComment(SCRIPT.indexOf("Docs")));
+        assertTrue(mask.isCode(SCRIPT.indexOf("x =")));
+        assertTrue(mask.isString(SCRIPT.indexOf("a #")));
+        assertTrue(mask.isCode(SCRIPT.indexOf("fn(")));
+        assertTrue(mask.isString(SCRIPT.indexOf("'b'")));
+        assertTrue(mask.isString(SCRIPT.indexOf(" c\"")));
+        assertTrue(mask.isCode(SCRIPT.indexOf("; //")));
+        assertTrue(mask.isComment(SCRIPT.indexOf("note")));
+        assertFalse(mask.isCode(SCRIPT.indexOf("var y")));
+        assertTrue(mask.isString(SCRIPT.indexOf("s'")));
+        assertTrue(mask.isCode(SCRIPT.length() - 1));
+    }
+    
+    @Test
+    void testLineQueries() {
+        SourceMask mask = SourceMask.of(SCRIPT, SourceKind.SCRIPT);
+        
+        assertTrue(mask.isLineMasked(1));
+        assertFalse(mask.isLineMasked(2));
+        assertTrue(mask.isLineMasked(4));
+        assertFalse(mask.isLineMasked(6));
+        assertFalse(mask.hasCode(SCRIPT.indexOf("/*\n"), SCRIPT.indexOf("*/\n") + 2));
+    }
+    
+    @Test
+    void testCollectsComments() {
+        List<ParseComment> comments = SourceMask.of(SCRIPT, SourceKind.SCRIPT).getComments(SCRIPT);
+        
+        assertEquals(3, comments.size());
+        assertEquals(ParseComment.CommentType.JAVADOC, comments.get(0).getType());
+        assertEquals("Docs", comments.get(0).getText());
+        assertEquals(ParseComment.CommentType.SINGLE_LINE, comments.get(1).getType());
+        assertEquals(2, comments.get(1).getStartLine());
+        assertEquals("note", comments.get(1).getText());
+        assertEquals(ParseComment.CommentType.MULTI_LINE, comments.get(2).getType());
+        assertEquals(3, comments.get(2).getStartLine());
+        assertEquals(5, comments.get(2).getEndLine());
+        assertEquals("var y = 1;", comments.get(2).getText());
+    }
+    
+    @Test
+    void testMasksTemplateMarkup() {
+        String template = String.join("\n",
+                "<!--- hidden --->",
+                "<p class=\"x\">SET first_name = 'a'</p>",
+                "<cfset total = \"#a#\">",
+                "<!-- html -->",
+                "<cfscript>",
+                "  count = 1;",
+                "</cfscript>");
+        SourceMask mask = SourceMask.of(template, SourceKind.TEMPLATE);
+        
+        assertTrue(mask.isComment(template.indexOf("hidden")));
+        assertTrue(mask.isMarkup(template.indexOf("first_name")));
+        assertTrue(mask.isMarkup(template.indexOf("<p")));
+        assertTrue(mask.isCode(template.indexOf("total")));
+        assertTrue(mask.isString(template.indexOf("\"#a")));
+        assertTrue(mask.isCode(template.indexOf("a#\"")));
+        assertTrue(mask.isComment(template.indexOf("html")));
+        assertTrue(mask.isCode(template.indexOf("count")));
+        assertEquals(ParseComment.CommentType.HTML, mask.getComments(template).get(1).getType());
+        assertEquals(2, mask.getCommentCount());
+    }
+    
+    @Test
+    void testParseResultMaskIsCached() {
+        ParseResult result = new ParseResult("script.cfs", SCRIPT, true);
+        assertSame(result.getMask(), result.getMask());
+    }
+}
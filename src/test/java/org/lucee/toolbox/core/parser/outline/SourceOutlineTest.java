@@ -0,0 +1,105 @@
+package org.lucee.toolbox.core.parser.outline;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.parser.SourceKind;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceOutlineTest {
+    
+    private static final String COMPONENT = String.join("\n",
+            "/**",
+            " * function notAFunction() {}",
+            " */",
+            "component extends=\"Base\" accessors=true name='userService' {",
+            "    public static string function getName(required string id, numeric count = 1, flag) {",
+            "        var s = \"} function fake() {\";",
+            "        if (true) { return s; }",
+            "        return \"#fn('}')#\";",
+            "    }",
+            "",
+            "function init() output=false {",
+            "        // }",
+            "    }",
+            "    public function save(struct data = {a: 1}, required user) {}",
+            "}");
+    
+    @Test
+    void testOutlinesComponentHeaderAndFunctions() {
+        SourceOutline outline = SourceOutline.of(COMPONENT, SourceKind.COMPONENT);
+        
+        ComponentHeader header = outline.getComponent();
+        assertNotNull(header);
+        assertFalse(header.isInterface());
+        assertEquals("Base", header.getAttribute("extends"));
+        assertEquals("true", header.getAttribute("ACCESSORS"));
+        assertEquals("userService", header.getName());
+        assertEquals(4, header.getLine());
+        
+        List<FunctionDeclaration> functions = outline.getFunctions();
+        assertEquals(List.of("getName", "init", "save"), functions.stream().map(FunctionDeclaration::getName).toList());
+        
+        FunctionDeclaration getName = functions.get(0);
+        assertEquals("public", getName.getAccess());
+        assertTrue(getName.isStatic());
+        assertEquals("string", getName.getReturnType());
+        assertEquals(5, getName.getStartLine());
+        assertEquals(9, getName.getEndLine());
+        assertEquals(3, getName.getArguments().size());
+        assertTrue(getName.getArguments().get(0).isRequired());
+        assertEquals("string", getName.getArguments().get(0).getType());
+        assertEquals("1", getName.getArguments().get(1).getDefaultValue());
+        assertNull(getName.getArguments().get(2).getType());
+        assertEquals("flag", getName.getArguments().get(2).getName());
+    }
+    
+    @Test
+    void testDeclarationsAtLineStartAndWithoutReturnType() {
+        SourceOutline outline = SourceOutline.of(COMPONENT, SourceKind.COMPONENT);
+        
+        FunctionDeclaration init = outline.findFunction("INIT");
+        assertEquals(11, init.getStartLine());
+        assertEquals(13, init.getEndLine());
+        assertNull(init.getReturnType());
+        
+        FunctionDeclaration save = outline.findFunction("save");
+        assertEquals("public", save.getAccess());
+        assertNull(save.getReturnType());
+        assertEquals("user", save.getArguments().get(1).getName());
+        assertNull(save.getArguments().get(1).getType());
+        assertEquals("", save.getBody(COMPONENT));
+    }
+    
+    @Test
+    void testInterfacesAndTemplates() {
+        String iface = "interface displayName=\"Repo\" {\n    public any function find(id);\n    void function save(entity);\n}";
+        SourceOutline outline = SourceOutline.of(iface, SourceKind.COMPONENT);
+        assertTrue(outline.getComponent().isInterface());
+        assertTrue(outline.hasOnlyBodilessFunctions());
+        assertEquals("void", outline.findFunction("save").getReturnType());
+        
+        String template = "<p>Don't function here(</p>\n<cfscript>\nfunction helper() { return 1; }\n</cfscript>";
+        SourceOutline templateOutline = SourceOutline.of(template, SourceKind.TEMPLATE);
+        assertNull(templateOutline.getComponent());
+        assertEquals(1, templateOutline.getFunctions().size());
+        assertEquals(3, templateOutline.findFunction("helper").getStartLine());
+        
+        assertTrue(SourceOutline.of("<cfcomponent><cffunction name=\"x\"></cffunction></cfcomponent>",
+                SourceKind.TAG_COMPONENT).getFunctions().isEmpty());
+    }
+    
+    @Test
+    void testParseResultOutlineIsCachedAndPositionsResolve() {
+        ParseResult result = new ParseResult("UserService.cfc", COMPONENT, true);
+        SourceOutline outline = result.getOutline();
+        
+        assertSame(outline, result.getOutline());
+        int nameOffset = outline.findFunction("getName").getNameOffset();
+        assertEquals(5, outline.lineOf(nameOffset));
+        assertEquals(35, outline.columnOf(nameOffset));
+        assertEquals(1, outline.lineOf(0));
+    }
+}
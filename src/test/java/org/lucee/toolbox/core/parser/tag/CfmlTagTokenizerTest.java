@@ -0,0 +1,129 @@
+package org.lucee.toolbox.core.parser.tag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CfmlTagTokenizerTest {
+    
+    /**
+     * Records events as readable strings
+     */
+    private static List<String> events(String source) {
+        List<String> events = new ArrayList<>();
+        CfmlTagTokenizer.tokenize(source, new TagHandler() {
+            @Override
+            public void text(int start, int end) {
+                events.add("text:" + source.substring(start, end));
+            }
+            
+            @Override
+            public void comment(int start, int end) {
+                events.add("comment:" + source.substring(start, end));
+            }
+            
+            @Override
+            public void startTag(int start, int nameStart, int nameEnd) {
+                events.add("start:" + source.substring(nameStart, nameEnd));
+            }
+            
+            @Override
+            public void attribute(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+                events.add("attr:" + source.substring(nameStart, nameEnd)
+                        + (valueStart < 0 ? "" : "=" + source.substring(valueStart, valueEnd)));
+            }
+            
+            @Override
+            public void expression(int start, int end) {
+                events.add("expr:" + source.substring(start, end));
+            }
+            
+            @Override
+            public void startTagEnd(int end, boolean selfClosing) {
+                events.add(selfClosing ? "/>" : ">");
+            }
+            
+            @Override
+            public void endTag(int start, int nameStart, int nameEnd, int end) {
+                events.add("end:" + source.substring(nameStart, nameEnd));
+            }
+            
+            @Override
+            public void script(int start, int end) {
+                events.add("script:" + source.substring(start, end));
+            }
+        });
+        return events;
+    }
+    
+    @Test
+    void testReportsTagsAttributesAndText() {
+        List<String> events = events("<p class=\"a\">Hi</p><cfinclude template=\"#dir#/a.cfm\" runOnce />done");
+        
+        assertEquals(List.of(
+                "text:<p class=\"a\">Hi</p>",
+                "start:cfinclude",
+                "attr:template=#dir#/a.cfm",
+                "expr:dir",
+                "attr:runOnce",
+                "/>",
+                "text:done"), events);
+    }
+    
+    @Test
+    void testExpressionTagsAndNestedComments() {
+        List<String> events = events("<!--- a <!--- b ---> c ---><cfset x = \"a>b\" & fn(y > 1)><cfif x GT 1 />");
+        
+        assertEquals(List.of(
+                "comment:<!--- a <!--- b ---> c --->",
+                "start:cfset",
+                "expr:x = \"a>b\" & fn(y > 1)",
+                ">",
+                "start:cfif",
+                "expr:x GT 1",
+                "/>"), events);
+    }
+    
+    @Test
+    void testInterpolatesOnlyInsideOutputTags() {
+        List<String> events = events("#skip#<cfoutput>a #name# b ## c</cfoutput>#skip#");
+        
+        assertEquals(List.of(
+                "text:#skip#",
+                "start:cfoutput",
+                ">",
+                "text:a ",
+                "expr:name",
+                "text:#",
+                "text: b ##",
+                "text: c",
+                "end:cfoutput",
+                "text:#skip#"), events);
+    }
+    
+    @Test
+    void testScriptBodiesAndBoxLangTags() {
+        List<String> events = events("<CFSCRIPT>x = '<cfset>';</CFSCRIPT><bx:output>#y#</bx:output>");
+        
+        assertEquals(List.of(
+                "start:CFSCRIPT",
+                ">",
+                "script:x = '<cfset>';",
+                "end:CFSCRIPT",
+                "start:bx:output",
+                ">",
+                "expr:y",
+                "text:#",
+                "end:bx:output"), events);
+    }
+    
+    @Test
+    void testUnterminatedInputEndsCleanly() {
+        assertEquals(List.of("start:cfparam", "attr:name=a", ">"), events("<cfparam name=\"a"));
+        assertEquals(List.of("text:<cf"), events("<cf"));
+        assertEquals(List.of("start:cfscript", ">", "script:x = 1;"), events("<cfscript>x = 1;"));
+    }
+}
@@ -0,0 +1,79 @@
+package org.lucee.toolbox.core.rules;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.parser.ParseResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntraFileParallelismTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testParallelRunMatchesSequentialRun() throws IOException {
+        String content = largeComponent(3000);
+        
+        List<String> sequential = analyze(config(false), content);
+        List<String> parallel = analyze(config(true), content);
+        
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, parallel);
+    }
+    
+    @Test
+    void testEmptyLineRunsAcrossRangeBoundariesAreReportedOnce() {
+        LineRule rule = new LintingRuleEngine.BasicEmptyLineRule(new ConfigurationManager());
+        String content = "a\n\n\n\n\n\nb\nc";
+        ParseResult parseResult = new ParseResult("Test.cfc", content, true);
+        String[] lines = parseResult.getLines();
+        
+        List<LintingViolation> whole = rule.analyzeLines(parseResult, lines, 0, lines.length);
+        List<LintingViolation> first = rule.analyzeLines(parseResult, lines, 0, 3);
+        List<LintingViolation> second = rule.analyzeLines(parseResult, lines, 3, lines.length);
+        
+        assertEquals(1, whole.size());
+        assertTrue(first.isEmpty());
+        assertEquals(1, second.size());
+        assertEquals(whole.get(0).getMessage(), second.get(0).getMessage());
+        assertEquals(whole.get(0).getLine(), second.get(0).getLine());
+    }
+    
+    private ConfigurationManager config(boolean parallel) throws IOException {
+        Path configFile = tempDir.resolve("parallel-" + parallel + ".json");
+        Files.writeString(configFile, "{\"performance\": {\"intraFileParallelism\": " + parallel
+                + ", \"intraFileThreshold\": 1}}");
+        ConfigurationManager config = new ConfigurationManager();
+        config.loadConfiguration(configFile.toString());
+        return config;
+    }
+    
+    private static List<String> analyze(ConfigurationManager config, String content) {
+        LintingRuleEngine engine = new LintingRuleEngine(config);
+        ParseResult parseResult = new ParseResult("Large.cfc", content, true);
+        return engine.analyzeFile(parseResult, "Large.cfc").stream()
+                .map(v -> v.getRuleId() + ":" + v.getLine() + ":" + v.getColumn() + ":" + v.getMessage())
+                .collect(Collectors.toList());
+    }
+    
+    private static String largeComponent(int functions) {
+        StringBuilder content = new StringBuilder("component {\n");
+        for (int i = 0; i < functions; i++) {
+            content.append("    function Get_Item").append(i).append("(id) { \n");
+            content.append("        var Result = \"").append("x".repeat(i % 150)).append("\";\n");
+            content.append("\n\n\n\n");
+            content.append("        return Result;\n");
+            content.append("    }\n");
+        }
+        return content.append("}\n").toString();
+    }
+}
@@ -0,0 +1,28 @@
+package org.lucee.toolbox.core.rules;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.parser.ParseResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequiredLiteralsTest {
+    
+    @Test
+    void testFileNameChecksAreNotPrefiltered() {
+        ConfigurationManager config = new ConfigurationManager();
+        config.setRuleSet("minimal");
+        config.addRuleOverrides("+ABSTRACT_SUFFIX");
+        LintingRuleEngine engine = new LintingRuleEngine(config);
+        // Nothing in the content says abstract, only the file name does
+        String content = "component accessors=\"true\" {\n    property name=\"id\";\n}\n";
+        ParseResult parseResult = new ParseResult("model/BaseEntity.cfc", content, true);
+        
+        List<LintingViolation> violations = engine.analyzeFile(parseResult, "model/BaseEntity.cfc");
+        
+        assertTrue(violations.stream().anyMatch(v -> v.getRuleId().equals("ABSTRACT_SUFFIX")), violations.toString());
+    }
+}
@@ -0,0 +1,102 @@
+package org.lucee.toolbox.core.rules;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.parser.AnalysisLevel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStandardRuleSetActivatesEveryDefaultRule() {
+        ConfigurationManager config = new ConfigurationManager();
+
+        int standard = RuleRegistry.getRuleSet("standard").size();
+        assertEquals(standard, RuleRegistry.createActiveRules(config).size());
+        assertEquals(standard, new LintingRuleEngine(config).getRules().size());
+    }
+
+    @Test
+    void testOptInRulesAreOnlyInStrictOrAddedByOverride() {
+        assertFalse(RuleRegistry.getRuleSet("standard").contains("TAG_CASE"));
+        assertEquals(RuleRegistry.getDefinitions().size(), RuleRegistry.getRuleSet("strict").size());
+
+        ConfigurationManager config = new ConfigurationManager();
+        config.addRuleOverrides("+TAG_CASE");
+        assertTrue(RuleRegistry.resolveSelection(config).contains("TAG_CASE"));
+        assertFalse(RuleRegistry.resolveSelection(config).contains("ATTRIBUTE_CASE"));
+    }
+
+    @Test
+    void testEngineAsksForTheHighestLevelOfItsRules() {
+        ConfigurationManager config = new ConfigurationManager();
+        assertEquals(AnalysisLevel.OUTLINE, new LintingRuleEngine(config).getAnalysisLevel());
+
+        // Whitespace and length rules only need the lines, so no parser does any work
+        config.setRuleSet("minimal");
+        config.addRuleOverrides("-REQUIRE_CURLY_BRACES");
+        assertEquals(AnalysisLevel.LINES, new LintingRuleEngine(config).getAnalysisLevel());
+    }
+
+    @Test
+    void testOverridesApplyOnTopOfTheRuleSet() {
+        ConfigurationManager config = new ConfigurationManager();
+        config.setRuleSet("MINIMAL");
+        config.addRuleOverrides("+function_naming, -TRAILING_WHITESPACE");
+
+        Set<String> selected = RuleRegistry.resolveSelection(config);
+
+        assertTrue(selected.contains("FUNCTION_NAMING"));
+        assertFalse(selected.contains("TRAILING_WHITESPACE"));
+        assertTrue(selected.contains("MAX_LINE_LENGTH"));
+        assertFalse(selected.contains("VARIABLE_NAMING"));
+    }
+
+    @Test
+    void testUnknownRuleSetAndRuleAreRejected() {
+        ConfigurationManager config = new ConfigurationManager();
+        config.setRuleSet("lenient");
+        assertThrows(IllegalArgumentException.class, () -> RuleRegistry.resolveSelection(config));
+
+        ConfigurationManager other = new ConfigurationManager();
+        other.addRuleOverrides("+NO_SUCH_RULE");
+        assertThrows(IllegalArgumentException.class, () -> RuleRegistry.resolveSelection(other));
+    }
+
+    @Test
+    void testRulesDisabledByConfigurationAreNotCreated() throws IOException {
+        Path configFile = tempDir.resolve("lucee-toolbox.json");
+        Files.writeString(configFile, "{\"linting\": {"
+                + "\"ruleOverrides\": [\"-CONSTANT_NAMING\"],"
+                + "\"rules\": {"
+                + "\"whitespace\": {\"trimTrailingWhitespace\": false},"
+                + "\"naming\": {\"variableCase\": \"snake_case\", \"interfacePrefix\": \"\"},"
+                + "\"codeStructure\": {\"maxLineLength\": 0, \"requireInit\": false}}}}");
+        ConfigurationManager config = new ConfigurationManager();
+        config.loadConfiguration(configFile.toString());
+
+        List<String> active = RuleRegistry.createActiveRules(config).stream()
+                .map(LintingRule::getRuleId)
+                .collect(Collectors.toList());
+
+        assertFalse(active.contains("TRAILING_WHITESPACE"));
+        assertFalse(active.contains("VARIABLE_NAMING"));
+        assertFalse(active.contains("INTERFACE_PREFIX"));
+        assertFalse(active.contains("MAX_LINE_LENGTH"));
+        assertFalse(active.contains("REQUIRE_INIT"));
+        assertFalse(active.contains("CONSTANT_NAMING"));
+        assertTrue(active.contains("FUNCTION_NAMING"));
+    }
+}
@@ -0,0 +1,46 @@
+package org.lucee.toolbox.core.rules;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.parser.ParseResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagAwareRuleTest {
+    
+    private static final String TEMPLATE = String.join("\n",
+            "<CFOUTPUT>",
+            "  <cfloop From=\"1\" to=\"3\" index=\"i\">#i#</cfloop>",
+            "</CFOUTPUT>");
+    
+    @Test
+    void testSharedPassReportsWhatEachRuleReportsAlone() {
+        ConfigurationManager config = new ConfigurationManager();
+        config.setRuleSet("minimal");
+        config.addRuleOverrides("+TAG_CASE, +ATTRIBUTE_CASE");
+        LintingRuleEngine engine = new LintingRuleEngine(config);
+        ParseResult parseResult = new ParseResult("page.cfm", TEMPLATE, true);
+        
+        List<String> shared = ids(engine.analyzeFile(parseResult, "page.cfm"));
+        List<LintingViolation> alone = new ArrayList<>();
+        for (LintingRule rule : engine.getRules()) {
+            alone.addAll(rule.analyze(parseResult));
+        }
+        
+        assertEquals(ids(alone), shared);
+        assertEquals(List.of("TAG_CASE:1:2", "TAG_CASE:3:3", "ATTRIBUTE_CASE:2:11"), shared.stream()
+                .filter(id -> id.contains("_CASE"))
+                .collect(Collectors.toList()));
+    }
+    
+    private static List<String> ids(List<LintingViolation> violations) {
+        return violations.stream()
+                .map(v -> v.getRuleId() + ":" + v.getLine() + ":" + v.getColumn())
+                .collect(Collectors.toList());
+    }
+}
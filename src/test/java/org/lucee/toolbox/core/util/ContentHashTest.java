@@ -0,0 +1,28 @@
+package org.lucee.toolbox.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentHashTest {
+
+    @Test
+    void testEqualContentsHashEqually() {
+        assertEquals(ContentHash.of("x = \"#a#\\\\b\";"), ContentHash.of("x = \"#a#\\\\b\";"));
+        assertEquals(ContentHash.of("lucee", "x"), ContentHash.of("lucee", "x"));
+    }
+
+    @Test
+    void testContextAndContentAreKeptApart() {
+        assertNotEquals(ContentHash.of("x = 1;"), ContentHash.of("x = 2;"));
+        assertNotEquals(ContentHash.of("lucee", "x"), ContentHash.of("boxlang", "x"));
+        assertNotEquals(ContentHash.of("ab", "c"), ContentHash.of("a", "bc"));
+        assertNotEquals(ContentHash.of("Ā"), ContentHash.of("\u0001"));
+    }
+
+    @Test
+    void testIncrementalHashingMatches() {
+        long hash = ContentHash.hashChars(ContentHash.separate(ContentHash.hashChars(ContentHash.start(), "lucee")), "x");
+        assertEquals(ContentHash.of("lucee", "x"), ContentHash.finish(hash));
+    }
+}
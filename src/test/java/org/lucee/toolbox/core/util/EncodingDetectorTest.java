@@ -170,4 +170,33 @@ class EncodingDetectorTest {
         String encodingName = EncodingDetector.detectEncodingName(file);
         assertEquals("UTF-8", encodingName);
     }
+
+    @Test
+    void testDecodedFileRoundTripPreservesBOM() throws IOException {
+        String content = "component {\n    // Größe\n}\n";
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_16LE);
+        byte[] fileBytes = new byte[contentBytes.length + 2];
+        fileBytes[0] = (byte) 0xFF;
+        fileBytes[1] = (byte) 0xFE;
+        System.arraycopy(contentBytes, 0, fileBytes, 2, contentBytes.length);
+
+        Path file = tempDir.resolve("utf16le_roundtrip.cfc");
+        Files.write(file, fileBytes);
+
+        EncodingDetector.DecodedFile decoded = EncodingDetector.readFile(file, StandardCharsets.UTF_8);
+        assertEquals(content, decoded.getContent());
+        assertTrue(decoded.hasByteOrderMark());
+        assertArrayEquals(fileBytes, decoded.encode(decoded.getContent()));
+    }
+
+    @Test
+    void testDecodedFileRoundTripISO88591() throws IOException {
+        String content = "<cfset name = \"café\">";
+        Path file = tempDir.resolve("iso_roundtrip.cfm");
+        Files.writeString(file, content, StandardCharsets.ISO_8859_1);
+
+        EncodingDetector.DecodedFile decoded = EncodingDetector.readFile(file, StandardCharsets.UTF_8);
+        assertFalse(decoded.hasByteOrderMark());
+        assertArrayEquals(Files.readAllBytes(file), decoded.encode(decoded.getContent()));
+    }
 }
@@ -0,0 +1,93 @@
+package org.lucee.toolbox.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineDiffTest {
+
+    @Test
+    void testIdenticalTextsHaveNoHunks() {
+        assertTrue(LineDiff.of("a\nb\nc\n", "a\nb\nc\n").isEmpty());
+        assertTrue(LineDiff.of("", "").isEmpty());
+    }
+
+    @Test
+    void testSingleLineChangeIsOneHunk() {
+        LineDiff diff = LineDiff.of("a\nb\nc\nd\n", "a\nb\nX\nd\n");
+        List<LineDiff.Hunk> hunks = diff.getHunks();
+
+        assertEquals(1, hunks.size());
+        LineDiff.Hunk hunk = hunks.get(0);
+        assertEquals(2, hunk.getOriginalStart());
+        assertEquals(3, hunk.getOriginalEnd());
+        assertEquals("c\n", diff.originalText(hunk));
+        assertEquals("X\n", diff.revisedText(hunk));
+    }
+
+    @Test
+    void testInsertionsAndDeletionsAreSeparateHunks() {
+        LineDiff diff = LineDiff.of("a\nb\nc\nd\ne\n", "a\nnew\nb\nc\ne\n");
+        List<LineDiff.Hunk> hunks = diff.getHunks();
+
+        assertEquals(2, hunks.size());
+        assertEquals(0, hunks.get(0).getOriginalLineCount());
+        assertEquals("new\n", diff.revisedText(hunks.get(0)));
+        assertEquals(0, hunks.get(1).getRevisedLineCount());
+        assertEquals("d\n", diff.originalText(hunks.get(1)));
+    }
+
+    @Test
+    void testMissingFinalNewlineIsAChange() {
+        LineDiff diff = LineDiff.of("a\nb", "a\nb\n");
+
+        assertEquals(1, diff.getHunks().size());
+        assertEquals(1, diff.getHunks().get(0).getOriginalStart());
+    }
+
+    @Test
+    void testEditScriptIsMinimal() {
+        // Classic example from Myers' paper: ABCABBA -> CBABAC has edit distance 5
+        int[] a = {0, 1, 2, 0, 1, 1, 0};
+        int[] b = {2, 1, 0, 1, 0, 2};
+        int edits = 0;
+        for (LineDiff.Hunk hunk : LineDiff.diff(a, b)) {
+            edits += hunk.getOriginalLineCount() + hunk.getRevisedLineCount();
+        }
+
+        assertEquals(5, edits);
+    }
+
+    @Test
+    void testHunksReconstructRevisedText() {
+        StringBuilder original = new StringBuilder();
+        StringBuilder revised = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            original.append("line ").append(i).append('\n');
+            if (i % 97 == 0) {
+                revised.append("changed ").append(i).append('\n');
+            } else if (i % 89 != 0) {
+                revised.append("line ").append(i).append('\n');
+            }
+        }
+
+        LineDiff diff = LineDiff.of(original.toString(), revised.toString());
+        String[] originalLines = original.toString().split("\n", -1);
+        StringBuilder rebuilt = new StringBuilder();
+        int next = 0;
+        for (LineDiff.Hunk hunk : diff.getHunks()) {
+            for (int i = next; i < hunk.getOriginalStart(); i++) {
+                rebuilt.append(originalLines[i]).append('\n');
+            }
+            rebuilt.append(diff.revisedText(hunk));
+            next = hunk.getOriginalEnd();
+        }
+        for (int i = next; i < originalLines.length - 1; i++) {
+            rebuilt.append(originalLines[i]).append('\n');
+        }
+
+        assertEquals(revised.toString(), rebuilt.toString());
+    }
+}
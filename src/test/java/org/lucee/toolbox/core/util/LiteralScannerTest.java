@@ -0,0 +1,73 @@
+package org.lucee.toolbox.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiteralScannerTest {
+
+    @Test
+    void testFindsPresentLiteralsIgnoringCase() {
+        LiteralScanner scanner = new LiteralScanner(Arrays.asList("interface", "Component", "property"));
+        BitSet found = scanner.scan("/** Service */\nCOMPONENT accessors=true {\n    Property name=\"id\";\n}");
+
+        assertTrue(found.get(scanner.indexOf("component")));
+        assertTrue(found.get(scanner.indexOf("PROPERTY")));
+        assertFalse(found.get(scanner.indexOf("interface")));
+        assertEquals(-1, scanner.indexOf("function"));
+    }
+
+    @Test
+    void testOverlappingAndNestedLiterals() {
+        LiteralScanner scanner = new LiteralScanner(Arrays.asList("var", "variables.", "arial", "he", "she", "hers"));
+        BitSet found = scanner.scan("ushers variables");
+
+        // "variables" without the dot still contains "var" and "aria" is not "arial"
+        assertTrue(found.get(scanner.indexOf("var")));
+        assertFalse(found.get(scanner.indexOf("variables.")));
+        assertFalse(found.get(scanner.indexOf("arial")));
+        assertTrue(found.get(scanner.indexOf("she")));
+        assertTrue(found.get(scanner.indexOf("he")));
+        assertTrue(found.get(scanner.indexOf("hers")));
+    }
+
+    @Test
+    void testNonAsciiTextBreaksMatches() {
+        LiteralScanner scanner = new LiteralScanner(Arrays.asList("function"));
+
+        assertTrue(scanner.scan("café function").get(0));
+        assertFalse(scanner.scan("funcétion").get(0));
+        assertFalse(scanner.scan("").get(0));
+    }
+
+    @Test
+    void testRejectsNonAsciiLiterals() {
+        assertThrows(IllegalArgumentException.class, () -> new LiteralScanner(Arrays.asList("café")));
+        assertThrows(IllegalArgumentException.class, () -> new LiteralScanner(Arrays.asList("")));
+    }
+
+    @Test
+    void testAgreesWithIndexOfOnRandomText() {
+        List<String> literals = Arrays.asList("ab", "abc", "bca", "cab", "aab", "c", "bbbb");
+        LiteralScanner scanner = new LiteralScanner(literals);
+        Random random = new Random(42);
+
+        for (int round = 0; round < 500; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                text.append("abcAB".charAt(random.nextInt(5)));
+            }
+            BitSet found = scanner.scan(text);
+            String lower = text.toString().toLowerCase();
+            for (String literal : literals) {
+                assertEquals(lower.contains(literal), found.get(scanner.indexOf(literal)), literal + " in " + text);
+            }
+        }
+    }
+}
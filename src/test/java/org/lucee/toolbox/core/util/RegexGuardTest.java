@@ -0,0 +1,68 @@
+package org.lucee.toolbox.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.lucee.toolbox.core.config.ConfigurationManager;
+import org.lucee.toolbox.core.model.LintingViolation;
+import org.lucee.toolbox.core.parser.ParseResult;
+import org.lucee.toolbox.core.rules.LintingRuleEngine;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegexGuardTest {
+    
+    // Rescans to the end of the input from every start position, quadratic in its length
+    private static final Pattern RESCANNING = Pattern.compile("a*b");
+    
+    @Test
+    void testBacktrackingMatchAbortsWhenBudgetIsSpent() {
+        String input = "a".repeat(5000);
+        
+        RegexBudgetExceededException e = assertThrows(RegexBudgetExceededException.class,
+                () -> RegexGuard.withBudget(100_000, () -> RegexGuard.matcher(RESCANNING, input).find()));
+        
+        assertEquals(100_000, e.getBudget());
+        assertTrue(e.getMessage().contains("budget of 100000"));
+    }
+    
+    @Test
+    void testMatchesWithinBudgetBehaveAsUnguarded() {
+        Pattern pattern = Pattern.compile("function\\s+(\\w+)");
+        String input = "function foo() {} function bar() {}";
+        
+        Matcher matcher = RegexGuard.withBudget(1_000, () -> {
+            Matcher m = RegexGuard.matcher(pattern, input);
+            assertTrue(m.find());
+            assertEquals("foo", m.group(1));
+            return m;
+        });
+        
+        assertTrue(matcher.find());
+        assertEquals("bar", matcher.group(1));
+        assertEquals("function x() {}", RegexGuard.matcher(pattern, "function y() {}").replaceAll("function x"));
+    }
+    
+    @Test
+    void testMatchersOutsideABudgetAreUnguarded() {
+        RegexGuard.withBudget(10, () -> null);
+        
+        assertTrue(RegexGuard.matcher(Pattern.compile("b"), "a".repeat(1000) + "b").find());
+    }
+    
+    @Test
+    void testEngineReportsRunawayRuleAsExecutionError() {
+        // Unterminated function bodies make the function pattern rescan to the end from every declaration
+        String content = "component {\n" + "function a(){ x=1;\n".repeat(20000);
+        ParseResult parseResult = new ParseResult("Minified.cfc", content, true);
+        
+        List<LintingViolation> violations = new LintingRuleEngine(new ConfigurationManager())
+                .analyzeFile(parseResult, "Minified.cfc");
+        
+        assertTrue(violations.stream().anyMatch(v -> "RULE_EXECUTION_ERROR".equals(v.getRuleId())
+                && v.getMessage().contains("regex exceeded its budget")
+                && v.getMessage().contains(" ms")));
+    }
+}
@@ -0,0 +1,13 @@
+#!/bin/bash
+
+# Generate a synthetic CFML corpus for scale testing.
+# Output defaults to test-files/generated (ignored by git); all generator options pass through, e.g.
+#   test-files/generate-corpus.sh --files 100000 --seed 7 --violations 0.5
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+GENERATOR="$SCRIPT_DIR/../benchmarks/src/main/java/org/lucee/toolbox/benchmarks/CorpusGenerator.java"
+
+# The generator depends on the JDK only, so it runs straight from source
+exec java "$GENERATOR" --out "$SCRIPT_DIR/generated" "$@"